@@ -118,6 +118,15 @@ public class Planner extends FrameworkObject
 		return this.pdb.toString();
 	}
 
+	/**
+	 * Ask the planner to stop searching. The method can be called from any thread and the
+	 * planning process ends with a NoSolutionFoundException unless a solution has been found
+	 */
+	public void cancel() {
+		// cancel search
+		this.solver.cancel();
+	}
+	
 	/**
 	 * 
 	 */
@@ -1,10 +1,16 @@
 package it.cnr.istc.pst.platinum.ai.deliberative;
 
 import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
 
 import it.cnr.istc.pst.platinum.ai.deliberative.heuristic.FlawSelectionHeuristic;
 import it.cnr.istc.pst.platinum.ai.deliberative.solver.Solver;
 import it.cnr.istc.pst.platinum.ai.deliberative.strategy.SearchStrategy;
+import it.cnr.istc.pst.platinum.ai.framework.domain.PlanDataBaseBuilder;
 import it.cnr.istc.pst.platinum.ai.framework.domain.component.PlanDataBase;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.annotation.cfg.FrameworkLoggerConfiguration;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.annotation.cfg.deliberative.FlawSelectionHeuristicsConfiguration;
@@ -16,6 +22,8 @@ import it.cnr.istc.pst.platinum.ai.framework.microkernel.annotation.inject.delib
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.annotation.inject.deliberative.SearchStrategyPlaceholder;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.annotation.inject.framework.PlanDataBasePlaceholder;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.annotation.lifecycle.PostConstruct;
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.ex.ProblemInitializationException;
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.ex.SynchronizationCycleException;
 import it.cnr.istc.pst.platinum.ai.framework.utils.log.FrameworkLogger;
 import it.cnr.istc.pst.platinum.ai.framework.utils.log.FrameworkLoggingLevel;
 import it.cnr.istc.pst.platinum.ai.framework.utils.reflection.FrameworkReflectionUtils;
@@ -188,6 +196,64 @@ public class PlannerBuilder
 		return planner;
 	}
 	
+	/**
+	 * Create a portfolio of planners solving the planning problem in parallel. A plan database
+	 * is compiled for each planner class. Planner classes are expected to differ in the search
+	 * strategy and flaw selection heuristic configurations
+	 * 
+	 * @param pClasses
+	 * @param ddl
+	 * @param pdl
+	 * @return
+	 * @throws SynchronizationCycleException
+	 * @throws ProblemInitializationException
+	 */
+	public synchronized static PortfolioPlanner createPortfolio(List<Class<? extends Planner>> pClasses, String ddl, String pdl)
+			throws SynchronizationCycleException, ProblemInitializationException
+	{
+		// create a plan database for each planner
+		List<PlanDataBase> pdbs = new ArrayList<>();
+		for (int i = 0; i < pClasses.size(); i++) {
+			// compile domain and problem
+			pdbs.add(PlanDataBaseBuilder.createAndSet(ddl, pdl));
+		}
+		
+		// create portfolio
+		return PlannerBuilder.createPortfolio(pClasses, pdbs);
+	}
+	
+	/**
+	 * Create a portfolio of planners solving the same planning problem in parallel. Each planner
+	 * must work on its own plan database so the i-th planner class is set on the i-th plan database
+	 * 
+	 * @param pClasses
+	 * @param pdbs
+	 * @return
+	 */
+	public synchronized static PortfolioPlanner createPortfolio(List<Class<? extends Planner>> pClasses, List<PlanDataBase> pdbs)
+	{
+		// check portfolio
+		if (pClasses.isEmpty() || pClasses.size() != pdbs.size()) {
+			throw new RuntimeException("Error while creating planner portfolio:\n- message: a plan database is expected for each planner class\n");
+		}
+		
+		// check plan databases (compiled plan databases have the same name so check references)
+		Set<PlanDataBase> set = Collections.newSetFromMap(new IdentityHashMap<PlanDataBase, Boolean>());
+		if (!set.addAll(pdbs) || set.size() != pdbs.size()) {
+			throw new RuntimeException("Error while creating planner portfolio:\n- message: planners cannot share a plan database\n");
+		}
+		
+		// create planners
+		List<Planner> planners = new ArrayList<>();
+		for (int i = 0; i < pClasses.size(); i++) {
+			// create and set planner
+			planners.add(PlannerBuilder.createAndSet(pClasses.get(i), pdbs.get(i)));
+		}
+		
+		// create portfolio
+		return new PortfolioPlanner(planners);
+	}
+	
 	/**
 	 * 
 	 * @param cName
@@ -0,0 +1,168 @@
+package it.cnr.istc.pst.platinum.ai.deliberative;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.ex.NoSolutionFoundException;
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.plan.SolutionPlan;
+
+/**
+ * Run several planners on the same planning problem in parallel. Each planner works on its
+ * own plan database and is configured with its own search strategy and flaw selection heuristic.
+ * The first solution plan found is returned and the other planners are cancelled.
+ * 
+ * @author alessandro
+ *
+ */
+public class PortfolioPlanner
+{
+	private List<Planner> planners;				// planners of the portfolio
+	private Planner winner;						// planner that found the last solution
+	
+	/**
+	 * 
+	 * @param planners
+	 */
+	protected PortfolioPlanner(List<Planner> planners) {
+		this.planners = new ArrayList<>(planners);
+		this.winner = null;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public List<Planner> getPlanners() {
+		return new ArrayList<>(this.planners);
+	}
+	
+	/**
+	 * Returns the planner that found the last solution plan if any
+	 * 
+	 * @return
+	 */
+	public Planner getPlanner() {
+		return this.winner;
+	}
+	
+	/**
+	 * The method starts a planning process for each planner of the portfolio and returns
+	 * the first solution plan found. The other planning processes are cancelled.
+	 * 
+	 * If no planner finds a solution plan the method throws an exception
+	 * 
+	 * @return
+	 * @throws NoSolutionFoundException
+	 */
+	public SolutionPlan plan()
+			throws NoSolutionFoundException
+	{
+		// clear planners (and reset cancellation requests) and last solution
+		this.clear();
+		// run a planning process for each planner
+		ExecutorService executor = Executors.newFixedThreadPool(this.planners.size());
+		CompletionService<SolutionPlan> processes = new ExecutorCompletionService<>(executor);
+		List<Future<SolutionPlan>> futures = new ArrayList<>();
+		for (final Planner planner : this.planners) {
+			// submit planning process
+			futures.add(processes.submit(new Callable<SolutionPlan>() {
+				
+				/**
+				 * 
+				 */
+				@Override
+				public SolutionPlan call()
+						throws Exception {
+					// start planning
+					return planner.plan();
+				}
+			}));
+		}
+		
+		// no more processes
+		executor.shutdown();
+		// failure messages
+		String errors = "";
+		try
+		{
+			// wait planning processes
+			for (int i = 0; i < futures.size(); i++)
+			{
+				// wait the next process to end
+				Future<SolutionPlan> future = processes.take();
+				// get the planner of the process
+				Planner planner = this.planners.get(futures.indexOf(future));
+				try
+				{
+					// get solution plan
+					SolutionPlan plan = future.get();
+					// set the planner that found the solution
+					this.winner = planner;
+					// cancel the other planning processes and wait them to stop
+					this.cancel();
+					executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+					// get solution plan
+					return plan;
+				}
+				catch (ExecutionException ex) {
+					// planning failure
+					errors += "- " + planner.getClass().getName() + ": " + ex.getCause().getMessage() + "\n";
+				}
+			}
+		}
+		catch (InterruptedException ex) {
+			// stop planning processes
+			this.cancel();
+			// restore interrupt status
+			Thread.currentThread().interrupt();
+			throw new NoSolutionFoundException("Portfolio planning interrupted\n");
+		}
+		
+		// no solution found
+		throw new NoSolutionFoundException("No solution found by the planners of the portfolio:\n" + errors);
+	}
+	
+	/**
+	 * Cancel the running planning processes
+	 */
+	public void cancel() {
+		// cancel planners
+		for (Planner planner : this.planners) {
+			// check planner
+			if (planner != this.winner) {
+				planner.cancel();
+			}
+		}
+	}
+	
+	/**
+	 * Display the plan of the planner that found the last solution
+	 */
+	public void display() {
+		// check planner
+		if (this.winner != null) {
+			this.winner.display();
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	public void clear() {
+		// clear planners
+		for (Planner planner : this.planners) {
+			planner.clear();
+		}
+		
+		// clear last solution
+		this.winner = null;
+	}
+}
@@ -0,0 +1,111 @@
+package it.cnr.istc.pst.platinum.ai.deliberative.solver;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Signature of a partial plan that does not depend on the order the operators have been applied.
+ * 
+ * The signature consists of the sorted descriptions of the decisions and relations of the plan and
+ * of a 64-bit hash of the descriptions. Two signatures are equal only if their descriptions are equal,
+ * so partial plans whose hashes collide are never mistaken for one another.
+ * 
+ * @author alessandro
+ *
+ */
+public class PartialPlanSignature
+{
+	private String[] descriptions;			// sorted descriptions of the elements of the plan
+	private long hash;						// order-independent hash of the descriptions
+	
+	/**
+	 * 
+	 * @param descriptions
+	 */
+	public PartialPlanSignature(Collection<String> descriptions)
+	{
+		// sort descriptions
+		this.descriptions = descriptions.toArray(new String[descriptions.size()]);
+		Arrays.sort(this.descriptions);
+		// hash descriptions
+		this.hash = 0;
+		for (String description : this.descriptions) {
+			this.hash += mix(hash(0xCBF29CE484222325L, description));
+		}
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public long getHash() {
+		return hash;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public int getNumberOfElements() {
+		return this.descriptions.length;
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public int hashCode() {
+		return Long.hashCode(this.hash);
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		PartialPlanSignature other = (PartialPlanSignature) obj;
+		// compare hashes first and descriptions in case of equal hashes
+		return this.hash == other.hash && Arrays.equals(this.descriptions, other.descriptions);
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public String toString() {
+		return "[PartialPlanSignature hash= " + Long.toHexString(this.hash) + ", elements= " + this.descriptions.length + "]";
+	}
+	
+	/**
+	 * 
+	 * @param h
+	 * @param value
+	 * @return
+	 */
+	private static long hash(long h, String value) {
+		for (int i = 0; i < value.length(); i++) {
+			// FNV-1a step
+			h = (h ^ value.charAt(i)) * 0x100000001B3L;
+		}
+		
+		return h;
+	}
+	
+	/**
+	 * 
+	 * @param h
+	 * @return
+	 */
+	private static long mix(long h) {
+		// spread the bits of the hash before summing
+		h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+		h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+		return h ^ (h >>> 31);
+	}
+}
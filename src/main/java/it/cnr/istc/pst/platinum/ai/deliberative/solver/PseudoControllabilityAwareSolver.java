@@ -42,6 +42,11 @@ public class PseudoControllabilityAwareSolver extends Solver
 		long start = System.currentTimeMillis();
 		// set solving step counter
 		this.stepCounter = 0;
+		// create the root node if the search data structures have been cleared (e.g. by a previous search)
+		if (this.fringe.getFringeSize() == 0) {
+			this.init();
+		}
+		
 		// last extracted node
 		SearchSpaceNode last = null, node = null;
 		// search condition
@@ -58,17 +63,15 @@ public class PseudoControllabilityAwareSolver extends Solver
 				this.stepCounter++;
 				// get time passed from the start 
 				long now = System.currentTimeMillis() - start;
-				// check timeout
-				if (this.timeout > 0 && now > this.timeout) 
+				// check timeout and cancellation requests
+				if ((this.timeout > 0 && now > this.timeout) || this.cancelled) 
 				{
 					// no solution found stop search
 					search = false;
 					// set solving time
 					this.time = System.currentTimeMillis() - start;
-					// backtrack from the last propagated node
-					this.backtrack(last);
-					// timeout exception
-					throw new NoSolutionFoundException("Timeout: no solution found after " + this.time + " msecs and " + this.stepCounter + " solving steps");
+					// timeout exception (the last propagated node is retracted when leaving the search)
+					throw new NoSolutionFoundException((this.cancelled ? "Cancelled" : "Timeout") + ": no solution found after " + this.time + " msecs and " + this.stepCounter + " solving steps");
 				}
 				
 				
@@ -84,9 +87,10 @@ public class PseudoControllabilityAwareSolver extends Solver
 					// add operator info
 					info += "- Operators (chronological order):\n";
 					// print last node operations
-					for (int i = 0; i < node.getOperators().size(); i++) {
+					List<Operator> operators = node.getOperators();
+					for (int i = 0; i < operators.size(); i++) {
 						// get operator
-						Operator op = node.getOperators().get(i);
+						Operator op = operators.get(i);
 						// print operator information
 						info += "- Op[" + i + "]: " + op + "\n";
 					}
@@ -103,6 +107,16 @@ public class PseudoControllabilityAwareSolver extends Solver
 				info("[Context Switch] successfully done [step = " + this.stepCounter + "]:\n"
 						+ "Plan: " + last.getPartialPlan() + "\n");
 				
+				// set the signature of the partial plan of the node
+				node.setSignature(this.computeSignature());
+				// check if the partial plan has been already expanded through another path
+				if (!this.fringe.visit(node)) {
+					// prune duplicate node
+					info("Duplicate partial plan pruned [step = " + this.stepCounter + "]:\n"
+							+ "- Node: " + node + "\n");
+					continue;
+				}
+				
 				// print information concerning current partial plan	
 				debug("Detailed plan after propagation: "  + node.getGenerator() + "\n"
 							+ "\tplan:\n"
@@ -160,7 +174,8 @@ public class PseudoControllabilityAwareSolver extends Solver
 				// set solving time
 				this.time = System.currentTimeMillis() - start;
 				// pseudo-controllable solution found
-				info("Pseudo-controllable solution found after " + (this.time / 1000) + " (secs) and " + this.stepCounter + " solving steps\n");
+				info("Pseudo-controllable solution found after " + (this.time / 1000) + " (secs) and " + this.stepCounter + " solving steps "
+						+ "(" + this.fringe.getNumberOfPrunedDuplicates() + " duplicates pruned)\n");
 			}
 			catch (EmptyFringeException ex) 
 			{
@@ -178,16 +193,19 @@ public class PseudoControllabilityAwareSolver extends Solver
 				if (!search && solution) {
 					
 					// clear search data structures
-					this.clear();
+					this.doClearSearch();
 				}
 				
 				// check if stopping search without a solution
 				if (!search && !solution)  {
 					
-					// backtrack from the last propagated node
-					this.backtrack(last);
+					// backtrack from the last propagated node if any
+					if (last != null) {
+						this.backtrack(last);
+					}
+					
 					// clear search data structures
-					this.clear();
+					this.doClearSearch();
 					
 				}
 			}
@@ -203,6 +221,16 @@ public class PseudoControllabilityAwareSolver extends Solver
 	 */
 	@Override
 	public void clear() {
+		super.clear();
+		// clear search data structures
+		this.doClearSearch();
+	}
+	
+	/**
+	 * Clear the search data structures. Cancellation requests are kept so that 
+	 * they can be checked after the search
+	 */
+	private void doClearSearch() {
 		// clear heuristics
 		this.heuristic.clear();
 		// clear the fringe
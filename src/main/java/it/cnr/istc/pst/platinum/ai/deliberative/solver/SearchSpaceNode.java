@@ -26,14 +26,14 @@ public class SearchSpaceNode implements Comparable<SearchSpaceNode>
 	private static final AtomicInteger ID_COUNTER = new AtomicInteger(0);
 	
 	private int id;												// node unique ID
-	private List<Operator> operators;							// node generation trace
+	private Trace trace;										// node generation trace (null for the root)
+	private PartialPlanSignature signature;						// signature of the partial plan once propagated
 	
 	private Map<DomainComponent, List<DecisionVariable>> plan;	// partial plan
  	private Map<DomainComponent, List<Flaw>> agenda; 			// flaws associated to the resulting partial plan
  	
  	// consolidated information about a partial plan 
  	private Map<DomainComponent, Double[]> makespan;				// consolidated makespan of SVs
- 	private Map<DomainComponent, Double> cost;					// consolidated planning cost of SVs
  	
  	// heuristic information about a partial plan 
  	private Map<DomainComponent, Double[]> heuristicMakespan;		// estimated makespan of SVs
@@ -48,7 +48,7 @@ public class SearchSpaceNode implements Comparable<SearchSpaceNode>
 		// set node's id
 		this.id = ID_COUNTER.getAndIncrement();
 		// set operators
-		this.operators = new ArrayList<>();
+		this.trace = null;
 		// set agenda
 		this.agenda = new HashMap<>();
 		
@@ -56,7 +56,6 @@ public class SearchSpaceNode implements Comparable<SearchSpaceNode>
 		this.domainSpecificMetric = null;
 		
 		this.makespan = new HashMap<>();
-		this.cost = new HashMap<>();
 		this.heuristicMakespan = new HashMap<>();
 		this.heuristicCost = new HashMap<>();
 	}
@@ -69,30 +68,14 @@ public class SearchSpaceNode implements Comparable<SearchSpaceNode>
 	 */
 	protected SearchSpaceNode(SearchSpaceNode parent, Operator op) {
 		this();
-		// set operators
-		this.operators = new ArrayList<>(parent.getOperators());
-		// add generator
-		this.operators.add(op);
+		// extend the trace of the parent with the generator (the trace of the parent is shared)
+		this.trace = new Trace(parent.trace, op);
 		// set agenda
 		this.agenda = new HashMap<>();
 		
 		// set additional metric
 		this.domainSpecificMetric = null;
 		
-		// set cost
-		this.cost = new HashMap<>(parent.getCost());
-		// update cost according to the operator
-		if (!this.cost.containsKey(op.getFlaw().getComponent())) {
-			// set cost
-			this.cost.put(op.getFlaw().getComponent(), op.getCost());
-		}
-		else {
-			// update cost
-			this.cost.put(op.getFlaw().getComponent(),
-					this.cost.get(op.getFlaw().getComponent()) + op.getCost());
-		}
-		
-		
 		// set makespan 
 		this.makespan = new HashMap<>();
 		this.heuristicCost = new HashMap<>();
@@ -108,6 +91,24 @@ public class SearchSpaceNode implements Comparable<SearchSpaceNode>
 		return id;
 	}
 	
+	/**
+	 * Returns the signature of the partial plan of the node. The signature is set 
+	 * when the node is propagated
+	 * 
+	 * @return
+	 */
+	public PartialPlanSignature getSignature() {
+		return signature;
+	}
+	
+	/**
+	 * 
+	 * @param signature
+	 */
+	public void setSignature(PartialPlanSignature signature) {
+		this.signature = signature;
+	}
+	
 	/**
 	 * 
 	 * @param metric
@@ -197,7 +198,7 @@ public class SearchSpaceNode implements Comparable<SearchSpaceNode>
 	 * @return
 	 */
 	public int getDepth() {
-		return this.operators.size();
+		return this.trace == null ? 0 : this.trace.depth;
 	}
 		
 	/**
@@ -315,8 +316,17 @@ public class SearchSpaceNode implements Comparable<SearchSpaceNode>
 	 * @return
 	 */
 	public Map<DomainComponent, Double> getCost() {
+		// compute cost by components through the trace
+		Map<DomainComponent, Double> cost = new HashMap<>();
+		for (Trace t = this.trace; t != null; t = t.previous) {
+			// get component
+			DomainComponent c = t.operator.getFlaw().getComponent();
+			// update cost of the component
+			cost.put(c, cost.containsKey(c) ? cost.get(c) + t.operator.getCost() : t.operator.getCost());
+		}
+		
 		// get cost by components
-		return new HashMap<>(this.cost);
+		return cost;
 	}
 	
 	/**
@@ -324,12 +334,8 @@ public class SearchSpaceNode implements Comparable<SearchSpaceNode>
 	 * @return
 	 */
 	public double getPlanCost() {
-		double cost = 0;
-		for (DomainComponent c : this.cost.keySet()) {
-			cost += this.cost.get(c);
-		}
-		
-		return cost;
+		// get cumulative cost of the applied operators
+		return this.trace == null ? 0 : this.trace.cost;
 	}
 	
 	/**
@@ -471,27 +477,75 @@ public class SearchSpaceNode implements Comparable<SearchSpaceNode>
 	 */
 	public List<Operator> getOperators() {
 		// get list of operators
-		return new ArrayList<>(this.operators);
+		return this.getOperatorsAfter(0);
 	}
 	
 	/**
-	 * The method returns the node generator operator.
+	 * The method returns the ordered list of operators that have been applied to generate the node 
+	 * after the first "depth" operators. 
 	 * 
-	 * The method returns null for the root node of the search space
+	 * The last operator of the list is the node generator operator (i.e. the last applied operator).
 	 * 
+	 * @param depth
 	 * @return
 	 */
-	public Operator getGenerator() 
+	public List<Operator> getOperatorsAfter(int depth) 
 	{
-		// get generator
-		Operator operator = null;
-		if (!this.operators.isEmpty()) {
-			// get last applied operator
-			operator = this.operators.get(this.operators.size() - 1);
+		// list of operators
+		List<Operator> list = new ArrayList<>(Math.max(0, this.getDepth() - depth));
+		// walk the trace back to the given depth
+		for (Trace t = this.trace; t != null && t.depth > depth; t = t.previous) {
+			// add operator
+			list.add(t.operator);
 		}
 		
-		// get generator operator
-		return operator;
+		// chronological order
+		Collections.reverse(list);
+		// get list of operators
+		return list;
+	}
+	
+	/**
+	 * The method returns the number of operators the node shares with the given node, i.e. the 
+	 * depth of their lowest common ancestor in the search space.
+	 * 
+	 * @param node
+	 * @return
+	 */
+	public int getCommonDepth(SearchSpaceNode node) 
+	{
+		// get traces
+		Trace a = this.trace;
+		Trace b = node.trace;
+		// move up to the same depth
+		while (Trace.depth(a) > Trace.depth(b)) {
+			a = a.previous;
+		}
+		
+		while (Trace.depth(b) > Trace.depth(a)) {
+			b = b.previous;
+		}
+		
+		// move up to the common ancestor
+		while (a != b) {
+			a = a.previous;
+			b = b.previous;
+		}
+		
+		// get depth of the common ancestor
+		return Trace.depth(a);
+	}
+	
+	/**
+	 * The method returns the node generator operator.
+	 * 
+	 * The method returns null for the root node of the search space
+	 * 
+	 * @return
+	 */
+	public Operator getGenerator() {
+		// get last applied operator if any
+		return this.trace == null ? null : this.trace.operator;
 	}
 	
 	/**
@@ -506,20 +560,12 @@ public class SearchSpaceNode implements Comparable<SearchSpaceNode>
 	public List<Operator> getOperatorsUpTo(Operator operator) {
 		// list of operators
 		List<Operator> list = new ArrayList<>();
-		if (operator == null) {
-			// add all operators
-			list.addAll(this.operators);
-			// reverse order
-			Collections.reverse(list);
-		}
-		else {
-			// get index of the operator
-			int index = this.operators.indexOf(operator);
-			for (int i = this.operators.size() - 1; i > index; i--) {
-				// add operator
-				list.add(this.operators.get(i));
-			}
+		// walk the trace back to the operator
+		for (Trace t = this.trace; t != null && !t.operator.equals(operator); t = t.previous) {
+			// add operator
+			list.add(t.operator);
 		}
+		
 		// get list of operators
 		return list;
 	}
@@ -535,19 +581,10 @@ public class SearchSpaceNode implements Comparable<SearchSpaceNode>
 	 * @return
 	 */
 	public List<Operator> getOperatorsFrom(Operator operator) {
-		// list of operators
-		List<Operator> list = new ArrayList<>();
-		if (operator == null) {
-			// add all operators
-			list.addAll(this.operators);
-		}
-		else {
-			// get index of the operator
-			for (int index = this.operators.indexOf(operator) + 1; index < this.operators.size(); index++) {
-				// add operator
-				list.add(this.operators.get(index));
-			}
-		}
+		// get operators applied after the specified one
+		List<Operator> list = this.getOperatorsUpTo(operator);
+		// chronological order
+		Collections.reverse(list);
 		// get list of operators
 		return list;
 	}
@@ -604,4 +641,40 @@ public class SearchSpaceNode implements Comparable<SearchSpaceNode>
 				+ "\"heuristic-makespan\": [" + this.getPlanHeuristicMakespan()[0] + ", " + this.getPlanHeuristicMakespan()[1] + "] "
 				+ " }";
 	}
+	
+	/**
+	 * Immutable link of the chain of operators applied to generate a node. Child nodes share 
+	 * the trace of their parent so each node adds a single link whatever its depth.
+	 * 
+	 * @author anacleto
+	 *
+	 */
+	private static class Trace
+	{
+		private final Trace previous;					// trace of the parent node
+		private final Operator operator;				// generator operator
+		private final int depth;						// number of applied operators
+		private final double cost;						// cumulative cost of the applied operators
+		
+		/**
+		 * 
+		 * @param previous
+		 * @param operator
+		 */
+		private Trace(Trace previous, Operator operator) {
+			this.previous = previous;
+			this.operator = operator;
+			this.depth = depth(previous) + 1;
+			this.cost = (previous == null ? 0 : previous.cost) + operator.getCost();
+		}
+		
+		/**
+		 * 
+		 * @param trace
+		 * @return
+		 */
+		private static int depth(Trace trace) {
+			return trace == null ? 0 : trace.depth;
+		}
+	}
 }
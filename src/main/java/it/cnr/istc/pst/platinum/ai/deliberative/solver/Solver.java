@@ -1,12 +1,17 @@
 package it.cnr.istc.pst.platinum.ai.deliberative.solver;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import it.cnr.istc.pst.platinum.ai.deliberative.heuristic.FlawSelectionHeuristic;
 import it.cnr.istc.pst.platinum.ai.deliberative.strategy.SearchStrategy;
+import it.cnr.istc.pst.platinum.ai.framework.domain.component.Decision;
 import it.cnr.istc.pst.platinum.ai.framework.domain.component.PlanDataBase;
+import it.cnr.istc.pst.platinum.ai.framework.domain.component.PlanElementStatus;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.FrameworkObject;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.annotation.inject.deliberative.FlawSelectionHeuristicPlaceholder;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.annotation.inject.deliberative.SearchStrategyPlaceholder;
@@ -18,6 +23,12 @@ import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.ex.PlanRefinementE
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.flaw.Flaw;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.flaw.FlawSolution;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.plan.Plan;
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.relations.Relation;
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.relations.parameter.BindParameterRelation;
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.relations.parameter.EqualParameterRelation;
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.relations.parameter.NotEqualParameterRelation;
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.relations.parameter.ParameterRelation;
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.relations.temporal.TemporalRelation;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.resolver.ex.UnsolvableFlawException;
 
 /**
@@ -40,6 +51,7 @@ public abstract class Solver extends FrameworkObject
 	protected long time;
 	protected long stepCounter;
 	protected String label;
+	protected volatile boolean cancelled;		// stop the search at the next timeout check
 	
 	/**
 	 * 
@@ -50,6 +62,7 @@ public abstract class Solver extends FrameworkObject
 		super();
 		this.label = label;
 		this.timeout = timeout;
+		this.cancelled = false;
 	}
 	
 	/**
@@ -80,9 +93,13 @@ public abstract class Solver extends FrameworkObject
 			throws NoSolutionFoundException;
 
 	/**
-	 * 
+	 * Clear the data structures of the solver and reset any cancellation request so 
+	 * that the solver can be used again. Subclasses must call this method when overriding it
 	 */
-	public abstract void clear();
+	public void clear() {
+		// reset cancellation request
+		this.cancelled = false;
+	}
 	
 	/**
 	 * 
@@ -92,6 +109,23 @@ public abstract class Solver extends FrameworkObject
 		return new SearchSpaceNode();
 	}
 	
+	/**
+	 * Ask the solver to stop searching. The request is checked together with the timeout 
+	 * so the search stops before the next solving step by throwing a NoSolutionFoundException. 
+	 * The method can be called from any thread.
+	 */
+	public void cancel() {
+		this.cancelled = true;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public boolean isCancelled() {
+		return this.cancelled;
+	}
+	
 	/**
 	 * 
 	 * @return
@@ -100,6 +134,121 @@ public abstract class Solver extends FrameworkObject
 		return label;
 	}
 	
+	/**
+	 * Compute a signature of the current partial plan that does not depend on the order the operators 
+	 * have been applied. Active and pending decisions are described by their component, value and temporal 
+	 * bounds. Relations are described by their type, the descriptions of the related decisions, the bounds 
+	 * of temporal relations and the parameters involved by parameter relations. Parameters are identified 
+	 * by their position in the related decisions rather than by their labels, which are generated. 
+	 * 
+	 * @return
+	 */
+	protected PartialPlanSignature computeSignature() 
+	{
+		// descriptions of the elements of the partial plan
+		List<String> elements = new ArrayList<>();
+		// descriptions of decisions
+		Map<Decision, String> descriptions = new HashMap<>();
+		// check active and pending plans
+		for (PlanElementStatus status : new PlanElementStatus[] {PlanElementStatus.ACTIVE, PlanElementStatus.PENDING}) 
+		{
+			// get plan
+			Plan plan = this.pdb.getPlan(status);
+			for (Decision dec : plan.getDecisions()) {
+				// add decision
+				elements.add(status + " " + describe(dec, descriptions));
+			}
+			
+			for (Relation rel : plan.getRelations()) 
+			{
+				// describe relation
+				StringBuilder element = new StringBuilder(status + " " + rel.getType() + " " 
+						+ describe(rel.getReference(), descriptions) + " " 
+						+ describe(rel.getTarget(), descriptions));
+				
+				// check temporal relations
+				if (rel instanceof TemporalRelation) {
+					// add bounds
+					for (long[] bounds : ((TemporalRelation) rel).getBounds()) {
+						element.append(" ").append(Arrays.toString(bounds));
+					}
+				}
+				
+				// check parameter relations
+				if (rel instanceof ParameterRelation) {
+					// add reference parameter
+					element.append(" ").append(describe(rel.getReference(), ((ParameterRelation) rel).getReferenceParameterLabel()));
+				}
+				
+				if (rel instanceof BindParameterRelation) {
+					// add value
+					element.append(" ").append(((BindParameterRelation) rel).getValue());
+				}
+				else if (rel instanceof EqualParameterRelation) {
+					// add target parameter
+					element.append(" ").append(describe(rel.getTarget(), ((EqualParameterRelation) rel).getTargetParameterLabel()));
+				}
+				else if (rel instanceof NotEqualParameterRelation) {
+					// add target parameter
+					element.append(" ").append(describe(rel.getTarget(), ((NotEqualParameterRelation) rel).getTargetParameterLabel()));
+				}
+				
+				// add relation
+				elements.add(element.toString());
+			}
+		}
+		
+		// get signature
+		return new PartialPlanSignature(elements);
+	}
+	
+	/**
+	 * 
+	 * @param dec
+	 * @param descriptions
+	 * @return
+	 */
+	private static String describe(Decision dec, Map<Decision, String> descriptions) 
+	{
+		// check description
+		if (!descriptions.containsKey(dec)) 
+		{
+			// pending decisions have no token so their parameters are not bound yet
+			String value = dec.getToken() != null ?
+					dec.getToken().getPredicate().getGroundSignature() :
+					dec.getValue().getLabel();
+
+			// describe the decision regardless of its ID
+			descriptions.put(dec, dec.getComponent().getName() + "." + value
+					+ Arrays.toString(dec.getStart())
+					+ Arrays.toString(dec.getEnd())
+					+ Arrays.toString(dec.getDuration()));
+		}
+		
+		// get description
+		return descriptions.get(dec);
+	}
+	
+	/**
+	 * Describe a parameter of a decision through its position. The label is used if the 
+	 * decision has no parameter with the label
+	 * 
+	 * @param dec
+	 * @param label
+	 * @return
+	 */
+	private static String describe(Decision dec, String label) {
+		// get the position of the parameter
+		String[] labels = dec.getParameterLabels();
+		for (int index = 0; index < labels.length; index++) {
+			if (labels[index].equals(label)) {
+				return "#" + index;
+			}
+		}
+		
+		return label;
+	}
+	
 	/**
 	 * 
 	 * @param node
@@ -163,44 +312,12 @@ public abstract class Solver extends FrameworkObject
 		// compare the two nodes
 		if (last != null) 
 		{
+			// get the number of operators the two nodes have in common (i.e. the depth of their lowest common ancestor)
+			int common = last.getCommonDepth(extracted);
 			// prepare a list of operators to retract 
-			List<Operator> toRetract = new ArrayList<>();
+			List<Operator> toRetract = last.getOperatorsAfter(common);
 			// prepare a list of operators to propagate
-			List<Operator> toPropagate = new ArrayList<>();
-			
-			// get the list of operators of the nodes
-			List<Operator> lastNodeOperators = last.getOperators();
-			List<Operator> extractedNodeOperators = extracted.getOperators();
-			
-			// check min length between the two lists
-			int minLength = Math.min(lastNodeOperators.size(), extractedNodeOperators.size());
-			// check potentially common operators
-			boolean common = true;
-			for (int i = 0; i < minLength; i++) {
-				
-				// check common flag
-				if (common && !lastNodeOperators.get(i).equals(extractedNodeOperators.get(i))) {
-					common = false;
-				}
-				
-				// check if no common operators have been found
-				if (!common) {
-					// add operator to the different lists
-					toRetract.add(lastNodeOperators.get(i));
-					toPropagate.add(extractedNodeOperators.get(i));
-				}
-			}
-			
-			// check other operators to retract
-			for (int i = minLength; i < lastNodeOperators.size(); i++) {
-				toRetract.add(lastNodeOperators.get(i));
-			}
-			
-			// check other operators to propagate
-			for (int i = minLength; i < extractedNodeOperators.size(); i++) {
-				toPropagate.add(extractedNodeOperators.get(i));
-			}
-			
+			List<Operator> toPropagate = extracted.getOperatorsAfter(common);
 			
 			// retract operators in reverse order
 			Collections.reverse(toRetract);
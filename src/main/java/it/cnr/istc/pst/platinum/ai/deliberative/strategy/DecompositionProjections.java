@@ -0,0 +1,273 @@
+package it.cnr.istc.pst.platinum.ai.deliberative.strategy;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import it.cnr.istc.pst.platinum.ai.framework.domain.component.ComponentValue;
+import it.cnr.istc.pst.platinum.ai.framework.domain.component.DomainComponent;
+
+/**
+ * Optimistic and pessimistic projections (planning cost and makespan) of the values of a
+ * decomposition graph compiled once from the domain theory.
+ * 
+ * The projections of a value are those of a recursive visit of the AND/OR graph. The projections
+ * of the subgoals of a decomposition are summed up, the minimum and the maximum are taken across
+ * the decompositions and the unification cost (or the minimum duration) of the value is added.
+ * A decomposition having a subgoal on the path of the visit is ignored, since it cannot be completed
+ * without decomposing again a value being decomposed. Thus, the visit terminates on cyclic graphs
+ * too and gives the same projections on acyclic graphs.
+ * 
+ * The projections of a value not belonging to any cycle do not depend on the path of the visit
+ * and they are computed once. The projections of a value belonging to a cycle are computed by a
+ * visit starting from the value.
+ * 
+ * @author alessandro
+ *
+ */
+public class DecompositionProjections
+{
+	private Map<ComponentValue, List<List<ComponentValue>>> graph;				// decomposition graph
+	private double unificationCost;												// unification cost of a value
+	private Set<ComponentValue> cyclic;											// values belonging to cycles
+	private Map<ComponentValue, Map<DomainComponent, Double[]>> cost;			// compiled cost projections
+	private Map<ComponentValue, Map<DomainComponent, Double[]>> makespan;		// compiled makespan projections
+	
+	/**
+	 * 
+	 * @param graph
+	 * @param unificationCost
+	 */
+	public DecompositionProjections(Map<ComponentValue, List<List<ComponentValue>>> graph, double unificationCost)
+	{
+		// set data
+		this.graph = graph;
+		this.unificationCost = unificationCost;
+		
+		// get the values of the decomposition graph
+		Set<ComponentValue> values = new HashSet<>(graph.keySet());
+		for (List<List<ComponentValue>> decompositions : graph.values()) {
+			for (List<ComponentValue> decomposition : decompositions) {
+				values.addAll(decomposition);
+			}
+		}
+		
+		// find the values belonging to cycles
+		this.cyclic = new HashSet<>();
+		for (ComponentValue value : values) {
+			if (this.reaches(value, value, new HashSet<>())) {
+				this.cyclic.add(value);
+			}
+		}
+		
+		// compile projections
+		this.cost = this.compile(values, true);
+		this.makespan = this.compile(values, false);
+	}
+	
+	/**
+	 * Get the (pessimistic) planning cost of a domain value. Values that do not belong
+	 * to the decomposition graph are leaves.
+	 * 
+	 * @param value
+	 * @return
+	 */
+	public Map<DomainComponent, Double[]> getCostProjections(ComponentValue value) {
+		// get compiled projections
+		Map<DomainComponent, Double[]> projections = this.cost.get(value);
+		return projections != null ? projections : this.visit(value, new HashMap<>(), true, new HashSet<>());
+	}
+	
+	/**
+	 * Get the (pessimistic) makespan projection of a domain value. Values that do not
+	 * belong to the decomposition graph are leaves.
+	 * 
+	 * @param value
+	 * @return
+	 */
+	public Map<DomainComponent, Double[]> getMakespanProjections(ComponentValue value) {
+		// get compiled projections
+		Map<DomainComponent, Double[]> projections = this.makespan.get(value);
+		return projections != null ? projections : this.visit(value, new HashMap<>(), false, new HashSet<>());
+	}
+	
+	/**
+	 * 
+	 * @param values
+	 * @param cost compile cost projections if true, makespan projections otherwise
+	 * @return
+	 */
+	private Map<ComponentValue, Map<DomainComponent, Double[]>> compile(Set<ComponentValue> values, boolean cost)
+	{
+		// projections of the values not belonging to cycles
+		Map<ComponentValue, Map<DomainComponent, Double[]>> table = new HashMap<>();
+		// compiled projections
+		Map<ComponentValue, Map<DomainComponent, Double[]>> compiled = new HashMap<>();
+		for (ComponentValue value : values) {
+			// visit the graph starting from the value
+			compiled.put(value, this.visit(value, table, cost, new HashSet<>()));
+		}
+		
+		// get compiled projections
+		return compiled;
+	}
+	
+	/**
+	 * Compute the optimistic and pessimistic projections (planning cost or makespan) of a domain
+	 * value by recursively visiting the decomposition graph
+	 * 
+	 * @param value
+	 * @param table
+	 * @param cost
+	 * @param path
+	 * @return
+	 */
+	private Map<DomainComponent, Double[]> visit(ComponentValue value,
+			Map<ComponentValue, Map<DomainComponent, Double[]>> table, boolean cost, Set<ComponentValue> path)
+	{
+		// check projections already computed
+		if (table.containsKey(value)) {
+			return table.get(value);
+		}
+		
+		// set projections
+		Map<DomainComponent, Double[]> projections = new HashMap<>();
+		// check if leaf
+		if (!this.graph.containsKey(value) ||
+				this.graph.get(value).isEmpty()) {
+			
+			// set leaf projections (unification cost or expected duration)
+			projections.put(value.getComponent(), cost ?
+					new Double[] {
+							this.unificationCost,
+							this.unificationCost
+					} :
+					new Double[] {
+							(double) value.getDurationLowerBound(),
+							(double) value.getDurationUpperBound()
+					});
+		
+		} else {
+			
+			// add the value to the path of the visit
+			path.add(value);
+			// check possible decompositions
+			for (List<ComponentValue> decomposition : this.graph.get(value))
+			{
+				// ignore decompositions requiring to decompose again a value of the path
+				boolean cycle = false;
+				for (ComponentValue subgoal : decomposition) {
+					cycle = cycle || path.contains(subgoal);
+				}
+				
+				if (cycle) {
+					continue;
+				}
+				
+				// decomposition projections
+				Map<DomainComponent, Double[]> dProjections = new HashMap<>();
+				for (ComponentValue subgoal : decomposition)
+				{
+					// sum projections of the subgoals
+					Map<DomainComponent, Double[]> update = this.visit(subgoal, table, cost, path);
+					for (DomainComponent c : update.keySet()) {
+						
+						if (!dProjections.containsKey(c)) {
+							// set projection
+							dProjections.put(c, new Double[] {
+									update.get(c)[0],
+									update.get(c)[1]
+							});
+						
+						} else {
+							
+							// update projection
+							dProjections.put(c, new Double[] {
+									dProjections.get(c)[0] + update.get(c)[0],
+									dProjections.get(c)[1] + update.get(c)[1]
+							});
+						}
+					}
+				}
+				
+				// update optimistic and pessimistic projections
+				for (DomainComponent c : dProjections.keySet()) {
+					if (!projections.containsKey(c)) {
+						
+						// set projection
+						projections.put(c, new Double[] {
+							dProjections.get(c)[0],
+							dProjections.get(c)[1]
+						});
+					
+					} else {
+						
+						// get min and max
+						projections.put(c, new Double[] {
+								Math.min(projections.get(c)[0], dProjections.get(c)[0]),
+								Math.max(projections.get(c)[1], dProjections.get(c)[1])
+						});
+					}
+				}
+			}
+			
+			// remove the value from the path of the visit
+			path.remove(value);
+			
+			// set projection associated to the value (unification cost or minimum duration)
+			double update = cost ? this.unificationCost : (double) value.getDurationLowerBound();
+			if (!projections.containsKey(value.getComponent())) {
+				
+				// set projection
+				projections.put(value.getComponent(), new Double[] {
+						update,
+						update
+				});
+			
+			} else {
+				
+				// weight projection according to the hierarchical value
+				projections.put(value.getComponent(), new Double[] {
+						update + projections.get(value.getComponent())[0],
+						update + projections.get(value.getComponent())[1]
+				});
+			}
+		}
+		
+		// projections of values not belonging to cycles do not depend on the path of the visit
+		if (!this.cyclic.contains(value)) {
+			table.put(value, projections);
+		}
+		
+		// get projections
+		return projections;
+	}
+	
+	/**
+	 * Check if a value can be reached from another one through the decompositions of the graph
+	 * 
+	 * @param source
+	 * @param target
+	 * @param visited
+	 * @return
+	 */
+	private boolean reaches(ComponentValue source, ComponentValue target, Set<ComponentValue> visited)
+	{
+		// check decompositions
+		if (this.graph.containsKey(source)) {
+			for (List<ComponentValue> decomposition : this.graph.get(source)) {
+				for (ComponentValue subgoal : decomposition) {
+					// check subgoal
+					if (subgoal.equals(target) ||
+							(visited.add(subgoal) && this.reaches(subgoal, target, visited))) {
+						return true;
+					}
+				}
+			}
+		}
+		
+		return false;
+	}
+}
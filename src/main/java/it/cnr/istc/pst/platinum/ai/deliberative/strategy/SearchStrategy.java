@@ -3,6 +3,7 @@ package it.cnr.istc.pst.platinum.ai.deliberative.strategy;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -13,15 +14,13 @@ import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.Set;
 
-import org.bson.Document;
-
-import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoClients;
-import com.mongodb.client.MongoCollection;
-import com.mongodb.client.MongoDatabase;
-
 import it.cnr.istc.pst.platinum.ai.deliberative.solver.SearchSpaceNode;
 import it.cnr.istc.pst.platinum.ai.deliberative.strategy.ex.EmptyFringeException;
+import it.cnr.istc.pst.platinum.ai.deliberative.strategy.telemetry.FileSearchTelemetrySink;
+import it.cnr.istc.pst.platinum.ai.deliberative.strategy.telemetry.SearchRecord;
+import it.cnr.istc.pst.platinum.ai.deliberative.strategy.telemetry.SearchTelemetry;
+import it.cnr.istc.pst.platinum.ai.deliberative.strategy.telemetry.SearchTelemetrySink;
+import it.cnr.istc.pst.platinum.ai.deliberative.strategy.telemetry.mongo.MongoSearchTelemetrySink;
 import it.cnr.istc.pst.platinum.ai.framework.domain.component.ComponentValue;
 import it.cnr.istc.pst.platinum.ai.framework.domain.component.DomainComponent;
 import it.cnr.istc.pst.platinum.ai.framework.domain.component.PlanDataBase;
@@ -51,6 +50,7 @@ public abstract class SearchStrategy extends FrameworkObject implements Comparat
 	protected Map<ComponentValue, List<List<ComponentValue>>> pgraph;		// planning graph
 	protected Map<DomainComponent, Set<DomainComponent>> dgraph;			// dependency graph
 	protected List<DomainComponent>[] dhierarchy;							// domain hierarchy
+	protected DecompositionProjections pprojections;						// compiled projections of the planning graph
 	
 	protected double schedulingCost;										// set scheduling cost
 	protected double completionCost;										// set completion cost
@@ -58,11 +58,10 @@ public abstract class SearchStrategy extends FrameworkObject implements Comparat
 	protected double expansionCost;											// detailed planning cost
 	protected double unificationCost;										// detailed unification cost
 	
+	protected TranspositionTable transpositions;							// expanded partial plans (null if disabled)
 	
-	// set client connection
-	protected static MongoClient client;
-	// prepare collection
-	protected MongoCollection<Document> collection;
+	
+	protected SearchTelemetry telemetry;									// solving statistics (null if disabled)
 	
 	/**
 	 * 
@@ -86,6 +85,14 @@ public abstract class SearchStrategy extends FrameworkObject implements Comparat
 		this.unificationCost = Double.parseDouble(properties.getProperty("unification-cost"));
 		this.schedulingCost = Double.parseDouble(properties.getProperty("scheduling-cost"));
 		this.completionCost = Double.parseDouble(properties.getProperty("completion-cost"));
+		
+		// get the size of the transposition table
+		String size = properties.getProperty("transposition-table-size");
+		// check if exists
+		if (size != null && !size.equals("") && Integer.parseInt(size.trim()) > 0) {
+			// create transposition table
+			this.transpositions = new TranspositionTable(Integer.parseInt(size.trim()));
+		}
 	}
 	
 	/**
@@ -100,6 +107,8 @@ public abstract class SearchStrategy extends FrameworkObject implements Comparat
 		this.pgraph = dk.getDecompositionGraph();
 		// export decomposition graph
 		this.exportDecompositionGraph(this.pgraph);
+		// compile cost and makespan projections of the values of the graph
+		this.pprojections = new DecompositionProjections(this.pgraph, this.unificationCost);
 		
 		// get dependency graph
 		this.dgraph = dk.getDependencyGraph();
@@ -118,238 +127,71 @@ public abstract class SearchStrategy extends FrameworkObject implements Comparat
 		
 		// get mongo
 		String mongodb = properties.getProperty("mongodb");
+		// get telemetry file
+		String file = properties.getProperty("search-telemetry-file");
+		// set telemetry sink
+		SearchTelemetrySink sink = null;
 		// check if exists
 		if (mongodb != null && !mongodb.equals("")) {
-			
+			// check DB host
+			String dbHost = properties.getProperty("mongodb_host");
 			// create a collection to the DB
-			if (client == null) {
-				// check DB host
-				String dbHost = properties.getProperty("mongodb_host");
-				// create client
-				client = MongoClients.create(dbHost);
+			sink = new MongoSearchTelemetrySink(dbHost, mongodb.trim(), "planner_search");
+		}
+		else if (file != null && !file.equals("")) {
+			try {
+				// create telemetry file
+				sink = new FileSearchTelemetrySink(file.trim());
+			}
+			catch (IOException ex) {
+				throw new RuntimeException(ex.getMessage());
 			}
-			
-			// get DB 
-			MongoDatabase db = client.getDatabase(mongodb.trim());
-			// get collection
-			this.collection = db.getCollection("planner_search");
-			// remove all data from the collection
-			this.collection.drop();
+		}
+		
+		// check sink
+		if (sink != null) 
+		{
+			// get queue and batch size
+			String size = properties.getProperty("search-telemetry-queue-size");
+			String batch = properties.getProperty("search-telemetry-batch-size");
+			// create telemetry
+			this.telemetry = new SearchTelemetry(sink, 
+					size != null && !size.equals("") ? Integer.parseInt(size.trim()) : 10000, 
+					batch != null && !batch.equals("") ? Integer.parseInt(batch.trim()) : 500);
 		}
 	}
 	
 	
-	/** 
-	 * Compute the (pessimistic) planning cost of a domain value by analyzing the extracted decomposition graph 
+	/**
 	 * 
-	 * @param value
 	 * @return
 	 */
-	private Map<DomainComponent, Double[]> computeCostProjections(ComponentValue value) {
-		
-		// set cost
-		Map<DomainComponent, Double[]> cost = new HashMap<>();
-		// check if leaf
-		if (!this.pgraph.containsKey(value) || 
-				this.pgraph.get(value).isEmpty()) {
-			
-			// set cost
-			cost.put(value.getComponent(), new Double[] {
-					this.unificationCost,
-					this.unificationCost
-			});
-			
-		} else {
-			
-			// get possible decompositions
-			for (List<ComponentValue> decomposition : this.pgraph.get(value)) {
-				
-				// decomposition costs
-				Map<DomainComponent, Double[]> dCosts = new HashMap<>();
-				for (ComponentValue subgoal : decomposition) {
-					
-					// compute planning cost of the subgoal
-					Map<DomainComponent, Double[]> update = this.computeCostProjections(subgoal);
-					for (DomainComponent c : update.keySet()) {
-						
-						if (!dCosts.containsKey(c)) {
-							// set cost
-							dCosts.put(c, new Double[] {
-									update.get(c)[0],
-									update.get(c)[1]
-							});
-							
-						} else {
-							
-							// update cost
-							dCosts.put(c, new Double[] {
-									dCosts.get(c)[0] + update.get(c)[0],
-									dCosts.get(c)[1] + update.get(c)[1]
-							});
-						}
-					}
-				}
-				
-				// update pessimistic and optimistic projections
-				for (DomainComponent c : dCosts.keySet()) {
-					if (!cost.containsKey(c)) {
-						
-						// set cost
-						cost.put(c, new Double[] {
-							dCosts.get(c)[0],
-							dCosts.get(c)[1]
-						});
-						
-					} else {
-						
-						// get min and max
-						cost.put(c, new Double[] {
-								Math.min(cost.get(c)[0], dCosts.get(c)[0]),
-								Math.max(cost.get(c)[1], dCosts.get(c)[1])
-						});
-					}
-				}
-			}
-			
-			// set cost associated to the value
-			if (!cost.containsKey(value.getComponent())) {
-				
-				// set cost
-				cost.put(value.getComponent(), new Double[] {
-						this.unificationCost,
-						this.unificationCost
-				});
-				
-			} else {
-			
-				// weight cost according to the hierarchical value
-				cost.put(value.getComponent(), new Double[] {
-						this.unificationCost + cost.get(value.getComponent())[0],
-						this.unificationCost + cost.get(value.getComponent())[1]
-				});
-			}
-		}
-		
-		// get cost
-		return cost;
+	public String getLabel() {
+		return this.label;
 	}
 	
 	/**
-	 * Compute the (pessimistic) makespan projection by analyzing the extracted decomposition graph starting 
-	 * from a given value of the domain
 	 * 
-	 * @param value
 	 * @return
 	 */
-	private Map<DomainComponent, Double[]> computeMakespanProjections(ComponentValue value)
-	{
-		// set data structure
-		Map<DomainComponent, Double[]> makespan = new HashMap<>();
-		// check if leaf
-		if (!this.pgraph.containsKey(value) || 
-				this.pgraph.get(value).isEmpty()) {
-			
-			// set value expected minimum duration
-			makespan.put(value.getComponent(), new Double[] {
-					(double) value.getDurationLowerBound(),
-					(double) value.getDurationUpperBound()
-			});
-			
-		} else {
-			
-			// check possible decompositions
-			for (List<ComponentValue> decomposition : this.pgraph.get(value)) {
-				
-				// set decomposition makespan 
-				Map<DomainComponent, Double[]> dMakespan = new HashMap<>();
-				// check subgoals
-				for (ComponentValue subgoal : decomposition) {
-					
-					// recursive call to compute (pessimistic) makespan estimation
-					Map<DomainComponent, Double[]> update = this.computeMakespanProjections(subgoal);
-					// increment decomposition makespan
-					for (DomainComponent c : update.keySet()) {
-						
-						// check decomposition  makespan 
-						if (!dMakespan.containsKey(c)) {
-							// add entry 
-							dMakespan.put(c, new Double[] {
-									update.get(c)[0],
-									update.get(c)[1]
-							});
-							
-						} else {
-							
-							// increment component's makespan 
-							dMakespan.put(c, new Double[] {
-									dMakespan.get(c)[0] + update.get(c)[0],
-									dMakespan.get(c)[1] + update.get(c)[1]
-							});
-						}
-					}
-				}
-				
-				// update resulting makespan by taking into account the maximum value
-				for (DomainComponent c : dMakespan.keySet()) {
-					
-					// check makespan
-					if (!makespan.containsKey(c)) {
-						
-						// add entry
-						makespan.put(c, new Double[] {
-								dMakespan.get(c)[0],
-								dMakespan.get(c)[1]
-						});
-						
-					} else {
-						
-						// set the pessimistic and optimistic projections
-						makespan.put(c, new Double[] {
-								Math.min(makespan.get(c)[0], dMakespan.get(c)[0]),
-								Math.max(makespan.get(c)[1], dMakespan.get(c)[1])
-						});
-					}
-				}
-			}
-			
-			// set cost associated to the value
-			if (!makespan.containsKey(value.getComponent())) {
-				
-				// set cost
-				makespan.put(value.getComponent(), new Double[] {
-						(double) value.getDurationLowerBound(),
-						(double) value.getDurationLowerBound()
-				});
-				
-			} else {
-			
-				// increment makespan
-				makespan.put(value.getComponent(), new Double[] {
-						makespan.get(value.getComponent())[0] + ((double) value.getDurationLowerBound()),
-						makespan.get(value.getComponent())[1] + ((double) value.getDurationLowerBound())
-				});
-			}
-		}
-		
-		// get the makespan 
-		return makespan;
+	public int getFringeSize() {
+		return this.fringe.size();
 	}
 	
-	
 	/**
 	 * 
 	 * @return
 	 */
-	public String getLabel() {
-		return this.label;
+	public long getNumberOfPrunedDuplicates() {
+		return this.transpositions != null ? this.transpositions.getNumberOfPrunedDuplicates() : 0;
 	}
 	
 	/**
 	 * 
 	 * @return
 	 */
-	public int getFringeSize() {
-		return this.fringe.size();
+	public long getNumberOfMergedDuplicates() {
+		return this.transpositions != null ? this.transpositions.getNumberOfMergedDuplicates() : 0;
 	}
 	
 	/**
@@ -358,6 +200,24 @@ public abstract class SearchStrategy extends FrameworkObject implements Comparat
 	 */
 	public abstract void enqueue(SearchSpaceNode node);
 	
+	/**
+	 * Check an extracted (and propagated) node against the transposition table before its expansion. 
+	 * 
+	 * The method returns false if the partial plan of the node, identified by its signature, has 
+	 * already been expanded through a path not more expensive than the path of the node. In this 
+	 * case the node is a duplicate and should be pruned. Otherwise the node is recorded as the 
+	 * cheapest path to its partial plan and the method returns true.
+	 * 
+	 * @param node
+	 * @return
+	 */
+	public boolean visit(SearchSpaceNode node) 
+	{
+		// check the partial plan if the transposition table is enabled
+		return this.transpositions == null || 
+				this.transpositions.visit(node.getSignature(), node.getPlanCost());
+	}
+	
 	/**
 	 * 
 	 */
@@ -396,14 +256,27 @@ public abstract class SearchStrategy extends FrameworkObject implements Comparat
 	public void clear() {
 		// clear queue
 		this.fringe.clear();
-		// close DB connection if necessary 
-		if (client != null) {
-			client.close();
-			client = null;
-			this.collection = null;
+		// clear transposition table
+		if (this.transpositions != null) {
+			this.transpositions.clear();
+		}
+		
+		// write pending solving statistics and close the sink if necessary 
+		if (this.telemetry != null) {
+			this.telemetry.close();
+			this.telemetry = null;
 		}
 	}
 	
+	/**
+	 * Get the number of solving statistic records dropped because the telemetry sink fell behind
+	 * 
+	 * @return
+	 */
+	public long getNumberOfDroppedRecords() {
+		return this.telemetry != null ? this.telemetry.getNumberOfDroppedRecords() : 0;
+	}
+	
 	/**
 	 * 
 	 */
@@ -418,27 +291,18 @@ public abstract class SearchStrategy extends FrameworkObject implements Comparat
 	 */
 	protected void registerSearchChoice(SearchSpaceNode node) 
 	{
-		// check db collection
-		if (this.collection != null) {
-			// create solving statistic record
-			Document doc = new Document("step", node.getId());
-			doc.append("fringe-size", this.fringe.size());
-			doc.append("node-number-of-flaws", node.getNumberOfFlaws());
-			doc.append("node-depth", node.getDepth());
-			
-			// consolidated values of metrics
-			doc.append("node-plan-cost", node.getPlanCost());
-			doc.append("node-plan-makespan-min", node.getPlanMakespan()[0]);
-			doc.append("node-plan-makespan-max", node.getPlanMakespan()[1]);
-			
-			// heuristic estimation of metrics
-			doc.append("node-heuristic-plan-cost-min", node.getPlanHeuristicCost()[0]);
-			doc.append("node-heuristic-plan-cost-max", node.getPlanHeuristicCost()[1]);
-			doc.append("node-heuristic-plan-makespan-min", node.getPlanHeuristicMakespan()[0]);
-			doc.append("node-heuristic-plan-makespan-max", node.getPlanHeuristicMakespan()[1]);
-			
-			// insert data into the collection
-			this.collection.insertOne(doc);
+		// check telemetry
+		if (this.telemetry != null) {
+			// create solving statistic record (dropped if the sink falls behind)
+			this.telemetry.offer(new SearchRecord(
+					node.getId(),
+					this.fringe.size(),
+					node.getNumberOfFlaws(),
+					node.getDepth(),
+					node.getPlanCost(),
+					node.getPlanMakespan(),
+					node.getPlanHeuristicCost(),
+					node.getPlanHeuristicMakespan()));
 		}
 	}
 	
@@ -472,7 +336,7 @@ public abstract class SearchStrategy extends FrameworkObject implements Comparat
 				// get flaw data
 				Goal goal = (Goal) flaw;
 				// compute cost projections 
-				Map<DomainComponent, Double[]> update = this.computeCostProjections(goal.getDecision().getValue());
+				Map<DomainComponent, Double[]> update = this.pprojections.getCostProjections(goal.getDecision().getValue());
 				// update cost
 				for (DomainComponent c : update.keySet()) {
 					if (!cost.containsKey(c)) {
@@ -576,7 +440,7 @@ public abstract class SearchStrategy extends FrameworkObject implements Comparat
 				// get planning goal
 				Goal goal = (Goal) flaw;
 				// compute optimistic and pessimistic projections of makespan from goals
-				Map<DomainComponent, Double[]> update = this.computeMakespanProjections(
+				Map<DomainComponent, Double[]> update = this.pprojections.getMakespanProjections(
 						goal.getDecision().getValue());
 				
 				// update plan projections
@@ -0,0 +1,112 @@
+package it.cnr.istc.pst.platinum.ai.deliberative.strategy;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import it.cnr.istc.pst.platinum.ai.deliberative.solver.PartialPlanSignature;
+
+/**
+ * Bounded table of the signatures of the expanded partial plans together with the cost of
+ * the cheapest path that reached them. The least recently accessed signatures are discarded
+ * when the table is full.
+ * 
+ * Signatures are compared through their descriptions so a partial plan is considered as a
+ * duplicate only if it actually matches a recorded partial plan.
+ * 
+ * @author alessandro
+ *
+ */
+public class TranspositionTable
+{
+	private Map<PartialPlanSignature, Double> table;		// expanded partial plans
+	private long pruned;									// number of pruned duplicates
+	private long merged;									// number of duplicates reached through cheaper paths
+	
+	/**
+	 * 
+	 * @param capacity
+	 */
+	public TranspositionTable(int capacity)
+	{
+		// create access-ordered table
+		this.table = new LinkedHashMap<PartialPlanSignature, Double>(16, 0.75f, true) {
+			
+			private static final long serialVersionUID = 1L;
+			
+			/**
+			 * 
+			 */
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<PartialPlanSignature, Double> eldest) {
+				// check the size of the table
+				return this.size() > capacity;
+			}
+		};
+		
+		// set counters
+		this.pruned = 0;
+		this.merged = 0;
+	}
+	
+	/**
+	 * Check a partial plan against the table.
+	 * 
+	 * The method returns false if the partial plan has already been expanded through a path
+	 * not more expensive than the given one. Otherwise the cost is recorded as the cost of the
+	 * cheapest path to the partial plan and the method returns true.
+	 * 
+	 * @param signature
+	 * @param cost
+	 * @return
+	 */
+	public boolean visit(PartialPlanSignature signature, double cost)
+	{
+		// check if the partial plan has been already expanded
+		Double recorded = this.table.get(signature);
+		if (recorded != null && recorded <= cost) {
+			// prune duplicate
+			this.pruned++;
+			return false;
+		}
+		
+		// check if the partial plan has been reached through a cheaper path
+		if (recorded != null) {
+			this.merged++;
+		}
+		
+		// record the cheapest path to the partial plan
+		this.table.put(signature, cost);
+		return true;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public int size() {
+		return this.table.size();
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public long getNumberOfPrunedDuplicates() {
+		return this.pruned;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public long getNumberOfMergedDuplicates() {
+		return this.merged;
+	}
+	
+	/**
+	 * 
+	 */
+	public void clear() {
+		this.table.clear();
+	}
+}
@@ -0,0 +1,60 @@
+package it.cnr.istc.pst.platinum.ai.deliberative.strategy.telemetry;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.util.List;
+
+/**
+ * Append records to a local file, one JSON object per line
+ * 
+ * @author alessandro
+ *
+ */
+public class FileSearchTelemetrySink implements SearchTelemetrySink 
+{
+	private BufferedWriter writer;				// file writer
+	
+	/**
+	 * 
+	 * @param path
+	 * @throws IOException
+	 */
+	public FileSearchTelemetrySink(String path) 
+			throws IOException {
+		// open file in append mode
+		this.writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(path, true), "UTF-8"));
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public void write(List<SearchRecord> records) 
+			throws IOException 
+	{
+		// write records
+		for (SearchRecord record : records) {
+			this.writer.write(record.toString());
+			this.writer.newLine();
+		}
+		
+		// flush batch
+		this.writer.flush();
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public void close() {
+		try {
+			// close file
+			this.writer.close();
+		}
+		catch (IOException ex) {
+			throw new RuntimeException(ex.getMessage());
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package it.cnr.istc.pst.platinum.ai.deliberative.strategy.telemetry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keep the last written records in memory
+ * 
+ * @author alessandro
+ *
+ */
+public class RingBufferSearchTelemetrySink implements SearchTelemetrySink 
+{
+	private SearchRecord[] buffer;				// stored records
+	private long count;							// number of written records
+	
+	/**
+	 * 
+	 * @param capacity
+	 */
+	public RingBufferSearchTelemetrySink(int capacity) {
+		this.buffer = new SearchRecord[capacity];
+		this.count = 0;
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public synchronized void write(List<SearchRecord> records) {
+		// store records overwriting the oldest ones
+		for (SearchRecord record : records) {
+			this.buffer[(int) (this.count % this.buffer.length)] = record;
+			this.count++;
+		}
+	}
+	
+	/**
+	 * Get the stored records from the oldest to the newest
+	 * 
+	 * @return
+	 */
+	public synchronized List<SearchRecord> getRecords() 
+	{
+		// list of records
+		List<SearchRecord> list = new ArrayList<>();
+		for (long i = Math.max(0, this.count - this.buffer.length); i < this.count; i++) {
+			list.add(this.buffer[(int) (i % this.buffer.length)]);
+		}
+		
+		// get records
+		return list;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public synchronized long getNumberOfWrittenRecords() {
+		return this.count;
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public void close() {
+		// nothing to do
+	}
+}
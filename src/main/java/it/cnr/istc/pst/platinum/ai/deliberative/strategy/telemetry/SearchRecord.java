@@ -0,0 +1,126 @@
+package it.cnr.istc.pst.platinum.ai.deliberative.strategy.telemetry;
+
+/**
+ * Solving statistics of a search node extracted from the fringe
+ * 
+ * @author alessandro
+ *
+ */
+public class SearchRecord 
+{
+	private int step;							// node id
+	private int fringeSize;						// size of the fringe
+	private int numberOfFlaws;					// number of flaws of the node
+	private int depth;							// node depth
+	private double planCost;					// consolidated plan cost
+	private double[] planMakespan;				// consolidated plan makespan
+	private double[] heuristicCost;				// heuristic estimation of the plan cost
+	private double[] heuristicMakespan;			// heuristic estimation of the plan makespan
+	
+	/**
+	 * 
+	 * @param step
+	 * @param fringeSize
+	 * @param numberOfFlaws
+	 * @param depth
+	 * @param planCost
+	 * @param planMakespan
+	 * @param heuristicCost
+	 * @param heuristicMakespan
+	 */
+	public SearchRecord(int step, int fringeSize, int numberOfFlaws, int depth, double planCost, 
+			double[] planMakespan, double[] heuristicCost, double[] heuristicMakespan) 
+	{
+		this.step = step;
+		this.fringeSize = fringeSize;
+		this.numberOfFlaws = numberOfFlaws;
+		this.depth = depth;
+		this.planCost = planCost;
+		this.planMakespan = new double[] {planMakespan[0], planMakespan[1]};
+		this.heuristicCost = new double[] {heuristicCost[0], heuristicCost[1]};
+		this.heuristicMakespan = new double[] {heuristicMakespan[0], heuristicMakespan[1]};
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public int getStep() {
+		return step;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public int getFringeSize() {
+		return fringeSize;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public int getNumberOfFlaws() {
+		return numberOfFlaws;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public int getDepth() {
+		return depth;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public double getPlanCost() {
+		return planCost;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public double[] getPlanMakespan() {
+		return new double[] {planMakespan[0], planMakespan[1]};
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public double[] getHeuristicCost() {
+		return new double[] {heuristicCost[0], heuristicCost[1]};
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public double[] getHeuristicMakespan() {
+		return new double[] {heuristicMakespan[0], heuristicMakespan[1]};
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public String toString() {
+		// JSON like object description
+		return "{ \"step\": " + this.step + ", "
+				+ "\"fringe-size\": " + this.fringeSize + ", "
+				+ "\"node-number-of-flaws\": " + this.numberOfFlaws + ", "
+				+ "\"node-depth\": " + this.depth + ", "
+				+ "\"node-plan-cost\": " + this.planCost + ", "
+				+ "\"node-plan-makespan-min\": " + this.planMakespan[0] + ", "
+				+ "\"node-plan-makespan-max\": " + this.planMakespan[1] + ", "
+				+ "\"node-heuristic-plan-cost-min\": " + this.heuristicCost[0] + ", "
+				+ "\"node-heuristic-plan-cost-max\": " + this.heuristicCost[1] + ", "
+				+ "\"node-heuristic-plan-makespan-min\": " + this.heuristicMakespan[0] + ", "
+				+ "\"node-heuristic-plan-makespan-max\": " + this.heuristicMakespan[1] + " }";
+	}
+}
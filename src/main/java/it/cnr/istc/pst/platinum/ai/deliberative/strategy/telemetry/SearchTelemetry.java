@@ -0,0 +1,197 @@
+package it.cnr.istc.pst.platinum.ai.deliberative.strategy.telemetry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Collect solving statistics without slowing the search. Records are put into a bounded 
+ * lock-free queue and written to a sink in batches by a background process. 
+ * 
+ * If the sink falls behind and the queue is full, records are dropped and counted
+ * 
+ * @author alessandro
+ *
+ */
+public class SearchTelemetry implements Runnable
+{
+	private static final long IDLE_TIME = TimeUnit.MILLISECONDS.toNanos(1);	// waiting time of the process when the queue is empty
+	
+	private SearchTelemetrySink sink;				// destination of records
+	private Queue<SearchRecord> queue;				// pending records
+	private AtomicInteger size;						// number of pending records (places are reserved before enqueueing)
+	private int capacity;							// maximum number of pending records
+	private int batchSize;							// maximum number of records written at once
+	
+	private AtomicLong written;						// number of written records
+	private AtomicLong dropped;						// number of dropped records
+	
+	private volatile boolean closed;				// closing flag
+	private Thread process;							// writing process
+	
+	/**
+	 * 
+	 * @param sink
+	 * @param capacity
+	 * @param batchSize
+	 */
+	public SearchTelemetry(SearchTelemetrySink sink, int capacity, int batchSize) 
+	{
+		// check parameters
+		if (capacity <= 0 || batchSize <= 0) {
+			throw new RuntimeException("Invalid telemetry configuration capacity= " + capacity + " batch= " + batchSize);
+		}
+		
+		// set sink and queue
+		this.sink = sink;
+		this.queue = new ConcurrentLinkedQueue<>();
+		this.size = new AtomicInteger(0);
+		this.capacity = capacity;
+		this.batchSize = batchSize;
+		
+		// set counters
+		this.written = new AtomicLong(0);
+		this.dropped = new AtomicLong(0);
+		
+		// create and start the writing process
+		this.closed = false;
+		this.process = new Thread(this, "search-telemetry");
+		this.process.setDaemon(true);
+		this.process.start();
+	}
+	
+	/**
+	 * Add a record to the queue. The method never blocks and returns false if 
+	 * the record has been dropped
+	 * 
+	 * @param record
+	 * @return
+	 */
+	public boolean offer(SearchRecord record) 
+	{
+		// check if closed
+		if (this.closed) {
+			// drop record
+			this.dropped.incrementAndGet();
+			return false;
+		}
+		
+		// reserve a place in the queue
+		if (this.size.incrementAndGet() > this.capacity) {
+			// queue full, drop record
+			this.size.decrementAndGet();
+			this.dropped.incrementAndGet();
+			return false;
+		}
+		
+		// add record
+		this.queue.add(record);
+		// check if closed while adding the record, since the process may have already stopped
+		if (this.closed && this.queue.remove(record)) {
+			// drop record
+			this.size.decrementAndGet();
+			this.dropped.incrementAndGet();
+			return false;
+		}
+		
+		// the record is written by the process
+		return true;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public long getNumberOfWrittenRecords() {
+		return this.written.get();
+	}
+	
+	/**
+	 * Get the number of records dropped because the queue was full or the sink failed
+	 * 
+	 * @return
+	 */
+	public long getNumberOfDroppedRecords() {
+		return this.dropped.get();
+	}
+	
+	/**
+	 * Write pending records, stop the writing process and close the sink
+	 */
+	public void close() 
+	{
+		// check if already closed
+		if (!this.closed) 
+		{
+			// stop accepting records
+			this.closed = true;
+			LockSupport.unpark(this.process);
+			try {
+				// wait pending records to be written
+				this.process.join();
+			}
+			catch (InterruptedException ex) {
+				// restore interrupt status
+				Thread.currentThread().interrupt();
+			}
+			finally {
+				// close sink
+				this.sink.close();
+			}
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public void run() 
+	{
+		// batch of records
+		List<SearchRecord> batch = new ArrayList<>(this.batchSize);
+		// write records until closed and no record is pending
+		while (!this.closed || !this.queue.isEmpty()) 
+		{
+			// check interrupt status
+			if (Thread.currentThread().isInterrupted()) {
+				// pending records lost
+				this.dropped.addAndGet(this.size.get());
+				return;
+			}
+			
+			// get the next batch of records
+			SearchRecord record;
+			while (batch.size() < this.batchSize && (record = this.queue.poll()) != null) {
+				batch.add(record);
+			}
+			
+			// check batch
+			if (batch.isEmpty()) {
+				// wait records
+				LockSupport.parkNanos(IDLE_TIME);
+				continue;
+			}
+			
+			// free places in the queue
+			this.size.addAndGet(-batch.size());
+			try 
+			{
+				// write batch
+				this.sink.write(batch);
+				this.written.addAndGet(batch.size());
+			}
+			catch (Exception ex) {
+				// records lost
+				this.dropped.addAndGet(batch.size());
+			}
+			
+			// clear batch
+			batch.clear();
+		}
+	}
+}
@@ -0,0 +1,27 @@
+package it.cnr.istc.pst.platinum.ai.deliberative.strategy.telemetry;
+
+import java.util.List;
+
+/**
+ * Destination of the solving statistics collected during search. Records are written 
+ * in batches by the background process of a {@link SearchTelemetry}
+ * 
+ * @author alessandro
+ *
+ */
+public interface SearchTelemetrySink 
+{
+	/**
+	 * Write a batch of records
+	 * 
+	 * @param records
+	 * @throws Exception
+	 */
+	public void write(List<SearchRecord> records) 
+			throws Exception;
+	
+	/**
+	 * Release the resources of the sink
+	 */
+	public void close();
+}
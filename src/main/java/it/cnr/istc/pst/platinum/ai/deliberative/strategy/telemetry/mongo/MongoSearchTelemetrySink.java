@@ -0,0 +1,84 @@
+package it.cnr.istc.pst.platinum.ai.deliberative.strategy.telemetry.mongo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.Document;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+
+import it.cnr.istc.pst.platinum.ai.deliberative.strategy.telemetry.SearchRecord;
+import it.cnr.istc.pst.platinum.ai.deliberative.strategy.telemetry.SearchTelemetrySink;
+
+/**
+ * Store records into a MongoDB collection
+ * 
+ * @author alessandro
+ *
+ */
+public class MongoSearchTelemetrySink implements SearchTelemetrySink 
+{
+	private MongoClient client;						// client connection
+	private MongoCollection<Document> collection;	// search data collection
+	
+	/**
+	 * Connect to a DB server and clear the collection of search data
+	 * 
+	 * @param host
+	 * @param name
+	 * @param collection
+	 */
+	public MongoSearchTelemetrySink(String host, String name, String collection) 
+	{
+		// create client
+		this.client = MongoClients.create(host);
+		// get collection
+		this.collection = this.client.getDatabase(name).getCollection(collection);
+		// remove all data from the collection
+		this.collection.drop();
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public void write(List<SearchRecord> records) 
+	{
+		// create documents
+		List<Document> docs = new ArrayList<>();
+		for (SearchRecord record : records) 
+		{
+			// create solving statistic record
+			Document doc = new Document("step", record.getStep());
+			doc.append("fringe-size", record.getFringeSize());
+			doc.append("node-number-of-flaws", record.getNumberOfFlaws());
+			doc.append("node-depth", record.getDepth());
+			
+			// consolidated values of metrics
+			doc.append("node-plan-cost", record.getPlanCost());
+			doc.append("node-plan-makespan-min", record.getPlanMakespan()[0]);
+			doc.append("node-plan-makespan-max", record.getPlanMakespan()[1]);
+			
+			// heuristic estimation of metrics
+			doc.append("node-heuristic-plan-cost-min", record.getHeuristicCost()[0]);
+			doc.append("node-heuristic-plan-cost-max", record.getHeuristicCost()[1]);
+			doc.append("node-heuristic-plan-makespan-min", record.getHeuristicMakespan()[0]);
+			doc.append("node-heuristic-plan-makespan-max", record.getHeuristicMakespan()[1]);
+			docs.add(doc);
+		}
+		
+		// insert data into the collection
+		this.collection.insertMany(docs);
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public void close() {
+		// close DB connection
+		this.client.close();
+	}
+}
@@ -4,6 +4,7 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -34,6 +35,7 @@ import it.cnr.istc.pst.platinum.ai.framework.protocol.lang.PlanProtocolDescripto
 import it.cnr.istc.pst.platinum.ai.framework.protocol.lang.TimelineProtocolDescriptor;
 import it.cnr.istc.pst.platinum.ai.framework.protocol.lang.TokenProtocolDescriptor;
 import it.cnr.istc.pst.platinum.ai.framework.protocol.lang.relation.RelationProtocolDescriptor;
+import it.cnr.istc.pst.platinum.ai.framework.time.DispatchableNetwork;
 import it.cnr.istc.pst.platinum.ai.framework.time.TemporalFacade;
 import it.cnr.istc.pst.platinum.ai.framework.time.TemporalInterval;
 import it.cnr.istc.pst.platinum.ai.framework.time.ex.TemporalConsistencyException;
@@ -41,6 +43,7 @@ import it.cnr.istc.pst.platinum.ai.framework.time.ex.TemporalConstraintPropagati
 import it.cnr.istc.pst.platinum.ai.framework.time.ex.TemporalIntervalCreationException;
 import it.cnr.istc.pst.platinum.ai.framework.time.lang.FixIntervalDurationConstraint;
 import it.cnr.istc.pst.platinum.ai.framework.time.lang.FixTimePointConstraint;
+import it.cnr.istc.pst.platinum.ai.framework.time.lang.TemporalConstraint;
 import it.cnr.istc.pst.platinum.ai.framework.time.lang.TemporalConstraintType;
 import it.cnr.istc.pst.platinum.ai.framework.time.lang.allen.AfterIntervalConstraint;
 import it.cnr.istc.pst.platinum.ai.framework.time.lang.allen.BeforeIntervalConstraint;
@@ -52,6 +55,7 @@ import it.cnr.istc.pst.platinum.ai.framework.time.lang.allen.MeetsIntervalConstr
 import it.cnr.istc.pst.platinum.ai.framework.time.lang.allen.StartsDuringIntervalConstraint;
 import it.cnr.istc.pst.platinum.ai.framework.time.lang.query.IntervalScheduleQuery;
 import it.cnr.istc.pst.platinum.ai.framework.time.solver.TemporalSolverType;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePoint;
 import it.cnr.istc.pst.platinum.ai.framework.time.tn.TemporalNetworkType;
 
 /**
@@ -73,6 +77,8 @@ public class ExecutivePlanDataBase extends FrameworkObject
 	
 	@TemporalFacadePlaceholder
 	protected TemporalFacade facade;					// temporal data base
+	protected DispatchableNetwork dispatchable;			// compiled network dispatched during execution
+	protected List<TemporalConstraint> executions;		// executions and durations of the compiled network not yet propagated to the facade
 	
 	// plan locks
 	private final Object[] locks;
@@ -110,6 +116,8 @@ public class ExecutivePlanDataBase extends FrameworkObject
 		// set the dependency graph
 		this.sdg = new HashMap<>();
 		this.edg = new HashMap<>();
+		// set pending executions
+		this.executions = new ArrayList<>();
 	}
 	
 	/**
@@ -425,6 +433,10 @@ public class ExecutivePlanDataBase extends FrameworkObject
 				this.facade.process(query);
 			}
 			
+			// compile the minimal dispatchable network of the plan
+			this.dispatchable = this.facade.compileDispatchableNetwork();
+			debug("Dispatchable network compiled with " + this.dispatchable.getNumberOfEdges() + " edges");
+			
 			// prepare log message
 			String msg = "";
 			// print execution dependency graph (for debug only)
@@ -472,6 +484,8 @@ public class ExecutivePlanDataBase extends FrameworkObject
 	protected void createConstraintsAndDependencies(ExecutionNode reference, ExecutionNode target, Relation rel) 
 			throws Exception {
 		
+		// propagate the executions of the compiled network first
+		this.doPropagateExecutions();
 		// check temporal category
 		if (rel.getCategory().equals(ConstraintCategory.TEMPORAL_CONSTRAINT)) {
 			// check relation
@@ -567,6 +581,8 @@ public class ExecutivePlanDataBase extends FrameworkObject
 	protected void createConstraintsAndDependencies(ExecutionNode reference, ExecutionNode target, RelationProtocolDescriptor rel) 
 			throws Exception {
 		
+		// propagate the executions of the compiled network first
+		this.doPropagateExecutions();
 		// check relation type
 		switch (rel.getType()) {
 		
@@ -719,6 +735,33 @@ public class ExecutivePlanDataBase extends FrameworkObject
 	 */
 	public void checkSchedule(ExecutionNode node) {
 		
+		// check if the node can be dispatched through the compiled network
+		TemporalInterval interval = node.getInterval();
+		if (this.dispatchable != null && this.dispatchable.contains(interval.getStartTime()) && 
+				this.dispatchable.contains(interval.getEndTime())) 
+		{
+			// get execution windows
+			long[] start = this.dispatchable.getWindow(interval.getStartTime());
+			long[] end = this.dispatchable.getWindow(interval.getEndTime());
+			long[] duration = this.dispatchable.getDistance(interval.getStartTime(), interval.getEndTime());
+			// set the schedule of the interval
+			interval.getStartTime().setLowerBound(start[0]);
+			interval.getStartTime().setUpperBound(start[1]);
+			interval.getEndTime().setLowerBound(end[0]);
+			interval.getEndTime().setUpperBound(end[1]);
+			interval.setDurationLowerBound(Math.max(duration[0], end[0] - start[1]));
+			interval.setDurationUpperBound(Math.min(duration[1], end[1] - start[0]));
+			return;
+		}
+		
+		try {
+			// propagate the executions of the compiled network before querying the facade
+			this.doPropagateExecutions();
+		}
+		catch (TemporalConstraintPropagationException ex) {
+			throw new RuntimeException(ex.getMessage());
+		}
+		
 		// check resulting schedule of the interval
 		IntervalScheduleQuery query = this.facade.
 				 createTemporalQuery(TemporalQueryType.INTERVAL_SCHEDULE);
@@ -883,6 +926,28 @@ public class ExecutivePlanDataBase extends FrameworkObject
 	public final void scheduleDuration(ExecutionNode node, long duration) 
 			throws TemporalConstraintPropagationException {
 		
+		// check if the node can be dispatched through the compiled network
+		TimePoint start = node.getInterval().getStartTime();
+		TimePoint end = node.getInterval().getEndTime();
+		if (this.dispatchable != null && this.dispatchable.contains(start) && this.dispatchable.contains(end)) 
+		{
+			// constrain the distance between the start and the end of the node
+			this.dispatchable.constrain(start, end, duration, duration);
+			// create constraint
+			FixIntervalDurationConstraint fix = this.facade.
+					createTemporalConstraint(TemporalConstraintType.FIX_INTERVAL_DURATION);
+			fix.setReference(node.getInterval());
+			fix.setDuration(duration);
+			synchronized (this.executions) {
+				// record the constraint together with the executions
+				this.executions.add(fix);
+			}
+			
+			return;
+		}
+		
+		// propagate the executions of the compiled network first
+		this.doPropagateExecutions();
 		// fix start time first
 		FixIntervalDurationConstraint fix = this.facade.
 				createTemporalConstraint(TemporalConstraintType.FIX_INTERVAL_DURATION);
@@ -911,6 +976,15 @@ public class ExecutivePlanDataBase extends FrameworkObject
 	public final void scheduleStartTime(ExecutionNode node, long time) 
 			throws TemporalConstraintPropagationException {
 		
+		// check if the node can be dispatched through the compiled network
+		if (this.dispatchable != null && this.dispatchable.contains(node.getInterval().getStartTime())) {
+			// execute the start time point
+			this.doExecute(node.getInterval().getStartTime(), time);
+			return;
+		}
+		
+		// propagate the executions of the compiled network first
+		this.doPropagateExecutions();
 		// create constraint
 		FixTimePointConstraint fix = this.facade.
 				createTemporalConstraint(TemporalConstraintType.FIX_TIME_POINT);
@@ -941,6 +1015,15 @@ public class ExecutivePlanDataBase extends FrameworkObject
 	public void scheduleEndTime(ExecutionNode node, long time) 
 			throws TemporalConstraintPropagationException {
 		
+		// check if the node can be dispatched through the compiled network
+		if (this.dispatchable != null && this.dispatchable.contains(node.getInterval().getEndTime())) {
+			// execute the end time point
+			this.doExecute(node.getInterval().getEndTime(), time);
+			return;
+		}
+		
+		// propagate the executions of the compiled network first
+		this.doPropagateExecutions();
 		// create constraint
 		FixTimePointConstraint fix = this.facade.
 				createTemporalConstraint(TemporalConstraintType.FIX_TIME_POINT);
@@ -963,6 +1046,59 @@ public class ExecutivePlanDataBase extends FrameworkObject
 		}
 	}
 	
+	/**
+	 * Execute a time point on the compiled network. The execution is recorded so that it
+	 * can be propagated to the temporal facade before the facade is used 
+	 * 
+	 * @param point
+	 * @param time
+	 * @throws TemporalConstraintPropagationException
+	 */
+	private void doExecute(TimePoint point, long time) 
+			throws TemporalConstraintPropagationException {
+		
+		// execute the time point on the compiled network
+		this.dispatchable.execute(point, time);
+		// create constraint
+		FixTimePointConstraint fix = this.facade.
+				createTemporalConstraint(TemporalConstraintType.FIX_TIME_POINT);
+		fix.setReference(point);
+		fix.setTime(time);
+		synchronized (this.executions) {
+			// record execution
+			this.executions.add(fix);
+		}
+	}
+	
+	/**
+	 * Propagate the executions of the compiled network that have not been propagated
+	 * to the temporal facade yet. All the executions are propagated through a single 
+	 * transaction of the facade
+	 * 
+	 * @throws TemporalConstraintPropagationException
+	 */
+	private void doPropagateExecutions() 
+			throws TemporalConstraintPropagationException {
+		
+		synchronized (this.executions) {
+			// check pending executions
+			if (!this.executions.isEmpty()) {
+				try {
+					
+					// propagate executions
+					this.facade.propagate(this.executions);
+					
+				} catch (TemporalConsistencyException ex) {
+					// the facade has rolled back the executions
+					throw new TemporalConstraintPropagationException("Error while propagating executed time points\n- message: " + ex.getMessage() + "\n");
+				}
+				
+				// clear propagated executions
+				this.executions.clear();
+			}
+		}
+	}
+	
 	/**
 	 * 
 	 * @param reference
@@ -1,5 +1,6 @@
 package it.cnr.istc.pst.platinum.ai.framework.domain;
 
+import java.io.File;
 import java.lang.reflect.Constructor;
 
 import it.cnr.istc.pst.platinum.ai.framework.domain.component.DomainComponentType;
@@ -18,8 +19,10 @@ import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.ex.Synchronization
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.problem.Problem;
 import it.cnr.istc.pst.platinum.ai.framework.parameter.ParameterFacade;
 import it.cnr.istc.pst.platinum.ai.framework.parameter.ParameterFacadeBuilder;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.csp.solver.ParameterSolverType;
 import it.cnr.istc.pst.platinum.ai.framework.time.TemporalFacade;
 import it.cnr.istc.pst.platinum.ai.framework.time.TemporalFacadeBuilder;
+import it.cnr.istc.pst.platinum.ai.framework.utils.properties.FilePropertyReader;
 import it.cnr.istc.pst.platinum.ai.framework.utils.reflection.FrameworkReflectionUtils;
 import it.cnr.istc.pst.platinum.ai.lang.ddl.DomainCompilerFactory;
 import it.cnr.istc.pst.platinum.ai.lang.ddl.DomainCompilerType;
@@ -34,6 +37,9 @@ public class PlanDataBaseBuilder
 {
 	// domain compiler type
 	private static final DomainCompilerType DEFAULT_COMPILER = DomainCompilerType.DDLv3;
+	// set framework home
+	private static final String FRAMEWORK_HOME = System.getenv("PLATINUM_HOME") != null ?
+			System.getenv("PLATINUM_HOME") + "/" : "";
 	
 	
 	/**
@@ -114,7 +120,7 @@ public class PlanDataBaseBuilder
 		// get parameter facade configuration
 		ParameterFacadeConfiguration pAnnot = FrameworkReflectionUtils.doFindnAnnotation(PlanDataBaseComponent.class, ParameterFacadeConfiguration.class);
 		// create parameter facade
-		ParameterFacade pf = ParameterFacadeBuilder.createAndSet(pAnnot);
+		ParameterFacade pf = ParameterFacadeBuilder.createAndSet(doGetParameterSolver(pAnnot.solver()));
 
 		
 		// create plan database component instance
@@ -183,4 +189,35 @@ public class PlanDataBaseBuilder
 		return knowledge;
 	}
 	
+	/**
+	 * Get the parameter solver to use. The solver set in the deliberative properties (if any) 
+	 * overrides the one configured on the plan database
+	 * 
+	 * @param type
+	 * @return
+	 */
+	private static ParameterSolverType doGetParameterSolver(ParameterSolverType type) 
+	{
+		// check deliberative properties
+		File file = new File(FRAMEWORK_HOME + FilePropertyReader.DEFAULT_DELIBERATIVE_PROPERTY);
+		if (file.exists()) 
+		{
+			// get the parameter solver
+			FilePropertyReader properties = new FilePropertyReader(file.getPath());
+			String solver = properties.getProperty("parameter-solver");
+			// check if exists
+			if (solver != null && !solver.trim().equals("")) {
+				try {
+					// get solver type
+					type = ParameterSolverType.valueOf(solver.trim());
+				}
+				catch (IllegalArgumentException ex) {
+					throw new RuntimeException("Unknown parameter solver type: " + solver + "\n- message: " + ex.getMessage() + "\n");
+				}
+			}
+		}
+		
+		// get parameter solver type
+		return type;
+	}
 }
\ No newline at end of file
@@ -16,11 +16,13 @@ import it.cnr.istc.pst.platinum.ai.framework.domain.component.ex.DecisionPropaga
 import it.cnr.istc.pst.platinum.ai.framework.domain.component.ex.FlawSolutionApplicationException;
 import it.cnr.istc.pst.platinum.ai.framework.domain.component.ex.RelationPropagationException;
 import it.cnr.istc.pst.platinum.ai.framework.domain.component.pdb.SynchronizationRule;
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.ConstraintCategory;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.FrameworkObject;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.annotation.inject.framework.ParameterFacadePlaceholder;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.annotation.inject.framework.ResolverListPlaceholder;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.annotation.inject.framework.TemporalFacadePlaceholder;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.annotation.lifecycle.PostConstruct;
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.ex.ConsistencyCheckException;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.ex.ConstraintPropagationException;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.flaw.Flaw;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.flaw.FlawSolution;
@@ -73,16 +75,16 @@ public abstract class DomainComponent extends FrameworkObject
 	// display data concerning this component
 	private ComponentView view;
 	
-	// static information
+	// information shared by the components of a plan database
 	
 	// rules from the planning domain
-	protected static final Map<DomainComponent, Map<ComponentValue, List<SynchronizationRule>>> rules = new HashMap<>();
+	protected Map<DomainComponent, Map<ComponentValue, List<SynchronizationRule>>> rules;
 	// current (global) relations
-	protected static final Set<Relation> globalRelations = new HashSet<>();
-	// predicate ID counter
-	protected static final AtomicInteger PREDICATE_COUNTER = new AtomicInteger(0);
-	protected static final AtomicInteger DecisionIdCounter = new AtomicInteger(0);
-	protected static final AtomicInteger RELATION_COUNTER = new AtomicInteger(0);
+	protected Set<Relation> globalRelations;
+	// predicate, decision and relation ID counters
+	protected AtomicInteger predicateCounter;
+	protected AtomicInteger decisionCounter;
+	protected AtomicInteger relationCounter;
 	
 	/**
 	 * 
@@ -102,6 +104,12 @@ public abstract class DomainComponent extends FrameworkObject
 		
 		// set relations of the (local) plan
 		this.localRelations = new HashSet<>();
+		// set shared information until the component is added to a plan database
+		this.rules = new HashMap<>();
+		this.globalRelations = new HashSet<>();
+		this.predicateCounter = new AtomicInteger(0);
+		this.decisionCounter = new AtomicInteger(0);
+		this.relationCounter = new AtomicInteger(0);
 		// set up the list of resolvers
 		this.resolvers = new ArrayList<>();
 		this.flawType2resolver = new HashMap<>();
@@ -161,6 +169,22 @@ public abstract class DomainComponent extends FrameworkObject
 		return this.tdb.getHorizon();
 	}
 	
+	/**
+	 * Let a component use the synchronization rules, the global relations and the
+	 * ID counters of this component. Plan databases share their information with the
+	 * components they create so that several plan databases can live in the same process.
+	 * 
+	 * @param component
+	 */
+	protected final void share(DomainComponent component) {
+		// share information with the component
+		component.rules = this.rules;
+		component.globalRelations = this.globalRelations;
+		component.predicateCounter = this.predicateCounter;
+		component.decisionCounter = this.decisionCounter;
+		component.relationCounter = this.relationCounter;
+	}
+	
 	/**
 	 * Clear component data structure
 	 */
@@ -322,7 +346,7 @@ public abstract class DomainComponent extends FrameworkObject
 	 * 
 	 * @return
 	 */
-	public static final Set<Relation> getGlobalActiveRelations() {
+	public final Set<Relation> getGlobalActiveRelations() {
 		// set of active global relations
 		Set<Relation> set = new HashSet<>();
 		synchronized (globalRelations) {
@@ -340,7 +364,7 @@ public abstract class DomainComponent extends FrameworkObject
 	 * Get the set of global relations
 	 * @return
 	 */
-	public static final Set<Relation> getGlobalRelations() {
+	public final Set<Relation> getGlobalRelations() {
 		// set of active global relations
 		Set<Relation> set = new HashSet<>();
 		synchronized (globalRelations) {
@@ -356,7 +380,7 @@ public abstract class DomainComponent extends FrameworkObject
 	 * Get the set of pending global relations
 	 * @return
 	 */
-	public static final Set<Relation> getGlobalPendingRelations() {
+	public final Set<Relation> getGlobalPendingRelations() {
 		// set of active global relations
 		Set<Relation> set = new HashSet<>();
 		synchronized (globalRelations) {
@@ -565,7 +589,7 @@ public abstract class DomainComponent extends FrameworkObject
 		}
 		
 		// set decision
-		Decision dec = new Decision(DecisionIdCounter.getAndIncrement(), value, labels, start, end, duration);
+		Decision dec = new Decision(this.decisionCounter.getAndIncrement(), value, labels, start, end, duration);
 		// add decision the the agenda
 		this.decisions.get(PlanElementStatus.PENDING).add(dec);
 		// get decision
@@ -589,7 +613,7 @@ public abstract class DomainComponent extends FrameworkObject
 		}
 		
 		// set decision
-		Decision dec = new Decision(DecisionIdCounter.getAndIncrement(), value, labels, start, end, duration, status);
+		Decision dec = new Decision(this.decisionCounter.getAndIncrement(), value, labels, start, end, duration, status);
 		// add decision the the agenda
 		this.decisions.get(PlanElementStatus.PENDING).add(dec);
 		// get set decision
@@ -659,12 +683,11 @@ public abstract class DomainComponent extends FrameworkObject
 					this.decisions.get(PlanElementStatus.ACTIVE).add(dec);
 				
 					// get local and global relations to activate
-					for (Relation rel : this.getToActivateRelations(dec)) {
-						// propagate relations
-						this.activate(rel);
-						// add relation to the list
-						rels.add(rel);
-					}
+					Set<Relation> toActivate = this.getToActivateRelations(dec);
+					// propagate relations (temporal constraints through a single transaction)
+					this.activate(toActivate);
+					// add relations to the list
+					rels.addAll(toActivate);
 				}
 				catch (RelationPropagationException ex) 
 				{
@@ -739,13 +762,11 @@ public abstract class DomainComponent extends FrameworkObject
 		if (this.isActive(dec)) {
 			
 			// get active relations to retract
-			for (Relation rel :  this.getActiveRelations(dec)) {
-				
-				// deactivate relations
-				this.deactivate(rel);
+			Set<Relation> toDeactivate = this.getActiveRelations(dec);
+			// deactivate relations (temporal constraints through a single transaction)
+			this.deactivate(toDeactivate);
 				// add 
-				rDeactivated.add(rel);
-			}
+			rDeactivated.addAll(toDeactivate);
 			
 			// delete related token
 			Token token = dec.getToken();
@@ -869,7 +890,7 @@ public abstract class DomainComponent extends FrameworkObject
 			Constructor<T> c = clazz.getDeclaredConstructor(Integer.TYPE, Decision.class, Decision.class);
 			c.setAccessible(true);
 			// create instance
-			rel = c.newInstance(RELATION_COUNTER.getAndIncrement(), reference, target);
+			rel = c.newInstance(this.relationCounter.getAndIncrement(), reference, target);
 			
 			// check if local relation
 			if (rel.isLocal()) {
@@ -1338,7 +1359,8 @@ public abstract class DomainComponent extends FrameworkObject
 	}
 	
 	/**
-	 * Propagate pending relations 
+	 * Propagate pending relations. The constraints of the temporal relations are 
+	 * propagated through a single transaction of the temporal facade
 	 * 
 	 * @param relations
 	 */
@@ -1347,19 +1369,50 @@ public abstract class DomainComponent extends FrameworkObject
 	{
 		// list of committed relations
 		List<Relation> committed = new ArrayList<>();
+		// temporal relations to propagate through a single transaction
+		List<TemporalRelation> trels = new ArrayList<>();
+		List<TemporalConstraint> constraints = new ArrayList<>();
 		try 
 		{
 			// propagate relations
-			for (Relation rel : relations) {
+			for (Relation rel : relations) 
+			{
+				// check temporal relations that can be activated
+				if (rel.getCategory().equals(ConstraintCategory.TEMPORAL_CONSTRAINT) && 
+						this.isLocal(rel) && rel.canBeActivated()) 
+				{
+					// get temporal relation
+					TemporalRelation trel = (TemporalRelation) rel;
+					// create interval constraint
+					constraints.add(trel.create());
+					trels.add(trel);
+				}
 				// propagate relation
-				if (this.activate(rel)) {
+				else if (this.activate(rel)) {
 					// add to committed
 					committed.add(rel);
 				}
 			}
+			
+			try
+			{
+				// propagate temporal constraints
+				this.tdb.propagate(constraints);
+				// add to committed
+				committed.addAll(trels);
+			}
+			catch (ConstraintPropagationException | ConsistencyCheckException ex) {
+				// note that the relations are still "pending"
+				throw new RelationPropagationException(ex.getMessage());
+			}
 		} 
 		catch (RelationPropagationException ex) {
 			
+			// clear not propagated temporal relations
+			for (TemporalRelation trel : trels) {
+				trel.clear();
+			}
+			
 			// error while propagating relations
 			for (Relation rel : committed) {
 				// deactivated committed relations
@@ -1371,6 +1424,53 @@ public abstract class DomainComponent extends FrameworkObject
 		}
 	}
 	
+	/**
+	 * Deactivate a set of relations. The constraints of the temporal relations are 
+	 * retracted through a single transaction of the temporal facade
+	 * 
+	 * @param relations
+	 */
+	public synchronized void deactivate(Set<Relation> relations) 
+	{
+		// temporal relations to retract through a single transaction
+		List<TemporalRelation> trels = new ArrayList<>();
+		List<TemporalConstraint> constraints = new ArrayList<>();
+		for (Relation rel : relations) 
+		{
+			// check temporal relations with an underlying constraint
+			if (rel.getCategory().equals(ConstraintCategory.TEMPORAL_CONSTRAINT) && 
+					this.isLocal(rel) && rel.getConstraint() != null) 
+			{
+				// get temporal relation
+				TemporalRelation trel = (TemporalRelation) rel;
+				constraints.add(trel.getConstraint());
+				trels.add(trel);
+			}
+			else {
+				// deactivate relation
+				this.deactivate(rel);
+			}
+		}
+		
+		// retract temporal constraints
+		this.tdb.retract(constraints);
+		// clear relations
+		for (TemporalRelation trel : trels) {
+			trel.clear();
+		}
+	}
+	
+	/**
+	 * 
+	 * @param rel
+	 * @return
+	 */
+	private boolean isLocal(Relation rel) {
+		// check reference and target components
+		return rel.getReference().getComponent().equals(this) || 
+				rel.getTarget().getComponent().equals(this);
+	}
+	
 	/**
 	 * Deactivate a relation by removing the related constraint if any. The relation remains into the component data 
 	 * structure as a "pending" relation
@@ -1636,7 +1736,7 @@ public abstract class DomainComponent extends FrameworkObject
 						value.isControllable());
 		
 		// create predicate
-		Predicate predicate = new Predicate(PREDICATE_COUNTER.getAndIncrement(), value);
+		Predicate predicate = new Predicate(this.predicateCounter.getAndIncrement(), value);
 		// check parameter labels
 		if (labels != null && labels.length > 0) {
 			
@@ -120,24 +120,6 @@ public final class PlanDataBaseComponent extends DomainComponent implements Plan
 	@PostConstruct
 	protected synchronized void init() {
 		super.init();
-		
-		// clear static (global) information
-		synchronized (rules) {
-			// clear if needed global synchronization rules
-			rules.clear();
-		}
-		
-		synchronized(globalRelations) {
-			// clear if needed global relations
-			globalRelations.clear();
-		}
-	
-		// reset predicate counter
-		PREDICATE_COUNTER.set(0);
-		// reset decision counter
-		DecisionIdCounter.set(0);
-		// reset relation counter
-		RELATION_COUNTER.set(0);
 	}
 	
 	/**
@@ -573,6 +555,8 @@ public final class PlanDataBaseComponent extends DomainComponent implements Plan
 	
 		// create domain component
 		T c = DomainComponentBuilder.createAndSet(name, type, this.tdb, this.pdb);
+		// share rules, global relations and counters of the plan database
+		this.share(c);
 		// get created component
 		return c;
 	}
@@ -2,6 +2,7 @@ package it.cnr.istc.pst.platinum.ai.framework.microkernel.query;
 
 import it.cnr.istc.pst.platinum.ai.framework.time.lang.query.IntervalDistanceQuery;
 import it.cnr.istc.pst.platinum.ai.framework.time.lang.query.IntervalOverlapQuery;
+import it.cnr.istc.pst.platinum.ai.framework.time.lang.query.IntervalOverlapSetQuery;
 import it.cnr.istc.pst.platinum.ai.framework.time.lang.query.IntervalPseudoControllabilityQuery;
 import it.cnr.istc.pst.platinum.ai.framework.time.lang.query.IntervalScheduleQuery;
 import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.query.TimePointDistanceQuery;
@@ -47,6 +48,12 @@ public enum TemporalQueryType
 	 */
 	INTERVAL_OVERLAP(IntervalOverlapQuery.class.getName()),
 	
+	/**
+	 * Find the maximal sets of flexible temporal intervals that can 
+	 * pairwise overlap
+	 */
+	INTERVAL_OVERLAP_SET(IntervalOverlapSetQuery.class.getName()),
+	
 	/**
 	 * Check the flexible distance between two temporal intervals
 	 */
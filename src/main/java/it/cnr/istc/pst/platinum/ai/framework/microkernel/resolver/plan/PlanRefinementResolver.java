@@ -1468,12 +1468,9 @@ public class PlanRefinementResolver extends Resolver<DomainComponent> {
 		}
 		catch (DecisionPropagationException | ConsistencyCheckException ex) 
 		{
-			// deactivate activated relations
-			for (Relation rel : expansion.getActivatedRelations()) {
-				// get reference component
-				DomainComponent refComp = rel.getReference().getComponent();
-				refComp.deactivate(rel);
-			}
+			// deactivate activated relations (temporal constraints through a single transaction)
+			DomainComponent goalComp = goal.getComponent();
+			goalComp.deactivate(new HashSet<>(expansion.getActivatedRelations()));
 			
 			// delete created relations
 			for (Relation rel : expansion.getCreatedRelations()) {
@@ -2,8 +2,10 @@ package it.cnr.istc.pst.platinum.ai.framework.microkernel.resolver.resource.disc
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import it.cnr.istc.pst.platinum.ai.framework.domain.component.Decision;
@@ -22,10 +24,11 @@ import it.cnr.istc.pst.platinum.ai.framework.microkernel.query.TemporalQueryType
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.resolver.Resolver;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.resolver.ResolverType;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.resolver.ex.UnsolvableFlawException;
+import it.cnr.istc.pst.platinum.ai.framework.time.TemporalInterval;
 import it.cnr.istc.pst.platinum.ai.framework.time.ex.TemporalConstraintPropagationException;
 import it.cnr.istc.pst.platinum.ai.framework.time.lang.TemporalConstraintType;
 import it.cnr.istc.pst.platinum.ai.framework.time.lang.allen.BeforeIntervalConstraint;
-import it.cnr.istc.pst.platinum.ai.framework.time.lang.query.IntervalOverlapQuery;
+import it.cnr.istc.pst.platinum.ai.framework.time.lang.query.IntervalOverlapSetQuery;
 import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePoint;
 import it.cnr.istc.pst.platinum.ai.framework.utils.properties.FilePropertyReader;
 
@@ -79,29 +82,27 @@ public class DiscreteResourceSchedulingResolver extends Resolver<DiscreteResourc
 		List<Flaw> CSs = new ArrayList<>();
 		// list of requirement events
 		List<RequirementResourceEvent> requirements = this.component.getRequirements();
-		// compute "pessimistic resource profiles"
-		for (int index = 0; index < requirements.size() - 1; index++) {
+		// index requirement events by temporal interval
+		Map<TemporalInterval, RequirementResourceEvent> index = new HashMap<>();
+		List<TemporalInterval> intervals = new ArrayList<>();
+		for (RequirementResourceEvent event : requirements) {
+			index.put(event.getEvent(), event);
+			intervals.add(event.getEvent());
+		}
+		
+		// compute "pessimistic resource profiles" from sets of possibly overlapping events (single events included)
+		IntervalOverlapSetQuery query = this.tdb.createTemporalQuery(TemporalQueryType.INTERVAL_OVERLAP_SET);
+		query.setIntervals(intervals);
+		this.tdb.process(query);
+		for (List<TemporalInterval> set : query.getOverlappingSets()) {
 			
-			// get current requirement event
-			RequirementResourceEvent event = requirements.get(index);
 			// prepare critical set
 			CriticalSet cs = new CriticalSet(
 					FLAW_COUNTER.getAndIncrement(), 
 					(DiscreteResource) this.component);
-			
-			// add the current decision 
-			cs.addRequirementDecision(event);
-			// find possibly conflicting events
-			for (int jndex = index + 1; jndex < requirements.size(); jndex++) {
-				
-				// get possibly conflicting event
-				RequirementResourceEvent conflicting = requirements.get(jndex);
-				// check if the current critical set can temporally overlap with the conflicting one
-				if (this.conflict(cs, conflicting)) {
-					
-					// add the event to the critical set
-					cs.addRequirementDecision(conflicting);
-				}
+			// add overlapping events
+			for (TemporalInterval interval : set) {
+				cs.addRequirementDecision(index.get(interval));
 			}
 			
 			// check the amount of requirement of the critical set
@@ -116,39 +117,6 @@ public class DiscreteResourceSchedulingResolver extends Resolver<DiscreteResourc
 		return CSs;
 	}
 	
-	/**
-	 * Check if a resource requirement overlaps ALL the activities of a given Critical Sets
-	 * 
-	 * @param set
-	 * @param event
-	 * @return
-	 */
-	private boolean conflict(CriticalSet set, RequirementResourceEvent event) {
-		
-		// conflicting flag
-		boolean conflict = true;
-		// get events of the critical set
-		List<RequirementResourceEvent> events = set.getRequirementEvents();
-		// check set of events
-		for (int index = 0; index < events.size() && conflict; index++) {
-			
-			// get an event from the set
-			RequirementResourceEvent e = events.get(index);
-			// check if current decision and target overlap
-			IntervalOverlapQuery query = this.tdb.createTemporalQuery(TemporalQueryType.INTERVAL_OVERLAP);
-			// set intervals
-			query.setReference(e.getEvent());
-			query.setTarget(event.getEvent());
-			// process query
-			this.tdb.process(query);
-			// check whether the (flexible) temporal interval can overlap or not
-			conflict = query.canOverlap();
-		}
-		
-		// get result
-		return conflict;
-	}
-	
 	/**
 	 * A critical set (CS) is not necessary minimal. 
 	 * 
@@ -378,6 +346,11 @@ public class DiscreteResourceSchedulingResolver extends Resolver<DiscreteResourc
 		
 		// sample the critical set in order to find minimal critical sets
 		List<MinimalCriticalSet> mcss = this.sampleMCSs(cs);
+		// check sampled MCSs
+		if (mcss.isEmpty()) {
+			// a single requirement exceeds the capacity so no precedence constraint can solve the critical set
+			throw new UnsolvableFlawException("Unsolvable critical set found on discrete resource " + this.component.getName() + "\n- cs: " + cs + "\n");
+		}
 		
 		/*
 		 * An MCS can be solved by posting a precedence constraint between any pair of activities. 
@@ -24,6 +24,7 @@ import it.cnr.istc.pst.platinum.ai.framework.microkernel.resolver.ResolverType;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.resolver.ex.UnsolvableFlawException;
 import it.cnr.istc.pst.platinum.ai.framework.time.TemporalInterval;
 import it.cnr.istc.pst.platinum.ai.framework.time.ex.TemporalConstraintPropagationException;
+import it.cnr.istc.pst.platinum.ai.framework.time.lang.TemporalConstraint;
 import it.cnr.istc.pst.platinum.ai.framework.time.lang.TemporalConstraintType;
 import it.cnr.istc.pst.platinum.ai.framework.time.lang.allen.BeforeIntervalConstraint;
 import it.cnr.istc.pst.platinum.ai.framework.utils.properties.FilePropertyReader;
@@ -179,58 +180,53 @@ public class ReservoirResourceSchedulingResolver extends Resolver<ReservoirResou
 		
 		// feasibility flag
 		boolean feasible = true;
-		// list of propagated constraints
-		List<BeforeIntervalConstraint> committed = new ArrayList<>();
-		// check pairs of events 
-		for (int index = 0; index < schedule.size() - 1 && feasible; index++) {
+		// list of precedence constraints of the schedule
+		List<TemporalConstraint> constraints = new ArrayList<>();
+		for (int index = 0; index < schedule.size() - 1; index++) {
 			
+			// get associated tokens and temporal intervals to check schedule feasibility
+			TemporalInterval i1 = schedule.get(index).getDecision().getToken().getInterval();
+			TemporalInterval i2 = schedule.get(index + 1).getDecision().getToken().getInterval();
+			
+			// create precedence constraint "i1 < i2"
+			BeforeIntervalConstraint before = this.tdb.createTemporalConstraint(
+					TemporalConstraintType.BEFORE);
+			
+			// set constraint data
+			before.setReference(i1);
+			before.setTarget(i2);
+			before.setLowerBound(0);
+			before.setUpperBound(this.tdb.getHorizon());
+			// add constraint
+			constraints.add(before);
+		}
+		
+		try {
+			
+			// propagate all the precedence constraints through a single transaction
+			this.tdb.propagate(constraints);
 			try {
 				
-				// get events
-				ResourceEvent<?> e1 = schedule.get(index);
-				ResourceEvent<?> e2 = schedule.get(index + 1);
-				
-				// get associated tokens and temporal intervals to check schedule feasibility
-				TemporalInterval i1 = e1.getDecision().getToken().getInterval();
-				TemporalInterval i2 = e2.getDecision().getToken().getInterval();
-				
-				// create precedence constraint "i1 < i2"
-				BeforeIntervalConstraint before = this.tdb.createTemporalConstraint(
-						TemporalConstraintType.BEFORE);
-				
-				// set constraint data
-				before.setReference(i1);
-				before.setTarget(i2);
-				before.setLowerBound(0);
-				before.setUpperBound(this.tdb.getHorizon());
-				
-				// add constraints to committed
-				committed.add(before);
-				// propagate constraint
-				this.tdb.propagate(before);
 				// check temporal feasibility
 				this.tdb.verify();
 				
-			} catch (TemporalConstraintPropagationException | ConsistencyCheckException ex) {
-				// not feasible schedule
-				feasible = false;
-				// log data
-				debug("Component [" + this.label + "] temporally unfeasible schedule:\n"
-						+ "- potential schedule critical set: " + schedule + "\n");
-				
 			} finally {
 				
-				// retract all committed constraints
-				for (BeforeIntervalConstraint before : committed) {
-					// retract temporal constraint
-					this.tdb.retract(before);
-				}
+				// retract all propagated constraints through a single transaction
+				this.tdb.retract(constraints);
 			}
+			
+		} catch (TemporalConstraintPropagationException | ConsistencyCheckException ex) {
+			
+			// not feasible schedule
+			feasible = false;
+			// log data
+			debug("Component [" + this.label + "] temporally unfeasible schedule:\n"
+					+ "- potential schedule critical set: " + schedule + "\n");
 		}
 		
 		// get feasibility flag
 		return feasible;
-		
 	}
 	
 	/**
@@ -2,7 +2,9 @@ package it.cnr.istc.pst.platinum.ai.framework.microkernel.resolver.timeline.sche
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import it.cnr.istc.pst.platinum.ai.framework.domain.component.Decision;
 import it.cnr.istc.pst.platinum.ai.framework.domain.component.ex.FlawSolutionApplicationException;
@@ -19,9 +21,10 @@ import it.cnr.istc.pst.platinum.ai.framework.microkernel.resolver.ResolverType;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.resolver.ex.UnsolvableFlawException;
 import it.cnr.istc.pst.platinum.ai.framework.time.TemporalInterval;
 import it.cnr.istc.pst.platinum.ai.framework.time.ex.TemporalConstraintPropagationException;
+import it.cnr.istc.pst.platinum.ai.framework.time.lang.TemporalConstraint;
 import it.cnr.istc.pst.platinum.ai.framework.time.lang.TemporalConstraintType;
 import it.cnr.istc.pst.platinum.ai.framework.time.lang.allen.BeforeIntervalConstraint;
-import it.cnr.istc.pst.platinum.ai.framework.time.lang.query.IntervalOverlapQuery;
+import it.cnr.istc.pst.platinum.ai.framework.time.lang.query.IntervalOverlapSetQuery;
 import it.cnr.istc.pst.platinum.ai.framework.utils.properties.FilePropertyReader;
 
 /**
@@ -141,36 +144,32 @@ public final class TimelineSchedulingResolver extends Resolver<StateVariable> {
 		// sort decisions
 		Collections.sort(decisions);
 		
-		// look for critical sets
-		for (int index = 0; index < decisions.size() - 1; index++) {
-			
-			// get active decision  
-			Decision activity = decisions.get(index);
-			// prepare a critical set
-			OverlappingSet cs = new OverlappingSet(
-					FLAW_COUNTER.getAndIncrement(), 
-					this.component);
-			// add current activity
-			cs.add(activity);
+		// index active decisions by temporal interval
+		Map<TemporalInterval, Decision> index = new HashMap<>();
+		List<TemporalInterval> intervals = new ArrayList<>();
+		for (Decision decision : decisions) {
+			index.put(decision.getToken().getInterval(), decision);
+			intervals.add(decision.getToken().getInterval());
+		}
+		
+		// find sets of possibly overlapping decisions
+		IntervalOverlapSetQuery query = this.tdb.createTemporalQuery(TemporalQueryType.INTERVAL_OVERLAP_SET);
+		query.setIntervals(intervals);
+		this.tdb.process(query);
+		for (List<TemporalInterval> set : query.getOverlappingSets()) {
 			
-			// find possibly overlapping decisions
-			for (int jndex = index + 1; jndex < decisions.size(); jndex++) {
-				
-				// get another activity of the component
-				Decision other = decisions.get(jndex);
+			// check the size of the critical set
+			if (set.size() > 1) {
 				
-				// check overlapping condition with the critical set
-				if (this.conflict(cs, other)) {
-					
-					// add the activity to the critical set
-					cs.add(other);
+				// prepare a critical set
+				OverlappingSet cs = new OverlappingSet(
+						FLAW_COUNTER.getAndIncrement(), 
+						this.component);
+				// add overlapping activities
+				for (TemporalInterval interval : set) {
+					cs.add(index.get(interval));
 				}
 				
-			}
-			
-			// check the size of the critical set
-			if (cs.size() > 1) {
-				
 				// the critical set actually represents a flaw of the component
 				CSs.add(cs);
 			}
@@ -180,41 +179,6 @@ public final class TimelineSchedulingResolver extends Resolver<StateVariable> {
 		return CSs;
 	}
 	
-	/**
-	 * Check if an activity overlaps ALL the activities composing a Critical Set
-	 * 
-	 * @param cs
-	 * @param activity
-	 * @return
-	 */
-	private boolean conflict(OverlappingSet cs, Decision activity) {
-		
-		// conflicting flag
-		boolean conflict = true;
-		// get events of the critical set
-		List<Decision> activities = cs.getDecisions();
-		// check set of events
-		for (int index = 0; index < activities.size() && conflict; index++) {
-			
-			// get an activity of the critical set
-			Decision csActivity = activities.get(index);
-			// check overlapping condition
-			IntervalOverlapQuery query = this.tdb.createTemporalQuery(TemporalQueryType.INTERVAL_OVERLAP);
-			// set intervals
-			query.setReference(csActivity.getToken().getInterval());
-			query.setTarget(activity.getToken().getInterval());
-			// process query
-			this.tdb.process(query);
-			
-			// check whether the (flexible) temporal interval can overlap or not
-			conflict = query.canOverlap();
-		}
-		
-		// get result
-		return conflict;
-	}
-	
-	
 	/**
 	 * 
 	 */
@@ -319,60 +283,53 @@ public final class TimelineSchedulingResolver extends Resolver<StateVariable> {
 		
 		// feasibility flag
 		boolean feasible = true;
-		// list of propagated constraints
-		List<BeforeIntervalConstraint> committed = new ArrayList<>();
+		// list of precedence constraints of the schedule
+		List<TemporalConstraint> constraints = new ArrayList<>();
+		for (int index = 0; index < schedule.size() - 1; index++) {
+			
+			// get associated tokens and temporal intervals to check schedule feasibility
+			TemporalInterval i1 = schedule.get(index).getToken().getInterval();
+			TemporalInterval i2 = schedule.get(index + 1).getToken().getInterval();
+			
+			// create precedence constraint "i1 < i2"
+			BeforeIntervalConstraint before = this.tdb.createTemporalConstraint(
+					TemporalConstraintType.BEFORE);
+			
+			// set constraint data
+			before.setReference(i1);
+			before.setTarget(i2);
+			before.setLowerBound(0);
+			before.setUpperBound(this.tdb.getHorizon());
+			// add constraint
+			constraints.add(before);
+		}
 		
-		// check pairs of events 
-		for (int index = 0; index < schedule.size() - 1 && feasible; index++) {
+		try {
 			
+			// propagate all the precedence constraints through a single transaction
+			this.tdb.propagate(constraints);
 			try {
 				
-				// get activities
-				Decision a1 = schedule.get(index);
-				Decision a2 = schedule.get(index + 1);
-				
-				// get associated tokens and temporal intervals to check schedule feasibility
-				TemporalInterval i1 = a1.getToken().getInterval();
-				TemporalInterval i2 = a2.getToken().getInterval();
-				
-				// create precedence constraint "i1 < i2"
-				BeforeIntervalConstraint before = this.tdb.createTemporalConstraint(
-						TemporalConstraintType.BEFORE);
-				
-				// set constraint data
-				before.setReference(i1);
-				before.setTarget(i2);
-				before.setLowerBound(0);
-				before.setUpperBound(this.tdb.getHorizon());
-				
-				// add constraints to committed
-				committed.add(before);
-				// propagate constraint
-				this.tdb.propagate(before);
 				// check temporal feasibility
 				this.tdb.verify();
 				
-			} catch (TemporalConstraintPropagationException | ConsistencyCheckException ex) {
-				
-				// not feasible schedule
-				feasible = false;
-				// log data
-				debug("Component [" + this.label + "] temporally unfeasible schedule:\n"
-						+ "- potential schedule critical set: " + schedule + "\n");
-				
-			} finally  {
+			} finally {
 				
-				// retract all committed constraints
-				for (BeforeIntervalConstraint before : committed) {
-					// retract temporal constraint
-					this.tdb.retract(before);
-				}
+				// retract all propagated constraints through a single transaction
+				this.tdb.retract(constraints);
 			}
+			
+		} catch (TemporalConstraintPropagationException | ConsistencyCheckException ex) {
+			
+			// not feasible schedule
+			feasible = false;
+			// log data
+			debug("Component [" + this.label + "] temporally unfeasible schedule:\n"
+					+ "- potential schedule critical set: " + schedule + "\n");
 		}
 		
 		// get feasibility flag
 		return feasible;
-		
 	}
 	
 }
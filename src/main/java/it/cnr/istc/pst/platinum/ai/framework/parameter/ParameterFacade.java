@@ -38,6 +38,7 @@ import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.ParameterDomainType;
 import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.constraints.BinaryParameterConstraint;
 import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.constraints.ParameterConstraint;
 import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.query.CheckValuesParameterQuery;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.query.ComputeSolutionParameterQuery;
 
 /**
  * 
@@ -336,8 +337,10 @@ public class ParameterFacade extends FrameworkObject implements QueryManager<Par
 			// compute values of all variables
 			case COMPUTE_SOLUTION :
 			{
+				// get query
+				ComputeSolutionParameterQuery sQuery = (ComputeSolutionParameterQuery) query;
 				// compute CSP solution
-				this.solver.computeSolution();
+				this.solver.computeSolution(sQuery.isExact());
 			}
 			break;
 		}
@@ -6,6 +6,7 @@ import it.cnr.istc.pst.platinum.ai.framework.microkernel.annotation.cfg.framewor
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.annotation.inject.framework.ParameterSolverPlaceholder;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.annotation.lifecycle.PostConstruct;
 import it.cnr.istc.pst.platinum.ai.framework.parameter.csp.solver.ParameterSolver;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.csp.solver.ParameterSolverType;
 import it.cnr.istc.pst.platinum.ai.framework.time.TemporalFacade;
 import it.cnr.istc.pst.platinum.ai.framework.utils.reflection.FrameworkReflectionUtils;
 
@@ -80,12 +81,22 @@ public class ParameterFacadeBuilder
 	 * @param annot
 	 * @return
 	 */
-	public synchronized static ParameterFacade createAndSet(ParameterFacadeConfiguration annot) 
+	public synchronized static ParameterFacade createAndSet(ParameterFacadeConfiguration annot) {
+		// create parameter facade with the configured solver
+		return createAndSet(annot.solver());
+	}
+	
+	/**
+	 * 
+	 * @param type
+	 * @return
+	 */
+	public synchronized static ParameterFacade createAndSet(ParameterSolverType type) 
 	{
 		// create parameter facade
 		ParameterFacade facade = doCreateParameterFacade();
 		// create parameter solver
-		ParameterSolver s = doCreateParameterSolver(annot.solver().getClassName());
+		ParameterSolver s = doCreateParameterSolver(type.getClassName());
 		
 		try
 		{
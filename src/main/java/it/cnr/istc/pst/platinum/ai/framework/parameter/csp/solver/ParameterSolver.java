@@ -27,15 +27,37 @@ public abstract class ParameterSolver extends FrameworkObject implements Paramet
 	public abstract boolean isConsistent();
 	
 	/**
+	 * Compute the feasible values of all parameters by enumerating the solutions of the CSP
+	 */
+	public void computeSolution() {
+		this.computeSolution(true);
+	}
+	
+	/**
+	 * Compute the feasible values of all parameters. If exact is false the values are computed 
+	 * by probing each value of the parameters rather than enumerating all the solutions of the CSP
+	 * 
+	 * @param exact
+	 */
+	public abstract void computeSolution(boolean exact);
+	
+	/**
+	 * Compute the feasible values of a parameter by enumerating the solutions of the CSP
 	 * 
+	 * @param param
 	 */
-	public abstract void computeSolution();
+	public void computeValues(Parameter<?> param) {
+		this.computeValues(param, true);
+	}
 	
 	/**
+	 * Compute the feasible values of a parameter. If exact is false the values are computed 
+	 * by probing each value of the parameter rather than enumerating all the solutions of the CSP
 	 * 
 	 * @param param
+	 * @param exact
 	 */
-	public abstract void computeValues(Parameter<?> param);
+	public abstract void computeValues(Parameter<?> param, boolean exact);
 	
 	/**
 	 * 
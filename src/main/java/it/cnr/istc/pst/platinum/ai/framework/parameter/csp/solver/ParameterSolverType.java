@@ -1,6 +1,7 @@
 package it.cnr.istc.pst.platinum.ai.framework.parameter.csp.solver;
 
 import it.cnr.istc.pst.platinum.ai.framework.parameter.csp.solver.choco.v4.ChocoSolver;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.csp.solver.enumeration.EnumerationSolver;
 
 /**
  * 
@@ -12,7 +13,12 @@ public enum ParameterSolverType {
 	/**
 	 * CHOCHO wrapper for CSP constraints manager 
 	 */
-	CHOCHO_SOLVER(ChocoSolver.class.getName());
+	CHOCHO_SOLVER(ChocoSolver.class.getName()),
+	
+	/**
+	 * Native solver for constraints over enumeration parameters (CHOCHO solver is used for numeric parameters)
+	 */
+	ENUMERATION_SOLVER(EnumerationSolver.class.getName());
 	
 	private String cname;
 	
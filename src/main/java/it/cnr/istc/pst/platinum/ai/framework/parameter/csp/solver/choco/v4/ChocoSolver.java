@@ -1,8 +1,13 @@
 package it.cnr.istc.pst.platinum.ai.framework.parameter.csp.solver.choco.v4;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -30,17 +35,26 @@ import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.constraints.NotEqual
 import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.constraints.ParameterConstraint;
 
 /**
+ * The CSP of the parameters is partitioned into the connected components of the graph 
+ * whose nodes are the parameters and whose edges are the constraints between them. 
+ * 
+ * Each component has its own model and keeps the result of the last consistency check 
+ * so that only the components changed since then are solved again. Components are merged 
+ * when a constraint relates parameters of different components and they are split when 
+ * constraints or parameters are removed.
+ * 
+ * Removals that do not split a component are applied to its model without rebuilding it. 
+ * Constraints are unposted from the model while the variables of removed parameters are 
+ * fixed to a value and the model is rebuilt only when such variables outnumber the
+ * parameters of the component.
  * 
  * @author anacleto
  *
  */
 public class ChocoSolver extends ParameterSolver 
 {
-	private boolean clean;											// clean flag
-	private Model model;											// CSP model
-	
-	private Map<Parameter<?>, IntVar> variables;					// variables of the model
-	private Map<ParameterConstraint, Constraint> constraints;		// constraints of the model
+	private Map<Parameter<?>, Component> components;				// components of the parameters
+	private Set<Component> partition;								// components of the CSP
 	
 	/**
 	 * 
@@ -48,8 +62,8 @@ public class ChocoSolver extends ParameterSolver
 	public ChocoSolver() {
 		super();
 		// setup data structures
-		this.variables = new HashMap<>();
-		this.constraints = new HashMap<>();
+		this.components = new HashMap<>();
+		this.partition = new LinkedHashSet<>();
 	}
 	
 	/**
@@ -57,45 +71,35 @@ public class ChocoSolver extends ParameterSolver
 	 */
 	@PostConstruct
 	private void init() {
-		// build the model
-		this.build();
+		// clear components
+		this.components.clear();
+		this.partition.clear();
 	}
-
+	
+	/**
+	 * Returns the number of independent components of the CSP
+	 * 
+	 * @return
+	 */
+	public int getNumberOfComponents() {
+		return this.partition.size();
+	}
+	
 	/**
 	 * 
 	 */
 	@Override
 	public boolean isConsistent() 
 	{
-		// check if clean
-		if (!this.clean) {
-			// rebuild the model
-			this.build();
-		}
-		
 		// consistency flag
 		boolean consistent = true;
-		// try to find a solution
-		this.model.getSolver().solve();
-		// check feasibility
-		switch (this.model.getSolver().isFeasible()) 
-		{
-			// not feasible
-			case FALSE : 
-			case UNDEFINED : {
-				// no feasible solutions exist
+		// check components
+		for (Component component : this.partition) {
+			// check the component if changed since the last check
+			if (!this.isConsistent(component)) {
 				consistent = false;
-				this.model.getSolver().reset();
-			}
-			break;
-			
-			// feasible or undefined
-			case TRUE : {
-				// a feasible solution exists at least
-				consistent = true;
-				this.model.getSolver().reset();
+				break;
 			}
-			break;
 		}
 		
 		// get consistency flag
@@ -106,37 +110,48 @@ public class ChocoSolver extends ParameterSolver
 	 * 
 	 */
 	@Override
-	public void computeSolution()
+	public void computeSolution(boolean exact)
 	{
-		// check clean flag
-		if (!this.clean) {
-			// build the model
-			this.build();
+		// check mode
+		if (exact) {
+			// compute values for each parameter
+			for (Parameter<?> param : this.components.keySet()) {
+				this.computeValues(param, true);
+			}
 		}
-		
-		// compute values for each parameter
-		for (Parameter<?> param : this.variables.keySet()) {
-			this.computeValues(param);
+		else {
+			// probe the values of the parameters of each component
+			for (Component component : this.partition) {
+				this.probe(component, component.parameters);
+			}
 		}
 	}
-
+	
 	/**
 	 * 
 	 */
 	@Override
-	public void computeValues(Parameter<?> param) 
+	public void computeValues(Parameter<?> param, boolean exact) 
 	{
-		// get variable
-		if (!this.variables.containsKey(param)) {
+		// get the component of the parameter
+		Component component = this.components.get(param);
+		if (component == null) {
 			throw new RuntimeException("Parameter not found in the CSP\n- " + param);
 		}
 		
+		// check mode
+		if (!exact) {
+			// probe the values of the parameter
+			this.probe(component, Collections.singleton(param));
+			return;
+		}
+		
 		// check clean flag
-		if (!this.clean) {
+		if (!component.clean) {
 			// build the model
-			this.build();
+			this.build(component);
 		}
-	
+		
 		// check parameter type
 		switch (param.getType())
 		{
@@ -148,10 +163,10 @@ public class ChocoSolver extends ParameterSolver
 				// compute allowed values
 				Set<Integer> vals = new HashSet<>();
 				// check possible solutions
-				while (this.model.getSolver().solve())
+				while (component.model.getSolver().solve())
 				{
 					// get variable
-					IntVar var = this.variables.get(ep);
+					IntVar var = component.variables.get(ep);
 					DisposableValueIterator it = var.getValueIterator(true);
 					while (it.hasNext()) {
 						// add value
@@ -169,12 +184,12 @@ public class ChocoSolver extends ParameterSolver
 					values[index] = v;
 					index++;
 				}
-
+				
 				// set values
 				ep.setValues(values);
 				
 				// reset solver
-				this.model.getSolver().reset();
+				component.model.getSolver().reset();
 			}
 			break;
 			
@@ -185,24 +200,26 @@ public class ChocoSolver extends ParameterSolver
 				NumericParameter np = (NumericParameter) param;
 				int lb = Integer.MIN_VALUE;
 				int ub = Integer.MAX_VALUE;
+				boolean found = false;
 				// check all solutions
-				while (this.model.getSolver().solve()) {
-					// check variable bounds
-					IntVar var = this.variables.get(np);
-					lb = Math.max(lb, var.getLB());
-					ub = Math.min(ub, var.getUB());
+				while (component.model.getSolver().solve()) {
+					// extend the bounds to the value of the solution
+					int value = component.variables.get(np).getValue();
+					lb = found ? Math.min(lb, value) : value;
+					ub = found ? Math.max(ub, value) : value;
+					found = true;
 				}
 				
 				// set bounds
 				np.setLowerBound(lb);
 				np.setUpperBound(ub);
 				// reset solver
-				this.model.getSolver().reset();
+				component.model.getSolver().reset();
 			}
 			break;
 		}
 	}
-
+	
 	/**
 	 * 
 	 */
@@ -216,25 +233,46 @@ public class ChocoSolver extends ParameterSolver
 			{
 				// get notification
 				AddParameterNotification notif = (AddParameterNotification) info;
-				// create CSP variable
-				IntVar variable = this.doCreateCSPVariable(notif.getParameter());
-				// add variable to the model
-				this.variables.put(notif.getParameter(), variable);
+				// create a new component for the parameter
+				Component component = new Component();
+				component.parameters.add(notif.getParameter());
+				this.components.put(notif.getParameter(), component);
+				this.partition.add(component);
 			}
 			break;
-		
+			
 			case ADD_CONSTRAINT : 
 			{
 				// get notification
 				AddConstraintParameterNotification notif = (AddConstraintParameterNotification) info;
-				// create CSP constraint
-				Constraint cons = this.doCreateCSPConstraint(notif.getParameterConstraint());
+				// get constraint
+				ParameterConstraint constraint = notif.getParameterConstraint();
+				// merge the components of the constrained parameters
+				Component component = null;
+				for (Parameter<?> param : this.getParameters(constraint)) 
+				{
+					// check if parameter variable exists
+					if (!this.components.containsKey(param)) {
+						throw new RuntimeException("Unknown parameter variable - " + param);
+					}
+					
+					// merge components
+					component = component == null ? this.components.get(param) : 
+						this.merge(component, this.components.get(param));
+				}
+				
 				// check model status to post constraint
-				if (this.clean) {
+				if (component.clean) {
+					// create and post CSP constraint
+					Constraint cons = this.doCreateCSPConstraint(component, constraint);
 					cons.post();
+					component.posted.put(constraint, cons);
 				}
+				
 				// add constraint
-				this.constraints.put(notif.getParameterConstraint(), cons);
+				component.constraints.add(constraint);
+				// the component must be checked again
+				component.consistent = null;
 			}
 			break;
 			
@@ -244,10 +282,21 @@ public class ChocoSolver extends ParameterSolver
 				DelConstraintParameterNotification notif = (DelConstraintParameterNotification) info;
 				// get constraint 
 				ParameterConstraint cons = notif.getParameterConstraint();
-				// remove constraint
-				this.constraints.remove(cons);
-				// set the clean flag to false
-				this.clean = false;
+				// get the component of the constraint
+				Component component = this.components.get(cons.getReference());
+				if (component != null && component.constraints.remove(cons)) 
+				{
+					// check if the removal splits the component
+					List<Parameter<?>> params = this.getParameters(cons);
+					if (params.size() > 1 && !this.reach(component, params.get(0)).contains(params.get(1))) {
+						// split the component
+						this.split(component);
+					}
+					else {
+						// remove the constraint from the model if any
+						this.unpost(component, cons);
+					}
+				}
 			}
 			break;
 			
@@ -258,20 +307,46 @@ public class ChocoSolver extends ParameterSolver
 				// get parameter to remove
 				Parameter<?> param = notif.getParameter();
 				// remove variable from the model
-				this.variables.remove(param);
-				
-				// remove related constraints
-				List<ParameterConstraint> toRemove = this.doFindParameterRelatedConstraints(param);				
-				// remove constraints from the model
-				for (ParameterConstraint cons : toRemove) {
-					this.constraints.remove(cons);
+				Component component = this.components.remove(param);
+				if (component != null) 
+				{
+					// remove parameter
+					component.parameters.remove(param);
+					// remove related constraints
+					List<ParameterConstraint> related = new ArrayList<>();
+					for (ParameterConstraint cons : component.constraints) {
+						if (this.getParameters(cons).contains(param)) {
+							related.add(cons);
+						}
+					}
+					
+					component.constraints.removeAll(related);
+					// check if the removal splits the component
+					if (component.parameters.isEmpty() || !component.clean || 
+							this.reach(component, component.parameters.iterator().next()).size() < component.parameters.size()) {
+						// split the component
+						this.split(component);
+					}
+					else 
+					{
+						// remove the related constraints from the model
+						for (ParameterConstraint cons : related) {
+							this.unpost(component, cons);
+						}
+						
+						// the variable cannot be removed from the model so its value is fixed
+						IntVar var = component.variables.remove(param);
+						component.model.arithm(var, "=", var.getLB()).post();
+						component.garbage++;
+						// rebuild the model when too many variables have been removed
+						if (component.garbage > component.parameters.size()) {
+							component.clean = false;
+						}
+					}
 				}
-				
-				// set the clan flag to false
-				this.clean = false;
 			}
 			break;
-				
+			
 			default: {
 				// unknown notification
 				throw new RuntimeException("Unknown parameter notification type - " + info.getType());
@@ -283,50 +358,402 @@ public class ChocoSolver extends ParameterSolver
 	 * 
 	 */
 	@Override
-	public String toString() {
-		return this.model.toString();
+	public String toString() 
+	{
+		// print the models of the components
+		String str = "";
+		for (Component component : this.partition) 
+		{
+			// check clean flag
+			if (!component.clean) {
+				// build the model
+				this.build(component);
+			}
+			
+			str += component.model.toString() + "\n";
+		}
+		
+		// get description
+		return str;
 	}
 	
 	/**
+	 * Check the consistency of a component. The model of the component is solved
+	 * only if it has changed since the last check
 	 * 
+	 * @param component
+	 * @return
 	 */
-	private void build() 
+	private boolean isConsistent(Component component)
 	{
-		// setup new model
-		this.model = new Model("Chocho CSP model");
-		this.model.getSolver().setDFS();
+		// check cached result
+		if (component.consistent == null) 
+		{
+			// check if clean
+			if (!component.clean) {
+				// rebuild the model
+				this.build(component);
+			}
+			
+			// try to find a solution
+			component.model.getSolver().solve();
+			// check feasibility
+			switch (component.model.getSolver().isFeasible()) 
+			{
+				// not feasible
+				case FALSE : 
+				case UNDEFINED : {
+					// no feasible solutions exist
+					component.consistent = false;
+				}
+				break;
+				
+				// feasible
+				case TRUE : {
+					// a feasible solution exists at least
+					component.consistent = true;
+				}
+				break;
+			}
+			
+			// reset solver
+			component.model.getSolver().reset();
+		}
 		
-		// update variables associated to parameters
-		for (Parameter<?> param : this.variables.keySet()) {
-			// create parameter
-			IntVar var = this.doCreateCSPVariable(param);
-			this.variables.put(param, var);
+		// get consistency flag
+		return component.consistent;
+	}
+	
+	/**
+	 * Merge two components. The smaller component is merged into the larger one
+	 * 
+	 * @param a
+	 * @param b
+	 * @return
+	 */
+	private Component merge(Component a, Component b)
+	{
+		// check components
+		if (a == b) {
+			return a;
+		}
+		
+		// merge the smaller component into the larger one
+		Component large = a.parameters.size() >= b.parameters.size() ? a : b;
+		Component small = large == a ? b : a;
+		for (Parameter<?> param : small.parameters) {
+			this.components.put(param, large);
+		}
+		
+		large.parameters.addAll(small.parameters);
+		large.constraints.addAll(small.constraints);
+		this.partition.remove(small);
+		// the model of the component must be built and checked again
+		large.clean = false;
+		large.consistent = null;
+		return large;
+	}
+	
+	/**
+	 * Compute the feasible values of the given parameters of a component by probing their values. 
+	 * A value is feasible if the model has a solution when the parameter is bound to the value. 
+	 * The values of the solutions found are feasible for all the parameters of the component so 
+	 * each value is probed at most once. The number of searches is then bounded by the size of 
+	 * the domains of the parameters rather than the number of solutions of the model. The bounds
+	 * of numeric parameters are found by bisection over their domains.
+	 * 
+	 * @param component
+	 * @param params
+	 */
+	private void probe(Component component, Collection<Parameter<?>> params)
+	{
+		// check clean flag
+		if (!component.clean) {
+			// build the model
+			this.build(component);
+		}
+		
+		// values of the parameters that belong to some solution
+		Map<Parameter<?>, Set<Integer>> supports = new HashMap<>();
+		for (Parameter<?> param : component.parameters) {
+			supports.put(param, new HashSet<>());
+		}
+		
+		// check parameters
+		for (Parameter<?> param : params)
+		{
+			// get variable
+			IntVar var = component.variables.get(param);
+			Set<Integer> values = supports.get(param);
+			// check parameter type
+			switch (param.getType())
+			{
+				// enumeration parameter
+				case ENUMERATION_PARAMETER_TYPE : 
+				{
+					// get enumeration parameter
+					EnumerationParameter ep = (EnumerationParameter) param;
+					// get the values of the variable
+					List<Integer> domain = new ArrayList<>();
+					DisposableValueIterator it = var.getValueIterator(true);
+					while (it.hasNext()) {
+						domain.add(it.next());
+					}
+					
+					// dispose iterator
+					it.dispose();
+					// probe values without a support
+					for (int v : domain) {
+						if (!values.contains(v)) {
+							this.probe(component, var, "=", v, supports);
+						}
+					}
+					
+					// set allowed values
+					int[] vals = new int[values.size()];
+					int index = 0;
+					for (int v : values) {
+						vals[index] = v;
+						index++;
+					}
+					
+					// set values
+					ep.setValues(vals);
+				}
+				break;
+				
+				// numeric parameter
+				case NUMERIC_PARAMETER_TYPE : 
+				{
+					// get numeric parameter
+					NumericParameter np = (NumericParameter) param;
+					int lb = Integer.MIN_VALUE;
+					int ub = Integer.MAX_VALUE;
+					// check if the model has a solution
+					if (!values.isEmpty() || this.probe(component, var, ">=", var.getLB(), supports) != null)
+					{
+						// find the smallest feasible value (not greater than the supported ones)
+						int low = var.getLB();
+						int high = Collections.min(values);
+						while (low < high) 
+						{
+							// look for a solution below the middle of the interval
+							int middle = (int) (((long) low + (long) high) / 2);
+							Integer value = this.probe(component, var, "<=", middle, supports);
+							if (value != null) {
+								high = value;
+							}
+							else {
+								low = middle + 1;
+							}
+						}
+						
+						// set the smallest feasible value
+						lb = high;
+						// find the greatest feasible value (not smaller than the supported ones)
+						low = Collections.max(values);
+						high = var.getUB();
+						while (low < high) 
+						{
+							// look for a solution above the middle of the interval
+							int middle = (int) (((long) low + (long) high + 1) / 2);
+							Integer value = this.probe(component, var, ">=", middle, supports);
+							if (value != null) {
+								low = value;
+							}
+							else {
+								high = middle - 1;
+							}
+						}
+						
+						// set the greatest feasible value
+						ub = low;
+					}
+					
+					// set bounds
+					np.setLowerBound(lb);
+					np.setUpperBound(ub);
+				}
+				break;
+			}
+		}
+	}
+	
+	/**
+	 * Check if the model of a component has a solution when the variable is constrained by the given 
+	 * operator and value. The values of the solution found (if any) are added to the supports of the 
+	 * parameters. The method returns the value of the variable in the solution or null if the model
+	 * has no solution
+	 * 
+	 * @param component
+	 * @param var
+	 * @param op
+	 * @param value
+	 * @param supports
+	 * @return
+	 */
+	private Integer probe(Component component, IntVar var, String op, int value, Map<Parameter<?>, Set<Integer>> supports)
+	{
+		// constrain the variable
+		Constraint bind = component.model.arithm(var, op, value);
+		bind.post();
+		// search a solution
+		Integer solution = null;
+		if (component.model.getSolver().solve()) {
+			// the values of the solution are supported
+			for (Parameter<?> param : component.parameters) {
+				supports.get(param).add(component.variables.get(param).getValue());
+			}
+			
+			// get the value of the variable
+			solution = var.getValue();
 		}
 		
+		// reset solver and remove the constraint
+		component.model.getSolver().reset();
+		component.model.unpost(bind);
+		return solution;
+	}
+	
+	/**
+	 * Remove a constraint from the model of a component without rebuilding the model
+	 * 
+	 * @param component
+	 * @param constraint
+	 */
+	private void unpost(Component component, ParameterConstraint constraint)
+	{
+		// get posted constraint
+		Constraint cons = component.posted.remove(constraint);
+		if (cons != null && component.clean) {
+			// remove constraint from the model
+			component.model.unpost(cons);
+		}
 		
-		// update constraints between variables
-		for (ParameterConstraint constraint : this.constraints.keySet()) {
-			// create constraint
-			Constraint cons = this.doCreateCSPConstraint(constraint);
-			this.constraints.put(constraint, cons);
+		// the component must be checked again
+		component.consistent = null;
+	}
+	
+	/**
+	 * Returns the parameters of a component that are connected to the given 
+	 * parameter through the constraints of the component
+	 * 
+	 * @param component
+	 * @param param
+	 * @return
+	 */
+	private Set<Parameter<?>> reach(Component component, Parameter<?> param)
+	{
+		// index the constraints of the parameters
+		Map<Parameter<?>, List<ParameterConstraint>> index = new HashMap<>();
+		for (ParameterConstraint cons : component.constraints) {
+			for (Parameter<?> p : this.getParameters(cons)) {
+				index.computeIfAbsent(p, k -> new ArrayList<>()).add(cons);
+			}
 		}
 		
-		// post constraints
-		for (ParameterConstraint constraint : this.constraints.keySet()) {
-			// post CSP constraint
-			this.constraints.get(constraint).post();
+		// visit the parameters connected to the given one
+		Set<Parameter<?>> visited = new LinkedHashSet<>();
+		Deque<Parameter<?>> queue = new ArrayDeque<>();
+		visited.add(param);
+		queue.add(param);
+		while (!queue.isEmpty()) 
+		{
+			// get next parameter
+			Parameter<?> next = queue.poll();
+			// check related constraints
+			for (ParameterConstraint cons : index.getOrDefault(next, new ArrayList<>())) {
+				for (Parameter<?> other : this.getParameters(cons)) {
+					if (visited.add(other)) {
+						queue.add(other);
+					}
+				}
+			}
+		}
+		
+		// get connected parameters
+		return visited;
+	}
+	
+	/**
+	 * Split a component into the connected components of its parameters 
+	 * after the removal of parameters or constraints
+	 * 
+	 * @param component
+	 */
+	private void split(Component component)
+	{
+		// remove the component
+		this.partition.remove(component);
+		// visit the parameters of the component
+		Set<Parameter<?>> visited = new HashSet<>();
+		for (Parameter<?> param : component.parameters) 
+		{
+			// check if already visited
+			if (visited.contains(param)) {
+				continue;
+			}
+			
+			// create a new component
+			Component split = new Component();
+			for (Parameter<?> next : this.reach(component, param)) {
+				visited.add(next);
+				split.parameters.add(next);
+				this.components.put(next, split);
+			}
+			
+			// add the constraints of the parameters
+			for (ParameterConstraint cons : component.constraints) {
+				if (split.parameters.contains(cons.getReference())) {
+					split.constraints.add(cons);
+				}
+			}
+			
+			// add component
+			this.partition.add(split);
+		}
+	}
+	
+	/**
+	 * Build the model of a component
+	 * 
+	 * @param component
+	 */
+	private void build(Component component) 
+	{
+		// setup new model
+		component.model = new Model("Chocho CSP model");
+		component.model.getSolver().setDFS();
+		
+		// update variables associated to parameters
+		component.variables.clear();
+		for (Parameter<?> param : component.parameters) {
+			// create parameter
+			IntVar var = this.doCreateCSPVariable(component, param);
+			component.variables.put(param, var);
+		}
+		
+		// post constraints between variables
+		component.posted.clear();
+		for (ParameterConstraint constraint : component.constraints) {
+			// create and post constraint
+			Constraint cons = this.doCreateCSPConstraint(component, constraint);
+			cons.post();
+			component.posted.put(constraint, cons);
 		}
 		
 		// set clean flag
-		this.clean = true;
+		component.clean = true;
+		component.garbage = 0;
 	}
 	
 	/**
 	 * 
+	 * @param component
 	 * @param param
 	 * @return
 	 */
-	private IntVar doCreateCSPVariable(Parameter<?> param)
+	private IntVar doCreateCSPVariable(Component component, Parameter<?> param)
 	{
 		// CSP variable
 		IntVar var;
@@ -338,10 +765,8 @@ public class ChocoSolver extends ParameterSolver
 			{
 				// get enumeration parameter
 				EnumerationParameter p = (EnumerationParameter) param;
-				// get value indexes
-				int[] values = p.getValueIndexes();
-				// create variable
-				var = this.model.intVar(p.getLabel(), values);
+				// create variable over the indexes of the domain (computed values are not constraints)
+				var = component.model.intVar(p.getLabel(), 0, p.getDomainValues().length - 1);
 			}
 			break;
 			
@@ -350,8 +775,8 @@ public class ChocoSolver extends ParameterSolver
 			{
 				// get numeric parameter
 				NumericParameter p = (NumericParameter) param;
-				// create variable
-				var = this.model.intVar(p.getLabel(), p.getLowerBound(), p.getUpperBound());
+				// create variable over the bounds of the domain (computed bounds are not constraints)
+				var = component.model.intVar(p.getLabel(), p.getDomain().getLowerBound(), p.getDomain().getUpperBound());
 			}
 			break;
 			
@@ -367,10 +792,11 @@ public class ChocoSolver extends ParameterSolver
 	
 	/**
 	 * 
+	 * @param component
 	 * @param constraint
 	 * @return
 	 */
-	private Constraint doCreateCSPConstraint(ParameterConstraint constraint)
+	private Constraint doCreateCSPConstraint(Component component, ParameterConstraint constraint)
 	{
 		Constraint cons;
 		// check constraint type
@@ -381,7 +807,7 @@ public class ChocoSolver extends ParameterSolver
 			{
 				// get bind constraint
 				BindParameterConstraint bind = (BindParameterConstraint) constraint;
-				cons = this.doCreateBindCSPConstraint(bind);
+				cons = this.doCreateBindCSPConstraint(component, bind);
 			}
 			break;
 			
@@ -389,16 +815,16 @@ public class ChocoSolver extends ParameterSolver
 			{
 				// get exclude constraint
 				ExcludeParameterConstraint ex = (ExcludeParameterConstraint) constraint;
-				cons = this.doCreateExcludeCSPConstraint(ex);
+				cons = this.doCreateExcludeCSPConstraint(component, ex);
 			}
 			break;
-				
+			
 			// equal parameter constraint
 			case EQUAL : 
 			{
 				// get equal constraint
 				EqualParameterConstraint eq = (EqualParameterConstraint) constraint;
-				cons = this.doCreateEqualCSPConstraint(eq);
+				cons = this.doCreateEqualCSPConstraint(component, eq);
 			}
 			break;
 			
@@ -407,7 +833,7 @@ public class ChocoSolver extends ParameterSolver
 			{
 				// get not equal constraint
 				NotEqualParameterConstraint neq = (NotEqualParameterConstraint) constraint;
-				cons = this.doCreateNotEqualCSPConstraint(neq);
+				cons = this.doCreateNotEqualCSPConstraint(component, neq);
 			}
 			break;
 			
@@ -422,17 +848,18 @@ public class ChocoSolver extends ParameterSolver
 	
 	/**
 	 * 
+	 * @param component
 	 * @param bind
 	 * @return
 	 */
-	private Constraint doCreateBindCSPConstraint(BindParameterConstraint bind)
+	private Constraint doCreateBindCSPConstraint(Component component, BindParameterConstraint bind)
 	{
 		// CSP constraint
 		Constraint cons;
 		// get reference parameter
 		Parameter<?> param = bind.getReference();
 		// check if parameter variable exists
-		if (!this.variables.containsKey(param)) {
+		if (!component.variables.containsKey(param)) {
 			throw new RuntimeException("Unknown parameter variable - " + param);
 		}
 		
@@ -445,30 +872,30 @@ public class ChocoSolver extends ParameterSolver
 				// get parameter
 				EnumerationParameter p = (EnumerationParameter) param;
 				// get variable
-				IntVar var = this.variables.get(p);
+				IntVar var = component.variables.get(p);
 				// get binding value
 				String value = (String) bind.getValue();
 				// get related index
 				int index = p.getDomain().getIndex(value);
 				// create constraint 
-				cons = this.model.arithm(var, "=", index);
+				cons = component.model.arithm(var, "=", index);
 			}	
 			break;
-				
+			
 			// binding numeric variable
 			case NUMERIC_PARAMETER_TYPE : 
 			{
 				// get parameter 
 				NumericParameter p = (NumericParameter) param;
 				// get variable 
-				IntVar var = this.variables.get(p);
+				IntVar var = component.variables.get(p);
 				// get binding value
 				int value = Integer.parseInt(bind.getValue().toString());
 				// create constraint
-				cons = this.model.arithm(var, "=", value);
+				cons = component.model.arithm(var, "=", value);
 			}
 			break;
-				
+			
 			default : {
 				throw new RuntimeException("Unknown parameter type - " + param.getType());
 			}
@@ -480,17 +907,18 @@ public class ChocoSolver extends ParameterSolver
 	
 	/**
 	 * 
+	 * @param component
 	 * @param bind
 	 * @return
 	 */
-	private Constraint doCreateExcludeCSPConstraint(ExcludeParameterConstraint bind)
+	private Constraint doCreateExcludeCSPConstraint(Component component, ExcludeParameterConstraint bind)
 	{
 		// CSP constraint
 		Constraint cons;
 		// get reference parameter
 		Parameter<?> param = bind.getReference();
 		// check if parameter variable exists
-		if (!this.variables.containsKey(param)) {
+		if (!component.variables.containsKey(param)) {
 			throw new RuntimeException("Unknown parameter variable - " + param);
 		}
 		
@@ -503,30 +931,30 @@ public class ChocoSolver extends ParameterSolver
 				// get parameter
 				EnumerationParameter p = (EnumerationParameter) param;
 				// get variable
-				IntVar var = this.variables.get(p);
+				IntVar var = component.variables.get(p);
 				// get binding value
 				String value = (String) bind.getValue();
 				// get related index
 				int index = p.getDomain().getIndex(value);
 				// create constraint 
-				cons = this.model.arithm(var, "!=", index);
+				cons = component.model.arithm(var, "!=", index);
 			}	
 			break;
-				
+			
 			// binding numeric variable
 			case NUMERIC_PARAMETER_TYPE : 
 			{
 				// get parameter 
 				NumericParameter p = (NumericParameter) param;
 				// get variable 
-				IntVar var = this.variables.get(p);
+				IntVar var = component.variables.get(p);
 				// get binding value
 				int value = (int) bind.getValue();
 				// create constraint
-				cons = this.model.arithm(var, "!=", value);
+				cons = component.model.arithm(var, "!=", value);
 			}
 			break;
-				
+			
 			default : {
 				throw new RuntimeException("Unknown parameter type - " + param.getType());
 			}
@@ -538,98 +966,122 @@ public class ChocoSolver extends ParameterSolver
 	
 	/**
 	 * 
+	 * @param component
 	 * @param constraint
 	 * @return
 	 */
-	private Constraint doCreateEqualCSPConstraint(EqualParameterConstraint constraint)
+	private Constraint doCreateEqualCSPConstraint(Component component, EqualParameterConstraint constraint)
 	{
 		// check if parameter variables exist
-		if (!this.variables.containsKey(constraint.getReference()) || 
-				!this.variables.containsKey(constraint.getTarget())) 
+		if (!component.variables.containsKey(constraint.getReference()) || 
+				!component.variables.containsKey(constraint.getTarget())) 
 		{
 			throw new RuntimeException("Unknownw parameter variables\n- reference= " + constraint.getReference() + "\n- target= " + constraint.getTarget() + "\n");
 		}
 		
 		// get variables
-		IntVar ref = this.variables.get(constraint.getReference());
-		IntVar tar = this.variables.get(constraint.getTarget());
+		IntVar ref = component.variables.get(constraint.getReference());
+		IntVar tar = component.variables.get(constraint.getTarget());
 		
-		// create constraint
-		Constraint cons = this.model.allEqual(ref, tar);
+		// create binary constraint (allEqual misses solutions on bounded domains with holes)
+		Constraint cons = component.model.arithm(ref, "=", tar);
 		return cons;
 	}
 	
 	/**
 	 * 
+	 * @param component
 	 * @param constraint
 	 * @return
 	 */
-	private Constraint doCreateNotEqualCSPConstraint(NotEqualParameterConstraint constraint)
+	private Constraint doCreateNotEqualCSPConstraint(Component component, NotEqualParameterConstraint constraint)
 	{
 		// check if parameter variables exist
-		if (!this.variables.containsKey(constraint.getReference()) || 
-				!this.variables.containsKey(constraint.getTarget())) 
+		if (!component.variables.containsKey(constraint.getReference()) || 
+				!component.variables.containsKey(constraint.getTarget())) 
 		{
 			throw new RuntimeException("Unknownw parameter variables\n- reference= " + constraint.getReference() + "\n- target= " + constraint.getTarget() + "\n");
 		}
 		
 		// get variables
-		IntVar ref = this.variables.get(constraint.getReference());
-		IntVar tar = this.variables.get(constraint.getTarget());
+		IntVar ref = component.variables.get(constraint.getReference());
+		IntVar tar = component.variables.get(constraint.getTarget());
 		
 		// create constraint
-		Constraint cons = this.model.allDifferent(ref, tar);
+		Constraint cons = component.model.allDifferent(ref, tar);
 		return cons;
 	}
 	
 	/**
 	 * 
-	 * @param param
+	 * @param cons
 	 * @return
 	 */
-	private List<ParameterConstraint> doFindParameterRelatedConstraints(Parameter<?> param)
+	private List<Parameter<?>> getParameters(ParameterConstraint cons)
 	{
-		// list of parameter related constraints
-		List<ParameterConstraint> list = new ArrayList<>();
-		// check constraints
-		for (ParameterConstraint cons : this.constraints.keySet()) 
+		// list of constrained parameters
+		List<Parameter<?>> list = new ArrayList<>();
+		// check constraint type
+		switch (cons.getType()) 
 		{
-			// check constraint type
-			switch (cons.getType()) 
+			// bind constraint
+			case BIND : 
+			case EXCLUDE : 
 			{
-				// bind constraint
-				case BIND : 
-				case EXCLUDE : 
-				{
-					// check reference
-					if (cons.getReference().equals(param)) {
-						// remove constraint
-						list.add(cons);
-					}
-				}
-				break;
+				// add reference
+				list.add(cons.getReference());
+			}
+			break;
 			
-				// binary constraint
-				case EQUAL : 
-				case NOT_EQUAL : 
-				{
-					// get binary constraint
-					BinaryParameterConstraint binary = (BinaryParameterConstraint) cons;
-					if (binary.getReference().equals(param) || binary.getTarget().equals(param)) {
-						// add constraint
-						list.add(cons);
-					}
-				}
-				break;
-				
-				default : {
-					// unknown 
-					throw new RuntimeException("Unknownw parameter constraint type - " + cons.getType());
-				}
+			// binary constraint
+			case EQUAL : 
+			case NOT_EQUAL : 
+			{
+				// get binary constraint
+				BinaryParameterConstraint binary = (BinaryParameterConstraint) cons;
+				list.add(binary.getReference());
+				list.add(binary.getTarget());
+			}
+			break;
+			
+			default : {
+				// unknown 
+				throw new RuntimeException("Unknownw parameter constraint type - " + cons.getType());
 			}
 		}
 		
 		// get list
 		return list;
 	}
+	
+	/**
+	 * Connected component of the CSP
+	 * 
+	 * @author anacleto
+	 *
+	 */
+	private static class Component
+	{
+		private Set<Parameter<?>> parameters;						// parameters of the component
+		private Set<ParameterConstraint> constraints;				// constraints of the component
+		private Model model;										// CSP model of the component
+		private Map<Parameter<?>, IntVar> variables;				// variables of the model
+		private Map<ParameterConstraint, Constraint> posted;		// constraints posted to the model
+		private int garbage;										// variables of removed parameters still in the model
+		private boolean clean;										// clean flag
+		private Boolean consistent;									// result of the last consistency check (if any)
+		
+		/**
+		 * 
+		 */
+		private Component() {
+			this.parameters = new LinkedHashSet<>();
+			this.constraints = new LinkedHashSet<>();
+			this.variables = new HashMap<>();
+			this.posted = new HashMap<>();
+			this.garbage = 0;
+			this.clean = false;
+			this.consistent = null;
+		}
+	}
 }
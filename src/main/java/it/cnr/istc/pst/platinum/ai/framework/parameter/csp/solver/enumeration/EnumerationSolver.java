@@ -0,0 +1,916 @@
+package it.cnr.istc.pst.platinum.ai.framework.parameter.csp.solver.enumeration;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import it.cnr.istc.pst.platinum.ai.framework.parameter.csp.event.AddConstraintParameterNotification;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.csp.event.AddParameterNotification;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.csp.event.DelConstraintParameterNotification;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.csp.event.DelParameterNotification;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.csp.event.ParameterNotification;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.csp.event.ParameterNotificationFactory;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.csp.event.ParameterNotificationType;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.csp.solver.ParameterSolver;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.csp.solver.choco.v4.ChocoSolver;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.EnumerationParameter;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.Parameter;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.ParameterType;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.constraints.BinaryParameterConstraint;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.constraints.BindParameterConstraint;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.constraints.ExcludeParameterConstraint;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.constraints.ParameterConstraint;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.constraints.ParameterConstraintType;
+
+/**
+ * Parameter solver for enumeration parameters related through bind, exclude, equal
+ * and not-equal constraints.
+ * 
+ * The domains of the parameters are bit sets of value indexes. Parameters related
+ * by equal constraints are merged into classes through a union-find structure and the
+ * domain of a class is the intersection of the domains of its parameters. Not-equal
+ * constraints are propagated between classes through an AC-3 queue and a backtracking
+ * search over the classes whose value is not decided by propagation makes the check
+ * complete. Added constraints are propagated from the current domains while removed
+ * constraints and parameters make the solver compute the domains from scratch at the
+ * next check.
+ * 
+ * CSPs with numeric parameters are delegated to a Choco solver that is created as soon
+ * as a numeric parameter is added.
+ * 
+ * @author alessandro
+ *
+ */
+public class EnumerationSolver extends ParameterSolver
+{
+	private Set<Parameter<?>> parameters;						// parameters of the CSP
+	private Set<ParameterConstraint> constraints;				// constraints of the CSP
+	private Map<Parameter<?>, Variable> variables;				// variables of enumeration parameters
+	private int numerics;										// number of numeric parameters
+	private int differences;									// number of not-equal constraints between variables
+	private boolean stale;										// domains must be computed from scratch
+	private boolean consistent;									// no domain has been emptied by propagation
+	private Boolean verdict;									// result of the last consistency check (if any)
+	private ChocoSolver fallback;								// solver of CSPs with numeric parameters
+	private Deque<Variable> queue;								// classes to propagate
+	
+	/**
+	 * 
+	 */
+	public EnumerationSolver() {
+		super();
+		// setup data structures
+		this.parameters = new LinkedHashSet<>();
+		this.constraints = new LinkedHashSet<>();
+		this.variables = new LinkedHashMap<>();
+		this.numerics = 0;
+		this.differences = 0;
+		this.stale = false;
+		this.consistent = true;
+		this.verdict = null;
+		this.fallback = null;
+		this.queue = new ArrayDeque<>();
+	}
+	
+	/**
+	 * Check if the CSP is currently delegated to the Choco solver
+	 * 
+	 * @return
+	 */
+	public boolean isDelegated() {
+		return this.fallback != null && this.numerics > 0;
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public boolean isConsistent()
+	{
+		// check numeric parameters
+		if (this.isDelegated()) {
+			return this.fallback.isConsistent();
+		}
+		
+		// check cached result
+		if (this.verdict == null)
+		{
+			// check domains
+			if (this.stale) {
+				this.reset();
+			}
+			
+			// search a solution if not decided by propagation
+			this.verdict = this.consistent && (this.differences == 0 || this.search());
+		}
+		
+		// get consistency flag
+		return this.verdict;
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public void computeSolution(boolean exact)
+	{
+		// check numeric parameters
+		if (this.isDelegated()) {
+			this.fallback.computeSolution(exact);
+		}
+		else {
+			// compute values for each parameter
+			for (Parameter<?> param : this.variables.keySet()) {
+				this.computeValues(param, exact);
+			}
+		}
+	}
+	
+	/**
+	 * The values computed by the solver are exact in both modes
+	 */
+	@Override
+	public void computeValues(Parameter<?> param, boolean exact)
+	{
+		// check numeric parameters
+		if (this.isDelegated()) {
+			this.fallback.computeValues(param, exact);
+			return;
+		}
+		
+		// get variable
+		Variable var = this.variables.get(param);
+		if (var == null) {
+			throw new RuntimeException("Parameter not found in the CSP\n- " + param);
+		}
+		
+		// check domains
+		if (this.stale) {
+			this.reset();
+		}
+		
+		// feasible values of the parameter
+		BitSet values = new BitSet();
+		if (this.consistent)
+		{
+			// get the class of the variable
+			Variable root = this.find(var);
+			for (int v = root.domain.nextSetBit(0); v >= 0; v = root.domain.nextSetBit(v + 1)) {
+				// check if the value belongs to a solution
+				if (this.differences == 0 || this.probe(root, v)) {
+					values.set(v);
+				}
+			}
+		}
+		
+		// set values
+		((EnumerationParameter) param).setValues(values.stream().toArray());
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public void update(ParameterNotification info)
+	{
+		// check notification type
+		switch (info.getType())
+		{
+			case ADD_PARAM :
+			{
+				// get notification
+				AddParameterNotification notif = (AddParameterNotification) info;
+				Parameter<?> param = notif.getParameter();
+				// check parameter type
+				if (param.getType().equals(ParameterType.ENUMERATION_PARAMETER_TYPE))
+				{
+					// create variable
+					Variable var = new Variable((EnumerationParameter) param);
+					this.variables.put(param, var);
+					// check initial domain
+					if (var.domain.isEmpty()) {
+						this.consistent = false;
+					}
+				}
+				else
+				{
+					// check fallback solver
+					if (this.fallback == null) {
+						this.doCreateFallbackSolver();
+					}
+					
+					this.numerics++;
+				}
+				
+				// add parameter
+				this.parameters.add(param);
+				this.verdict = null;
+			}
+			break;
+			
+			case ADD_CONSTRAINT :
+			{
+				// get notification
+				AddConstraintParameterNotification notif = (AddConstraintParameterNotification) info;
+				ParameterConstraint cons = notif.getParameterConstraint();
+				// check constrained parameters
+				List<Parameter<?>> params = this.getParameters(cons);
+				boolean enumeration = true;
+				for (Parameter<?> param : params)
+				{
+					// check if parameter variable exists
+					if (!this.parameters.contains(param)) {
+						throw new RuntimeException("Unknown parameter variable - " + param);
+					}
+					
+					enumeration &= this.variables.containsKey(param);
+				}
+				
+				// add constraint
+				this.constraints.add(cons);
+				this.verdict = null;
+				// check if the constraint concerns enumeration parameters only
+				if (enumeration)
+				{
+					// index constraint
+					for (Parameter<?> param : params) {
+						this.variables.get(param).constraints.add(cons);
+					}
+					
+					// check constraint type
+					if (cons.getType().equals(ParameterConstraintType.NOT_EQUAL)) {
+						this.differences++;
+					}
+					
+					// propagate the constraint from the current domains
+					if (!this.stale && this.consistent) {
+						this.post(cons, this.queue);
+						this.propagate(this.queue);
+					}
+				}
+			}
+			break;
+			
+			case DEL_CONSTRAINT :
+			{
+				// get notification
+				DelConstraintParameterNotification notif = (DelConstraintParameterNotification) info;
+				ParameterConstraint cons = notif.getParameterConstraint();
+				// check if the domains can be updated locally
+				boolean local = this.isLocal() && !cons.getType().equals(ParameterConstraintType.NOT_EQUAL);
+				// remove constraint
+				Variable var = this.doRemoveConstraint(cons);
+				if (var != null) 
+				{
+					// update domains
+					if (local) {
+						this.release(var, null);
+					}
+					else {
+						// domains must be computed from scratch
+						this.stale = true;
+					}
+				}
+			}
+			break;
+			
+			case DEL_PARAM :
+			{
+				// get notification
+				DelParameterNotification notif = (DelParameterNotification) info;
+				Parameter<?> param = notif.getParameter();
+				if (this.parameters.remove(param))
+				{
+					// check if the domains can be updated locally
+					boolean local = this.isLocal();
+					Variable var = this.variables.remove(param);
+					// get related constraints (all constraints are indexed if no numeric parameter exists)
+					List<ParameterConstraint> related = new ArrayList<>();
+					if (var != null && this.numerics == 0) {
+						related.addAll(var.constraints);
+					}
+					else {
+						for (ParameterConstraint cons : this.constraints) {
+							if (this.getParameters(cons).contains(param)) {
+								related.add(cons);
+							}
+						}
+					}
+					
+					// remove related constraints
+					for (ParameterConstraint cons : related) {
+						this.doRemoveConstraint(cons);
+						local &= !cons.getType().equals(ParameterConstraintType.NOT_EQUAL);
+					}
+					
+					// check parameter type
+					if (var == null) {
+						this.numerics--;
+					}
+					else if (local) {
+						// update the domains of the class of the variable
+						this.release(var, var);
+					}
+					else {
+						// domains must be computed from scratch
+						this.stale = true;
+					}
+					
+					this.verdict = null;
+				}
+			}
+			break;
+			
+			default: {
+				// unknown notification
+				throw new RuntimeException("Unknown parameter notification type - " + info.getType());
+			}
+		}
+		
+		// keep the fallback solver up to date
+		if (this.fallback != null) {
+			this.fallback.update(info);
+			// discard the fallback solver when no numeric parameter is left
+			if (this.numerics == 0) {
+				this.fallback = null;
+			}
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public String toString()
+	{
+		// check numeric parameters
+		if (this.isDelegated()) {
+			return this.fallback.toString();
+		}
+		
+		// check domains
+		if (this.stale) {
+			this.reset();
+		}
+		
+		// print the domains of the variables
+		String str = "[EnumerationSolver consistent= " + this.consistent + "\n";
+		for (Variable var : this.variables.values()) {
+			str += "- " + var.param.getLabel() + " " + this.find(var).domain + "\n";
+		}
+		
+		// get description
+		return str + "]";
+	}
+	
+	/**
+	 * Remove a constraint and returns a variable of the constraint if the constraint
+	 * concerns enumeration parameters only
+	 * 
+	 * @param cons
+	 * @return
+	 */
+	private Variable doRemoveConstraint(ParameterConstraint cons)
+	{
+		// variable of the constraint
+		Variable removed = null;
+		if (this.constraints.remove(cons))
+		{
+			// remove constraint from variables
+			for (Parameter<?> param : this.getParameters(cons)) {
+				Variable var = this.variables.get(param);
+				if (var != null && var.constraints.remove(cons)) {
+					removed = var;
+				}
+			}
+			
+			// check constraint type
+			if (removed != null && cons.getType().equals(ParameterConstraintType.NOT_EQUAL)) {
+				this.differences--;
+			}
+			
+			this.verdict = null;
+		}
+		
+		// get variable
+		return removed;
+	}
+	
+	/**
+	 * Check if the domains can be updated locally after a removal. Without not-equal 
+	 * constraints the domains of different classes do not depend on each other
+	 * 
+	 * @return
+	 */
+	private boolean isLocal() {
+		return !this.stale && this.consistent && this.differences == 0;
+	}
+	
+	/**
+	 * Compute again the classes and the domains of the variables of the class of the 
+	 * given variable. The removed variable (if any) is excluded from the class.
+	 * 
+	 * @param var
+	 * @param removed
+	 */
+	private void release(Variable var, Variable removed)
+	{
+		// reset the variables of the class
+		List<Variable> members = new ArrayList<>(this.find(var).members);
+		for (Variable member : members) {
+			member.parent = member;
+			member.rank = 0;
+			member.members.clear();
+			member.members.add(member);
+			member.domain.clear();
+			member.domain.or(member.initial);
+		}
+		
+		// post the constraints of the variables
+		for (Variable member : members) {
+			if (member != removed) 
+			{
+				// check initial domain
+				this.consistent &= !member.domain.isEmpty();
+				for (ParameterConstraint cons : member.constraints) {
+					this.post(cons, this.queue);
+				}
+			}
+		}
+		
+		// propagate constraints
+		this.propagate(this.queue);
+	}
+	
+	/**
+	 * Create the Choco solver and notify the current parameters and constraints
+	 */
+	private void doCreateFallbackSolver()
+	{
+		// create solver
+		this.fallback = new ChocoSolver();
+		ParameterNotificationFactory factory = ParameterNotificationFactory.getInstance();
+		for (Parameter<?> param : this.parameters) {
+			// notify parameter
+			AddParameterNotification notif = factory.create(ParameterNotificationType.ADD_PARAM);
+			notif.setParameter(param);
+			this.fallback.update(notif);
+		}
+		
+		for (ParameterConstraint cons : this.constraints) {
+			// notify constraint
+			AddConstraintParameterNotification notif = factory.create(ParameterNotificationType.ADD_CONSTRAINT);
+			notif.setConstraint(cons);
+			this.fallback.update(notif);
+		}
+	}
+	
+	/**
+	 * Compute the domains of the variables from scratch
+	 */
+	private void reset()
+	{
+		// reset variables
+		for (Variable var : this.variables.values()) {
+			var.parent = var;
+			var.rank = 0;
+			var.members.clear();
+			var.members.add(var);
+			var.different.clear();
+			var.domain.clear();
+			var.domain.or(var.initial);
+		}
+		
+		// check initial domains
+		this.consistent = true;
+		for (Variable var : this.variables.values()) {
+			this.consistent &= !var.domain.isEmpty();
+		}
+		
+		// post constraints
+		for (Variable var : this.variables.values()) {
+			for (ParameterConstraint cons : var.constraints) {
+				// post each constraint once
+				if (this.consistent && cons.getReference().equals(var.param)) {
+					this.post(cons, this.queue);
+				}
+			}
+		}
+		
+		// propagate constraints
+		this.propagate(this.queue);
+		this.stale = false;
+	}
+	
+	/**
+	 * Apply a constraint to the current domains and add the classes whose domain
+	 * has changed to the queue
+	 * 
+	 * @param cons
+	 * @param queue
+	 */
+	private void post(ParameterConstraint cons, Deque<Variable> queue)
+	{
+		// check constraint type
+		switch (cons.getType())
+		{
+			case BIND :
+			{
+				// get class and value
+				Variable root = this.find(this.variables.get(cons.getReference()));
+				int value = this.getValueIndex(cons.getReference(), ((BindParameterConstraint) cons).getValue());
+				// restrict the domain to the value
+				boolean found = root.domain.get(value);
+				if (!found || root.domain.cardinality() > 1) {
+					root.domain.clear();
+					if (found) {
+						root.domain.set(value);
+					}
+					
+					queue.add(root);
+				}
+			}
+			break;
+			
+			case EXCLUDE :
+			{
+				// get class and value
+				Variable root = this.find(this.variables.get(cons.getReference()));
+				int value = this.getValueIndex(cons.getReference(), ((ExcludeParameterConstraint) cons).getValue());
+				// remove the value from the domain
+				if (root.domain.get(value)) {
+					root.domain.clear(value);
+					queue.add(root);
+				}
+			}
+			break;
+			
+			case EQUAL :
+			{
+				// get classes
+				BinaryParameterConstraint binary = (BinaryParameterConstraint) cons;
+				Variable a = this.find(this.variables.get(binary.getReference()));
+				Variable b = this.find(this.variables.get(binary.getTarget()));
+				if (a != b)
+				{
+					// check not-equal constraints between the classes
+					Variable small = a.members.size() <= b.members.size() ? a : b;
+					Variable other = small == a ? b : a;
+					for (Variable member : small.members) {
+						for (Variable var : member.different) {
+							if (this.find(var) == other) {
+								this.consistent = false;
+							}
+						}
+					}
+					
+					// merge classes
+					Variable root = this.union(a, b);
+					queue.add(root);
+				}
+			}
+			break;
+			
+			case NOT_EQUAL :
+			{
+				// get variables
+				BinaryParameterConstraint binary = (BinaryParameterConstraint) cons;
+				Variable a = this.variables.get(binary.getReference());
+				Variable b = this.variables.get(binary.getTarget());
+				a.different.add(b);
+				b.different.add(a);
+				// check classes
+				if (this.find(a) == this.find(b)) {
+					this.consistent = false;
+				}
+				
+				queue.add(this.find(a));
+				queue.add(this.find(b));
+			}
+			break;
+			
+			default : {
+				// unknown
+				throw new RuntimeException("Unknownw parameter constraint type - " + cons.getType());
+			}
+		}
+	}
+	
+	/**
+	 * Propagate not-equal constraints from the classes in the queue. A class whose domain is
+	 * a single value removes the value from the domains of the classes it must be different from
+	 * 
+	 * @param queue
+	 * @return
+	 */
+	private boolean propagate(Deque<Variable> queue)
+	{
+		// check the queue
+		while (this.consistent && !queue.isEmpty())
+		{
+			// get class
+			Variable root = this.find(queue.poll());
+			if (root.domain.isEmpty()) {
+				// empty domain
+				this.consistent = false;
+			}
+			else if (root.domain.cardinality() == 1)
+			{
+				// get value
+				int value = root.domain.nextSetBit(0);
+				for (Variable member : root.members) {
+					for (Variable var : member.different)
+					{
+						// get the class of the variable
+						Variable other = this.find(var);
+						if (other == root) {
+							this.consistent = false;
+						}
+						else if (other.domain.get(value)) {
+							// remove value
+							other.domain.clear(value);
+							queue.add(other);
+						}
+					}
+				}
+			}
+		}
+		
+		// clear queue
+		queue.clear();
+		return this.consistent;
+	}
+	
+	/**
+	 * Check if a solution exists by setting the class to the given value
+	 * 
+	 * @param root
+	 * @param value
+	 * @return
+	 */
+	private boolean probe(Variable root, int value)
+	{
+		// save the current domains
+		Map<Variable, BitSet> backup = new HashMap<>();
+		for (Variable var : this.variables.values()) {
+			if (var.parent == var) {
+				backup.put(var, (BitSet) var.domain.clone());
+			}
+		}
+		
+		// set value
+		root.domain.clear();
+		root.domain.set(value);
+		this.queue.add(root);
+		boolean feasible = this.propagate(this.queue) && this.search();
+		// restore domains
+		for (Map.Entry<Variable, BitSet> entry : backup.entrySet()) {
+			entry.getKey().domain.clear();
+			entry.getKey().domain.or(entry.getValue());
+		}
+		
+		this.consistent = true;
+		return feasible;
+	}
+	
+	/**
+	 * Search an assignment of the classes whose value has not been decided by propagation.
+	 * The current domains are not changed.
+	 * 
+	 * @return
+	 */
+	private boolean search()
+	{
+		// get undecided classes
+		List<Variable> open = new ArrayList<>();
+		Map<Variable, Integer> index = new HashMap<>();
+		for (Variable var : this.variables.values()) {
+			if (var.parent == var && var.domain.cardinality() > 1) {
+				index.put(var, open.size());
+				open.add(var);
+			}
+		}
+		
+		// set the not-equal constraints between undecided classes
+		BitSet[] domains = new BitSet[open.size()];
+		List<List<Integer>> adjacency = new ArrayList<>();
+		for (int i = 0; i < open.size(); i++)
+		{
+			domains[i] = (BitSet) open.get(i).domain.clone();
+			List<Integer> neighbors = new ArrayList<>();
+			for (Variable member : open.get(i).members) {
+				for (Variable var : member.different) {
+					Integer j = index.get(this.find(var));
+					if (j != null) {
+						neighbors.add(j);
+					}
+				}
+			}
+			
+			adjacency.add(neighbors);
+		}
+		
+		// search an assignment
+		return this.search(domains, adjacency, new boolean[open.size()]);
+	}
+	
+	/**
+	 * Backtracking search with forward checking
+	 * 
+	 * @param domains
+	 * @param adjacency
+	 * @param assigned
+	 * @return
+	 */
+	private boolean search(BitSet[] domains, List<List<Integer>> adjacency, boolean[] assigned)
+	{
+		// select the unassigned class with the smallest domain among classes with unassigned neighbors
+		int next = -1;
+		for (int i = 0; i < domains.length; i++)
+		{
+			// check unassigned neighbors
+			boolean constrained = false;
+			for (int j : adjacency.get(i)) {
+				constrained |= !assigned[j];
+			}
+			
+			if (!assigned[i] && constrained &&
+					(next == -1 || domains[i].cardinality() < domains[next].cardinality())) {
+				next = i;
+			}
+		}
+		
+		// any value of the remaining classes is consistent with assigned neighbors
+		if (next == -1) {
+			return true;
+		}
+		
+		// try values
+		assigned[next] = true;
+		for (int v = domains[next].nextSetBit(0); v >= 0; v = domains[next].nextSetBit(v + 1))
+		{
+			// remove the value from the domains of unassigned neighbors
+			List<Integer> pruned = new ArrayList<>();
+			boolean wipeout = false;
+			for (int j : adjacency.get(next)) {
+				if (!assigned[j] && domains[j].get(v)) {
+					domains[j].clear(v);
+					pruned.add(j);
+					wipeout |= domains[j].isEmpty();
+				}
+			}
+			
+			// check assignment
+			if (!wipeout && this.search(domains, adjacency, assigned)) {
+				return true;
+			}
+			
+			// restore domains
+			for (int j : pruned) {
+				domains[j].set(v);
+			}
+		}
+		
+		// backtrack
+		assigned[next] = false;
+		return false;
+	}
+	
+	/**
+	 * 
+	 * @param var
+	 * @return
+	 */
+	private Variable find(Variable var)
+	{
+		// find the representative of the class
+		while (var.parent != var) {
+			// path halving
+			var.parent = var.parent.parent;
+			var = var.parent;
+		}
+		
+		return var;
+	}
+	
+	/**
+	 * 
+	 * @param a
+	 * @param b
+	 * @return
+	 */
+	private Variable union(Variable a, Variable b)
+	{
+		// union by rank
+		Variable root = a.rank >= b.rank ? a : b;
+		Variable child = root == a ? b : a;
+		child.parent = root;
+		if (a.rank == b.rank) {
+			root.rank++;
+		}
+		
+		// merge domains and members
+		root.domain.and(child.domain);
+		root.members.addAll(child.members);
+		child.members.clear();
+		return root;
+	}
+	
+	/**
+	 * 
+	 * @param param
+	 * @param value
+	 * @return
+	 */
+	private int getValueIndex(Parameter<?> param, Object value) {
+		// get the index of the value in the domain of the parameter
+		return ((EnumerationParameter) param).getDomain().getIndex(value.toString());
+	}
+	
+	/**
+	 * 
+	 * @param cons
+	 * @return
+	 */
+	private List<Parameter<?>> getParameters(ParameterConstraint cons)
+	{
+		// list of constrained parameters
+		List<Parameter<?>> list = new ArrayList<>();
+		// check constraint type
+		switch (cons.getType())
+		{
+			// bind constraint
+			case BIND :
+			case EXCLUDE :
+			{
+				// add reference
+				list.add(cons.getReference());
+			}
+			break;
+			
+			// binary constraint
+			case EQUAL :
+			case NOT_EQUAL :
+			{
+				// get binary constraint
+				BinaryParameterConstraint binary = (BinaryParameterConstraint) cons;
+				list.add(binary.getReference());
+				list.add(binary.getTarget());
+			}
+			break;
+			
+			default : {
+				// unknown
+				throw new RuntimeException("Unknownw parameter constraint type - " + cons.getType());
+			}
+		}
+		
+		// get list
+		return list;
+	}
+	
+	/**
+	 * Variable of an enumeration parameter
+	 * 
+	 * @author alessandro
+	 *
+	 */
+	private static class Variable
+	{
+		private EnumerationParameter param;							// parameter
+		private BitSet initial;										// initial domain
+		private BitSet domain;										// current domain of the class (representatives only)
+		private Variable parent;									// parent in the union-find structure
+		private int rank;											// rank in the union-find structure
+		private List<Variable> members;								// members of the class (representatives only)
+		private List<Variable> different;							// variables the variable must be different from
+		private List<ParameterConstraint> constraints;				// constraints of the variable
+		
+		/**
+		 * 
+		 * @param param
+		 */
+		private Variable(EnumerationParameter param) {
+			this.param = param;
+			this.initial = new BitSet();
+			for (int value : param.getValueIndexes()) {
+				this.initial.set(value);
+			}
+			
+			this.domain = (BitSet) this.initial.clone();
+			this.parent = this;
+			this.rank = 0;
+			this.members = new ArrayList<>();
+			this.members.add(this);
+			this.different = new ArrayList<>();
+			this.constraints = new ArrayList<>();
+		}
+	}
+}
@@ -90,7 +90,7 @@ public abstract class Parameter <T extends ParameterDomain>
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		result = prime * result + (int) (id ^ (id >>> 32));
+		result = prime * result + id;
 		return result;
 	}
 
@@ -10,10 +10,31 @@ import it.cnr.istc.pst.platinum.ai.framework.microkernel.query.ParameterQueryTyp
  */
 public class ComputeSolutionParameterQuery extends ParameterQuery 
 {
+	private boolean exact;				// enumerate all the solutions of the CSP
+	
 	/**
 	 * 
 	 */
 	protected ComputeSolutionParameterQuery() {
 		super(ParameterQueryType.COMPUTE_SOLUTION);
+		this.exact = true;
+	}
+	
+	/**
+	 * Set whether the values of the parameters must be computed by enumerating
+	 * all the solutions of the CSP (default) rather than probing the values of the parameters
+	 * 
+	 * @param exact
+	 */
+	public void setExact(boolean exact) {
+		this.exact = exact;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public boolean isExact() {
+		return exact;
 	}
 }
@@ -0,0 +1,356 @@
+package it.cnr.istc.pst.platinum.ai.framework.time;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import it.cnr.istc.pst.platinum.ai.framework.time.ex.TemporalConstraintPropagationException;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePoint;
+
+/**
+ * Minimal dispatchable network compiled from the minimal distances of a consistent
+ * temporal network (see Muscettola et al., 1998).
+ * 
+ * Edges of the distance graph dominated by a pair of edges through a third time point
+ * are removed. A non-negative edge A -> C is dominated if d(A,B) + d(B,C) = d(A,C) with a
+ * non-negative edge B -> C, a negative edge A -> C is dominated if d(A,B) + d(B,C) = d(A,C)
+ * with a negative edge A -> B. Edges are not filtered through time points that are rigidly
+ * connected to either end of the edge, so that mutually dominating edges are kept.
+ * 
+ * The execution windows of the time points are updated as soon as a time point is executed
+ * by propagating the execution time to the neighbors of the time point only.
+ * 
+ * @author alessandro
+ *
+ */
+public class DispatchableNetwork
+{
+	private Map<TimePoint, Integer> index;						// index of time points
+	private long[][] distance;									// minimal distances of the compiled network
+	private int[][] outgoing;									// targets of outgoing edges
+	private long[][] outgoingWeight;							// weights of outgoing edges
+	private int[][] incoming;									// sources of incoming edges
+	private long[][] incomingWeight;							// weights of incoming edges
+	private int edges;											// number of edges
+	private long[] lb;											// lower bounds of execution windows
+	private long[] ub;											// upper bounds of execution windows
+	private boolean[] executed;									// executed time points
+	private int origin;											// index of the origin
+	
+	/**
+	 * 
+	 * @param points
+	 * @param distance
+	 * @param origin
+	 */
+	protected DispatchableNetwork(List<TimePoint> points, long[][] distance, int origin)
+	{
+		// set data
+		int size = points.size();
+		this.index = new HashMap<>();
+		for (int i = 0; i < size; i++) {
+			this.index.put(points.get(i), i);
+		}
+		
+		this.distance = distance;
+		this.origin = origin;
+		this.lb = new long[size];
+		this.ub = new long[size];
+		this.executed = new boolean[size];
+		for (int i = 0; i < size; i++) {
+			// initial execution window
+			this.lb[i] = -distance[i][origin];
+			this.ub[i] = distance[origin][i];
+		}
+		
+		// filter dominated edges
+		this.compile();
+	}
+	
+	/**
+	 * Build the minimal dispatchable graph
+	 */
+	private void compile()
+	{
+		// initialize edges
+		int size = this.distance.length;
+		this.edges = 0;
+		int[] outDegree = new int[size];
+		int[] inDegree = new int[size];
+		boolean[][] dominated = new boolean[size][size];
+		for (int i = 0; i < size; i++)
+		{
+			for (int j = 0; j < size; j++)
+			{
+				// check distinct time points
+				if (i == j) {
+					continue;
+				}
+				
+				// check dominating paths
+				long w = this.distance[i][j];
+				for (int k = 0; k < size && !dominated[i][j]; k++)
+				{
+					// skip rigidly connected time points
+					if (k == i || k == j || this.isRigid(i, k) || this.isRigid(k, j)) {
+						continue;
+					}
+					
+					// check path through k
+					if (this.distance[i][k] + this.distance[k][j] == w) {
+						// check upper and lower dominance
+						dominated[i][j] = (w >= 0 && this.distance[k][j] >= 0) ||
+								(w < 0 && this.distance[i][k] < 0);
+					}
+				}
+				
+				// count edges
+				if (!dominated[i][j]) {
+					outDegree[i]++;
+					inDegree[j]++;
+					this.edges++;
+				}
+			}
+		}
+		
+		// set edges
+		this.outgoing = new int[size][];
+		this.outgoingWeight = new long[size][];
+		this.incoming = new int[size][];
+		this.incomingWeight = new long[size][];
+		for (int i = 0; i < size; i++) {
+			this.outgoing[i] = new int[outDegree[i]];
+			this.outgoingWeight[i] = new long[outDegree[i]];
+			this.incoming[i] = new int[inDegree[i]];
+			this.incomingWeight[i] = new long[inDegree[i]];
+		}
+		
+		Arrays.fill(outDegree, 0);
+		Arrays.fill(inDegree, 0);
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				if (i != j && !dominated[i][j]) {
+					// add edge
+					this.outgoing[i][outDegree[i]] = j;
+					this.outgoingWeight[i][outDegree[i]++] = this.distance[i][j];
+					this.incoming[j][inDegree[j]] = i;
+					this.incomingWeight[j][inDegree[j]++] = this.distance[i][j];
+				}
+			}
+		}
+	}
+	
+	/**
+	 * 
+	 * @param i
+	 * @param j
+	 * @return
+	 */
+	private boolean isRigid(int i, int j) {
+		return this.distance[i][j] + this.distance[j][i] == 0;
+	}
+	
+	/**
+	 * 
+	 * @param point
+	 * @return
+	 */
+	private int slot(TimePoint point)
+	{
+		// get the index of the time point
+		Integer slot = this.index.get(point);
+		if (slot == null) {
+			throw new RuntimeException("Time point not compiled into the dispatchable network " + point);
+		}
+		
+		return slot;
+	}
+	
+	/**
+	 * Returns the number of edges of the dispatchable network
+	 * 
+	 * @return
+	 */
+	public int getNumberOfEdges() {
+		return this.edges;
+	}
+	
+	/**
+	 * Returns the number of edges of a time point
+	 * 
+	 * @param point
+	 * @return
+	 */
+	public int getDegree(TimePoint point) {
+		int slot = this.slot(point);
+		return this.outgoing[slot].length + this.incoming[slot].length;
+	}
+	
+	/**
+	 * Check if a time point belongs to the dispatchable network
+	 * 
+	 * @param point
+	 * @return
+	 */
+	public boolean contains(TimePoint point) {
+		return this.index.containsKey(point);
+	}
+	
+	/**
+	 * Returns the current execution window of a time point
+	 * 
+	 * @param point
+	 * @return
+	 */
+	public synchronized long[] getWindow(TimePoint point) {
+		int slot = this.slot(point);
+		return new long[] {
+				this.lb[slot],
+				this.ub[slot]
+		};
+	}
+	
+	/**
+	 * Returns the distance bounds between two time points of the compiled network
+	 * 
+	 * @param source
+	 * @param target
+	 * @return
+	 */
+	public synchronized long[] getDistance(TimePoint source, TimePoint target) {
+		int i = this.slot(source);
+		int j = this.slot(target);
+		return new long[] {
+				-this.distance[j][i],
+				this.distance[i][j]
+		};
+	}
+	
+	/**
+	 * 
+	 * @param point
+	 * @return
+	 */
+	public synchronized boolean isExecuted(TimePoint point) {
+		return this.executed[this.slot(point)];
+	}
+	
+	/**
+	 * Constrain the distance between two time points of the network. The minimal distances
+	 * are updated through the new edges, the execution windows are recomputed from the executed 
+	 * time points and the dominated edges are filtered again. The method throws an exception and 
+	 * leaves the network unchanged if the constraint is not consistent with the network and the 
+	 * executed time points.
+	 * 
+	 * @param source
+	 * @param target
+	 * @param min
+	 * @param max
+	 * @throws TemporalConstraintPropagationException
+	 */
+	public synchronized void constrain(TimePoint source, TimePoint target, long min, long max)
+			throws TemporalConstraintPropagationException
+	{
+		// check the constraint against the current distances
+		int s = this.slot(source);
+		int t = this.slot(target);
+		if (min > max || min > this.distance[s][t] || max < -this.distance[t][s]) {
+			throw new TemporalConstraintPropagationException("Distance [" + min + ", " + max + "] between time points " 
+					+ source + " and " + target + " not consistent with the allowed distance "
+					+ "[" + (-this.distance[t][s]) + ", " + this.distance[s][t] + "]\n");
+		}
+		
+		// update minimal distances through the new edges s -> t (max) and t -> s (-min)
+		int size = this.distance.length;
+		long[][] update = new long[size][size];
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				update[i][j] = Math.min(this.distance[i][j], Math.min(
+						this.distance[i][s] + max + this.distance[t][j],
+						this.distance[i][t] - min + this.distance[s][j]));
+			}
+		}
+		
+		// compute execution windows from the origin and the executed time points
+		long[] wlb = new long[size];
+		long[] wub = new long[size];
+		for (int i = 0; i < size; i++) 
+		{
+			wlb[i] = -update[i][this.origin];
+			wub[i] = update[this.origin][i];
+			for (int k = 0; k < size; k++) {
+				if (this.executed[k]) {
+					wlb[i] = Math.max(wlb[i], this.lb[k] - update[i][k]);
+					wub[i] = Math.min(wub[i], this.lb[k] + update[k][i]);
+				}
+			}
+			
+			// check execution window
+			if (wlb[i] > wub[i]) {
+				throw new TemporalConstraintPropagationException("Distance [" + min + ", " + max + "] between time points " 
+						+ source + " and " + target + " empties the execution window of a time point\n");
+			}
+		}
+		
+		// set distances and execution windows
+		this.distance = update;
+		this.lb = wlb;
+		this.ub = wub;
+		// filter dominated edges
+		this.compile();
+	}
+	
+	/**
+	 * Execute a time point at the given time and update the execution windows of
+	 * the neighbors of the time point. The method throws an exception if the time
+	 * does not belong to the execution window of the time point.
+	 * 
+	 * @param point
+	 * @param time
+	 * @throws TemporalConstraintPropagationException
+	 */
+	public synchronized void execute(TimePoint point, long time)
+			throws TemporalConstraintPropagationException
+	{
+		// check execution window
+		int slot = this.slot(point);
+		if (time < this.lb[slot] || time > this.ub[slot]) {
+			throw new TemporalConstraintPropagationException("Execution time " + time + " out of the execution window "
+					+ "[" + this.lb[slot] + ", " + this.ub[slot] + "] of time point " + point + "\n");
+		}
+		
+		// check neighbors before executing the time point
+		for (int i = 0; i < this.outgoing[slot].length; i++) {
+			int target = this.outgoing[slot][i];
+			if (Math.min(this.ub[target], time + this.outgoingWeight[slot][i]) < this.lb[target]) {
+				throw new TemporalConstraintPropagationException("Execution time " + time + " of time point " + point + " "
+						+ "violates the execution window of time point " + target + "\n");
+			}
+		}
+		
+		for (int i = 0; i < this.incoming[slot].length; i++) {
+			int source = this.incoming[slot][i];
+			if (Math.max(this.lb[source], time - this.incomingWeight[slot][i]) > this.ub[source]) {
+				throw new TemporalConstraintPropagationException("Execution time " + time + " of time point " + point + " "
+						+ "violates the execution window of time point " + source + "\n");
+			}
+		}
+		
+		// execute time point
+		this.executed[slot] = true;
+		this.lb[slot] = time;
+		this.ub[slot] = time;
+		// update upper bounds of the targets of outgoing edges
+		for (int i = 0; i < this.outgoing[slot].length; i++) {
+			int target = this.outgoing[slot][i];
+			this.ub[target] = Math.min(this.ub[target], time + this.outgoingWeight[slot][i]);
+		}
+		
+		// update lower bounds of the sources of incoming edges
+		for (int i = 0; i < this.incoming[slot].length; i++) {
+			int source = this.incoming[slot][i];
+			this.lb[source] = Math.max(this.lb[source], time - this.incomingWeight[slot][i]);
+		}
+	}
+}
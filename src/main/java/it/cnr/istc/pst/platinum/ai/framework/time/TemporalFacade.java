@@ -1,11 +1,18 @@
 package it.cnr.istc.pst.platinum.ai.framework.time;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.FrameworkObject;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.annotation.cfg.framework.TemporalFacadeConfiguration;
@@ -16,6 +23,7 @@ import it.cnr.istc.pst.platinum.ai.framework.microkernel.query.QueryManager;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.query.TemporalQuery;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.query.TemporalQueryFactory;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.query.TemporalQueryType;
+import it.cnr.istc.pst.platinum.ai.framework.time.ex.DynamicControllabilityException;
 import it.cnr.istc.pst.platinum.ai.framework.time.ex.InconsistentIntervaEndTimeException;
 import it.cnr.istc.pst.platinum.ai.framework.time.ex.InconsistentIntervalDurationException;
 import it.cnr.istc.pst.platinum.ai.framework.time.ex.InconsistentIntervalStartTimeException;
@@ -40,10 +48,12 @@ import it.cnr.istc.pst.platinum.ai.framework.time.lang.allen.MetByIntervalConstr
 import it.cnr.istc.pst.platinum.ai.framework.time.lang.allen.StartsDuringIntervalConstraint;
 import it.cnr.istc.pst.platinum.ai.framework.time.lang.query.IntervalDistanceQuery;
 import it.cnr.istc.pst.platinum.ai.framework.time.lang.query.IntervalOverlapQuery;
+import it.cnr.istc.pst.platinum.ai.framework.time.lang.query.IntervalOverlapSetQuery;
 import it.cnr.istc.pst.platinum.ai.framework.time.lang.query.IntervalPseudoControllabilityQuery;
 import it.cnr.istc.pst.platinum.ai.framework.time.lang.query.IntervalScheduleQuery;
 import it.cnr.istc.pst.platinum.ai.framework.time.solver.TemporalSolver;
 import it.cnr.istc.pst.platinum.ai.framework.time.solver.TemporalSolverType;
+import it.cnr.istc.pst.platinum.ai.framework.time.solver.dc.DynamicControllabilityChecker;
 import it.cnr.istc.pst.platinum.ai.framework.time.tn.TemporalNetwork;
 import it.cnr.istc.pst.platinum.ai.framework.time.tn.TemporalNetworkType;
 import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePoint;
@@ -51,10 +61,16 @@ import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePointDistanceConstraint
 import it.cnr.istc.pst.platinum.ai.framework.time.tn.ex.InconsistentDistanceConstraintException;
 import it.cnr.istc.pst.platinum.ai.framework.time.tn.ex.InconsistentTpValueException;
 import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.query.TimePointDistanceQuery;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.query.TimePointDistanceToHorizonQuery;
 import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.query.TimePointQuery;
 import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.query.TimePointScheduleQuery;
 
 /**
+ * Access to the temporal data-base is regulated by a read/write lock. Queries 
+ * share the lock so that they can be processed concurrently (e.g. by the executive 
+ * and its observers) while the creation and deletion of time points and intervals, 
+ * the propagation and retraction of constraints and the consistency checks require 
+ * exclusive access. 
  * 
  * @author alessandro
  *
@@ -77,6 +93,12 @@ public class TemporalFacade extends FrameworkObject implements QueryManager<Temp
 	protected TemporalQueryFactory qf;									// temporal query factory
 	protected TemporalConstraintFactory cf;	 							// temporal constraint factory
 	
+	protected List<Object> journal;										// constraints and intervals created after the first checkpoint
+	protected List<Integer> checkpoints;								// active checkpoints
+	
+	protected TemporalQueryCache cache;									// cache of time point query results
+	protected final ReentrantReadWriteLock lock;						// read/write lock of the temporal data-base
+	
 	// static information
 	
 	private static final AtomicInteger ID_COUNTER = new AtomicInteger(0);
@@ -91,6 +113,10 @@ public class TemporalFacade extends FrameworkObject implements QueryManager<Temp
 		this.qf = new TemporalQueryFactory();
 		this.cf = new TemporalConstraintFactory();
 		this.intervals = new HashSet<>();
+		this.journal = new ArrayList<>();
+		this.checkpoints = new ArrayList<>();
+		this.cache = new TemporalQueryCache();
+		this.lock = new ReentrantReadWriteLock();
 		
 		// reset atomic id counter if needed
 		ID_COUNTER.set(0);
@@ -112,25 +138,52 @@ public class TemporalFacade extends FrameworkObject implements QueryManager<Temp
 		return this.tn.getHorizon();
 	}
 	
+	/**
+	 * Returns the number of time point queries answered by the cache
+	 * 
+	 * @return
+	 */
+	public long getQueryCacheHits() {
+		return this.cache.getHits();
+	}
+	
+	/**
+	 * Returns the number of time point queries processed by the temporal solver
+	 * 
+	 * @return
+	 */
+	public long getQueryCacheMisses() {
+		return this.cache.getMisses();
+	}
+	
 	/**
 	 * Create a flexible time point
 	 * 
 	 * @return
 	 * @throws TimePointCreationException
 	 */
-	public synchronized TimePoint createTimePoint() 
+	public TimePoint createTimePoint() 
 			throws TimePointCreationException 
 	{
-		// time point to create
-		TimePoint point = null;
-		try {
-			// create a time point
-			point = this.tn.addTimePoint();
-		} catch (InconsistentDistanceConstraintException ex) {
-			throw new TimePointCreationException(ex.getMessage());
+		// get exclusive access to the temporal data-base
+		this.lock.writeLock().lock();
+		try 
+		{
+			// time point to create
+			TimePoint point = null;
+			try {
+				// create a time point
+				point = this.tn.addTimePoint();
+			} catch (InconsistentDistanceConstraintException ex) {
+				throw new TimePointCreationException(ex.getMessage());
+			}
+			// get time point
+			return point;
+		}
+		finally {
+			// release the lock
+			this.lock.writeLock().unlock();
 		}
-		// get time point
-		return point;
 	}
 	
 	/**
@@ -140,18 +193,27 @@ public class TemporalFacade extends FrameworkObject implements QueryManager<Temp
 	 * @return
 	 * @throws TimePointCreationException
 	 */
-	public synchronized TimePoint createTimePoint(long at) 
+	public TimePoint createTimePoint(long at) 
 			throws TimePointCreationException {
-		// time point to create
-		TimePoint point = null;
-		try {
-			// create a fixed time point
-			point = this.tn.addTimePoint(at);
-		} catch (InconsistentTpValueException | InconsistentDistanceConstraintException  ex) {
-			throw new TimePointCreationException(ex.getMessage());
+		// get exclusive access to the temporal data-base
+		this.lock.writeLock().lock();
+		try 
+		{
+			// time point to create
+			TimePoint point = null;
+			try {
+				// create a fixed time point
+				point = this.tn.addTimePoint(at);
+			} catch (InconsistentTpValueException | InconsistentDistanceConstraintException  ex) {
+				throw new TimePointCreationException(ex.getMessage());
+			}
+			// get time point
+			return point;
+		}
+		finally {
+			// release the lock
+			this.lock.writeLock().unlock();
 		}
-		// get time point
-		return point;
 	}
 	
 	/**
@@ -161,18 +223,27 @@ public class TemporalFacade extends FrameworkObject implements QueryManager<Temp
 	 * @return
 	 * @throws TimePointCreationException
 	 */
-	public synchronized TimePoint createTimePoint(long[] bounds) 
+	public TimePoint createTimePoint(long[] bounds) 
 			throws TimePointCreationException {
-		// time point to create
-		TimePoint point = null;
-		try {
-			// create a time point within bound
-			point = this.tn.addTimePoint(bounds[0], bounds[1]);
-		} catch (InconsistentDistanceConstraintException | InconsistentTpValueException ex) {
-			throw new TimePointCreationException(ex.getMessage());
+		// get exclusive access to the temporal data-base
+		this.lock.writeLock().lock();
+		try 
+		{
+			// time point to create
+			TimePoint point = null;
+			try {
+				// create a time point within bound
+				point = this.tn.addTimePoint(bounds[0], bounds[1]);
+			} catch (InconsistentDistanceConstraintException | InconsistentTpValueException ex) {
+				throw new TimePointCreationException(ex.getMessage());
+			}
+			// get created time point
+			return point;
+		}
+		finally {
+			// release the lock
+			this.lock.writeLock().unlock();
 		}
-		// get created time point
-		return point;
 	}
 
 	/**
@@ -181,7 +252,7 @@ public class TemporalFacade extends FrameworkObject implements QueryManager<Temp
 	 * @return
 	 * @throws TemporalIntervalCreationException
 	 */
-	public synchronized TemporalInterval createTemporalInterval(boolean controllable) 
+	public TemporalInterval createTemporalInterval(boolean controllable) 
 			throws TemporalIntervalCreationException {
 		// create temporal interval
 		return this.createTemporalInterval(new long[] {this.getOrigin(), this.getHorizon()}, 
@@ -197,7 +268,7 @@ public class TemporalFacade extends FrameworkObject implements QueryManager<Temp
 	 * @return
 	 * @throws TemporalIntervalCreationException
 	 */
-	public synchronized TemporalInterval createTemporalInterval(long[] duration, boolean controllable) 
+	public TemporalInterval createTemporalInterval(long[] duration, boolean controllable) 
 			throws TemporalIntervalCreationException 
 	{
 		// create temporal interval
@@ -215,7 +286,7 @@ public class TemporalFacade extends FrameworkObject implements QueryManager<Temp
 	 * @return
 	 * @throws TemporalIntervalCreationException
 	 */
-	public synchronized TemporalInterval createTemporalInterval(long[] end, long[] duration, boolean controllable) 
+	public TemporalInterval createTemporalInterval(long[] end, long[] duration, boolean controllable) 
 			throws TemporalIntervalCreationException 
 	{
 		// create temporal interval
@@ -233,494 +304,1490 @@ public class TemporalFacade extends FrameworkObject implements QueryManager<Temp
 	 * @return
 	 * @throws TemporalIntervalCreationException
 	 */
-	public synchronized TemporalInterval createTemporalInterval(long[] start, long[] end, long[] duration, boolean controllable) 
+	public TemporalInterval createTemporalInterval(long[] start, long[] end, long[] duration, boolean controllable) 
 			throws TemporalIntervalCreationException {
-		
-		// interval's start time
-		TimePoint s = null;
-		try {
+		// get exclusive access to the temporal data-base
+		this.lock.writeLock().lock();
+		try 
+		{
+			// interval's start time
+			TimePoint s = null;
+			try {
+				
+				// create flexible start time
+				s = this.tn.addTimePoint(start[0], start[1]);
+				
+			} catch (InconsistentDistanceConstraintException | InconsistentTpValueException ex) {
+				// throw exception
+				throw new InconsistentIntervalStartTimeException(ex.getMessage());
+			}
+			
+			// interval's end time
+			TimePoint e = null;
+			try {
+				
+				// create flexible end time
+				e = this.tn.addTimePoint(end[0], end[1]);
+				
+			} catch (InconsistentDistanceConstraintException | InconsistentTpValueException ex) {
+				// delete start time
+				this.tn.removeTimePoint(s);
+				throw new InconsistentIntervaEndTimeException(ex.getMessage());
+			}
 			
-			// create flexible start time
-			s = this.tn.addTimePoint(start[0], start[1]);
+			// interval's duration
+			TimePointDistanceConstraint d = null;
+			try {
+				
+				// create distance constraint
+				d = this.cf.create(TemporalConstraintType.TIME_POINT_DISTANCE);
+				d.setReference(s);
+				d.setTarget(e);
+				d.setDistanceLowerBound(Math.max(1, duration[0]));
+				d.setDistanceUpperBound(Math.min(duration[1], this.getHorizon()));
+				d.setControllable(controllable);
+				
+				// propagate distance constraint
+				this.tn.addDistanceConstraint(d);
+				
+			} catch (InconsistentDistanceConstraintException ex) {
+				
+				// remove start and end time points
+				this.tn.removeTimePoint(s);
+				this.tn.removeTimePoint(e);
+				// throw exception
+				throw new InconsistentIntervalDurationException(ex.getMessage());
+			}
 			
-		} catch (InconsistentDistanceConstraintException | InconsistentTpValueException ex) {
-			// throw exception
-			throw new InconsistentIntervalStartTimeException(ex.getMessage());
+			// create temporal interval 
+			TemporalInterval interval = new TemporalInterval(ID_COUNTER.getAndIncrement(), d);
+			// record interval
+			this.intervals.add(interval);
+			// record interval on the journal if needed
+			if (!this.checkpoints.isEmpty()) {
+				this.journal.add(interval);
+			}
+			// get created interval
+			return interval;
 		}
-		
-		// interval's end time
-		TimePoint e = null;
-		try {
+		finally {
+			// release the lock
+			this.lock.writeLock().unlock();
+		}
+	}
+	
+	/**
+	 * 
+	 * Remove a temporal interval from the temporal data-based. 
+	 * 
+	 * The method removes the time points of the interval and all related time point distance constraints from the underlying temporal network
+	 * 
+	 * @param i
+	 */
+	public void deleteTemporalInterval(TemporalInterval i) {
+		// get exclusive access to the temporal data-base
+		this.lock.writeLock().lock();
+		try 
+		{
+			// list of time points to remove
+			List<TimePoint> list = new ArrayList<>();
+			// get start time
+			list.add(i.getStartTime());
+			// get end time
+			list.add(i.getEndTime());
+			// the network will automatically remove all constraints concerning the two time points
+			this.tn.removeTimePoints(list);
+			// remove interval 
+			this.intervals.remove(i);
+		}
+		finally {
+			// release the lock
+			this.lock.writeLock().unlock();
+		}
+	}
+	
+	/**
+	 * Check the temporal consistency of the temporal information as well as the 
+	 * pseudo-controllability property of the STNU.
+	 * 
+	 * 
+	 */
+	public void verify() 
+			throws ConsistencyCheckException {
+		// get exclusive access to the temporal data-base
+		this.lock.writeLock().lock();
+		try 
+		{
+			// check temporal network consistency
+			if (!this.solver.isValid()) {
+				throw new TemporalConsistencyException("The STNU is not valid!\nCheck propagated temporal constraints...\n");
+			}
+			
+			// check also if the network is valid
+			if (!this.isPseudoControllable()) {
+				throw new PseudoControllabilityException("The STNU is not pseudo-controllable!\nCheck constraints on uncontrollable intervals...\n"
+						+ "- squeezed contingent links= " + this.solver.getSqueezedContingentLinks() + "\n");
+			}
+		}
+		finally {
+			// release the lock
+			this.lock.writeLock().unlock();
+		}
+	}
+	
+	/**
+	 * 
+	 * @throws TemporalConsistencyException
+	 */
+	public void verifyTemporalConsistency() 
+			throws TemporalConsistencyException {
+		// get exclusive access to the temporal data-base
+		this.lock.writeLock().lock();
+		try 
+		{
+			// check temporal network consistency
+			if (!this.solver.isValid()) {
+				throw new TemporalConsistencyException("The STNU is not valid!\nCheck propagated temporal constraints...\n");
+			}
+		}
+		finally {
+			// release the lock
+			this.lock.writeLock().unlock();
+		}
+	}
+	
+	/**
+	 * 
+	 * @throws PseudoControllabilityException
+	 */
+	public void verifyPseudocontrollability() 
+			throws PseudoControllabilityException {
+		// get exclusive access to the temporal data-base
+		this.lock.writeLock().lock();
+		try 
+		{
+			// check also if the network is valid
+			if (!this.isPseudoControllable()) {
+				throw new PseudoControllabilityException("The STNU is not pseudo-controllable!\nCheck constraints on uncontrollable intervals...\n"
+						+ "- squeezed contingent links= " + this.solver.getSqueezedContingentLinks() + "\n");
+			}
+		}
+		finally {
+			// release the lock
+			this.lock.writeLock().unlock();
+		}
+	}
+	
+	/**
+	 * Check if the STNU is dynamically controllable. 
+	 * 
+	 * The check is done in memory on the constraints of the temporal network 
+	 * (see DynamicControllabilityChecker) so it can be used both during planning 
+	 * and before dispatching a plan.
+	 * 
+	 * @throws DynamicControllabilityException
+	 */
+	public void verifyDynamicControllability() 
+			throws DynamicControllabilityException {
+		// get shared access to the temporal data-base
+		this.lock.readLock().lock();
+		try 
+		{
+			// check dynamic controllability of the network
+			DynamicControllabilityChecker checker = new DynamicControllabilityChecker(this.tn);
+			if (!checker.isDynamicallyControllable()) {
+				throw new DynamicControllabilityException("The STNU is not dynamically controllable!\nCheck constraints on uncontrollable intervals...\n");
+			}
+		}
+		finally {
+			// release the lock
+			this.lock.readLock().unlock();
+		}
+	}
+	
+	/**
+	 * Compile the temporal network into a minimal dispatchable network. 
+	 * 
+	 * The minimal distances between all pairs of time points are computed by the 
+	 * temporal reasoner and dominated edges are filtered out. The resulting network 
+	 * can be dispatched online without querying the temporal reasoner, since the 
+	 * execution of a time point is propagated to its neighbors only. 
+	 * 
+	 * @return
+	 * @throws TemporalConsistencyException
+	 */
+	public DispatchableNetwork compileDispatchableNetwork() 
+			throws TemporalConsistencyException {
+		// get exclusive access to the temporal data-base
+		this.lock.writeLock().lock();
+		try 
+		{
+			// check temporal network consistency
+			if (!this.solver.isValid()) {
+				throw new TemporalConsistencyException("The STNU is not valid!\nCheck propagated temporal constraints...\n");
+			}
+			
+			// get time points
+			List<TimePoint> points = this.tn.getTimePoints();
+			int origin = points.indexOf(this.tn.getOriginTimePoint());
+			// compute minimal distances
+			long[][] distance = this.getDistanceMatrix(points);
+			// create dispatchable network
+			return new DispatchableNetwork(points, distance, origin);
+		}
+		finally {
+			// release the lock
+			this.lock.writeLock().unlock();
+		}
+	}
+	
+	/**
+	 * Save a snapshot of the temporal network to a (memory-mapped) file. The snapshot 
+	 * contains the time points and the constraints of the network as well as the minimal 
+	 * distances between the time points so that the network can be restored without 
+	 * propagating the constraints again. 
+	 * 
+	 * Temporal intervals are not part of the snapshot. 
+	 * 
+	 * @param file
+	 * @throws IOException
+	 * @throws TemporalConsistencyException
+	 */
+	public void save(File file) 
+			throws IOException, TemporalConsistencyException {
+		// get exclusive access to the temporal data-base
+		this.lock.writeLock().lock();
+		try 
+		{
+			// check temporal network consistency
+			if (!this.solver.isValid()) {
+				throw new TemporalConsistencyException("The STNU is not valid!\nCheck propagated temporal constraints...\n");
+			}
+			
+			// get time points
+			List<TimePoint> points = this.tn.getTimePoints();
+			// get constraints concerning time points of the network only
+			Set<TimePoint> set = new HashSet<>(points);
+			List<TimePointDistanceConstraint> constraints = new ArrayList<>();
+			for (TimePointDistanceConstraint constraint : this.tn.getConstraints()) {
+				// skip constraints concerning removed time points
+				if (set.contains(constraint.getReference()) && set.contains(constraint.getTarget())) {
+					constraints.add(constraint);
+				}
+			}
 			
-			// create flexible end time
-			e = this.tn.addTimePoint(end[0], end[1]);
+			// create snapshot
+			TemporalNetworkSnapshot snapshot = new TemporalNetworkSnapshot(
+					this.tn.getOriginTimePoint(),
+					this.tn.getHorizonTimePoint(),
+					points, 
+					constraints, 
+					this.getDistanceMatrix(points));
 			
-		} catch (InconsistentDistanceConstraintException | InconsistentTpValueException ex) {
-			// delete start time
-			this.tn.removeTimePoint(s);
-			throw new InconsistentIntervaEndTimeException(ex.getMessage());
+			// write snapshot
+			snapshot.write(file);
 		}
-		
-		// interval's duration
-		TimePointDistanceConstraint d = null;
-		try {
+		finally {
+			// release the lock
+			this.lock.writeLock().unlock();
+		}
+	}
+	
+	/**
+	 * Load a snapshot of a temporal network from a (memory-mapped) file. The snapshot 
+	 * can be loaded only into a temporal network with the same origin and horizon that 
+	 * contains no time point other than the origin and the horizon. 
+	 * 
+	 * Restored time points may have different ids from the saved ones. The method returns 
+	 * the restored time points indexed by the ids they had when the snapshot was saved. 
+	 * The minimal distances of the snapshot are given to the temporal reasoner so that 
+	 * constraints are not propagated again (if supported by the reasoner).
+	 * 
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 */
+	public Map<Integer, TimePoint> load(File file) 
+			throws IOException {
+		// get exclusive access to the temporal data-base
+		this.lock.writeLock().lock();
+		try 
+		{
+			// read snapshot
+			TemporalNetworkSnapshot snapshot = TemporalNetworkSnapshot.read(file);
+			// check the temporal network
+			if (snapshot.origin != this.tn.getOrigin() || snapshot.horizon != this.tn.getHorizon()) {
+				throw new IOException("The snapshot [origin= " + snapshot.origin + ", horizon= " + snapshot.horizon + "] "
+						+ "does not match the temporal network [origin= " + this.tn.getOrigin() + ", horizon= " + this.tn.getHorizon() + "]");
+			}
+			
+			if (this.tn.size() > 2) {
+				throw new RuntimeException("A snapshot can be loaded only into an empty temporal network");
+			}
 			
-			// create distance constraint
-			d = this.cf.create(TemporalConstraintType.TIME_POINT_DISTANCE);
-			d.setReference(s);
-			d.setTarget(e);
-			d.setDistanceLowerBound(Math.max(1, duration[0]));
-			d.setDistanceUpperBound(Math.min(duration[1], this.getHorizon()));
-			d.setControllable(controllable);
+			// restore time points
+			Map<Integer, TimePoint> index = new LinkedHashMap<>();
+			List<TimePoint> points = new ArrayList<>();
+			for (int i = 0; i < snapshot.ids.length; i++) 
+			{
+				// check the origin and the horizon
+				TimePoint point;
+				if (snapshot.ids[i] == snapshot.originId) {
+					point = this.tn.getOriginTimePoint();
+				}
+				else if (snapshot.ids[i] == snapshot.horizonId) {
+					point = this.tn.getHorizonTimePoint();
+				}
+				else {
+					// create time point
+					point = this.tn.addTimePoint(snapshot.domains[i][0], snapshot.domains[i][1]);
+				}
+				
+				// set schedule
+				point.setLowerBound(snapshot.schedules[i][0]);
+				point.setUpperBound(snapshot.schedules[i][1]);
+				index.put(snapshot.ids[i], point);
+				points.add(point);
+			}
 			
-			// propagate distance constraint
-			this.tn.addDistanceConstraint(d);
+			// restore constraints
+			List<TimePointDistanceConstraint> constraints = new ArrayList<>();
+			for (int i = 0; i < snapshot.ends.length; i++) 
+			{
+				// get related time points
+				TimePoint reference = index.get(snapshot.ends[i][0]);
+				TimePoint target = index.get(snapshot.ends[i][1]);
+				long[] bounds = snapshot.bounds[i];
+				// skip constraints created together with the time points and the network
+				if (snapshot.controllable[i] && ((reference.equals(this.tn.getOriginTimePoint()) && 
+						bounds[0] == target.getDomLb() && bounds[1] == target.getDomUb()) || 
+						(target.equals(this.tn.getHorizonTimePoint()) && 
+						bounds[0] == this.tn.getHorizon() - reference.getDomUb() && 
+						bounds[1] == this.tn.getHorizon() - reference.getDomLb()))) {
+					continue;
+				}
+				
+				// create constraint
+				TimePointDistanceConstraint constraint = this.cf.create(TemporalConstraintType.TIME_POINT_DISTANCE);
+				constraint.setReference(reference);
+				constraint.setTarget(target);
+				constraint.setDistanceLowerBound(bounds[0]);
+				constraint.setDistanceUpperBound(bounds[1]);
+				constraint.setControllable(snapshot.controllable[i]);
+				constraints.add(constraint);
+			}
 			
-		} catch (InconsistentDistanceConstraintException ex) {
+			// add constraints
+			this.tn.addDistanceConstraint(constraints.toArray(new TimePointDistanceConstraint[constraints.size()]));
+			// restore minimal distances
+			if (snapshot.distance != null) {
+				this.solver.setDistances(points, snapshot.distance);
+			}
 			
-			// remove start and end time points
-			this.tn.removeTimePoint(s);
-			this.tn.removeTimePoint(e);
-			// throw exception
-			throw new InconsistentIntervalDurationException(ex.getMessage());
+			// get restored time points
+			return index;
+		}
+		catch (InconsistentDistanceConstraintException | InconsistentTpValueException ex) {
+			throw new IOException("Error while restoring the temporal network from " + file + "\n" + ex.getMessage());
+		}
+		finally {
+			// release the lock
+			this.lock.writeLock().unlock();
+		}
+	}
+	
+	/**
+	 * Compute the minimal distances between all the given time points through the 
+	 * temporal reasoner. Distances are given in the order of the time points
+	 * 
+	 * @param points
+	 * @return
+	 */
+	private long[][] getDistanceMatrix(List<TimePoint> points) 
+	{
+		// compute minimal distances
+		int size = points.size();
+		long[][] distance = new long[size][size];
+		TimePointDistanceQuery query = this.qf.create(TemporalQueryType.TP_DISTANCE);
+		for (int i = 0; i < size; i++) {
+			for (int j = i + 1; j < size; j++) {
+				// set source and target
+				query.setSource(points.get(i));
+				query.setTarget(points.get(j));
+				// process query
+				this.solver.process(query);
+				// set distances
+				distance[i][j] = query.getDistanceUpperBound();
+				distance[j][i] = -query.getDistanceLowerBound();
+			}
 		}
 		
-		// create temporal interval 
-		TemporalInterval interval = new TemporalInterval(ID_COUNTER.getAndIncrement(), d);
-		// record interval
-		this.intervals.add(interval);
-		// get created interval
-		return interval;
+		// get distances
+		return distance;
 	}
 	
 	/**
 	 * 
-	 * Remove a temporal interval from the temporal data-based. 
+	 * @param type
+	 * @return
+	 */
+	public <T extends TemporalQuery> T createTemporalQuery(TemporalQueryType type) {
+		// query instance
+		T query = this.qf.create(type);
+		// get created instance
+		return query;
+	}
+	
+	/**
 	 * 
-	 * The method removes the time points of the interval and all related time point distance constraints from the underlying temporal network
+	 * @param type
+	 * @return
+	 */
+	public <T extends TemporalConstraint> T createTemporalConstraint(TemporalConstraintType type) {
+		// create constraint
+		T cons = this.cf.create(type);
+		// get created constraint
+		return cons;
+	}
+	
+	/**
 	 * 
-	 * @param i
 	 */
-	public synchronized void deleteTemporalInterval(TemporalInterval i) {
-		// list of time points to remove
-		List<TimePoint> list = new ArrayList<>();
-		// get start time
-		list.add(i.getStartTime());
-		// get end time
-		list.add(i.getEndTime());
-		// the network will automatically remove all constraints concerning the two time points
-		this.tn.removeTimePoints(list);
-		// remove interval 
-		this.intervals.remove(i);
+	@Override
+	public void process(TemporalQuery query) 
+	{
+		// get shared access to the temporal data-base with an up to date solver
+		this.lockAndPrepare();
+		try 
+		{
+			// check query type
+			switch (query.getType()) 
+			{
+				// check distance between intervals
+				case INTERVAL_DISTANCE : 
+				{
+					// get query
+					IntervalDistanceQuery dQuery = (IntervalDistanceQuery) query;
+					// get intervals
+					TemporalInterval a = dQuery.getSource();
+					TemporalInterval b = dQuery.getTarget();
+					// create time point query
+					TimePointDistanceQuery tpQuery = this.qf.create(TemporalQueryType.TP_DISTANCE);
+					// set source and target
+					tpQuery.setSource(a.getEndTime());
+					tpQuery.setTarget(b.getStartTime());
+					// process query
+					this.process(tpQuery);
+					// set bounds
+					dQuery.setDistanceLowerBound(tpQuery.getDistanceLowerBound());
+					dQuery.setDistanceUpperBOund(tpQuery.getDistanceUpperBound());
+				}
+				break;
+				
+				// check overlapping intervals
+				case INTERVAL_OVERLAP :
+				{
+					// get query
+					IntervalOverlapQuery overlap = (IntervalOverlapQuery) query;
+					// get intervals
+					TemporalInterval a = overlap.getReference();
+					TemporalInterval b = overlap.getTarget();
+					
+					// check the distance between the time point of A and the start time point of B
+					TimePointDistanceQuery eAsB = this.qf.create(TemporalQueryType.TP_DISTANCE);
+					eAsB.setSource(a.getEndTime());
+					eAsB.setTarget(b.getStartTime());
+					// process query
+					this.process(eAsB);
+					// check computed bounds
+					long dmin = eAsB.getDistanceLowerBound();
+					long dmax = eAsB.getDistanceUpperBound();
+					// check if can overlap
+					boolean o1 = !((dmin <= 0 && dmax <= 0) || (dmin >= 0 && dmax >= 0));
+					
+					
+					// get intervals
+					a = overlap.getTarget();
+					b = overlap.getReference();
+					
+					// check the distance between the time point of A and the start time point of B
+					TimePointDistanceQuery eBsA = this.qf.create(TemporalQueryType.TP_DISTANCE);
+					eBsA.setSource(a.getEndTime());
+					eBsA.setTarget(b.getStartTime());
+					// process query
+					this.process(eBsA);
+					// check computed bounds
+					dmin = eBsA.getDistanceLowerBound();
+					dmax = eBsA.getDistanceUpperBound();
+					// check if can overlap
+					boolean o2 = !((dmin <= 0 && dmax <= 0) || (dmin >= 0 && dmax >= 0));
+					
+			
+					// set result
+					overlap.setCanOverlap(o1 || o2);
+					// print logging message
+					debug("[" + this.getClass().getName() + "] Processing query INTERVAL_OVERLAP:\n"
+							+ "- Temporal Interval (A): " + a + "\n"
+							+ "- Temporal Interval (B): " + b + "\n"
+							+ "- Computed (flexible) distance: [dmin= " + dmin + ", dmax= " + dmax +"]\n"
+							+ "- Answer to query: " + overlap.canOverlap());
+				}
+				break;
+				
+				// find sets of overlapping intervals
+				case INTERVAL_OVERLAP_SET : 
+				{
+					// process query through a sweep over the schedules of the intervals
+					this.doProcessIntervalOverlapSetQuery((IntervalOverlapSetQuery) query);
+				}
+				break;
+				
+				// check interval schedule 
+				case INTERVAL_SCHEDULE : 
+				{
+					// get query
+					IntervalScheduleQuery scheduleQuery = (IntervalScheduleQuery) query;
+					// get interval
+					TemporalInterval i = scheduleQuery.getInterval();
+					
+					// create time point bound query
+					TimePointScheduleQuery sQuery = this.qf.create(TemporalQueryType.TP_SCHEDULE);
+					// set point 
+					sQuery.setTimePoint(i.getStartTime());
+					// check start schedule
+					this.process(sQuery);
+					
+					// process end time
+					TimePointScheduleQuery eQuery = this.qf.create(TemporalQueryType.TP_SCHEDULE);
+					// set point
+					eQuery.setTimePoint(i.getEndTime());
+					// check end schedule
+					this.process(eQuery);
+					
+					// check time point distance
+					TimePointDistanceQuery dQuery= this.qf.create(TemporalQueryType.TP_DISTANCE);
+					// set points
+					dQuery.setSource(i.getStartTime());
+					dQuery.setTarget(i.getEndTime());
+					// process query
+					this.process(dQuery);
+					
+					// set interval duration
+					i.setDurationLowerBound(dQuery.getDistanceLowerBound());
+					i.setDurationUpperBound(dQuery.getDistanceUpperBound());
+				}
+				break;
+				
+				// check if squeezed interval
+				case INTERVAL_PSEUDO_CONTROLLABILITY : 
+				{
+					// get query
+					IntervalPseudoControllabilityQuery pseudoQuery = (IntervalPseudoControllabilityQuery) query;
+					// get temporal interval
+					TemporalInterval i = pseudoQuery.getInterval();
+					// check the schedule
+					IntervalScheduleQuery squery = this.qf.create(TemporalQueryType.INTERVAL_SCHEDULE);
+					squery.setInterval(i);
+					this.process(squery);
+					// check if pseudo-controllability condition
+					pseudoQuery.setPseudoControllable(i.getDurationLowerBound() == i.getNominalDurationLowerBound() && 
+							i.getDurationUpperBound() == i.getNominalDurationUpperBound());
+				}
+				break;
+				
+				// time point queries
+				case TP_SCHEDULE :
+				case TP_DISTANCE : 
+				case TP_DISTANCE_TO_HORIZON : {
+					
+					// process time point query through the cache
+					this.doProcessTimePointQuery((TimePointQuery) query);
+				}
+				break;
+			}
+		}
+		finally {
+			// release the lock
+			this.lock.readLock().unlock();
+		}
+	}
+	
+	/**
+	 * Returns the lower bound of the distance between two time points. 
+	 * 
+	 * Unlike the processing of time point queries, the bound is read directly from 
+	 * the temporal solver without creating queries or arrays so that the method can 
+	 * be used in the inner loops of the resolvers.
+	 * 
+	 * @param source
+	 * @param target
+	 * @return
+	 */
+	public long getDistanceLowerBound(TimePoint source, TimePoint target) 
+	{
+		// get shared access to the temporal data-base with an up to date solver
+		this.lockAndPrepare();
+		try 
+		{
+			// get the bound from the solver
+			return this.solver.getDistanceLowerBound(source, target);
+		}
+		finally {
+			// release the lock
+			this.lock.readLock().unlock();
+		}
 	}
 	
 	/**
-	 * Check the temporal consistency of the temporal information as well as the 
-	 * pseudo-controllability property of the STNU.
+	 * Returns the upper bound of the distance between two time points. 
 	 * 
+	 * Unlike the processing of time point queries, the bound is read directly from 
+	 * the temporal solver without creating queries or arrays so that the method can 
+	 * be used in the inner loops of the resolvers.
 	 * 
+	 * @param source
+	 * @param target
+	 * @return
 	 */
-	public synchronized void verify() 
-			throws ConsistencyCheckException {
+	public long getDistanceUpperBound(TimePoint source, TimePoint target) 
+	{
+		// get shared access to the temporal data-base with an up to date solver
+		this.lockAndPrepare();
+		try 
+		{
+			// get the bound from the solver
+			return this.solver.getDistanceUpperBound(source, target);
+		}
+		finally {
+			// release the lock
+			this.lock.readLock().unlock();
+		}
+	}
+	
+	/**
+	 * 
+	 * @param interval
+	 * @return
+	 */
+	public long getEarliestStartTime(TemporalInterval interval) {
+		return this.getDistanceLowerBound(this.tn.getOriginTimePoint(), interval.getStartTime());
+	}
+	
+	/**
+	 * 
+	 * @param interval
+	 * @return
+	 */
+	public long getLatestStartTime(TemporalInterval interval) {
+		return this.getDistanceUpperBound(this.tn.getOriginTimePoint(), interval.getStartTime());
+	}
+	
+	/**
+	 * 
+	 * @param interval
+	 * @return
+	 */
+	public long getEarliestEndTime(TemporalInterval interval) {
+		return this.getDistanceLowerBound(this.tn.getOriginTimePoint(), interval.getEndTime());
+	}
+	
+	/**
+	 * 
+	 * @param interval
+	 * @return
+	 */
+	public long getLatestEndTime(TemporalInterval interval) {
+		return this.getDistanceUpperBound(this.tn.getOriginTimePoint(), interval.getEndTime());
+	}
+	
+	/**
+	 * Check if two intervals can overlap. The answer is the same of the INTERVAL_OVERLAP 
+	 * query but no query nor array is created.
+	 * 
+	 * @param a
+	 * @param b
+	 * @return
+	 */
+	public boolean canOverlap(TemporalInterval a, TemporalInterval b) 
+	{
+		// get shared access to the temporal data-base with an up to date solver
+		this.lockAndPrepare();
+		try 
+		{
+			// check the distances between the end of an interval and the start of the other
+			return this.canOverlap(a.getEndTime(), b.getStartTime()) || 
+					this.canOverlap(b.getEndTime(), a.getStartTime());
+		}
+		finally {
+			// release the lock
+			this.lock.readLock().unlock();
+		}
+	}
+	
+	/**
+	 * Get shared access to the temporal data-base with the data structures of the 
+	 * solver up to date with respect to the temporal network. 
+	 * 
+	 * Solvers update their data structures lazily after changes of the network. The 
+	 * update is done with exclusive access and the write lock is then downgraded to 
+	 * the read lock, so that the following queries only read the data structures of 
+	 * the solver and are processed concurrently. The caller must release the read lock.
+	 */
+	private void lockAndPrepare() 
+	{
+		// get shared access to the temporal data-base
+		this.lock.readLock().lock();
+		if (!this.solver.isPrepared()) 
+		{
+			// the read lock cannot be upgraded
+			this.lock.readLock().unlock();
+			// get exclusive access to the temporal data-base
+			this.lock.writeLock().lock();
+			try 
+			{
+				// update the data structures of the solver if still needed
+				this.solver.prepare();
+				// downgrade to shared access
+				this.lock.readLock().lock();
+			}
+			finally {
+				// release the lock
+				this.lock.writeLock().unlock();
+			}
+		}
+	}
+	
+	/**
+	 * Check if the distance between the end time of an interval and the start 
+	 * time of another one can be either negative or positive
+	 * 
+	 * @param end
+	 * @param start
+	 * @return
+	 */
+	private boolean canOverlap(TimePoint end, TimePoint start) {
+		// check computed bounds
+		long dmin = this.solver.getDistanceLowerBound(end, start);
+		long dmax = this.solver.getDistanceUpperBound(end, start);
+		return !((dmin <= 0 && dmax <= 0) || (dmin >= 0 && dmax >= 0));
+	}
+	
+	/**
+	 * Find the sets of intervals that can pairwise overlap. 
+	 * 
+	 * Intervals are swept in increasing order of their earliest start times. An interval 
+	 * whose latest end time does not follow the earliest start time of the current interval 
+	 * cannot overlap the current interval nor the following ones, so it leaves the sweep. 
+	 * The distances between the time points of two intervals are computed only if the 
+	 * schedules of the time points cannot exclude the overlapping. 
+	 * 
+	 * A set is built for each interval of the list as the scheduling resolvers did through 
+	 * pairwise INTERVAL_OVERLAP queries. The set starts with the interval and the following 
+	 * intervals of the list are added if they can overlap all the intervals of the set. 
+	 * Thus, the number of sets is linear in the number of intervals.
+	 * 
+	 * @param query
+	 */
+	protected void doProcessIntervalOverlapSetQuery(IntervalOverlapSetQuery query) 
+	{
+		// get intervals
+		List<TemporalInterval> intervals = query.getIntervals();
+		int size = intervals.size();
+		// compute the schedules of the time points of the intervals
+		long[][] start = new long[size][];
+		long[][] end = new long[size][];
+		Integer[] sorted = new Integer[size];
+		for (int index = 0; index < size; index++) 
+		{
+			// check start time
+			TimePointScheduleQuery sQuery = this.qf.create(TemporalQueryType.TP_SCHEDULE);
+			sQuery.setTimePoint(intervals.get(index).getStartTime());
+			this.process(sQuery);
+			start[index] = new long[] {
+					intervals.get(index).getStartTime().getLowerBound(), 
+					intervals.get(index).getStartTime().getUpperBound()
+			};
+			
+			// check end time
+			TimePointScheduleQuery eQuery = this.qf.create(TemporalQueryType.TP_SCHEDULE);
+			eQuery.setTimePoint(intervals.get(index).getEndTime());
+			this.process(eQuery);
+			end[index] = new long[] {
+					intervals.get(index).getEndTime().getLowerBound(), 
+					intervals.get(index).getEndTime().getUpperBound()
+			};
+			
+			sorted[index] = index;
+		}
 		
-		// check temporal network consistency
-		if (!this.solver.isValid()) {
-			throw new TemporalConsistencyException("The STNU is not valid!\nCheck propagated temporal constraints...\n");
+		// sort intervals by earliest start time
+		Arrays.sort(sorted, (a, b) -> Long.compare(start[a][0], start[b][0]));
+		// graph of overlapping intervals
+		BitSet[] graph = new BitSet[size];
+		List<Integer> active = new ArrayList<>();
+		for (int current : sorted) 
+		{
+			// remove intervals ending before the earliest start of the current interval
+			active.removeIf(other -> end[other][1] <= start[current][0]);
+			graph[current] = new BitSet(size);
+			// check active intervals
+			for (int other : active) 
+			{
+				// check overlapping condition
+				if (this.canOverlap(intervals.get(other), start[other], end[other], intervals.get(current), start[current], end[current]) || 
+						this.canOverlap(intervals.get(current), start[current], end[current], intervals.get(other), start[other], end[other])) {
+					// add edge
+					graph[current].set(other);
+					graph[other].set(current);
+				}
+			}
+			
+			// add interval to the sweep
+			active.add(current);
 		}
 		
-		// check also if the network is valid
-		if (!this.isPseudoControllable()) {
-			throw new PseudoControllabilityException("The STNU is not pseudo-controllable!\nCheck constraints on uncontrollable intervals...\n");
+		// build a set for each interval
+		List<List<TemporalInterval>> sets = new ArrayList<>();
+		for (int index = 0; index < size; index++) 
+		{
+			// following intervals that can overlap all the intervals of the set
+			BitSet candidates = (BitSet) graph[index].clone();
+			candidates.clear(0, index + 1);
+			List<TemporalInterval> set = new ArrayList<>();
+			set.add(intervals.get(index));
+			for (int other = candidates.nextSetBit(0); other >= 0; other = candidates.nextSetBit(other + 1)) {
+				// add interval to the set
+				set.add(intervals.get(other));
+				candidates.and(graph[other]);
+			}
+			
+			sets.add(set);
 		}
+		
+		// set overlapping sets
+		query.setOverlappingSets(sets);
 	}
 	
 	/**
+	 * Check if the end time of interval A can either precede or follow the start time of 
+	 * interval B (see INTERVAL_OVERLAP query). The distance between the time points is 
+	 * computed only if the schedules of the time points allow both cases.
 	 * 
-	 * @throws TemporalConsistencyException
+	 * @param a
+	 * @param aStart
+	 * @param aEnd
+	 * @param b
+	 * @param bStart
+	 * @param bEnd
+	 * @return
 	 */
-	public synchronized void verifyTemporalConsistency() 
-			throws TemporalConsistencyException {
+	private boolean canOverlap(TemporalInterval a, long[] aStart, long[] aEnd, TemporalInterval b, long[] bStart, long[] bEnd) 
+	{
+		// the end of A always precedes or always follows the start of B
+		if (bStart[0] >= aEnd[1] || bStart[1] <= aEnd[0]) {
+			return false;
+		}
+		
+		// check the distance between the end of A and the start of B
+		TimePointDistanceQuery query = this.qf.create(TemporalQueryType.TP_DISTANCE);
+		query.setSource(a.getEndTime());
+		query.setTarget(b.getStartTime());
+		this.process(query);
+		// check if both cases are possible
+		return query.getDistanceLowerBound() < 0 && query.getDistanceUpperBound() > 0;
+	}
+	
+	/**
+	 * Process a time point query. Results are cached and reused until the temporal 
+	 * network changes, so that repeated queries between two propagations do not 
+	 * reach the temporal solver. Cached results are shared by concurrent queries.
+	 * 
+	 * @param query
+	 */
+	protected void doProcessTimePointQuery(TimePointQuery query) 
+	{
+		// get the time points of the query
+		TimePoint source = null;
+		TimePoint target = null;
+		switch (query.getType()) 
+		{
+			case TP_SCHEDULE : {
+				// distance from the origin
+				source = this.tn.getOriginTimePoint();
+				target = ((TimePointScheduleQuery) query).getTimePoint();
+			}
+			break;
+			
+			case TP_DISTANCE : {
+				// distance between time points
+				source = ((TimePointDistanceQuery) query).getSource();
+				target = ((TimePointDistanceQuery) query).getTarget();
+			}
+			break;
+			
+			case TP_DISTANCE_TO_HORIZON : {
+				// distance to the horizon
+				source = ((TimePointDistanceToHorizonQuery) query).getTimePoint();
+				target = this.tn.getHorizonTimePoint();
+			}
+			break;
+			
+			default : {
+				throw new RuntimeException("Impossible to process this type of temporal query " + query.getType());
+			}
+		}
 		
-		// check temporal network consistency
-		if (!this.solver.isValid()) {
-			throw new TemporalConsistencyException("The STNU is not valid!\nCheck propagated temporal constraints...\n");
+		// check cached result for the current version of the network
+		long version = this.tn.getVersion();
+		long[] distance = this.cache.get(query.getType(), source, target, version);
+		if (distance == null) 
+		{
+			// propagate time point query to the reasoner
+			this.solver.process(query);
+			// get computed distance
+			switch (query.getType()) 
+			{
+				case TP_SCHEDULE : {
+					distance = new long[] {
+							target.getLowerBound(), 
+							target.getUpperBound()
+					};
+				}
+				break;
+				
+				case TP_DISTANCE : {
+					distance = new long[] {
+							((TimePointDistanceQuery) query).getDistanceLowerBound(), 
+							((TimePointDistanceQuery) query).getDistanceUpperBound()
+					};
+				}
+				break;
+				
+				default : {
+					distance = ((TimePointDistanceToHorizonQuery) query).getDistance();
+				}
+			}
+			
+			// cache result
+			this.cache.put(query.getType(), source, target, version, distance);
+		}
+		else 
+		{
+			// set cached result
+			switch (query.getType()) 
+			{
+				case TP_SCHEDULE : {
+					target.setLowerBound(distance[0]);
+					target.setUpperBound(distance[1]);
+				}
+				break;
+				
+				case TP_DISTANCE : {
+					((TimePointDistanceQuery) query).setDistanceLowerBound(distance[0]);
+					((TimePointDistanceQuery) query).setDistanceUpperBound(distance[1]);
+				}
+				break;
+				
+				default : {
+					((TimePointDistanceToHorizonQuery) query).setDistance(distance);
+				}
+			}
 		}
 	}
 	
 	/**
+	 * This method propagates an interval constraint to the underlying temporal network.
 	 * 
-	 * @throws PseudoControllabilityException
+	 * When propagating constraints no contingent link can be affected or overwritten. Thus,
+	 * the method throws an exception if a contingent link is affected by the propagated 
+	 * constraint.
+	 * 
+	 * @param constraint
+	 * @throws Exception
 	 */
-	public synchronized void verifyPseudocontrollability() 
-			throws PseudoControllabilityException {
-		
-		// check also if the network is valid
-		if (!this.isPseudoControllable()) {
-			throw new PseudoControllabilityException("The STNU is not pseudo-controllable!\nCheck constraints on uncontrollable intervals...\n");
+	public void propagate(TemporalConstraint constraint) 
+			throws TemporalConstraintPropagationException 
+	{
+		// get exclusive access to the temporal data-base
+		this.lock.writeLock().lock();
+		try 
+		{
+			// create distance constraints
+			TimePointDistanceConstraint[] c = this.doCreateDistanceConstraints(constraint);
+			try 
+			{
+				// propagate distance constraints to the temporal network
+				if (c.length == 1) {
+					this.tn.addDistanceConstraint(c[0]);
+				}
+				else {
+					this.tn.addDistanceConstraint(c);
+				}
+			}
+			catch (InconsistentDistanceConstraintException ex) {
+				throw new TemporalConstraintPropagationException(ex.getMessage());
+			}
+			
+			// set propagated constraints
+			if (!constraint.getType().equals(TemporalConstraintType.TIME_POINT_DISTANCE)) {
+				constraint.setPropagatedConstraints(c);
+			}
+			
+			// record constraint on the journal if needed
+			if (!this.checkpoints.isEmpty()) {
+				this.journal.add(constraint);
+			}
+		}
+		finally {
+			// release the lock
+			this.lock.writeLock().unlock();
 		}
 	}
 	
 	/**
+	 * This method propagates a set of constraints to the underlying temporal network
+	 * as a single transaction. 
 	 * 
-	 * @param type
-	 * @return
-	 */
-	public synchronized <T extends TemporalQuery> T createTemporalQuery(TemporalQueryType type) {
-		// query instance
-		T query = this.qf.create(type);
-		// get created instance
-		return query;
-	}
-	
-	/**
+	 * All the distance constraints derived from the given constraints are added to the 
+	 * temporal network at once so that the temporal solver processes one notification and 
+	 * the consistency of the network is checked once for the whole set. If a constraint 
+	 * cannot be propagated or the resulting network is not consistent, the distance 
+	 * constraints are all removed from the network and no constraint of the set is 
+	 * propagated.
 	 * 
-	 * @param type
-	 * @return
+	 * @param constraints
+	 * @throws TemporalConstraintPropagationException
+	 * @throws TemporalConsistencyException
 	 */
-	public synchronized <T extends TemporalConstraint> T createTemporalConstraint(TemporalConstraintType type) {
-		// create constraint
-		T cons = this.cf.create(type);
-		// get created constraint
-		return cons;
+	public void propagate(Collection<? extends TemporalConstraint> constraints) 
+			throws TemporalConstraintPropagationException, TemporalConsistencyException 
+	{
+		// get exclusive access to the temporal data-base
+		this.lock.writeLock().lock();
+		try 
+		{
+			// create distance constraints
+			Map<TemporalConstraint, TimePointDistanceConstraint[]> index = new LinkedHashMap<>();
+			List<TimePointDistanceConstraint> list = new ArrayList<>();
+			for (TemporalConstraint constraint : constraints) {
+				// get distance constraints
+				TimePointDistanceConstraint[] c = this.doCreateDistanceConstraints(constraint);
+				index.put(constraint, c);
+				list.addAll(Arrays.asList(c));
+			}
+			
+			// check distance constraints
+			if (!list.isEmpty()) 
+			{
+				try 
+				{
+					// propagate all distance constraints through a single transaction
+					this.tn.addDistanceConstraint(list.toArray(new TimePointDistanceConstraint[list.size()]));
+				}
+				catch (InconsistentDistanceConstraintException ex) {
+					// the temporal network has already rolled back the transaction
+					throw new TemporalConstraintPropagationException(ex.getMessage());
+				}
+				
+				// check the consistency of the resulting network once
+				if (!this.solver.isValid()) {
+					// remove propagated distance constraints
+					this.tn.removeDistanceConstraint(list);
+					throw new TemporalConsistencyException("The STNU is not valid!\nThe batch of temporal constraints has been rolled back...\n");
+				}
+			}
+			
+			// set propagated constraints
+			for (TemporalConstraint constraint : index.keySet()) 
+			{
+				// check constraint type
+				if (!constraint.getType().equals(TemporalConstraintType.TIME_POINT_DISTANCE)) {
+					constraint.setPropagatedConstraints(index.get(constraint));
+				}
+			}
+			
+			// record the batch on the journal if needed
+			if (!this.checkpoints.isEmpty() && !index.isEmpty()) {
+				this.journal.add(new ArrayList<>(index.keySet()));
+			}
+		}
+		finally {
+			// release the lock
+			this.lock.writeLock().unlock();
+		}
 	}
 	
 	/**
+	 * Create the distance constraints that encode a temporal constraint. The distance
+	 * constraints are not added to the temporal network.
 	 * 
+	 * @param constraint
+	 * @return
 	 */
-	@Override
-	public synchronized void process(TemporalQuery query) 
+	protected TimePointDistanceConstraint[] doCreateDistanceConstraints(TemporalConstraint constraint) 
 	{
-		// check query type
-		switch (query.getType()) 
+		// created distance constraints
+		TimePointDistanceConstraint[] c = null;
+		// check temporal constraint type
+		switch (constraint.getType()) 
 		{
-			// check distance between intervals
-			case INTERVAL_DISTANCE : 
+			// create BEFORE constraint
+			case BEFORE : 
 			{
-				// get query
-				IntervalDistanceQuery dQuery = (IntervalDistanceQuery) query;
-				// get intervals
-				TemporalInterval a = dQuery.getSource();
-				TemporalInterval b = dQuery.getTarget();
-				// create time point query
-				TimePointDistanceQuery tpQuery = this.qf.create(TemporalQueryType.TP_DISTANCE);
-				// set source and target
-				tpQuery.setSource(a.getEndTime());
-				tpQuery.setTarget(b.getStartTime());
-				// process query
-				this.solver.process(tpQuery);
-				// set bounds
-				dQuery.setDistanceLowerBound(tpQuery.getDistanceLowerBound());
-				dQuery.setDistanceUpperBOund(tpQuery.getDistanceUpperBound());
+				// get constraint
+				BeforeIntervalConstraint before = (BeforeIntervalConstraint) constraint;
+				// create constraint
+				c = new TimePointDistanceConstraint[] { 
+					this.doCreateBeforeConstraint(before)
+				};
 			}
 			break;
 			
-			// check overlapping intervals
-			case INTERVAL_OVERLAP :
+			// create AFTER constraint
+			case AFTER : 
 			{
-				// get query
-				IntervalOverlapQuery overlap = (IntervalOverlapQuery) query;
-				// get intervals
-				TemporalInterval a = overlap.getReference();
-				TemporalInterval b = overlap.getTarget();
-				
-				// check the distance between the time point of A and the start time point of B
-				TimePointDistanceQuery eAsB = this.qf.create(TemporalQueryType.TP_DISTANCE);
-				eAsB.setSource(a.getEndTime());
-				eAsB.setTarget(b.getStartTime());
-				// process query
-				this.process(eAsB);
-				// check computed bounds
-				long dmin = eAsB.getDistanceLowerBound();
-				long dmax = eAsB.getDistanceUpperBound();
-				// check if can overlap
-				boolean o1 = !((dmin <= 0 && dmax <= 0) || (dmin >= 0 && dmax >= 0));
-				
-				
-				// get intervals
-				a = overlap.getTarget();
-				b = overlap.getReference();
-				
-				// check the distance between the time point of A and the start time point of B
-				TimePointDistanceQuery eBsA = this.qf.create(TemporalQueryType.TP_DISTANCE);
-				eBsA.setSource(a.getEndTime());
-				eBsA.setTarget(b.getStartTime());
-				// process query
-				this.process(eBsA);
-				// check computed bounds
-				dmin = eBsA.getDistanceLowerBound();
-				dmax = eBsA.getDistanceUpperBound();
-				// check if can overlap
-				boolean o2 = !((dmin <= 0 && dmax <= 0) || (dmin >= 0 && dmax >= 0));
-				
-		
-				// set result
-				overlap.setCanOverlap(o1 || o2);
-				// print logging message
-				debug("[" + this.getClass().getName() + "] Processing query INTERVAL_OVERLAP:\n"
-						+ "- Temporal Interval (A): " + a + "\n"
-						+ "- Temporal Interval (B): " + b + "\n"
-						+ "- Computed (flexible) distance: [dmin= " + dmin + ", dmax= " + dmax +"]\n"
-						+ "- Answer to query: " + overlap.canOverlap());
+				AfterIntervalConstraint after = (AfterIntervalConstraint) constraint;
+				// create constraint
+				c = new TimePointDistanceConstraint[] {
+					this.doCreateAfterConstraint(after)
+				};
 			}
 			break;
 			
-			// check interval schedule 
-			case INTERVAL_SCHEDULE : 
+			// create MEETS constraint
+			case MEETS : 
 			{
-				// get query
-				IntervalScheduleQuery scheduleQuery = (IntervalScheduleQuery) query;
-				// get interval
-				TemporalInterval i = scheduleQuery.getInterval();
-				
-				// create time point bound query
-				TimePointScheduleQuery sQuery = this.qf.create(TemporalQueryType.TP_SCHEDULE);
-				// set point 
-				sQuery.setTimePoint(i.getStartTime());
-				// check start schedule
-				this.solver.process(sQuery);
-				
-				// process end time
-				TimePointScheduleQuery eQuery = this.qf.create(TemporalQueryType.TP_SCHEDULE);
-				// set point
-				eQuery.setTimePoint(i.getEndTime());
-				// check end schedule
-				this.solver.process(eQuery);
-				
-				// check time point distance
-				TimePointDistanceQuery dQuery= this.qf.create(TemporalQueryType.TP_DISTANCE);
-				// set points
-				dQuery.setSource(i.getStartTime());
-				dQuery.setTarget(i.getEndTime());
-				// process query
-				this.solver.process(dQuery);
-				
-				// set interval duration
-				i.setDurationLowerBound(dQuery.getDistanceLowerBound());
-				i.setDurationUpperBound(dQuery.getDistanceUpperBound());
+				// get constraint
+				MeetsIntervalConstraint meets = (MeetsIntervalConstraint) constraint;
+				// create constraint
+				c = new TimePointDistanceConstraint[] { 
+						this.doCreateMeetsConstraint(meets)	
+				};
 			}
 			break;
 			
-			// check if squeezed interval
-			case INTERVAL_PSEUDO_CONTROLLABILITY : 
+			// create MET-BY constraint
+			case MET_BY : 
 			{
-				// get query
-				IntervalPseudoControllabilityQuery pseudoQuery = (IntervalPseudoControllabilityQuery) query;
-				// get temporal interval
-				TemporalInterval i = pseudoQuery.getInterval();
-				// check the schedule
-				IntervalScheduleQuery squery = this.qf.create(TemporalQueryType.INTERVAL_SCHEDULE);
-				squery.setInterval(i);
-				this.process(squery);
-				// check if pseudo-controllability condition
-				pseudoQuery.setPseudoControllable(i.getDurationLowerBound() == i.getNominalDurationLowerBound() && 
-						i.getDurationUpperBound() == i.getNominalDurationUpperBound());
+				// get constraint
+				MetByIntervalConstraint metby = (MetByIntervalConstraint) constraint;
+				// create constraint
+				c = new TimePointDistanceConstraint[] {
+						this.doCreateMetByConstraint(metby)
+				};
 			}
 			break;
 			
-			// time point queries
-			case TP_SCHEDULE :
-			case TP_DISTANCE : 
-			case TP_DISTANCE_TO_HORIZON : {
-				
-				// propagate time point query to the reasoner
-				this.solver.process((TimePointQuery) query);
+			// create CONTAINS constraint
+			case CONTAINS : 
+			{
+				// get constraint
+				ContainsIntervalConstraint contains = (ContainsIntervalConstraint) constraint;
+				// create constraints
+				c = this.doCreateContainsConstraint(contains);
+			}
+			break;
+			
+			// create DURING constraint
+			case DURING : 
+			{
+				// get constraint
+				DuringIntervalConstraint during = (DuringIntervalConstraint) constraint;
+				// create constraints
+				c = this.doCreateDuringConstraint(during);
+			}
+			break;
+			
+			// create STARTS-DURING constraint
+			case STARTS_DURING : 
+			{
+				// get constraint
+				StartsDuringIntervalConstraint sdc = (StartsDuringIntervalConstraint) constraint;
+				// create constraints
+				c = this.doCreateStartsDuringConstraint(sdc);
+			}
+			break;
+			
+			// create ENDS-DURING constraint
+			case ENDS_DURING : 
+			{
+				// get constraint
+				EndsDuringIntervalConstraint edc = (EndsDuringIntervalConstraint) constraint;
+				// create constraints
+				c = this.doCreateEndsDuringConstraint(edc);
 			}
 			break;
+			
+			// create EQUALS constraint
+			case EQUALS : 
+			{
+				// get constraint
+				EqualsIntervalConstraint equals = (EqualsIntervalConstraint) constraint;
+				// create constraints
+				c = this.doCreateEqualsConstraint(equals);
+			}
+			break;
+			
+			// set the duration of a temporal interval
+			case FIX_INTERVAL_DURATION : 
+			{
+				// get constraint
+				FixIntervalDurationConstraint fix = (FixIntervalDurationConstraint) constraint;
+				// create constraint
+				c = new TimePointDistanceConstraint[] {
+						this.doCreateFixIntervalDurationConstraint(fix)
+				};
+			}
+			break;
+			
+			// schedule a time point at a given time
+			case FIX_TIME_POINT :
+			{
+				// get constraint
+				FixTimePointConstraint fix = (FixTimePointConstraint) constraint;
+				// create constraint
+				c = new TimePointDistanceConstraint[] {
+						this.doCreateFixTimePointConstraint(fix)
+				};
+			}
+			break;
+			
+			// set a distance constraint between two time points
+			case TIME_POINT_DISTANCE :
+			{
+				// the constraint is directly propagated to the temporal network
+				c = new TimePointDistanceConstraint[] {
+						(TimePointDistanceConstraint) constraint
+				};
+			}
+			break;
+			
+			default : { 
+				throw new RuntimeException("Unknown temporal constraint!");
+			}
 		}
+		
+		// get created constraints
+		return c;
 	}
-	
+
 	/**
-	 * This method propagates an interval constraint to the underlying temporal network.
-	 * 
-	 * When propagating constraints no contingent link can be affected or overwritten. Thus,
-	 * the method throws an exception if a contingent link is affected by the propagated 
-	 * constraint.
 	 * 
 	 * @param constraint
 	 * @throws Exception
 	 */
-	public synchronized void propagate(TemporalConstraint constraint) 
-			throws TemporalConstraintPropagationException 
-	{
+	public void retract(TemporalConstraint constraint) {
+		// get exclusive access to the temporal data-base
+		this.lock.writeLock().lock();
+		try 
+		{
+			// retract propagated constraints
+			TimePointDistanceConstraint[] toRetract = constraint.getPropagatedConstraints();
+			// verify whether some constraints have been propagated
+			if (toRetract != null) {
+				// remove propagated distance constraints
+				this.tn.removeDistanceConstraint(Arrays.asList(toRetract));
+				// clear data structure
+				constraint.clear();
+			}
+		}
+		finally {
+			// release the lock
+			this.lock.writeLock().unlock();
+		}
+	}
+	
+	/**
+	 * This method retracts a set of constraints from the underlying temporal network
+	 * as a single transaction. 
+	 * 
+	 * All the distance constraints propagated for the given constraints are removed from 
+	 * the temporal network at once so that the temporal solver processes one notification. 
+	 * A set of constraints propagated through a single transaction is thus retracted by 
+	 * restoring the state of the solver (if supported by the solver).
+	 * 
+	 * @param constraints
+	 */
+	public void retract(Collection<? extends TemporalConstraint> constraints) {
+		// get exclusive access to the temporal data-base
+		this.lock.writeLock().lock();
+		try 
+		{
+			// get propagated constraints
+			List<TimePointDistanceConstraint> list = new ArrayList<>();
+			for (TemporalConstraint constraint : constraints) {
+				// verify whether some constraints have been propagated
+				TimePointDistanceConstraint[] toRetract = constraint.getPropagatedConstraints();
+				if (toRetract != null) {
+					list.addAll(Arrays.asList(toRetract));
+					// clear data structure
+					constraint.clear();
+				}
+			}
+			
+			// check propagated constraints
+			if (!list.isEmpty()) {
+				// remove propagated distance constraints
+				this.tn.removeDistanceConstraint(list);
+			}
+		}
+		finally {
+			// release the lock
+			this.lock.writeLock().unlock();
+		}
+	}
+	
+	/**
+	 * Create a checkpoint of the temporal data-base. 
+	 * 
+	 * Constraints propagated and intervals created after the checkpoint are recorded
+	 * so that they can be retracted and deleted all at once by rolling back to the
+	 * checkpoint. If the temporal solver can restore its previous states (see the trail
+	 * of the INCREMENTAL_APSP solver) retractions are done in reverse order of creation, 
+	 * so that no propagation is needed. Otherwise constraints and intervals are removed 
+	 * through a single transaction and the solver rebuilds its data structures once. 
+	 * 
+	 * Constraints retracted and intervals deleted after the checkpoint are not restored 
+	 * by the rollback. 
+	 * 
+	 * @return
+	 */
+	public int checkpoint() {
+		// get exclusive access to the temporal data-base
+		this.lock.writeLock().lock();
+		try 
+		{
+			// the checkpoint refers to the current position of the journal
+			int checkpoint = this.journal.size();
+			this.checkpoints.add(checkpoint);
+			// get checkpoint
+			return checkpoint;
+		}
+		finally {
+			// release the lock
+			this.lock.writeLock().unlock();
+		}
+	}
+	
+	/**
+	 * Retract constraints and delete intervals created after the checkpoint. The checkpoint
+	 * and all the following checkpoints are discarded
+	 * 
+	 * @param checkpoint
+	 */
+	@SuppressWarnings("unchecked")
+	public void rollback(int checkpoint) {
+		// get exclusive access to the temporal data-base
+		this.lock.writeLock().lock();
 		try 
 		{
-			// check temporal constraint type
-			switch (constraint.getType()) 
+			// check checkpoint
+			if (!this.checkpoints.contains(checkpoint)) {
+				throw new RuntimeException("Unknown checkpoint " + checkpoint);
+			}
+			
+			// check if the solver can restore its previous states
+			if (this.solver.isRestorable()) 
 			{
-				// create BEFORE constraint into the temporal network
-				case BEFORE : 
-				{
-					// get constraint
-					BeforeIntervalConstraint before = (BeforeIntervalConstraint) constraint;
-					// propagate constraint
-					TimePointDistanceConstraint[] c = new TimePointDistanceConstraint[] { 
-						this.doPropagateBeforeConstraint(before)
-					};
+				// undo journal entries in reverse order
+				while (this.journal.size() > checkpoint) {
 					
-					// set propagated constraint
-					before.setPropagatedConstraints(c);
-				}
-				break;
-				
-				// create AFTER constraint into the temporal network
-				case AFTER : 
-				{
-					AfterIntervalConstraint after = (AfterIntervalConstraint) constraint;
-					// propagate constraint
-					TimePointDistanceConstraint[] c = new TimePointDistanceConstraint[] {
-						this.doPropagateAfterConstraint(after)
-					};
-					// set propagated constraint
-					after.setPropagatedConstraints(c);
-				}
-				break;
-				
-				// create MEETS constraint into the temporal network
-				case MEETS : 
-				{
-					// get constraint
-					MeetsIntervalConstraint meets = (MeetsIntervalConstraint) constraint;
-					// propagate constraint
-					TimePointDistanceConstraint[] c = new TimePointDistanceConstraint[] { 
-							this.doPropagateMeetsConstraint(meets)	
-					};
-					// set propagated constraints
-					meets.setPropagatedConstraints(c);
-				}
-				break;
-				
-				// create MET-BY constraint into the temporal network
-				case MET_BY : 
-				{
-					// get constraint
-					MetByIntervalConstraint metby = (MetByIntervalConstraint) constraint;
-					// propagate constraint
-					TimePointDistanceConstraint[] c = new TimePointDistanceConstraint[] {
-							this.doPropagateMetByConstraint(metby)
-					};
-					// set propagated constraints
-					metby.setPropagatedConstraints(c);
-				}
-				break;
-				
-				// create CONTAINS constraint into the temporal network
-				case CONTAINS : 
-				{
-					// get constraint
-					ContainsIntervalConstraint contains = (ContainsIntervalConstraint) constraint;
-					// propagate constraint
-					TimePointDistanceConstraint[] c = this.doPropagateContainsConstraint(contains);
-					// set propagated constraints
-					contains.setPropagatedConstraints(c);
-				}
-				break;
-				
-				// create DURING constraint into the temporal network
-				case DURING : 
-				{
-					// get constraint
-					DuringIntervalConstraint during = (DuringIntervalConstraint) constraint;
-					// propagate constraint
-					TimePointDistanceConstraint[] c = this.doPropagateDuringConstraint(during);
-					// set propagated constraints
-					during.setPropagatedConstraints(c);
-				}
-				break;
-				
-				// create STARTS-DURING constraint into the network
-				case STARTS_DURING : 
-				{
-					// get constraint
-					StartsDuringIntervalConstraint sdc = (StartsDuringIntervalConstraint) constraint;
-					// propagate constraint
-					TimePointDistanceConstraint[] c = this.doPropagateStartsDuringConstraint(sdc);
-					// set propagated constraints
-					sdc.setPropagatedConstraints(c);
-				}
-				break;
-				
-				// create ENDS-DURING constraint into the network
-				case ENDS_DURING : 
-				{
-					// get constraint
-					EndsDuringIntervalConstraint edc = (EndsDuringIntervalConstraint) constraint;
-					// propagate constraint
-					TimePointDistanceConstraint[] c = this.doPropagateEndsDuringConstraint(edc);
-					// set propagated constraints
-					edc.setPropagatedConstraints(c);
-				}
-				break;
-				
-				// create EQUALS constraint into the temporal network
-				case EQUALS : 
-				{
-					// get constraint
-					EqualsIntervalConstraint equals = (EqualsIntervalConstraint) constraint;
-					// propagate constraint
-					TimePointDistanceConstraint[] c = this.doPropagateEqualsConstraint(equals);
-					// set propagated constraint
-					equals.setPropagatedConstraints(c);
-				}
-				break;
-				
-				// set the duration of a temporal interval
-				case FIX_INTERVAL_DURATION : 
-				{
-					// get constraint
-					FixIntervalDurationConstraint fix = (FixIntervalDurationConstraint) constraint;
-					// propagate constraint
-					TimePointDistanceConstraint c = this.doPropagateFixIntervalDurationConstraint(fix);
-					// set propagate constraints
-					fix.setPropagatedConstraints(new TimePointDistanceConstraint[] {c});
-				}
-				break;
-				
-				// schedule a time point at a given time
-				case FIX_TIME_POINT :
-				{
-					// get constraint
-					FixTimePointConstraint fix = (FixTimePointConstraint) constraint;
-					// propagate constraint
-					TimePointDistanceConstraint c = this.doPropagateFixTimePointConstraint(fix);
-					// set propagated constraint
-					fix.setPropagatedConstraints(new TimePointDistanceConstraint[] {c});
+					// get last entry
+					Object entry = this.journal.remove(this.journal.size() - 1);
+					if (entry instanceof TemporalConstraint) {
+						
+						// retract constraint
+						this.retract((TemporalConstraint) entry);
+						
+					} else if (entry instanceof List) {
+						
+						// retract the batch of constraints through a single transaction
+						this.retract((List<TemporalConstraint>) entry);
+					
+					} else {
+						
+						// check if the interval still exists
+						TemporalInterval interval = (TemporalInterval) entry;
+						if (this.intervals.contains(interval)) {
+							// delete interval
+							this.deleteTemporalInterval(interval);
+						}
+					}
 				}
-				break;
-				
-				// set a distance constraint between two time points
-				case TIME_POINT_DISTANCE :
-				{
-					// get constraint
-					TimePointDistanceConstraint cons = (TimePointDistanceConstraint) constraint;
-					// directly propagate distance constraint to the temporal network
-					this.tn.addDistanceConstraint(cons);
+			}
+			else 
+			{
+				// rebuild fallback: collect journal entries 
+				List<TemporalConstraint> constraints = new ArrayList<>();
+				List<TimePoint> points = new ArrayList<>();
+				while (this.journal.size() > checkpoint) {
+					
+					// get last entry
+					Object entry = this.journal.remove(this.journal.size() - 1);
+					if (entry instanceof TemporalConstraint) {
+						
+						// add constraint
+						constraints.add((TemporalConstraint) entry);
+						
+					} else if (entry instanceof List) {
+						
+						// add the batch of constraints
+						constraints.addAll((List<TemporalConstraint>) entry);
+					
+					} else {
+						
+						// check if the interval still exists
+						TemporalInterval interval = (TemporalInterval) entry;
+						if (this.intervals.remove(interval)) {
+							// add time points of the interval
+							points.add(interval.getStartTime());
+							points.add(interval.getEndTime());
+						}
+					}
 				}
-				break;
 				
-				default : { 
-					throw new RuntimeException("Unknown temporal constraint!");
+				// retract all constraints through a single transaction
+				this.retract(constraints);
+				// check time points
+				if (!points.isEmpty()) {
+					// the network will automatically remove all constraints concerning the time points
+					this.tn.removeTimePoints(points);
 				}
 			}
+			
+			// discard checkpoints
+			this.discard(checkpoint);
 		}
-		catch (InconsistentDistanceConstraintException ex) {
-			throw new TemporalConstraintPropagationException(ex.getMessage());
+		finally {
+			// release the lock
+			this.lock.writeLock().unlock();
 		}
 	}
-
+	
 	/**
+	 * Discard a checkpoint and all the following checkpoints without changing 
+	 * the temporal data-base
 	 * 
-	 * @param constraint
-	 * @throws Exception
+	 * @param checkpoint
 	 */
-	public synchronized void retract(TemporalConstraint constraint) {
-		// retract propagated constraints
-		TimePointDistanceConstraint[] toRetract = constraint.getPropagatedConstraints();
-		// verify whether some constraints have been propagated
-		if (toRetract != null) {
-			// remove propagated distance constraints
-			this.tn.removeDistanceConstraint(Arrays.asList(toRetract));
-			// clear data structure
-			constraint.clear();
+	public void discard(int checkpoint) {
+		// get exclusive access to the temporal data-base
+		this.lock.writeLock().lock();
+		try 
+		{
+			// remove checkpoints
+			while (!this.checkpoints.isEmpty() && this.checkpoints.get(this.checkpoints.size() - 1) >= checkpoint) {
+				this.checkpoints.remove(this.checkpoints.size() - 1);
+			}
+			
+			// clear the journal if no checkpoint is active
+			if (this.checkpoints.isEmpty()) {
+				this.journal.clear();
+			}
+		}
+		finally {
+			// release the lock
+			this.lock.writeLock().unlock();
 		}
 	}
 	
@@ -740,10 +1807,8 @@ public class TemporalFacade extends FrameworkObject implements QueryManager<Temp
 	 * 
 	 * @param equals
 	 * @return
-	 * @throws InconsistentDistanceConstraintException
 	 */
-	protected TimePointDistanceConstraint[] doPropagateEqualsConstraint(EqualsIntervalConstraint equals) 
-			throws InconsistentDistanceConstraintException {
+	protected TimePointDistanceConstraint[] doCreateEqualsConstraint(EqualsIntervalConstraint equals) {
 		
 		// create distance constraint 
 		TimePointDistanceConstraint c1 = this.cf.create(TemporalConstraintType.TIME_POINT_DISTANCE);
@@ -763,9 +1828,7 @@ public class TemporalFacade extends FrameworkObject implements QueryManager<Temp
 		c2.setDistanceUpperBound(0);
 		c2.setControllable(true);
 		
-		// add constraints
-		this.tn.addDistanceConstraint(new TimePointDistanceConstraint[] {c1, c2});
-		// get added distance constraints
+		// get created distance constraints
 		return new TimePointDistanceConstraint[] {c1, c2};
 	}
 
@@ -773,10 +1836,8 @@ public class TemporalFacade extends FrameworkObject implements QueryManager<Temp
 	 * 
 	 * @param contains
 	 * @return
-	 * @throws InconsistentDistanceConstraintException
 	 */
-	protected TimePointDistanceConstraint[] doPropagateContainsConstraint(ContainsIntervalConstraint contains) 
-			throws InconsistentDistanceConstraintException {
+	protected TimePointDistanceConstraint[] doCreateContainsConstraint(ContainsIntervalConstraint contains) {
 		
 		// create distance constraint
 		TimePointDistanceConstraint c1 = this.cf.create(TemporalConstraintType.TIME_POINT_DISTANCE);
@@ -796,9 +1857,7 @@ public class TemporalFacade extends FrameworkObject implements QueryManager<Temp
 		c2.setDistanceUpperBound(contains.getSecondBound()[1]);
 		c2.setControllable(true);
 		
-		// add constraints
-		this.tn.addDistanceConstraint(new TimePointDistanceConstraint[] {c1, c2});
-		// get added constraints
+		// get created constraints
 		return new TimePointDistanceConstraint[] {c1, c2};
 	}
 
@@ -806,10 +1865,8 @@ public class TemporalFacade extends FrameworkObject implements QueryManager<Temp
 	 * 
 	 * @param during
 	 * @return
-	 * @throws InconsistentDistanceConstraintException
 	 */
-	protected TimePointDistanceConstraint[] doPropagateDuringConstraint(DuringIntervalConstraint during) 
-			throws InconsistentDistanceConstraintException {
+	protected TimePointDistanceConstraint[] doCreateDuringConstraint(DuringIntervalConstraint during) {
 		
 		// create constraint
 		TimePointDistanceConstraint c1 = this.cf.create(TemporalConstraintType.TIME_POINT_DISTANCE);
@@ -827,9 +1884,7 @@ public class TemporalFacade extends FrameworkObject implements QueryManager<Temp
 		c2.setDistanceUpperBound(during.getSecondBound()[1]);
 		c2.setControllable(true);
 				
-		// add constraint
-		this.tn.addDistanceConstraint(new TimePointDistanceConstraint[] {c1, c2});
-		// get added constraints
+		// get created constraints
 		return new TimePointDistanceConstraint[] {c1, c2};
 	}
 	
@@ -837,10 +1892,8 @@ public class TemporalFacade extends FrameworkObject implements QueryManager<Temp
 	 * 
 	 * @param edc
 	 * @return
-	 * @throws InconsistentDistanceConstraintException
 	 */
-	protected TimePointDistanceConstraint[] doPropagateEndsDuringConstraint(EndsDuringIntervalConstraint edc) 
-			throws InconsistentDistanceConstraintException {
+	protected TimePointDistanceConstraint[] doCreateEndsDuringConstraint(EndsDuringIntervalConstraint edc) {
 		
 		// create constraint
 		TimePointDistanceConstraint c1 = this.cf.create(TemporalConstraintType.TIME_POINT_DISTANCE);
@@ -858,9 +1911,7 @@ public class TemporalFacade extends FrameworkObject implements QueryManager<Temp
 		c2.setDistanceUpperBound(edc.getSecondTimeBound()[1]);
 		c2.setControllable(true);
 		
-		// add constraint 
-		this.tn.addDistanceConstraint(new TimePointDistanceConstraint[] {c1, c2});
-		// propagate constraints
+		// get created constraints
 		return new TimePointDistanceConstraint[] {c1, c2};
 	}
 
@@ -868,10 +1919,8 @@ public class TemporalFacade extends FrameworkObject implements QueryManager<Temp
 	 * 
 	 * @param sdc
 	 * @return
-	 * @throws InconsistentDistanceConstraintException
 	 */
-	protected TimePointDistanceConstraint[] doPropagateStartsDuringConstraint(StartsDuringIntervalConstraint sdc) 
-			throws InconsistentDistanceConstraintException 
+	protected TimePointDistanceConstraint[] doCreateStartsDuringConstraint(StartsDuringIntervalConstraint sdc)
 	{
 		// create constraint
 		TimePointDistanceConstraint c1 = this.cf.create(TemporalConstraintType.TIME_POINT_DISTANCE);
@@ -889,9 +1938,7 @@ public class TemporalFacade extends FrameworkObject implements QueryManager<Temp
 		c2.setDistanceUpperBound(sdc.getSecondTimeBound()[1]);
 		c2.setControllable(true);
 		
-		// add constraint
-		this.tn.addDistanceConstraint(new TimePointDistanceConstraint[] {c1, c2});
-		// propagate constraints
+		// get created constraints
 		return new TimePointDistanceConstraint[] {c1, c2};
 	}
 
@@ -899,10 +1946,8 @@ public class TemporalFacade extends FrameworkObject implements QueryManager<Temp
 	 * 
 	 * @param before
 	 * @return
-	 * @throws InconsistentDistanceConstraintException
 	 */
-	protected TimePointDistanceConstraint doPropagateBeforeConstraint(BeforeIntervalConstraint before)
-			throws InconsistentDistanceConstraintException {
+	protected TimePointDistanceConstraint doCreateBeforeConstraint(BeforeIntervalConstraint before) {
 		
 		// create constraint
 		TimePointDistanceConstraint c = this.cf.create(TemporalConstraintType.TIME_POINT_DISTANCE);
@@ -912,9 +1957,7 @@ public class TemporalFacade extends FrameworkObject implements QueryManager<Temp
 		c.setDistanceUpperBound(before.getUpperBound());
 		c.setControllable(true);
 		
-		// add constraint
-		this.tn.addDistanceConstraint(c);
-		// get propagated constraint
+		// get created constraint
 		return c;
 	}
 	
@@ -922,10 +1965,8 @@ public class TemporalFacade extends FrameworkObject implements QueryManager<Temp
 	 * 
 	 * @param meets
 	 * @return
-	 * @throws InconsistentDistanceConstraintException
 	 */
-	protected TimePointDistanceConstraint doPropagateMeetsConstraint(MeetsIntervalConstraint meets) 
-			throws InconsistentDistanceConstraintException {
+	protected TimePointDistanceConstraint doCreateMeetsConstraint(MeetsIntervalConstraint meets) {
 		
 		// create constraint
 		TimePointDistanceConstraint c = this.cf.create(TemporalConstraintType.TIME_POINT_DISTANCE);
@@ -935,9 +1976,7 @@ public class TemporalFacade extends FrameworkObject implements QueryManager<Temp
 		c.setDistanceUpperBound(0);
 		c.setControllable(true);
 		
-		// add constraint
-		this.tn.addDistanceConstraint(c);
-		// get propagated constraint
+		// get created constraint
 		return c;
 	}
 	
@@ -945,10 +1984,8 @@ public class TemporalFacade extends FrameworkObject implements QueryManager<Temp
 	 * 
 	 * @param after
 	 * @return
-	 * @throws InconsistentDistanceConstraintException
 	 */
-	protected TimePointDistanceConstraint doPropagateAfterConstraint(AfterIntervalConstraint after) 
-			throws InconsistentDistanceConstraintException {
+	protected TimePointDistanceConstraint doCreateAfterConstraint(AfterIntervalConstraint after) {
 		
 		// create constraint
 		TimePointDistanceConstraint c = this.cf.create(TemporalConstraintType.TIME_POINT_DISTANCE);
@@ -958,9 +1995,7 @@ public class TemporalFacade extends FrameworkObject implements QueryManager<Temp
 		c.setDistanceUpperBound(after.getUpperBound());
 		c.setControllable(true);
 		
-		// add constraint
-		this.tn.addDistanceConstraint(c);
-		// get propagated constraint
+		// get created constraint
 		return c;
 	}
 	
@@ -968,10 +2003,8 @@ public class TemporalFacade extends FrameworkObject implements QueryManager<Temp
 	 * 
 	 * @param metby
 	 * @return
-	 * @throws InconsistentDistanceConstraintException
 	 */
-	protected TimePointDistanceConstraint doPropagateMetByConstraint(MetByIntervalConstraint metby) 
-			throws InconsistentDistanceConstraintException {
+	protected TimePointDistanceConstraint doCreateMetByConstraint(MetByIntervalConstraint metby) {
 		
 		// create constraint
 		TimePointDistanceConstraint c = this.cf.create(TemporalConstraintType.TIME_POINT_DISTANCE);
@@ -981,9 +2014,7 @@ public class TemporalFacade extends FrameworkObject implements QueryManager<Temp
 		c.setDistanceUpperBound(0);
 		c.setControllable(true);
 		
-		// add constraint
-		this.tn.addDistanceConstraint(c);
-		// get propagated constraint
+		// get created constraint
 		return c;
 	}
 	
@@ -991,10 +2022,8 @@ public class TemporalFacade extends FrameworkObject implements QueryManager<Temp
 	 * 
 	 * @param fix
 	 * @return
-	 * @throws InconsistentDistanceConstraintException
 	 */
-	protected TimePointDistanceConstraint doPropagateFixTimePointConstraint(FixTimePointConstraint fix) 
-			throws InconsistentDistanceConstraintException {
+	protected TimePointDistanceConstraint doCreateFixTimePointConstraint(FixTimePointConstraint fix) {
 		
 		// create constraint
 		TimePointDistanceConstraint c = this.cf.create(TemporalConstraintType.TIME_POINT_DISTANCE);
@@ -1004,9 +2033,7 @@ public class TemporalFacade extends FrameworkObject implements QueryManager<Temp
 		c.setDistanceUpperBound(fix.getTime());
 		c.setControllable(true);
 		
-		// add constraint
-		this.tn.addDistanceConstraint(c);
-		// get propagated constraint
+		// get created constraint
 		return c;
 	}
 
@@ -1015,10 +2042,8 @@ public class TemporalFacade extends FrameworkObject implements QueryManager<Temp
 	 * @param reference
 	 * @param duration
 	 * @return
-	 * @throws InconsistentDistanceConstraintException
 	 */
-	protected TimePointDistanceConstraint doPropagateFixIntervalDurationConstraint(FixIntervalDurationConstraint fix) 
-			throws InconsistentDistanceConstraintException {
+	protected TimePointDistanceConstraint doCreateFixIntervalDurationConstraint(FixIntervalDurationConstraint fix) {
 		
 		// create constraint
 		TimePointDistanceConstraint c = this.cf.create(TemporalConstraintType.TIME_POINT_DISTANCE);
@@ -1028,9 +2053,7 @@ public class TemporalFacade extends FrameworkObject implements QueryManager<Temp
 		c.setDistanceUpperBound(fix.getDuration());
 		c.setControllable(true);
 		
-		// add constraint
-		this.tn.addDistanceConstraint(c);
-		// get propagated constraint
+		// get created constraint
 		return c;
 	}
 	
@@ -1045,39 +2068,29 @@ public class TemporalFacade extends FrameworkObject implements QueryManager<Temp
 	 * @return
 	 */
 	private boolean isPseudoControllable() {
-		
-		// hypothesis
-		boolean pseudoControllable = true;
-		
-		// get constraints
-		for (TimePointDistanceConstraint constraint : this.tn.getContingentConstraints()) {
-			
-			// check contingent constraints
-			if (!constraint.isControllable()) {
-				
-				// create query
-				TimePointDistanceQuery query = this.qf.create(TemporalQueryType.TP_DISTANCE);
-				query.setSource(constraint.getReference());
-				query.setTarget(constraint.getTarget());
-				// process query
-				this.solver.process(query);
-				
-				// get actual bounds
-				long dmin = query.getDistanceLowerBound();
-				long dmax = query.getDistanceUpperBound();
-				
-				// check duration
-				pseudoControllable = !(dmin > constraint.getDistanceLowerBound() || dmax < constraint.getDistanceUpperBound());
-			}
-			
-			// check if pseudo-controllable
-			if (!pseudoControllable) {
-				break;
-			}
+		// squeezed contingent links are tracked by the solver
+		return this.solver.isPseudoControllable();
+	}
+	
+	/**
+	 * Returns the contingent links of the STNU that have been "squeezed", i.e. 
+	 * the contingent constraints whose bounds have been restricted by the 
+	 * propagation of the constraints.
+	 * 
+	 * @return
+	 */
+	public List<TimePointDistanceConstraint> getSqueezedContingentLinks() {
+		// get exclusive access to the temporal data-base
+		this.lock.writeLock().lock();
+		try 
+		{
+			// get squeezed contingent links
+			return this.solver.getSqueezedContingentLinks();
+		}
+		finally {
+			// release the lock
+			this.lock.writeLock().unlock();
 		}
-				
-		// get result
-		return pseudoControllable;
 	}
 
 	/**
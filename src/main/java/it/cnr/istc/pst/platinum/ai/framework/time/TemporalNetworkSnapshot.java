@@ -0,0 +1,243 @@
+package it.cnr.istc.pst.platinum.ai.framework.time;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePoint;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePointDistanceConstraint;
+
+/**
+ * Binary snapshot of a temporal network and of the minimal distances between its time points.
+ * 
+ * The snapshot is written to (and read from) a memory-mapped file with the following layout
+ * (big-endian):
+ * 
+ * 	- header: magic number (int), format version (int), origin (long), horizon (long),
+ * 	  ids of the origin and of the horizon time points (int, int)
+ * 	- time points: number of points (int), then id (int), domain bounds (long, long) and
+ * 	  schedule bounds (long, long) of each point
+ * 	- constraints: number of constraints (int), then reference id (int), target id (int),
+ * 	  distance bounds (long, long) and controllability flag (byte) of each constraint
+ * 	- distances: flag (byte) followed, if set, by the row-major matrix of the minimal
+ * 	  distances between the time points (n * n long) in the order of the time points
+ * 
+ * @author alessandro
+ *
+ */
+class TemporalNetworkSnapshot
+{
+	protected static final int MAGIC = 0x504C544E;					// magic number of snapshot files
+	protected static final int VERSION = 1;							// current version of the format
+	
+	protected long origin;											// origin of the network
+	protected long horizon;											// horizon of the network
+	protected int originId;											// id of the origin time point
+	protected int horizonId;										// id of the horizon time point
+	protected int[] ids;											// ids of time points
+	protected long[][] domains;										// domain bounds of time points
+	protected long[][] schedules;									// schedule bounds of time points
+	protected int[][] ends;											// reference and target ids of constraints
+	protected long[][] bounds;										// distance bounds of constraints
+	protected boolean[] controllable;								// controllability of constraints
+	protected long[][] distance;									// minimal distances between time points (if any)
+	
+	/**
+	 * 
+	 */
+	protected TemporalNetworkSnapshot() {
+		// empty snapshot
+	}
+	
+	/**
+	 * Create a snapshot of the given time points and constraints
+	 * 
+	 * @param origin
+	 * @param horizon
+	 * @param points
+	 * @param constraints
+	 * @param distance
+	 */
+	protected TemporalNetworkSnapshot(TimePoint origin, TimePoint horizon, List<TimePoint> points,
+			List<TimePointDistanceConstraint> constraints, long[][] distance)
+	{
+		// set data
+		this.origin = origin.getLowerBound();
+		this.horizon = horizon.getLowerBound();
+		this.originId = origin.getId();
+		this.horizonId = horizon.getId();
+		this.ids = new int[points.size()];
+		this.domains = new long[points.size()][];
+		this.schedules = new long[points.size()][];
+		for (int i = 0; i < points.size(); i++) {
+			// get time point
+			TimePoint point = points.get(i);
+			this.ids[i] = point.getId();
+			this.domains[i] = new long[] {point.getDomLb(), point.getDomUb()};
+			this.schedules[i] = new long[] {point.getLowerBound(), point.getUpperBound()};
+		}
+		
+		this.ends = new int[constraints.size()][];
+		this.bounds = new long[constraints.size()][];
+		this.controllable = new boolean[constraints.size()];
+		for (int i = 0; i < constraints.size(); i++) {
+			// get constraint
+			TimePointDistanceConstraint constraint = constraints.get(i);
+			this.ends[i] = new int[] {constraint.getReference().getId(), constraint.getTarget().getId()};
+			this.bounds[i] = new long[] {constraint.getDistanceLowerBound(), constraint.getDistanceUpperBound()};
+			this.controllable[i] = constraint.isControllable();
+		}
+		
+		this.distance = distance;
+	}
+	
+	/**
+	 * Returns the size in bytes of the snapshot
+	 * 
+	 * @return
+	 */
+	private long size() {
+		// header
+		long size = 4 + 4 + 8 + 8 + 4 + 4;
+		// time points
+		size += 4 + (long) this.ids.length * (4 + 8 * 4);
+		// constraints
+		size += 4 + (long) this.ends.length * (4 + 4 + 8 + 8 + 1);
+		// distances
+		size += 1 + (this.distance != null ? (long) this.ids.length * this.ids.length * 8 : 0);
+		return size;
+	}
+	
+	/**
+	 * Write the snapshot to a file
+	 * 
+	 * @param file
+	 * @throws IOException
+	 */
+	protected void write(File file)
+			throws IOException
+	{
+		// open the file
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+				FileChannel channel = raf.getChannel())
+		{
+			// map the file into memory
+			long size = this.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException("Temporal network too large for a single snapshot file (" + size + " bytes)");
+			}
+			
+			raf.setLength(size);
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+			// write header
+			buffer.putInt(MAGIC);
+			buffer.putInt(VERSION);
+			buffer.putLong(this.origin);
+			buffer.putLong(this.horizon);
+			buffer.putInt(this.originId);
+			buffer.putInt(this.horizonId);
+			// write time points
+			buffer.putInt(this.ids.length);
+			for (int i = 0; i < this.ids.length; i++) {
+				buffer.putInt(this.ids[i]);
+				buffer.putLong(this.domains[i][0]);
+				buffer.putLong(this.domains[i][1]);
+				buffer.putLong(this.schedules[i][0]);
+				buffer.putLong(this.schedules[i][1]);
+			}
+			
+			// write constraints
+			buffer.putInt(this.ends.length);
+			for (int i = 0; i < this.ends.length; i++) {
+				buffer.putInt(this.ends[i][0]);
+				buffer.putInt(this.ends[i][1]);
+				buffer.putLong(this.bounds[i][0]);
+				buffer.putLong(this.bounds[i][1]);
+				buffer.put((byte) (this.controllable[i] ? 1 : 0));
+			}
+			
+			// write distances
+			buffer.put((byte) (this.distance != null ? 1 : 0));
+			if (this.distance != null) {
+				for (long[] row : this.distance) {
+					buffer.asLongBuffer().put(row);
+					buffer.position(buffer.position() + row.length * 8);
+				}
+			}
+			
+			// flush data
+			buffer.force();
+		}
+	}
+	
+	/**
+	 * Read a snapshot from a file
+	 * 
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 */
+	protected static TemporalNetworkSnapshot read(File file)
+			throws IOException
+	{
+		// open the file
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+				FileChannel channel = raf.getChannel())
+		{
+			// map the file into memory
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			// check header
+			if (buffer.remaining() < 8 || buffer.getInt() != MAGIC) {
+				throw new IOException("Not a temporal network snapshot file " + file);
+			}
+			
+			int version = buffer.getInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported version " + version + " of the temporal network snapshot file " + file);
+			}
+			
+			// read header
+			TemporalNetworkSnapshot snapshot = new TemporalNetworkSnapshot();
+			snapshot.origin = buffer.getLong();
+			snapshot.horizon = buffer.getLong();
+			snapshot.originId = buffer.getInt();
+			snapshot.horizonId = buffer.getInt();
+			// read time points
+			int n = buffer.getInt();
+			snapshot.ids = new int[n];
+			snapshot.domains = new long[n][];
+			snapshot.schedules = new long[n][];
+			for (int i = 0; i < n; i++) {
+				snapshot.ids[i] = buffer.getInt();
+				snapshot.domains[i] = new long[] {buffer.getLong(), buffer.getLong()};
+				snapshot.schedules[i] = new long[] {buffer.getLong(), buffer.getLong()};
+			}
+			
+			// read constraints
+			int m = buffer.getInt();
+			snapshot.ends = new int[m][];
+			snapshot.bounds = new long[m][];
+			snapshot.controllable = new boolean[m];
+			for (int i = 0; i < m; i++) {
+				snapshot.ends[i] = new int[] {buffer.getInt(), buffer.getInt()};
+				snapshot.bounds[i] = new long[] {buffer.getLong(), buffer.getLong()};
+				snapshot.controllable[i] = buffer.get() == 1;
+			}
+			
+			// read distances
+			if (buffer.get() == 1) {
+				snapshot.distance = new long[n][n];
+				for (long[] row : snapshot.distance) {
+					buffer.asLongBuffer().get(row);
+					buffer.position(buffer.position() + row.length * 8);
+				}
+			}
+			
+			// get snapshot
+			return snapshot;
+		}
+	}
+}
@@ -0,0 +1,156 @@
+package it.cnr.istc.pst.platinum.ai.framework.time;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.query.TemporalQueryType;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePoint;
+
+/**
+ * Cache of the results of time point queries.
+ *
+ * Results are indexed by the type of the query and the involved time points
+ * and refer to a particular version of the temporal network. The cache is
+ * cleared as soon as a different version of the network is requested, since
+ * previously computed results are no longer valid. The cache can be
+ * accessed by concurrent queries on the same version of the network.
+ *
+ * @author alessandro
+ *
+ */
+class TemporalQueryCache
+{
+	private volatile Snapshot snapshot;								// cached results of the current version
+	private LongAdder hits;											// number of cache hits
+	private LongAdder misses;										// number of cache misses
+
+	/**
+	 *
+	 */
+	protected TemporalQueryCache() {
+		this.snapshot = new Snapshot(-1);
+		this.hits = new LongAdder();
+		this.misses = new LongAdder();
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * Returns a copy of the cached result of a query or null if no result is 
+	 * available for the given version of the network
+	 *
+	 * @param type
+	 * @param source
+	 * @param target
+	 * @param version
+	 * @return
+	 */
+	public long[] get(TemporalQueryType type, TimePoint source, TimePoint target, long version)
+	{
+		// get results of the version
+		Snapshot current = this.snapshot;
+		if (current.version != version) {
+			// clear results of the previous version
+			current = this.clear(version);
+		}
+
+		// look for the result
+		long[] result = current.index.get(type).get(key(source, target));
+		if (result != null) {
+			this.hits.increment();
+		}
+		else {
+			this.misses.increment();
+		}
+
+		// get a copy of the result so that the cached one cannot be changed by the caller
+		return result != null ? result.clone() : null;
+	}
+
+	/**
+	 * Add a copy of the result of a query computed on the given version of the network
+	 *
+	 * @param type
+	 * @param source
+	 * @param target
+	 * @param version
+	 * @param result
+	 */
+	public void put(TemporalQueryType type, TimePoint source, TimePoint target, long version, long[] result)
+	{
+		// check version
+		Snapshot current = this.snapshot;
+		if (current.version == version) {
+			// add a copy of the result so that the caller can still change its array
+			current.index.get(type).put(key(source, target), result.clone());
+		}
+	}
+
+	/**
+	 * Replace the cached results with an empty set of results for the given version
+	 *
+	 * @param version
+	 * @return
+	 */
+	private synchronized Snapshot clear(long version)
+	{
+		// check if another query has already cleared the cache
+		if (this.snapshot.version != version) {
+			this.snapshot = new Snapshot(version);
+		}
+
+		// get results of the version
+		return this.snapshot;
+	}
+
+	/**
+	 *
+	 * @param source
+	 * @param target
+	 * @return
+	 */
+	private static long key(TimePoint source, TimePoint target) {
+		// time point ids are non negative integers
+		return ((long) source.getId() << 32) | target.getId();
+	}
+
+	/**
+	 * Results cached for a particular version of the network
+	 *
+	 * @author alessandro
+	 *
+	 */
+	private static class Snapshot
+	{
+		private final long version;										// version of the network
+		private final Map<TemporalQueryType, Map<Long, long[]>> index;	// cached results
+
+		/**
+		 *
+		 * @param version
+		 */
+		private Snapshot(long version) {
+			this.version = version;
+			this.index = new EnumMap<>(TemporalQueryType.class);
+			for (TemporalQueryType type : TemporalQueryType.values()) {
+				this.index.put(type, new ConcurrentHashMap<>());
+			}
+		}
+	}
+}
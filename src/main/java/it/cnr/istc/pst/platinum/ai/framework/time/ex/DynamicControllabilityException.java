@@ -0,0 +1,20 @@
+package it.cnr.istc.pst.platinum.ai.framework.time.ex;
+
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.ex.ConsistencyCheckException;
+
+/**
+ * 
+ * @author alessandro
+ *
+ */
+public class DynamicControllabilityException extends ConsistencyCheckException {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * 
+	 * @param msg
+	 */
+	public DynamicControllabilityException(String msg) {
+		super(msg);
+	}
+}
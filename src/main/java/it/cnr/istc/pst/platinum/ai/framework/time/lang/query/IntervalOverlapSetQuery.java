@@ -0,0 +1,66 @@
+package it.cnr.istc.pst.platinum.ai.framework.time.lang.query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.query.TemporalQueryType;
+import it.cnr.istc.pst.platinum.ai.framework.time.TemporalInterval;
+
+/**
+ * Find the sets of temporal intervals that can pairwise overlap. 
+ * 
+ * A set is computed for each interval of the given list, in the same order. 
+ * The set starts with the interval and contains the following intervals of 
+ * the list that can overlap all the intervals added before them. Thus, a 
+ * set may contain a single interval. Intervals of each set follow the order 
+ * of the given list of intervals.
+ * 
+ * @author alessandro
+ *
+ */
+public final class IntervalOverlapSetQuery extends TemporalIntervalQuery 
+{
+	private List<TemporalInterval> intervals;
+	private List<List<TemporalInterval>> overlappingSets;
+	
+	/**
+	 * 
+	 */
+	protected IntervalOverlapSetQuery() {
+		super(TemporalQueryType.INTERVAL_OVERLAP_SET);
+		this.intervals = new ArrayList<>();
+		this.overlappingSets = new ArrayList<>();
+	}
+	
+	/**
+	 * 
+	 * @param intervals
+	 */
+	public void setIntervals(List<TemporalInterval> intervals) {
+		this.intervals = new ArrayList<>(intervals);
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public List<TemporalInterval> getIntervals() {
+		return intervals;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public List<List<TemporalInterval>> getOverlappingSets() {
+		return overlappingSets;
+	}
+	
+	/**
+	 * 
+	 * @param sets
+	 */
+	public void setOverlappingSets(List<List<TemporalInterval>> sets) {
+		this.overlappingSets = sets;
+	}
+}
@@ -0,0 +1,335 @@
+package it.cnr.istc.pst.platinum.ai.framework.time.solver;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TemporalNetwork;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePointDistanceConstraint;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.event.AddRelationTemporalNetworkNotification;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.event.DelRelationTemporalNetworkNotification;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.event.TemporalNetworkNotification;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.event.TemporalNetworkObserver;
+
+/**
+ * Keep track of the contingent links of a temporal network that have been "squeezed"
+ * by the propagation of the constraints, i.e. whose minimal distance bounds are tighter
+ * than the bounds of the link.
+ * 
+ * Solvers notify the changes of the minimal distances between the end points of the
+ * links so that the status of a link is updated in constant time. Solvers that compute
+ * the minimal distances from scratch (or lazily) invalidate the tracker instead and the
+ * links are checked again the next time the squeezed links are requested. The status
+ * of newly added links is checked the next time the squeezed links are requested too.
+ * 
+ * @author alessandro
+ *
+ */
+public class ContingentLinkTracker implements TemporalNetworkObserver
+{
+	private TemporalNetwork tn;												// temporal network
+	private Map<Long, ContingentLink> upper;								// links by (reference, target) slots
+	private Map<Long, ContingentLink> lower;								// links by (target, reference) slots
+	private BitSet endpoints;												// end points of the links
+	private Set<ContingentLink> pending;									// links to check
+	private Set<TimePointDistanceConstraint> squeezed;						// squeezed links
+	private boolean stale;													// all links must be checked
+	
+	/**
+	 * 
+	 * @param tn
+	 */
+	public ContingentLinkTracker(TemporalNetwork tn) {
+		this.tn = tn;
+		this.upper = new HashMap<>();
+		this.lower = new HashMap<>();
+		this.endpoints = new BitSet();
+		this.pending = new LinkedHashSet<>();
+		this.squeezed = new LinkedHashSet<>();
+		this.stale = true;
+		// register the contingent links of the network
+		this.rebuild();
+		// subscribe to the network
+		this.tn.subscribe(this);
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public void notify(TemporalNetworkNotification info)
+	{
+		// check notification type
+		switch (info.getType())
+		{
+			case ADD_REL : {
+				
+				// get data
+				AddRelationTemporalNetworkNotification notify = (AddRelationTemporalNetworkNotification) info;
+				// register added contingent links
+				for (TimePointDistanceConstraint constraint : notify.getRels()) {
+					if (!constraint.isControllable()) {
+						this.register(constraint);
+					}
+				}
+			}
+			break;
+			
+			case DEL_REL : {
+				
+				// get data
+				DelRelationTemporalNetworkNotification notify = (DelRelationTemporalNetworkNotification) info;
+				// remove deleted contingent links
+				for (TimePointDistanceConstraint constraint : notify.getRels()) {
+					if (!constraint.isControllable()) {
+						this.unregister(constraint);
+					}
+				}
+				
+				// removed constraints may relax any link
+				this.stale = true;
+			}
+			break;
+			
+			case ADD_TP : {
+				// nothing to do
+			}
+			break;
+			
+			// initialization or deleted time points
+			default : {
+				
+				// register the contingent links of the network again
+				this.rebuild();
+				this.stale = true;
+			}
+			break;
+		}
+	}
+	
+	/**
+	 * Update the status of the contingent link whose end points are the given slots (if any)
+	 * according to the new minimal distance from the source to the target
+	 * 
+	 * @param source
+	 * @param target
+	 * @param distance
+	 */
+	public void update(int source, int target, long distance)
+	{
+		// check end points
+		if (!this.endpoints.get(source) || !this.endpoints.get(target)) {
+			return;
+		}
+		
+		// check the upper bound of a link
+		ContingentLink link = this.upper.get(key(source, target));
+		if (link != null) {
+			link.upperSqueezed = distance < link.constraint.getDistanceUpperBound();
+			this.set(link);
+		}
+		
+		// check the lower bound of a link
+		link = this.lower.get(key(source, target));
+		if (link != null) {
+			link.lowerSqueezed = -distance > link.constraint.getDistanceLowerBound();
+			this.set(link);
+		}
+	}
+	
+	/**
+	 * All the links must be checked the next time the squeezed links are requested
+	 */
+	public void invalidate() {
+		this.stale = true;
+	}
+	
+	/**
+	 * Returns the number of contingent links of the network
+	 * 
+	 * @return
+	 */
+	public int size() {
+		return this.upper.size();
+	}
+	
+	/**
+	 * Check if no contingent link has been squeezed
+	 * 
+	 * @param solver
+	 * @return
+	 */
+	public boolean isPseudoControllable(TemporalSolver<?> solver) {
+		// check links if needed
+		this.check(solver);
+		return this.squeezed.isEmpty();
+	}
+	
+	/**
+	 * Returns the contingent links that have been squeezed
+	 * 
+	 * @param solver
+	 * @return
+	 */
+	public List<TimePointDistanceConstraint> getSqueezedLinks(TemporalSolver<?> solver) {
+		// check links if needed
+		this.check(solver);
+		return new ArrayList<>(this.squeezed);
+	}
+	
+	/**
+	 * Check invalidated or pending links through the minimal distances of the solver
+	 * 
+	 * @param solver
+	 */
+	private void check(TemporalSolver<?> solver)
+	{
+		// check links
+		if (this.stale) {
+			// check all links
+			this.squeezed.clear();
+			for (ContingentLink link : new ArrayList<>(this.upper.values())) {
+				this.check(solver, link);
+			}
+			
+			// all links checked
+			this.stale = false;
+			this.pending.clear();
+		}
+		else if (!this.pending.isEmpty()) {
+			// check pending links
+			for (ContingentLink link : new ArrayList<>(this.pending)) {
+				this.check(solver, link);
+			}
+			
+			// pending links checked
+			this.pending.clear();
+		}
+	}
+	
+	/**
+	 * 
+	 * @param solver
+	 * @param link
+	 */
+	private void check(TemporalSolver<?> solver, ContingentLink link) {
+		// check minimal distance bounds
+		TimePointDistanceConstraint constraint = link.constraint;
+		link.lowerSqueezed = solver.getDistanceLowerBound(constraint.getReference(), constraint.getTarget()) > constraint.getDistanceLowerBound();
+		link.upperSqueezed = solver.getDistanceUpperBound(constraint.getReference(), constraint.getTarget()) < constraint.getDistanceUpperBound();
+		this.set(link);
+	}
+	
+	/**
+	 * 
+	 * @param link
+	 */
+	private void set(ContingentLink link) {
+		// update the set of squeezed links
+		if (link.lowerSqueezed || link.upperSqueezed) {
+			this.squeezed.add(link.constraint);
+		}
+		else {
+			this.squeezed.remove(link.constraint);
+		}
+	}
+	
+	/**
+	 * Register the contingent links of the network
+	 */
+	private void rebuild()
+	{
+		// clear data
+		this.upper.clear();
+		this.lower.clear();
+		this.endpoints.clear();
+		this.pending.clear();
+		this.squeezed.clear();
+		// register contingent links
+		for (TimePointDistanceConstraint constraint : this.tn.getContingentConstraints()) {
+			if (!constraint.isControllable()) {
+				this.register(constraint);
+			}
+		}
+	}
+	
+	/**
+	 * 
+	 * @param constraint
+	 */
+	private void register(TimePointDistanceConstraint constraint)
+	{
+		// create link
+		int reference = constraint.getReference().getId();
+		int target = constraint.getTarget().getId();
+		ContingentLink link = new ContingentLink(constraint);
+		// remove the link previously registered on the same end points if any
+		ContingentLink previous = this.upper.put(key(reference, target), link);
+		if (previous != null) {
+			this.pending.remove(previous);
+			this.squeezed.remove(previous.constraint);
+		}
+		
+		// index the link
+		this.lower.put(key(target, reference), link);
+		this.endpoints.set(reference);
+		this.endpoints.set(target);
+		// the link will be checked the next time squeezed links are requested
+		this.pending.add(link);
+	}
+	
+	/**
+	 * 
+	 * @param constraint
+	 */
+	private void unregister(TimePointDistanceConstraint constraint)
+	{
+		// get link
+		int reference = constraint.getReference().getId();
+		int target = constraint.getTarget().getId();
+		ContingentLink link = this.upper.get(key(reference, target));
+		if (link != null && link.constraint.equals(constraint)) {
+			// remove link
+			this.upper.remove(key(reference, target));
+			this.lower.remove(key(target, reference));
+			this.pending.remove(link);
+			this.squeezed.remove(constraint);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param source
+	 * @param target
+	 * @return
+	 */
+	private static long key(int source, int target) {
+		return ((long) source << 32) | (target & 0xFFFFFFFFL);
+	}
+	
+	/**
+	 * 
+	 * @author alessandro
+	 *
+	 */
+	private static class ContingentLink
+	{
+		private TimePointDistanceConstraint constraint;
+		private boolean lowerSqueezed;
+		private boolean upperSqueezed;
+		
+		/**
+		 * 
+		 * @param constraint
+		 */
+		private ContingentLink(TimePointDistanceConstraint constraint) {
+			this.constraint = constraint;
+			this.lowerSqueezed = false;
+			this.upperSqueezed = false;
+		}
+	}
+}
@@ -1,9 +1,13 @@
 package it.cnr.istc.pst.platinum.ai.framework.time.solver;
 
+import java.util.List;
+
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.FrameworkObject;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.query.Query;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.query.QueryManager;
 import it.cnr.istc.pst.platinum.ai.framework.time.tn.TemporalNetwork;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePoint;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePointDistanceConstraint;
 import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.event.TemporalNetworkNotification;
 import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.event.TemporalNetworkObserver;
 
@@ -16,6 +20,7 @@ import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.event.TemporalNetworkO
 public abstract class TemporalSolver<T extends Query> extends FrameworkObject implements TemporalNetworkObserver, QueryManager<T> 
 {
 	protected TemporalNetwork tn;
+	protected ContingentLinkTracker contingents;				// squeezed contingent links
 	
 	/**
 	 * 
@@ -23,6 +28,8 @@ public abstract class TemporalSolver<T extends Query> extends FrameworkObject im
 	protected TemporalSolver(TemporalNetwork tn) {
 		super();
 		this.tn = tn;
+		// track the contingent links of the network
+		this.contingents = new ContingentLinkTracker(tn);
 		// subscribe to the network
 		this.tn.subscribe(this);
 	}
@@ -39,6 +46,115 @@ public abstract class TemporalSolver<T extends Query> extends FrameworkObject im
 	 */
 	public abstract boolean isValid();
 	
+	/**
+	 * Check if the data structures of the solver are up to date with respect to the 
+	 * temporal network. Queries on a prepared solver only read its data structures 
+	 * (or synchronize internally on the caches they update) so they can be processed 
+	 * concurrently.
+	 * 
+	 * @return
+	 */
+	public boolean isPrepared() {
+		return true;
+	}
+	
+	/**
+	 * Update the data structures of the solver with respect to the temporal network. 
+	 * The method must be called with exclusive access to the temporal network.
+	 */
+	public void prepare() {
+		// nothing to do
+	}
+	
+	/**
+	 * Returns the lower bound of the distance from Time Point tp1 to Time Point tp2.
+	 * 
+	 * The method reads the bound directly from the data structures of the solver 
+	 * without creating queries or arrays, so that it can be used in the inner loops 
+	 * of the resolvers. 
+	 * 
+	 * @param tp1
+	 * @param tp2
+	 * @return
+	 */
+	public abstract long getDistanceLowerBound(TimePoint tp1, TimePoint tp2);
+	
+	/**
+	 * Returns the upper bound of the distance from Time Point tp1 to Time Point tp2.
+	 * 
+	 * The method reads the bound directly from the data structures of the solver 
+	 * without creating queries or arrays, so that it can be used in the inner loops 
+	 * of the resolvers. 
+	 * 
+	 * @param tp1
+	 * @param tp2
+	 * @return
+	 */
+	public abstract long getDistanceUpperBound(TimePoint tp1, TimePoint tp2);
+	
+	/**
+	 * Returns distance lower and upper bounds of Time Point 
+	 * tp1 to Time Point tp2 
+	 * 
+	 * @param tp1
+	 * @param tp2
+	 * @return
+	 */
+	protected long[] getDistance(TimePoint tp1, TimePoint tp2) {
+		return new long[] {
+				this.getDistanceLowerBound(tp1, tp2), 
+				this.getDistanceUpperBound(tp1, tp2)
+		};
+	}
+	
+	/**
+	 * Set the minimal distances between the time points of the network computed by 
+	 * a previous propagation (e.g. restored from a snapshot) so that the network is 
+	 * not propagated again. The distances are given in the order of the time points.
+	 * 
+	 * The method returns false if the solver does not keep the minimal distances of 
+	 * the network. In such a case the distances are computed again when needed.
+	 * 
+	 * @param points
+	 * @param distance
+	 * @return
+	 */
+	public boolean setDistances(List<TimePoint> points, long[][] distance) {
+		return false;
+	}
+	
+	/**
+	 * Check if the solver restores its previous state, without any propagation, when 
+	 * time points and constraints are removed in reverse order of addition (e.g. 
+	 * when rolling back the temporal data-base to a checkpoint)
+	 * 
+	 * @return
+	 */
+	public boolean isRestorable() {
+		return false;
+	}
+	
+	/**
+	 * Check if no contingent link of the network has been "squeezed" by the 
+	 * propagation of the constraints. The result is assumed to be meaningful 
+	 * only if the network is valid
+	 * 
+	 * @return
+	 */
+	public boolean isPseudoControllable() {
+		return this.contingents.isPseudoControllable(this);
+	}
+	
+	/**
+	 * Returns the contingent links of the network that have been "squeezed" 
+	 * by the propagation of the constraints
+	 * 
+	 * @return
+	 */
+	public List<TimePointDistanceConstraint> getSqueezedContingentLinks() {
+		return this.contingents.getSqueezedLinks(this);
+	}
+	
 	/**
 	 * 
 	 */
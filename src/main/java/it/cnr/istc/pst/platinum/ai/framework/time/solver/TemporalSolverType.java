@@ -1,6 +1,9 @@
 package it.cnr.istc.pst.platinum.ai.framework.time.solver;
 
 import it.cnr.istc.pst.platinum.ai.framework.time.solver.apsp.APSPTemporalSolver;
+import it.cnr.istc.pst.platinum.ai.framework.time.solver.apsp.IncrementalAPSPTemporalSolver;
+import it.cnr.istc.pst.platinum.ai.framework.time.solver.apsp.JohnsonTemporalSolver;
+import it.cnr.istc.pst.platinum.ai.framework.time.solver.p3c.P3CTemporalSolver;
 
 /**
  * 
@@ -12,7 +15,28 @@ public enum TemporalSolverType {
 	/**
 	 * All-Pair-Shortest-Path temporal reasoning engine
 	 */
-	APSP(APSPTemporalSolver.class.getName());
+	APSP(APSPTemporalSolver.class.getName()),
+	
+	/**
+	 * Incremental All-Pair-Shortest-Path temporal reasoning engine. Tightened 
+	 * constraints are incrementally propagated while a complete propagation is 
+	 * done only when constraints are relaxed or removed
+	 */
+	INCREMENTAL_APSP(IncrementalAPSPTemporalSolver.class.getName()),
+	
+	/**
+	 * Lazy temporal reasoning engine for sparse networks. Consistency is checked 
+	 * through a Bellman-Ford potential function while distances are computed on 
+	 * demand through Dijkstra's algorithm and cached until the next change
+	 */
+	JOHNSON(JohnsonTemporalSolver.class.getName()),
+	
+	/**
+	 * Partial path consistency temporal reasoning engine. Minimal distances are 
+	 * computed on the edges of a chordal triangulation of the network only, while 
+	 * distances between non-adjacent time points are computed on demand
+	 */
+	P3C(P3CTemporalSolver.class.getName());
 	
 	private String cname;
 	
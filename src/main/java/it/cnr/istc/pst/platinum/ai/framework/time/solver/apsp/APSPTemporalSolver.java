@@ -1,15 +1,16 @@
 package it.cnr.istc.pst.platinum.ai.framework.time.solver.apsp;
 
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.Map;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import it.cnr.istc.pst.platinum.ai.framework.time.solver.TemporalSolver;
 import it.cnr.istc.pst.platinum.ai.framework.time.tn.TemporalNetwork;
 import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePoint;
 import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePointDistanceConstraint;
 import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.event.AddRelationTemporalNetworkNotification;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.event.AddTimePointTemporalNetworkNotification;
 import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.event.DelRelationTemporalNetworkNotification;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.event.DelTimePointTemporalNetworkNotification;
 import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.event.TemporalNetworkNotification;
 import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.query.TimePointDistanceQuery;
 import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.query.TimePointDistanceToHorizonQuery;
@@ -24,10 +25,14 @@ import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.query.TimePointSchedul
 public final class APSPTemporalSolver extends TemporalSolver<TimePointQuery>
 {
 	private DistanceGraph dg;									// distance graph
-	private Map<TimePoint, Map<TimePoint, Long>> distance;		// the distance matrix containing the minimum distances between points;
+	private DistanceMatrix distance;							// the distance matrix containing the minimum distances between points;
 	private boolean toCompute;								// lazy approach - propagate constraint only when needed
 	private int propagationCounter;		
 	
+	private static final int PARALLEL_THRESHOLD = 256;			// minimum number of points of the parallel propagation
+	private static final BlockedFloydWarshall BLOCKED_FW = 
+			new BlockedFloydWarshall(BlockedFloydWarshall.DEFAULT_TILE_SIZE, ForkJoinPool.commonPool());
+	
 	/**
 	 * Create an All-Pair-Shortest-Path Solver instance.
 	 * 
@@ -49,7 +54,7 @@ public final class APSPTemporalSolver extends TemporalSolver<TimePointQuery>
 	 * 
 	 */
 	private void dg() {
-
+		
 		// create the distance graph
 		this.dg = new DistanceGraph();
 		// set temporal horizon
@@ -97,21 +102,35 @@ public final class APSPTemporalSolver extends TemporalSolver<TimePointQuery>
 		
 		// check consistency
 		boolean consistent = true;
-		Iterator<TimePoint> it = this.dg.getPoints().iterator();
-		while (it.hasNext() && consistent) {
-			
-			// next time point
-			TimePoint tp = it.next();
-			// get distance
-			long distance = this.distance.get(tp).get(tp); 
+		int[] slots = this.dg.getSlots();
+		for (int i = 0; i < slots.length && consistent; i++) {
 			// check cycle distance
-			consistent = distance == 0;
+			consistent = this.distance.get(slots[i], slots[i]) == 0;
 		}
 		
 		// get consistency check result
 		return consistent;
 	}
 	
+	/**
+	 * 
+	 */
+	@Override
+	public boolean isPrepared() {
+		return !this.toCompute;
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public void prepare() {
+		// check information status
+		if (this.toCompute) {
+			this.computeDistanceMatrix();
+		}
+	}
+	
 	/**
 	 * 
 	 */
@@ -121,10 +140,8 @@ public final class APSPTemporalSolver extends TemporalSolver<TimePointQuery>
 		// check notification type
 		switch (info.getType()) {
 			
-			// time point deleted
-			case INITIALIZATION :
-			case ADD_TP : 
-			case DEL_TP : {
+			// network initialized
+			case INITIALIZATION : {
 				
 				// update the distance graph 
 				this.dg();	
@@ -133,6 +150,35 @@ public final class APSPTemporalSolver extends TemporalSolver<TimePointQuery>
 			}
 			break;
 			
+			// time points added
+			case ADD_TP : {
+				
+				// get data
+				AddTimePointTemporalNetworkNotification notify = (AddTimePointTemporalNetworkNotification) info;
+				// check added time points
+				for (TimePoint point : notify.getPoints()) {
+					// points may be notified more than once (e.g. multiple time point creation)
+					if (!this.dg.contains(point)) {
+						// add the time point and its edges
+						this.doAddTimePoint(point);
+					}
+				}
+			}
+			break;
+			
+			// time points deleted
+			case DEL_TP : {
+				
+				// get data
+				DelTimePointTemporalNetworkNotification notify = (DelTimePointTemporalNetworkNotification) info;
+				// check deleted time points
+				for (TimePoint point : notify.getPoints()) {
+					// remove the time point and its edges
+					this.doRemoveTimePoint(point);
+				}
+			}
+			break;
+			
 			case DEL_REL : {
 				
 				// get data
@@ -148,7 +194,7 @@ public final class APSPTemporalSolver extends TemporalSolver<TimePointQuery>
 						// update distance bounds
 						this.dg.add(constraint.getReference(), constraint.getTarget(), bounds[1]);
 						this.dg.add(constraint.getTarget(), constraint.getReference(), -bounds[0]);
-						
+					
 					} else {
 						
 						// no constraint between the two time points
@@ -184,6 +230,217 @@ public final class APSPTemporalSolver extends TemporalSolver<TimePointQuery>
 		}
 	}
 	
+	/**
+	 * Add a time point and the edges of its constraints to the distance graph. 
+	 * 
+	 * A new time point is constrained only with respect to the origin and the horizon 
+	 * of the network so there is no need to sweep all the pairs of time points. If the 
+	 * distance matrix is up to date then it is extended with the row and the column of 
+	 * the new time point in O(n^2) rather than computed again
+	 * 
+	 * @param point
+	 */
+	private void doAddTimePoint(TimePoint point) 
+	{
+		// add node to the distance graph
+		this.dg.add(point);
+		// add edges of the constraints from the time point
+		for (TimePointDistanceConstraint constraint : this.tn.getConstraints(point)) {
+			this.addEdges(point, constraint.getTarget());
+		}
+		
+		// add edges of the constraints from the origin
+		if (!this.tn.getConstraintFromOrigin(point).isEmpty()) {
+			this.addEdges(this.tn.getOriginTimePoint(), point);
+		}
+		
+		// check the distance matrix
+		if (!this.toCompute) {
+			// extend the distance matrix
+			this.extendDistanceMatrix(point.getId());
+		}
+	}
+	
+	/**
+	 * Remove a time point and its edges from the distance graph. 
+	 * 
+	 * The distance matrix is kept if every path through the time point is dominated by 
+	 * the edge between its neighbors, i.e. the minimal distances between the other time 
+	 * points do not depend on the removed one. This is the case of a time point related 
+	 * to the origin and to the horizon only. Otherwise the distance matrix must be computed 
+	 * again
+	 * 
+	 * @param point
+	 */
+	private void doRemoveTimePoint(TimePoint point) 
+	{
+		// check the time point
+		if (!this.dg.contains(point)) {
+			return;
+		}
+		
+		// check if the minimal distances depend on the time point
+		if (!this.toCompute && !this.isDominated(point.getId())) {
+			// set to propagate flag
+			this.toCompute = true;
+		}
+		
+		// remove the time point and all related edges from the distance graph
+		this.dg.delete(point);
+		if (!this.toCompute) {
+			// clear the row and the column of the time point
+			this.distance.reset(point.getId());
+		}
+	}
+	
+	/**
+	 * Set the edges of the distance graph between two time points according 
+	 * to the bounds of the constraints from the reference to the target
+	 * 
+	 * @param reference
+	 * @param target
+	 */
+	private void addEdges(TimePoint reference, TimePoint target) 
+	{
+		// get constraint bounds
+		long[] bounds = this.tn.getConstraintBounds(reference, target);
+		// check if a bound exists
+		if (bounds != null) {
+			// set distance graph's edges according to the computed bounds
+			this.dg.add(reference, target, bounds[1]);
+			this.dg.add(target, reference, -bounds[0]);
+		}
+	}
+	
+	/**
+	 * Extend the (up to date) distance matrix with the row and the column of a new 
+	 * slot. The distances from and to the slot are computed through its edges, then 
+	 * the minimal distances of the other slots are updated with the paths through the 
+	 * slot, i.e. an iteration of the Floyd-Warshall algorithm on the new slot
+	 * 
+	 * @param p
+	 */
+	private void extendDistanceMatrix(int p) 
+	{
+		// get infinity
+		long infty = this.dg.getInfity();
+		// get the slots of the points
+		int[] slots = this.dg.getSlots();
+		// set the row and the column of the slot to infinity
+		this.distance.ensureCapacity(this.dg.capacity() - 1);
+		this.distance.reset(p);
+		for (int j : slots) 
+		{
+			// skip the new slot
+			if (j == p) {
+				continue;
+			}
+			
+			// compute the distance from the slot through its outgoing edges
+			for (int i = 0; i < this.dg.getOutDegree(p); i++) {
+				int k = this.dg.getOutgoing(p, i);
+				long kj = this.distance.get(k, j);
+				if (kj < infty && this.distance.get(p, j) > this.dg.getDistance(p, k) + kj) {
+					// update distance
+					this.distance.set(p, j, this.dg.getDistance(p, k) + kj);
+				}
+			}
+			
+			// compute the distance to the slot through its incoming edges
+			for (int i = 0; i < this.dg.getInDegree(p); i++) {
+				int k = this.dg.getIncoming(p, i);
+				long jk = this.distance.get(j, k);
+				if (jk < infty && this.distance.get(j, p) > jk + this.dg.getDistance(k, p)) {
+					// update distance
+					this.distance.set(j, p, jk + this.dg.getDistance(k, p));
+				}
+			}
+		}
+		
+		// compute the shortest cycle through the slot
+		long cycle = 0;
+		for (int i = 0; i < this.dg.getOutDegree(p); i++) {
+			int k = this.dg.getOutgoing(p, i);
+			long kp = this.distance.get(k, p);
+			if (kp < infty) {
+				cycle = Math.min(cycle, this.dg.getDistance(p, k) + kp);
+			}
+		}
+		
+		this.distance.set(p, p, cycle);
+		// check negative cycles
+		if (cycle < 0) {
+			// inconsistent network - let the complete propagation handle it
+			this.toCompute = true;
+			return;
+		}
+		
+		// update minimal distances with the paths through the new slot
+		boolean changed = false;
+		for (int i : slots) 
+		{
+			// get distance from i to the new slot
+			long ip = this.distance.get(i, p);
+			// skip paths through unreachable points
+			if (i == p || ip >= infty) {
+				continue;
+			}
+			
+			for (int j : slots) 
+			{
+				// get distance from the new slot to j
+				long pj = this.distance.get(p, j);
+				// compute the path from i to j through the new slot
+				if (j != p && pj < infty && this.distance.get(i, j) > ip + pj) {
+					// update distance
+					this.distance.set(i, j, ip + pj);
+					changed = true;
+				}
+			}
+		}
+		
+		// check updated distances
+		if (changed) {
+			// contingent links must be checked against the new distances
+			this.contingents.invalidate();
+		}
+	}
+	
+	/**
+	 * Check if every path through a slot is dominated by the edge between the 
+	 * neighbors of the slot (or by an empty cycle), so that the minimal distances 
+	 * between the other slots do not depend on it
+	 * 
+	 * @param p
+	 * @return
+	 */
+	private boolean isDominated(int p) 
+	{
+		// get infinity
+		long infty = this.dg.getInfity();
+		// check paths through the slot
+		for (int i = 0; i < this.dg.getInDegree(p); i++) 
+		{
+			// get source and edge weight
+			int a = this.dg.getIncoming(p, i);
+			long ap = this.dg.getDistance(a, p);
+			for (int j = 0; j < this.dg.getOutDegree(p); j++) 
+			{
+				// get target and edge weight
+				int b = this.dg.getOutgoing(p, j);
+				long ab = a == b ? 0 : this.dg.getDistance(a, b);
+				// check the direct edge
+				if (ab >= infty || ab > ap + this.dg.getDistance(p, b)) {
+					// the path through the slot may be the shortest one
+					return false;
+				}
+			}
+		}
+		
+		// the slot can be safely removed
+		return true;
+	}
+	
 	/**
 	 * 
 	 * @return
@@ -205,13 +462,13 @@ public final class APSPTemporalSolver extends TemporalSolver<TimePointQuery>
 		
 		// print distance matrix 
 		String matrix = "Distance matrix (Computed using Floyd-Warshall Algorithm)\n";
-		for (TimePoint i : this.dg.getPoints()) {
-			for (TimePoint j : this.dg.getPoints()) {
-				matrix += "\t" + this.distance.get(i).get(j);
+		for (int i : this.dg.getSlots()) {
+			for (int j : this.dg.getSlots()) {
+				matrix += "\t" + this.distance.get(i, j);
 			}
 			matrix += "\n";
 		}
-	
+		
 		// get description of the distance matrix
 		return matrix;
 	}
@@ -234,7 +491,7 @@ public final class APSPTemporalSolver extends TemporalSolver<TimePointQuery>
 		
 		// check query type 
 		switch (query.getType()) {
-		
+			
 			// handle time point bound query
 			case TP_SCHEDULE : {
 				
@@ -243,10 +500,8 @@ public final class APSPTemporalSolver extends TemporalSolver<TimePointQuery>
 				// get time point
 				TimePoint point = tpBoundQuery.getTimePoint();
 				// get distance between the origin and the time point
-				long[] distance = this.getDistance(this.tn.getOriginTimePoint(), point); 
-				// set information 
-				point.setLowerBound(distance[0]);
-				point.setUpperBound(distance[1]);
+				point.setLowerBound(this.getDistanceLowerBound(this.tn.getOriginTimePoint(), point));
+				point.setUpperBound(this.getDistanceUpperBound(this.tn.getOriginTimePoint(), point));
 			}
 			break;
 			
@@ -260,10 +515,8 @@ public final class APSPTemporalSolver extends TemporalSolver<TimePointQuery>
 				// get target point 
 				TimePoint target = tpDistanceQuery.getTarget();
 				// get distance between points
-				long[] distance = this.getDistance(source, target);
-				// set information
-				tpDistanceQuery.setDistanceLowerBound(distance[0]);
-				tpDistanceQuery.setDistanceUpperBound(distance[1]);
+				tpDistanceQuery.setDistanceLowerBound(this.getDistanceLowerBound(source, target));
+				tpDistanceQuery.setDistanceUpperBound(this.getDistanceUpperBound(source, target));
 			}
 			break;
 			
@@ -290,38 +543,83 @@ public final class APSPTemporalSolver extends TemporalSolver<TimePointQuery>
 	}
 	
 	/**
-	 * Returns distance lower and upper bounds of Time Point 
-	 * tp1 to Time Point tp2 
+	 * 
+	 */
+	@Override
+	public boolean setDistances(List<TimePoint> points, long[][] distance) 
+	{
+		// check if the points are all the points of the distance graph
+		if (points.size() != this.dg.getSlots().length) {
+			return false;
+		}
+		
+		for (TimePoint point : points) {
+			if (!this.dg.contains(point)) {
+				return false;
+			}
+		}
+		
+		// check size of the distance matrix
+		if (this.distance == null) {
+			this.distance = new DistanceMatrix(this.dg.getInfity());
+		}
+		this.distance.ensureCapacity(this.dg.capacity() - 1);
+		// set distances
+		for (int i = 0; i < points.size(); i++) {
+			for (int j = 0; j < points.size(); j++) {
+				this.distance.set(points.get(i).getId(), points.get(j).getId(), distance[i][j]);
+			}
+		}
+		
+		// contingent links must be checked against the new distances
+		this.contingents.invalidate();
+		// set propagation flag
+		this.toCompute = false;
+		return true;
+	}
+	
+	/**
+	 * Returns the lower bound of the distance from Time Point tp1 to 
+	 * Time Point tp2 without allocating memory
 	 * 
 	 * @param tp1
 	 * @param tp2
 	 * @return
 	 */
-	protected long[] getDistance(TimePoint tp1, TimePoint tp2) {
+	@Override
+	public long getDistanceLowerBound(TimePoint tp1, TimePoint tp2) {
 		
-		// compute minimal minimal network if needed
+		// compute minimal network if needed
 		if (this.toCompute) {
-			// clean distance matrix's data
 			this.computeDistanceMatrix();
 		}
 		
-		// default distance bounds - total uncertainty
-		long[] bounds = new long[] {
-				-this.tn.getHorizon(), 
-				this.tn.getHorizon()
-		};
+		// check if both time points exists - total uncertainty otherwise
+		return this.dg.contains(tp1) && this.dg.contains(tp2) ? 
+				-this.distance.get(tp2.getId(), tp1.getId()) : 
+				-this.tn.getHorizon();
+	}
+	
+	/**
+	 * Returns the upper bound of the distance from Time Point tp1 to 
+	 * Time Point tp2 without allocating memory
+	 * 
+	 * @param tp1
+	 * @param tp2
+	 * @return
+	 */
+	@Override
+	public long getDistanceUpperBound(TimePoint tp1, TimePoint tp2) {
 		
-		// check if both time points exists
-		if (this.distance.containsKey(tp1) && this.distance.get(tp1).containsKey(tp2)) {
-			// set bounds
-			bounds = new long[] {
-					-this.distance.get(tp2).get(tp1),		// lower bound
-					this.distance.get(tp1).get(tp2)			// upper bound
-				};
+		// compute minimal network if needed
+		if (this.toCompute) {
+			this.computeDistanceMatrix();
 		}
 		
-		// get bounds
-		return bounds;
+		// check if both time points exists - total uncertainty otherwise
+		return this.dg.contains(tp1) && this.dg.contains(tp2) ? 
+				this.distance.get(tp1.getId(), tp2.getId()) : 
+				this.tn.getHorizon();
 	}
 	
 	/**
@@ -329,57 +627,76 @@ public final class APSPTemporalSolver extends TemporalSolver<TimePointQuery>
 	 */
 	private void computeDistanceMatrix() {
 		
+		// get infinity
+		long infty = this.dg.getInfity();
+		// get the slots of the points
+		int[] slots = this.dg.getSlots();
 		// check size of the distance graph
-		this.distance = new HashMap<TimePoint, Map<TimePoint, Long>>();
-		// initialize distances to infinity
-		for (TimePoint i : this.dg.getPoints()) {
+		if (this.distance == null) {
+			this.distance = new DistanceMatrix(infty);
+		}
+		this.distance.ensureCapacity(this.dg.capacity() - 1);
+		
+		// check the size of the network
+		if (slots.length >= PARALLEL_THRESHOLD) 
+		{
+			// pack distances into a compact matrix
+			int n = slots.length;
+			long[] d = new long[n * n];
+			for (int a = 0; a < n; a++) {
+				for (int b = 0; b < n; b++) {
+					// set distance to 0, to the weight of the edge or to infinity
+					d[a * n + b] = a == b ? 0 : this.dg.getDistance(slots[a], slots[b]);
+				}
+			}
 			
-			// create data structure
-			this.distance.put(i, new HashMap<TimePoint, Long>());
-			for (TimePoint j : this.dg.getPoints()) {
-				
-				// check pairs of time points
-				if (i.equals(j)) {
-					// set distance to 0
-					this.distance.get(i).put(j, 0l);
-					
-				} else {
-					
-					// set distance to infinity
-					this.distance.get(i).put(j, this.dg.getInfity());
+			// compute minimum distances by processing the tiles of the matrix in parallel
+			BLOCKED_FW.compute(d, n, infty);
+			// set computed distances
+			for (int a = 0; a < n; a++) {
+				for (int b = 0; b < n; b++) {
+					this.distance.set(slots[a], slots[b], d[a * n + b]);
 				}
 			}
 		}
-		
-		// initialize distances using computed intersections from distance constraints
-		for (TimePoint point : this.dg.getPoints()) {
-			// get adjacent points
-			for (TimePoint adj : this.dg.getAdjacents(point)) {
-				
-				// get distance
-				long distance = this.dg.getDistance(point, adj);
-				// set distance
-				this.distance.get(point).put(adj, distance);
+		else 
+		{
+			// initialize distances using computed intersections from distance constraints
+			for (int i : slots) {
+				for (int j : slots) {
+					// set distance to 0, to the weight of the edge or to infinity
+					this.distance.set(i, j, i == j ? 0 : this.dg.getDistance(i, j));
+				}
 			}
-		}
-		
-		// compute minimum distance between two nodes passing through any k intermediate node
-		for (TimePoint k : this.dg.getPoints()) {
-			// compute shortest paths using intermediate points
-			for (TimePoint i : this.dg.getPoints()) {
-				for (TimePoint j : this.dg.getPoints()) {
+			
+			// compute minimum distance between two nodes passing through any k intermediate node
+			for (int k : slots) {
+				// compute shortest paths using intermediate points
+				for (int i : slots) {
+					
+					// get distance from i to k
+					long ik = this.distance.get(i, k);
+					// skip paths through unreachable points
+					if (ik >= infty) {
+						continue;
+					}
 					
-					// compute the path from i to j through k
-					long path = this.distance.get(i).get(k) + this.distance.get(k).get(j);
-					// compare computed distance with the direct path
-					if (this.distance.get(i).get(j) > path) {
-						// update distance
-						this.distance.get(i).put(j, path);
+					for (int j : slots) {
+						
+						// get distance from k to j
+						long kj = this.distance.get(k, j);
+						// compute the path from i to j through k
+						if (kj < infty && this.distance.get(i, j) > ik + kj) {
+							// update distance
+							this.distance.set(i, j, ik + kj);
+						}
 					}
 				}
 			}
 		}
 		
+		// contingent links must be checked against the new distances
+		this.contingents.invalidate();
 		// update propagation counter
 		this.propagationCounter++;
 		// set propagation flag
@@ -0,0 +1,171 @@
+package it.cnr.istc.pst.platinum.ai.framework.time.solver.apsp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Blocked (tiled) version of the Floyd-Warshall algorithm.
+ * 
+ * The distance matrix is a dense row-major long[] array which is split into square
+ * tiles. For each tile of the diagonal (phase) the algorithm updates the diagonal
+ * tile first, then the tiles of the same row and column and finally all the remaining
+ * tiles. Tiles updated within the same step of a phase are independent and are
+ * processed in parallel on a fork-join pool.
+ * 
+ * @author alessandro
+ *
+ */
+public class BlockedFloydWarshall
+{
+	public static final int DEFAULT_TILE_SIZE = 64;				// default number of rows (and columns) of a tile
+	
+	private int tile;												// size of the tiles
+	private ForkJoinPool pool;										// pool of workers
+	
+	/**
+	 * 
+	 * @param tile
+	 * @param pool
+	 */
+	public BlockedFloydWarshall(int tile, ForkJoinPool pool) {
+		this.tile = tile;
+		this.pool = pool;
+	}
+	
+	/**
+	 * Compute the shortest paths of the matrix. Entries greater than or equal
+	 * to infinity represent missing paths.
+	 * 
+	 * @param d
+	 * @param n
+	 * @param infty
+	 */
+	public void compute(long[] d, int n, long infty)
+	{
+		// number of tiles per row
+		int tiles = (n + this.tile - 1) / this.tile;
+		for (int kb = 0; kb < tiles; kb++)
+		{
+			// update the diagonal tile
+			update(d, n, infty, kb, kb, kb);
+			
+			// update the tiles of the row and of the column of the phase
+			List<ForkJoinTask<?>> tasks = new ArrayList<>();
+			for (int b = 0; b < tiles; b++) {
+				if (b != kb) {
+					tasks.add(this.task(d, n, infty, kb, b, kb));
+					tasks.add(this.task(d, n, infty, b, kb, kb));
+				}
+			}
+			this.invoke(tasks);
+			
+			// update the remaining tiles
+			tasks = new ArrayList<>();
+			for (int ib = 0; ib < tiles; ib++) {
+				for (int jb = 0; jb < tiles; jb++) {
+					if (ib != kb && jb != kb) {
+						tasks.add(this.task(d, n, infty, ib, jb, kb));
+					}
+				}
+			}
+			this.invoke(tasks);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param tasks
+	 */
+	private void invoke(final List<ForkJoinTask<?>> tasks)
+	{
+		// check tasks
+		if (!tasks.isEmpty())
+		{
+			// wait for the completion of all tasks
+			this.pool.invoke(new RecursiveAction() {
+				
+				private static final long serialVersionUID = 1L;
+				
+				/**
+				 * 
+				 */
+				@Override
+				protected void compute() {
+					invokeAll(tasks);
+				}
+			});
+		}
+	}
+	
+	/**
+	 * 
+	 * @param d
+	 * @param n
+	 * @param infty
+	 * @param ib
+	 * @param jb
+	 * @param kb
+	 * @return
+	 */
+	private ForkJoinTask<?> task(final long[] d, final int n, final long infty, final int ib, final int jb, final int kb)
+	{
+		// create task
+		return new RecursiveAction() {
+			
+			private static final long serialVersionUID = 1L;
+			
+			/**
+			 * 
+			 */
+			@Override
+			protected void compute() {
+				update(d, n, infty, ib, jb, kb);
+			}
+		};
+	}
+	
+	/**
+	 * Update the distances of tile (ib, jb) through the intermediate points of tile kb
+	 * 
+	 * @param d
+	 * @param n
+	 * @param infty
+	 * @param ib
+	 * @param jb
+	 * @param kb
+	 */
+	private void update(long[] d, int n, long infty, int ib, int jb, int kb)
+	{
+		// get the bounds of the tiles
+		int iEnd = Math.min(n, (ib + 1) * this.tile);
+		int jEnd = Math.min(n, (jb + 1) * this.tile);
+		int kEnd = Math.min(n, (kb + 1) * this.tile);
+		for (int k = kb * this.tile; k < kEnd; k++)
+		{
+			// compute shortest paths using intermediate point k
+			for (int i = ib * this.tile; i < iEnd; i++)
+			{
+				// get distance from i to k
+				long ik = d[i * n + k];
+				// skip paths through unreachable points
+				if (ik >= infty) {
+					continue;
+				}
+				
+				for (int j = jb * this.tile; j < jEnd; j++)
+				{
+					// get distance from k to j
+					long kj = d[k * n + j];
+					// compute the path from i to j through k
+					if (kj < infty && d[i * n + j] > ik + kj) {
+						// update distance
+						d[i * n + j] = ik + kj;
+					}
+				}
+			}
+		}
+	}
+}
@@ -1,29 +1,46 @@
 package it.cnr.istc.pst.platinum.ai.framework.time.solver.apsp;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePoint;
 
 /**
+ * The distance graph assigns a dense integer slot to each time point. The slot
+ * of a time point is its id which the temporal network keeps dense by reusing
+ * the ids of recycled time points. Edges are stored into a dense distance matrix
+ * together with the lists of outgoing and incoming edges of each slot.
  * 
  * @author alessandro
  *
  */
-public class DistanceGraph 
+public class DistanceGraph
 {
+	private static final long NO_EDGE = Long.MAX_VALUE;			// missing edge value
+	
 	private long infty;												// temporal horizon
-	private Map<Integer, TimePoint> nodes;							// list of points
-	private Map<TimePoint, Map<TimePoint, Long>> edges;				// list of weighted edges
+	private TimePoint[] nodes;										// points indexed by slot
+	private int size;												// number of points
+	private volatile int[] slots;									// cached slots of the points
+	private DistanceMatrix edges;									// weighted edges
+	private int[][] outgoing;										// outgoing edges of each slot
+	private int[] outDegree;										// number of outgoing edges of each slot
+	private int[][] incoming;										// incoming edges of each slot
+	private int[] inDegree;											// number of incoming edges of each slot
 	
 	/**
 	 * 
 	 */
 	protected DistanceGraph() {
-		this.nodes = new HashMap<>();
-		this.edges = new HashMap<>();
+		this.edges = new DistanceMatrix(NO_EDGE);
+		this.nodes = new TimePoint[this.edges.capacity()];
+		this.outgoing = new int[this.edges.capacity()][];
+		this.outDegree = new int[this.edges.capacity()];
+		this.incoming = new int[this.edges.capacity()][];
+		this.inDegree = new int[this.edges.capacity()];
+		this.size = 0;
+		this.slots = null;
 	}
 	
 	/**
@@ -47,7 +64,16 @@ public class DistanceGraph
 	 * @return
 	 */
 	public int size() {
-		return this.nodes.size();
+		return this.size;
+	}
+	
+	/**
+	 * Returns the number of slots currently available
+	 * 
+	 * @return
+	 */
+	public int capacity() {
+		return this.edges.capacity();
 	}
 	
 	/**
@@ -55,7 +81,58 @@ public class DistanceGraph
 	 * @return
 	 */
 	public List<TimePoint> getPoints() {
-		return new ArrayList<>(this.nodes.values());
+		// list of points
+		List<TimePoint> list = new ArrayList<>();
+		for (int slot : this.getSlots()) {
+			list.add(this.nodes[slot]);
+		}
+		
+		// get list
+		return list;
+	}
+	
+	/**
+	 * Returns the slots of the points of the graph in increasing order
+	 * 
+	 * @return
+	 */
+	public int[] getSlots() {
+		
+		// check cached slots
+		if (this.slots == null) {
+			
+			// collect slots before publishing them to concurrent readers
+			int[] slots = new int[this.size];
+			int index = 0;
+			for (int slot = 0; slot < this.nodes.length; slot++) {
+				if (this.nodes[slot] != null) {
+					slots[index++] = slot;
+				}
+			}
+			
+			this.slots = slots;
+		}
+		
+		// get slots
+		return this.slots;
+	}
+	
+	/**
+	 * 
+	 * @param slot
+	 * @return
+	 */
+	public TimePoint getPoint(int slot) {
+		return slot < this.nodes.length ? this.nodes[slot] : null;
+	}
+	
+	/**
+	 * 
+	 * @param point
+	 * @return
+	 */
+	public boolean contains(TimePoint point) {
+		return this.getPoint(point.getId()) != null;
 	}
 	
 	/**
@@ -67,22 +144,83 @@ public class DistanceGraph
 		
 		// list of adjacent time points
 		List<TimePoint> list = new ArrayList<>();
-		if (this.edges.containsKey(point)) {
+		if (this.contains(point)) {
 			// add adjacent time points
-			list.addAll(this.edges.get(point).keySet());
+			for (int i = 0; i < this.outDegree[point.getId()]; i++) {
+				list.add(this.nodes[this.outgoing[point.getId()][i]]);
+			}
 		}
 		
 		// get list
 		return list;
 	}
 	
+	/**
+	 * Returns the number of outgoing edges of a slot
+	 * 
+	 * @param slot
+	 * @return
+	 */
+	public int getOutDegree(int slot) {
+		return this.outDegree[slot];
+	}
+	
+	/**
+	 * Returns the target slot of the i-th outgoing edge of a slot
+	 * 
+	 * @param slot
+	 * @param i
+	 * @return
+	 */
+	public int getOutgoing(int slot, int i) {
+		return this.outgoing[slot][i];
+	}
+	
+	/**
+	 * Returns the number of incoming edges of a slot
+	 * 
+	 * @param slot
+	 * @return
+	 */
+	public int getInDegree(int slot) {
+		return this.inDegree[slot];
+	}
+	
+	/**
+	 * Returns the source slot of the i-th incoming edge of a slot
+	 * 
+	 * @param slot
+	 * @param i
+	 * @return
+	 */
+	public int getIncoming(int slot, int i) {
+		return this.incoming[slot][i];
+	}
+	
 	/**
 	 * 
 	 * @param point
 	 */
 	public void add(TimePoint point) {
-		this.nodes.put(point.getId(), point);
-		this.edges.put(point, new HashMap<TimePoint, Long>());
+		
+		// get the slot of the point
+		int slot = point.getId();
+		// check capacity
+		this.edges.ensureCapacity(slot);
+		if (this.nodes.length < this.edges.capacity()) {
+			this.nodes = Arrays.copyOf(this.nodes, this.edges.capacity());
+			this.outgoing = Arrays.copyOf(this.outgoing, this.edges.capacity());
+			this.outDegree = Arrays.copyOf(this.outDegree, this.edges.capacity());
+			this.incoming = Arrays.copyOf(this.incoming, this.edges.capacity());
+			this.inDegree = Arrays.copyOf(this.inDegree, this.edges.capacity());
+		}
+		
+		// clear edges of the slot
+		this.delete(point);
+		// set point
+		this.nodes[slot] = point;
+		this.size++;
+		this.slots = null;
 	}
 	
 	/**
@@ -92,30 +230,50 @@ public class DistanceGraph
 	 * @param weight
 	 */
 	public void add(TimePoint source, TimePoint target, long weight) {
-		// check graph
-		if (!this.edges.containsKey(source)) {
-			this.edges.put(source, new HashMap<TimePoint, Long>());
+		// check if the edge is new
+		if (this.edges.get(source.getId(), target.getId()) == NO_EDGE) {
+			// update adjacency lists
+			this.outgoing[source.getId()] = append(this.outgoing[source.getId()], this.outDegree[source.getId()]++, target.getId());
+			this.incoming[target.getId()] = append(this.incoming[target.getId()], this.inDegree[target.getId()]++, source.getId());
 		}
 		
 		// update distance
-		this.edges.get(source).put(target, weight);
+		this.edges.set(source.getId(), target.getId(), weight);
 	}
 	
 	/**
-	 * Delete the time point from the distance graph and all 
+	 * Delete the time point from the distance graph and all
 	 * the related edges
 	 * 
 	 * @param point
 	 */
 	public void delete(TimePoint point) {
-		// remove from points
-		this.nodes.remove(point.getId());
-		// remove outgoing edges
-		this.edges.remove(point);
-		// remove incoming edges
-		for (TimePoint i : this.nodes.values()) {
-			// remove edges that involve the node just deleted
-			this.edges.get(i).remove(point);
+		
+		// check point
+		if (this.contains(point)) {
+			
+			// get the slot
+			int slot = point.getId();
+			// remove outgoing edges from the incoming lists of the targets
+			for (int i = 0; i < this.outDegree[slot]; i++) {
+				int target = this.outgoing[slot][i];
+				this.inDegree[target] = remove(this.incoming[target], this.inDegree[target], slot);
+			}
+			
+			// remove incoming edges from the outgoing lists of the sources
+			for (int i = 0; i < this.inDegree[slot]; i++) {
+				int source = this.incoming[slot][i];
+				this.outDegree[source] = remove(this.outgoing[source], this.outDegree[source], slot);
+			}
+			
+			// free the slot
+			this.nodes[slot] = null;
+			this.outDegree[slot] = 0;
+			this.inDegree[slot] = 0;
+			this.size--;
+			this.slots = null;
+			// remove incoming and outgoing edges
+			this.edges.reset(slot);
 		}
 	}
 	
@@ -127,8 +285,14 @@ public class DistanceGraph
 	 */
 	public void delete(TimePoint source, TimePoint target) {
 		// remove edge
-		if (this.edges.containsKey(source)) {
-			this.edges.get(source).remove(target);
+		if (this.contains(source) && this.contains(target) && 
+				this.edges.get(source.getId(), target.getId()) != NO_EDGE) {
+			
+			// update adjacency lists
+			this.outDegree[source.getId()] = remove(this.outgoing[source.getId()], this.outDegree[source.getId()], target.getId());
+			this.inDegree[target.getId()] = remove(this.incoming[target.getId()], this.inDegree[target.getId()], source.getId());
+			// update distance
+			this.edges.set(source.getId(), target.getId(), NO_EDGE);
 		}
 	}
 	
@@ -143,14 +307,29 @@ public class DistanceGraph
 		// initialize to infinity
 		long distance = this.infty;
 		// check if an edge exists
-		if (this.edges.containsKey(source) && this.edges.get(source).containsKey(target)) {
+		if (this.contains(source) && this.contains(target)) {
 			// get distance
-			distance = this.edges.get(source).get(target);
+			long weight = this.edges.get(source.getId(), target.getId());
+			distance = weight != NO_EDGE ? weight : distance;
 		}
 		// return distance
 		return distance;
 	}
 	
+	/**
+	 * Returns the weight of the edge between two slots or infinity
+	 * if no edge exists
+	 * 
+	 * @param source
+	 * @param target
+	 * @return
+	 */
+	public long getDistance(int source, int target) {
+		// get weight
+		long weight = this.edges.get(source, target);
+		return weight != NO_EDGE ? weight : this.infty;
+	}
+	
 	/**
 	 * 
 	 */
@@ -159,20 +338,64 @@ public class DistanceGraph
 		// print the distance graph
 		String string = "{\n";
 		
-		for (TimePoint reference : this.edges.keySet()) {
-			string += "\tpoint: " + reference.getId() + ",\n"
+		for (int reference : this.getSlots()) {
+			string += "\tpoint: " + reference + ",\n"
 					+ "\tedges: [\n";
-
-			for (TimePoint target : this.edges.get(reference).keySet()) {
-				string += "\t\t{ point: " + target.getId() +", distance: " + this.edges.get(reference).get(target) + "},\n";
+			
+			for (int i = 0; i < this.outDegree[reference]; i++) {
+				int target = this.outgoing[reference][i];
+				string += "\t\t{ point: " + target +", distance: " + this.edges.get(reference, target) + "},\n";
 			}
 			
 			string += "\t]\n";
-			
+		
 		}
 		
 		string += "}\n";
 		return string;
 	}
 	
+	/**
+	 * Set an element of an adjacency list, growing the list if needed
+	 * 
+	 * @param list
+	 * @param index
+	 * @param slot
+	 * @return
+	 */
+	private static int[] append(int[] list, int index, int slot) {
+		// check list
+		int[] update = list == null ? new int[4] : list;
+		if (index >= update.length) {
+			update = Arrays.copyOf(update, update.length * 2);
+		}
+		
+		// set element
+		update[index] = slot;
+		return update;
+	}
+	
+	/**
+	 * Remove an element from an adjacency list by replacing it with the last element
+	 * of the list. The method returns the updated size of the list
+	 * 
+	 * @param list
+	 * @param size
+	 * @param slot
+	 * @return
+	 */
+	private static int remove(int[] list, int size, int slot) {
+		// look for the element
+		for (int i = 0; i < size; i++) {
+			if (list[i] == slot) {
+				// replace with the last element
+				list[i] = list[size - 1];
+				return size - 1;
+			}
+		}
+		
+		// element not found
+		return size;
+	}
+
 }
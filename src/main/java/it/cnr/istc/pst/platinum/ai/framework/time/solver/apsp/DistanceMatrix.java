@@ -0,0 +1,114 @@
+package it.cnr.istc.pst.platinum.ai.framework.time.solver.apsp;
+
+import java.util.Arrays;
+
+/**
+ * Dense square matrix of primitive distances.
+ * 
+ * Values are stored into a flat row-major long[] array whose size grows
+ * by doubling. Rows and columns are addressed through the integer slots
+ * assigned to time points.
+ * 
+ * @author alessandro
+ *
+ */
+public class DistanceMatrix
+{
+	private static final int DEFAULT_CAPACITY = 16;
+	
+	private long[] data;							// row-major data
+	private int capacity;							// number of rows (and columns) of the matrix
+	private long value;								// default value of new entries
+	
+	/**
+	 * 
+	 * @param value
+	 */
+	public DistanceMatrix(long value) {
+		this.value = value;
+		this.capacity = DEFAULT_CAPACITY;
+		this.data = new long[this.capacity * this.capacity];
+		// initialize entries
+		Arrays.fill(this.data, value);
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public int capacity() {
+		return this.capacity;
+	}
+	
+	/**
+	 * Make sure the matrix contains the row and the column of the slot. The
+	 * capacity of the matrix is doubled until the slot fits into it
+	 * 
+	 * @param slot
+	 */
+	public void ensureCapacity(int slot) {
+		
+		// check current capacity
+		if (slot >= this.capacity) {
+			
+			// compute the new capacity
+			int size = this.capacity;
+			while (slot >= size) {
+				size *= 2;
+			}
+			
+			// create the new data structure
+			long[] update = new long[size * size];
+			Arrays.fill(update, this.value);
+			// copy rows
+			for (int i = 0; i < this.capacity; i++) {
+				System.arraycopy(this.data, i * this.capacity, update, i * size, this.capacity);
+			}
+			
+			// set data
+			this.data = update;
+			this.capacity = size;
+		}
+	}
+	
+	/**
+	 * 
+	 * @param i
+	 * @param j
+	 * @return
+	 */
+	public long get(int i, int j) {
+		return this.data[i * this.capacity + j];
+	}
+	
+	/**
+	 * 
+	 * @param i
+	 * @param j
+	 * @param value
+	 */
+	public void set(int i, int j, long value) {
+		this.data[i * this.capacity + j] = value;
+	}
+	
+	/**
+	 * Reset the row and the column of the slot to the default value
+	 * 
+	 * @param slot
+	 */
+	public void reset(int slot) {
+		// reset row
+		Arrays.fill(this.data, slot * this.capacity, (slot + 1) * this.capacity, this.value);
+		// reset column
+		for (int i = 0; i < this.capacity; i++) {
+			this.data[i * this.capacity + slot] = this.value;
+		}
+	}
+	
+	/**
+	 * Reset all entries of the matrix to the default value
+	 */
+	public void clear() {
+		Arrays.fill(this.data, this.value);
+	}
+}
@@ -0,0 +1,894 @@
+package it.cnr.istc.pst.platinum.ai.framework.time.solver.apsp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import it.cnr.istc.pst.platinum.ai.framework.time.solver.TemporalSolver;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TemporalNetwork;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePoint;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePointDistanceConstraint;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.event.AddRelationTemporalNetworkNotification;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.event.AddTimePointTemporalNetworkNotification;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.event.DelRelationTemporalNetworkNotification;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.event.DelTimePointTemporalNetworkNotification;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.event.TemporalNetworkNotification;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.query.TimePointDistanceQuery;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.query.TimePointDistanceToHorizonQuery;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.query.TimePointQuery;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.query.TimePointScheduleQuery;
+
+/**
+ * Incremental All-Pair-Shortest-Path solver.
+ * 
+ * The solver keeps the distance matrix always up to date by applying incremental full
+ * path consistency when a distance graph edge is tightened, i.e. only the distances
+ * actually affected by the new edge are updated (O(n^2) in the worst case). A complete
+ * Floyd-Warshall propagation is lazily done only when an edge is relaxed or removed
+ * from the network.
+ * 
+ * The solver records on a trail the previous values of the entries changed by added
+ * time points and constraints. Each addition opens a frame of the trail. Time points
+ * and constraints removed in reverse order of addition (e.g. when backtracking) are
+ * undone by restoring the entries of the related frames, without any propagation.
+ * 
+ * @author alessandro
+ *
+ */
+public final class IncrementalAPSPTemporalSolver extends TemporalSolver<TimePointQuery>
+{
+	private DistanceGraph dg;									// distance graph
+	private DistanceMatrix distance;							// the distance matrix containing the minimum distances between points
+	private boolean toCompute;									// full propagation needed after edge relaxation or deletion
+	private boolean consistent;									// consistency flag maintained by incremental updates
+	private int propagationCounter;								// number of full propagations
+	private int updateCounter;									// number of incremental updates
+	private int restoreCounter;									// number of frames restored from the trail
+	
+	private static final int TRAIL_LIMIT = 1 << 20;				// maximum number of trail entries
+	private List<TrailFrame> frames;							// stack of frames of the trail
+	private int[] trailRow;										// trail of changed entries
+	private int[] trailColumn;
+	private long[] trailValue;
+	private boolean[] trailEdge;								// distance graph's edge or distance matrix's entry
+	private int trailSize;
+	private boolean trailing;									// record changes on the trail
+	
+	/**
+	 * Create an Incremental All-Pair-Shortest-Path Solver instance.
+	 * 
+	 * @param tn
+	 */
+	public IncrementalAPSPTemporalSolver(TemporalNetwork tn) {
+		super(tn);
+		
+		// attributes for testing purposes
+		this.propagationCounter = 0;
+		this.updateCounter = 0;
+		this.restoreCounter = 0;
+		// initialize trail
+		this.frames = new ArrayList<>();
+		this.trailRow = new int[64];
+		this.trailColumn = new int[64];
+		this.trailValue = new long[64];
+		this.trailEdge = new boolean[64];
+		this.trailSize = 0;
+		this.trailing = false;
+		// initialize
+		this.dg();
+		// initialize APSP data structure
+		this.distance = new DistanceMatrix(this.dg.getInfity());
+		// set flags
+		this.consistent = true;
+		this.toCompute = true;
+	}
+	
+	/**
+	 * 
+	 */
+	private void dg() {
+		
+		// create the distance graph
+		this.dg = new DistanceGraph();
+		// set temporal horizon
+		this.dg.setInfity(this.tn.getHorizon());
+		
+		// add all points to the distance graph
+		for (TimePoint point : this.tn.getTimePoints()) {
+			// add node to the distance graph
+			this.dg.add(point);
+		}
+		
+		// add edges between points
+		for (TimePoint reference : this.tn.getTimePoints()) {
+			for (TimePoint target : this.tn.getTimePoints()) {
+				
+				// get the weight of the edge
+				long weight = this.weight(reference, target);
+				// check if an edge exists
+				if (!reference.equals(target) && weight < this.dg.getInfity()) {
+					// set distance graph's edge
+					this.dg.add(reference, target, weight);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Compute the weight of the edge (source, target) of the distance graph by taking into 
+	 * account the constraints of the network in both directions. The method returns infinity 
+	 * if no constraint exists between the two time points
+	 * 
+	 * @param source
+	 * @param target
+	 * @return
+	 */
+	private long weight(TimePoint source, TimePoint target) {
+		
+		// initialize to infinity
+		long weight = this.dg.getInfity();
+		// check constraints from source to target
+		long[] bounds = this.tn.getConstraintBounds(source, target);
+		if (bounds != null) {
+			// upper bound of the distance
+			weight = Math.min(weight, bounds[1]);
+		}
+		
+		// check constraints from target to source
+		bounds = this.tn.getConstraintBounds(target, source);
+		if (bounds != null) {
+			// lower bound of the inverse distance
+			weight = Math.min(weight, -bounds[0]);
+		}
+		
+		// get weight
+		return weight;
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public boolean isValid() {
+		
+		// check information status
+		if (this.toCompute) {
+			// compute distance matrix
+			this.computeDistanceMatrix();
+		}
+		
+		// get consistency flag
+		return this.consistent;
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public boolean isPrepared() {
+		return !this.toCompute;
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public void prepare() {
+		// check information status
+		if (this.toCompute) {
+			this.computeDistanceMatrix();
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public void notify(TemporalNetworkNotification info)
+	{
+		// check notification type
+		switch (info.getType())
+		{
+			case INITIALIZATION : {
+				
+				// rebuild the distance graph
+				this.dg();
+				// set to propagate flag
+				this.invalidate();
+			}
+			break;
+			
+			case ADD_TP : {
+				
+				// get data
+				AddTimePointTemporalNetworkNotification notify = (AddTimePointTemporalNetworkNotification) info;
+				// points may be notified more than once (e.g. multiple time point creation)
+				List<TimePoint> points = new ArrayList<>();
+				for (TimePoint point : notify.getPoints()) {
+					if (!this.dg.contains(point)) {
+						points.add(point);
+					}
+				}
+				
+				// check added time points
+				if (!points.isEmpty()) {
+					
+					// open a frame of the trail
+					this.open(points, null);
+					for (TimePoint point : points) {
+						// add the time point and its edges
+						this.doAddTimePoint(point);
+					}
+					
+					// close the frame
+					this.trailing = false;
+				}
+			}
+			break;
+			
+			case DEL_TP : {
+				
+				// get data
+				DelTimePointTemporalNetworkNotification notify = (DelTimePointTemporalNetworkNotification) info;
+				// check if the time points can be removed by restoring the trail
+				int index = this.match(notify.getPoints());
+				if (index >= 0) {
+					
+					// restore frames
+					while (this.frames.size() > index) {
+						this.restore();
+					}
+				
+				} else {
+					
+					// check deleted time points
+					for (TimePoint point : notify.getPoints()) {
+						// remove the time point and all related edges from the distance graph
+						this.dg.delete(point);
+					}
+					
+					// paths through deleted points are no longer valid
+					this.invalidate();
+				}
+			}
+			break;
+			
+			case ADD_REL : {
+				
+				// get data
+				AddRelationTemporalNetworkNotification notify = (AddRelationTemporalNetworkNotification) info;
+				// open a frame of the trail
+				this.open(null, notify.getRels());
+				// check constraints and update distance graph
+				for (TimePointDistanceConstraint constraint : notify.getRels()) {
+					// update distance bounds
+					this.update(constraint.getReference(), constraint.getTarget());
+					this.update(constraint.getTarget(), constraint.getReference());
+				}
+				
+				// close the frame
+				this.trailing = false;
+			}
+			break;
+			
+			case DEL_REL : {
+				
+				// get data
+				DelRelationTemporalNetworkNotification notify = (DelRelationTemporalNetworkNotification) info;
+				// check if the constraints have been added by the last frame of the trail
+				TrailFrame frame = this.frames.isEmpty() ? null : this.frames.get(this.frames.size() - 1);
+				if (frame != null && !frame.isTimePointFrame() &&
+						new HashSet<>(frame.getRels()).equals(new HashSet<>(notify.getRels()))) {
+					// restore the frame
+					this.restore();
+				}
+				
+				// check constraints and updated distance graph
+				for (TimePointDistanceConstraint constraint : notify.getRels()) {
+					// update distance bounds
+					this.update(constraint.getReference(), constraint.getTarget());
+					this.update(constraint.getTarget(), constraint.getReference());
+				}
+			}
+			break;
+		}
+	}
+	
+	/**
+	 * Open a new frame of the trail. No frame is opened if a complete
+	 * propagation is pending
+	 * 
+	 * @param points
+	 * @param rels
+	 */
+	private void open(List<TimePoint> points, List<TimePointDistanceConstraint> rels) {
+		
+		// check pending propagation
+		if (!this.toCompute) {
+			
+			// check the size of the trail
+			if (this.trailSize > TRAIL_LIMIT || this.frames.size() > TRAIL_LIMIT) {
+				// drop the trail
+				this.frames.clear();
+				this.trailSize = 0;
+			}
+			
+			// add frame
+			this.frames.add(new TrailFrame(points, rels, this.trailSize, this.consistent));
+			this.trailing = true;
+		}
+	}
+	
+	/**
+	 * Record the previous value of an entry on the trail
+	 * 
+	 * @param row
+	 * @param column
+	 * @param value
+	 * @param edge
+	 */
+	private void record(int row, int column, long value, boolean edge) {
+		
+		// check trailing flag
+		if (this.trailing) {
+			
+			// check capacity
+			if (this.trailSize == this.trailRow.length) {
+				this.trailRow = Arrays.copyOf(this.trailRow, this.trailSize * 2);
+				this.trailColumn = Arrays.copyOf(this.trailColumn, this.trailSize * 2);
+				this.trailValue = Arrays.copyOf(this.trailValue, this.trailSize * 2);
+				this.trailEdge = Arrays.copyOf(this.trailEdge, this.trailSize * 2);
+			}
+			
+			// add entry
+			this.trailRow[this.trailSize] = row;
+			this.trailColumn[this.trailSize] = column;
+			this.trailValue[this.trailSize] = value;
+			this.trailEdge[this.trailSize] = edge;
+			this.trailSize++;
+		}
+	}
+	
+	/**
+	 * Find the frames of the trail that have added the given time points. Constraints
+	 * added after the time points must concern the time points, since they are removed
+	 * together with the time points. The method returns the index of the first frame to
+	 * restore or -1 if the time points cannot be removed by restoring the trail
+	 * 
+	 * @param points
+	 * @return
+	 */
+	private int match(List<TimePoint> points) {
+		
+		// time points to find
+		Set<TimePoint> remaining = new HashSet<>(points);
+		int index = this.frames.size() - 1;
+		while (index >= 0 && !remaining.isEmpty()) {
+			
+			// get frame
+			TrailFrame frame = this.frames.get(index);
+			if (frame.isTimePointFrame()) {
+				
+				// check added time points
+				if (!remaining.containsAll(frame.getPoints())) {
+					return -1;
+				}
+				
+				// time points found
+				remaining.removeAll(frame.getPoints());
+			
+			} else {
+				
+				// check added constraints
+				for (TimePointDistanceConstraint rel : frame.getRels()) {
+					// the constraint must have been removed together with the time points
+					if (!points.contains(rel.getReference()) && !points.contains(rel.getTarget())) {
+						return -1;
+					}
+				}
+			}
+			
+			// next frame
+			index--;
+		}
+		
+		// get the index of the first frame to restore
+		return remaining.isEmpty() ? index + 1 : -1;
+	}
+	
+	/**
+	 * Restore the entries of the last frame of the trail
+	 */
+	private void restore() {
+		
+		// remove frame
+		TrailFrame frame = this.frames.remove(this.frames.size() - 1);
+		// restore entries in reverse order
+		while (this.trailSize > frame.getMark()) {
+			
+			// get entry
+			this.trailSize--;
+			int row = this.trailRow[this.trailSize];
+			int column = this.trailColumn[this.trailSize];
+			long value = this.trailValue[this.trailSize];
+			if (this.trailEdge[this.trailSize]) {
+				
+				// restore distance graph's edge
+				if (value >= this.dg.getInfity()) {
+					this.dg.delete(this.dg.getPoint(row), this.dg.getPoint(column));
+				} else {
+					this.dg.add(this.dg.getPoint(row), this.dg.getPoint(column), value);
+				}
+			
+			} else {
+				
+				// restore distance
+				this.distance.set(row, column, value);
+				this.contingents.update(row, column, value);
+			}
+		}
+		
+		// check added time points
+		if (frame.isTimePointFrame()) {
+			for (TimePoint point : frame.getPoints()) {
+				// remove time point from the distance graph
+				this.dg.delete(point);
+			}
+		}
+		
+		// restore consistency flag
+		this.consistent = frame.isConsistent();
+		this.restoreCounter++;
+	}
+	
+	/**
+	 * Schedule a complete propagation. The trail is cleared since
+	 * its entries are no longer valid
+	 */
+	private void invalidate() {
+		this.toCompute = true;
+		this.frames.clear();
+		this.trailSize = 0;
+		this.trailing = false;
+	}
+	
+	/**
+	 * Add a time point to the distance graph and extend the distance matrix
+	 * with the related row and column. Edges concerning the new time point
+	 * are then incrementally propagated
+	 * 
+	 * @param point
+	 */
+	private void doAddTimePoint(TimePoint point) {
+		
+		// add node to the distance graph
+		this.dg.add(point);
+		// set the row and the column of the distance matrix to infinity
+		this.distance.ensureCapacity(point.getId());
+		this.distance.reset(point.getId());
+		// set distance to 0
+		this.distance.set(point.getId(), point.getId(), 0);
+		
+		// check edges concerning the new time point
+		for (TimePoint other : this.dg.getPoints()) {
+			
+			// check if different
+			if (!other.equals(point)) {
+				
+				// update distance bounds
+				this.update(point, other);
+				this.update(other, point);
+			}
+		}
+	}
+	
+	/**
+	 * Update the weight of an edge of the distance graph according to the constraints 
+	 * of the network and propagate the change.
+	 * 
+	 * Tightened edges are incrementally propagated while relaxed or removed edges require
+	 * a complete propagation of the distance matrix
+	 * 
+	 * @param source
+	 * @param target
+	 */
+	private void update(TimePoint source, TimePoint target) {
+		
+		// get current weight of the edge
+		long current = this.dg.getDistance(source, target);
+		// compute the updated weight of the edge
+		long weight = this.weight(source, target);
+		// check edge change
+		if (weight >= this.dg.getInfity()) {
+			
+			// check if the edge exists
+			if (current < this.dg.getInfity()) {
+				
+				// remove the edge from the distance graph
+				this.record(source.getId(), target.getId(), current, true);
+				this.dg.delete(source, target);
+				// edge removal requires complete propagation
+				this.invalidate();
+			}
+		
+		} else if (weight != current) {
+			
+			// update the distance graph
+			this.record(source.getId(), target.getId(), current, true);
+			this.dg.add(source, target, weight);
+			// check edge change
+			if (weight > current) {
+				
+				// edge relaxation requires complete propagation
+				this.invalidate();
+			
+			} else if (weight < current && !this.toCompute && this.consistent) {
+				
+				// incrementally propagate tightened edge
+				this.propagate(source, target, weight);
+			}
+		}
+	}
+	
+	/**
+	 * Incremental full path consistency.
+	 * 
+	 * Given a tightened edge (u,v) with weight w, the distance (i,j) changes only if
+	 * d(i,u) + w + d(v,j) < d(i,j). Thus, the update is restricted to points i
+	 * such that d(i,u) + w < d(i,v) and to points j such that w + d(v,j) < d(u,j).
+	 * 
+	 * @param u
+	 * @param v
+	 * @param w
+	 */
+	private void propagate(TimePoint u, TimePoint v, long w) {
+		
+		// get slots
+		int us = u.getId();
+		int vs = v.getId();
+		// check if the new edge actually tightens the current distance
+		if (w >= this.distance.get(us, vs)) {
+			return;
+		}
+		
+		// check negative cycles
+		if (w + this.distance.get(vs, us) < 0) {
+			// the network is not consistent
+			this.consistent = false;
+			return;
+		}
+		
+		// get infinity
+		long infty = this.dg.getInfity();
+		// get the slots of the points
+		int[] slots = this.dg.getSlots();
+		// get points whose distance to v can be shortened through the edge
+		int[] sources = new int[slots.length];
+		int sourceCount = 0;
+		// get points whose distance from u can be shortened through the edge
+		int[] targets = new int[slots.length];
+		int targetCount = 0;
+		for (int p : slots) {
+			
+			// distance from p to u
+			long pu = this.distance.get(p, us);
+			if (pu < infty && pu + w < this.distance.get(p, vs)) {
+				sources[sourceCount++] = p;
+			}
+			
+			// distance from v to p
+			long vp = this.distance.get(vs, p);
+			if (vp < infty && w + vp < this.distance.get(us, p)) {
+				targets[targetCount++] = p;
+			}
+		}
+		
+		// update affected distances
+		for (int s = 0; s < sourceCount; s++) {
+			
+			// get path to the tightened edge
+			int i = sources[s];
+			long iu = this.distance.get(i, us) + w;
+			for (int t = 0; t < targetCount; t++) {
+				
+				// compute the path from i to j through the edge
+				int j = targets[t];
+				long path = iu + this.distance.get(vs, j);
+				// compare computed distance with the current one
+				if (path < this.distance.get(i, j)) {
+					// update distance
+					this.record(i, j, this.distance.get(i, j), false);
+					this.distance.set(i, j, path);
+					this.contingents.update(i, j, path);
+				}
+			}
+		}
+		
+		// update incremental propagation counter
+		this.updateCounter++;
+	}
+	
+	/**
+	 * The solver restores the frames of its trail
+	 */
+	@Override
+	public boolean isRestorable() {
+		return true;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public DistanceGraph getDistanceGraph() {
+		// get the distance graph
+		return this.dg;
+	}
+	
+	/**
+	 * Returns the number of complete temporal propagations actually done
+	 * Only for testing purposes
+	 * 
+	 * @return
+	 */
+	public int getPropagationCounter() {
+		return propagationCounter;
+	}
+	
+	/**
+	 * Returns the number of incremental updates actually done
+	 * Only for testing purposes
+	 * 
+	 * @return
+	 */
+	public int getUpdateCounter() {
+		return updateCounter;
+	}
+	
+	/**
+	 * Returns the number of frames restored from the trail
+	 * Only for testing purposes
+	 * 
+	 * @return
+	 */
+	public int getRestoreCounter() {
+		return restoreCounter;
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public void process(TimePointQuery query) {
+		
+		// check query type
+		switch (query.getType()) {
+			
+			// handle time point bound query
+			case TP_SCHEDULE : {
+				
+				// get query
+				TimePointScheduleQuery tpBoundQuery = (TimePointScheduleQuery) query;
+				// get time point
+				TimePoint point = tpBoundQuery.getTimePoint();
+				// get distance between the origin and the time point
+				point.setLowerBound(this.getDistanceLowerBound(this.tn.getOriginTimePoint(), point));
+				point.setUpperBound(this.getDistanceUpperBound(this.tn.getOriginTimePoint(), point));
+			}
+			break;
+			
+			// handle time point distance query
+			case TP_DISTANCE : {
+				
+				// get query
+				TimePointDistanceQuery tpDistanceQuery = (TimePointDistanceQuery) query;
+				// get distance between points
+				tpDistanceQuery.setDistanceLowerBound(this.getDistanceLowerBound(tpDistanceQuery.getSource(), tpDistanceQuery.getTarget()));
+				tpDistanceQuery.setDistanceUpperBound(this.getDistanceUpperBound(tpDistanceQuery.getSource(), tpDistanceQuery.getTarget()));
+			}
+			break;
+			
+			// handle time point distance to horizon query
+			case TP_DISTANCE_TO_HORIZON : {
+				
+				// get query
+				TimePointDistanceToHorizonQuery tpDistanceQuery = (TimePointDistanceToHorizonQuery) query;
+				// get distance to horizon
+				long[] distance = this.getDistance(tpDistanceQuery.getTimePoint(), this.tn.getHorizonTimePoint());
+				// set information
+				tpDistanceQuery.setDistance(distance);
+			}
+			break;
+			
+			default : {
+				
+				// not a time point query
+				throw new RuntimeException("Impossible to process this type of temporal query " + query.getType());
+			}
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public boolean setDistances(List<TimePoint> points, long[][] distance) 
+	{
+		// check if the points are all the points of the distance graph
+		if (points.size() != this.dg.getSlots().length) {
+			return false;
+		}
+		
+		for (TimePoint point : points) {
+			if (!this.dg.contains(point)) {
+				return false;
+			}
+		}
+		
+		// set distances
+		this.distance.ensureCapacity(this.dg.capacity() - 1);
+		this.consistent = true;
+		for (int i = 0; i < points.size(); i++) {
+			for (int j = 0; j < points.size(); j++) {
+				this.distance.set(points.get(i).getId(), points.get(j).getId(), distance[i][j]);
+			}
+			
+			// check cycle distance
+			this.consistent = this.consistent && distance[i][i] == 0;
+		}
+		
+		// the trail is no longer valid
+		this.invalidate();
+		// contingent links must be checked against the new distances
+		this.contingents.invalidate();
+		// set propagation flag
+		this.toCompute = false;
+		return true;
+	}
+	
+	/**
+	 * Returns the lower bound of the distance from Time Point tp1 to 
+	 * Time Point tp2 without allocating memory
+	 * 
+	 * @param tp1
+	 * @param tp2
+	 * @return
+	 */
+	@Override
+	public long getDistanceLowerBound(TimePoint tp1, TimePoint tp2) {
+		
+		// compute minimal network if needed
+		if (this.toCompute) {
+			this.computeDistanceMatrix();
+		}
+		
+		// check if both time points exists - total uncertainty otherwise
+		return this.dg.contains(tp1) && this.dg.contains(tp2) ? 
+				-this.distance.get(tp2.getId(), tp1.getId()) : 
+				-this.tn.getHorizon();
+	}
+	
+	/**
+	 * Returns the upper bound of the distance from Time Point tp1 to 
+	 * Time Point tp2 without allocating memory
+	 * 
+	 * @param tp1
+	 * @param tp2
+	 * @return
+	 */
+	@Override
+	public long getDistanceUpperBound(TimePoint tp1, TimePoint tp2) {
+		
+		// compute minimal network if needed
+		if (this.toCompute) {
+			this.computeDistanceMatrix();
+		}
+		
+		// check if both time points exists - total uncertainty otherwise
+		return this.dg.contains(tp1) && this.dg.contains(tp2) ? 
+				this.distance.get(tp1.getId(), tp2.getId()) : 
+				this.tn.getHorizon();
+	}
+	
+	/**
+	 * Complete propagation of the distance matrix through the Floyd-Warshall algorithm
+	 */
+	private void computeDistanceMatrix() {
+		
+		// get infinity
+		long infty = this.dg.getInfity();
+		// get the slots of the points
+		int[] slots = this.dg.getSlots();
+		// check size of the distance matrix
+		this.distance.ensureCapacity(this.dg.capacity() - 1);
+		
+		// initialize distances using computed intersections from distance constraints
+		for (int i : slots) {
+			for (int j : slots) {
+				// set distance to 0, to the weight of the edge or to infinity
+				this.distance.set(i, j, i == j ? 0 : this.dg.getDistance(i, j));
+			}
+		}
+		
+		// compute minimum distance between two nodes passing through any k intermediate node
+		for (int k : slots) {
+			// compute shortest paths using intermediate points
+			for (int i : slots) {
+				
+				// get distance from i to k
+				long ik = this.distance.get(i, k);
+				// skip paths through unreachable points
+				if (ik >= infty) {
+					continue;
+				}
+				
+				for (int j : slots) {
+					
+					// get distance from k to j
+					long kj = this.distance.get(k, j);
+					// compute the path from i to j through k
+					if (kj < infty && this.distance.get(i, j) > ik + kj) {
+						// update distance
+						this.distance.set(i, j, ik + kj);
+					}
+				}
+			}
+		}
+		
+		// check negative cycles
+		this.consistent = true;
+		for (int i = 0; i < slots.length && this.consistent; i++) {
+			// check cycle distance
+			this.consistent = this.distance.get(slots[i], slots[i]) == 0;
+		}
+		
+		// contingent links must be checked against the new distances
+		this.contingents.invalidate();
+		// update propagation counter
+		this.propagationCounter++;
+		// set propagation flag
+		this.toCompute = false;
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public String toString() {
+		
+		// check distance matrix
+		if (this.toCompute) {
+			this.computeDistanceMatrix();
+		}
+		
+		// print distance matrix
+		String matrix = "Distance matrix (Computed using Incremental Full Path Consistency)\n";
+		for (int i : this.dg.getSlots()) {
+			for (int j : this.dg.getSlots()) {
+				matrix += "\t" + this.distance.get(i, j);
+			}
+			matrix += "\n";
+		}
+		
+		// get description of the distance matrix
+		return matrix;
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public void printDiagnosticData() {
+		// compute if temporal data
+		if (this.toCompute) {
+			this.computeDistanceMatrix();
+		}
+		
+		System.out.println("Distance Graph:\n"
+				+ "" + this.dg + "\n\n"
+				+ "Distance matrix:\n"
+				+ "" + this + "\n");
+	}
+}
@@ -0,0 +1,680 @@
+package it.cnr.istc.pst.platinum.ai.framework.time.solver.apsp;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.PriorityQueue;
+
+import it.cnr.istc.pst.platinum.ai.framework.time.solver.TemporalSolver;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TemporalNetwork;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePoint;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePointDistanceConstraint;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.event.AddRelationTemporalNetworkNotification;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.event.AddTimePointTemporalNetworkNotification;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.event.DelRelationTemporalNetworkNotification;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.event.DelTimePointTemporalNetworkNotification;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.event.TemporalNetworkNotification;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.query.TimePointDistanceQuery;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.query.TimePointDistanceToHorizonQuery;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.query.TimePointQuery;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.query.TimePointScheduleQuery;
+
+/**
+ * Lazy shortest path solver based on Johnson's algorithm.
+ * 
+ * The solver maintains a potential function of the distance graph computed through
+ * the Bellman-Ford algorithm. A potential function exists if and only if the network
+ * is consistent. Tightened edges incrementally repair the potential function while
+ * relaxed or removed edges leave it valid. Distances are computed only when queried
+ * by running Dijkstra's algorithm on the edges re-weighted by the potential function.
+ * Computed distances are cached until the next change of the distance graph.
+ * 
+ * @author alessandro
+ *
+ */
+public final class JohnsonTemporalSolver extends TemporalSolver<TimePointQuery>
+{
+	private DistanceGraph dg;									// distance graph
+	private long[] potential;									// potential function of the distance graph
+	private long[][] forward;									// cached distances from a slot
+	private long[][] backward;									// cached distances to a slot
+	private final Object rows;									// guard of the cached distances
+	private boolean toCompute;									// complete computation of the potential function needed
+	private boolean consistent;									// consistency flag
+	private int propagationCounter;								// number of complete Bellman-Ford computations
+	private int updateCounter;									// number of Dijkstra computations
+	
+	/**
+	 * Create a Johnson Solver instance.
+	 * 
+	 * @param tn
+	 */
+	public JohnsonTemporalSolver(TemporalNetwork tn) {
+		super(tn);
+		
+		// attributes for testing purposes
+		this.propagationCounter = 0;
+		this.updateCounter = 0;
+		// guard of the cached distances
+		this.rows = new Object();
+		// initialize
+		this.dg();
+		// set flags
+		this.consistent = true;
+		this.toCompute = true;
+	}
+	
+	/**
+	 * 
+	 */
+	private void dg() {
+		
+		// create the distance graph
+		this.dg = new DistanceGraph();
+		// set temporal horizon
+		this.dg.setInfity(this.tn.getHorizon());
+		
+		// add all points to the distance graph
+		for (TimePoint point : this.tn.getTimePoints()) {
+			// add node to the distance graph
+			this.dg.add(point);
+		}
+		
+		// add edges between points
+		for (TimePoint reference : this.tn.getTimePoints()) {
+			for (TimePoint target : this.tn.getTimePoints()) {
+				
+				// get the weight of the edge
+				long weight = this.weight(reference, target);
+				// check if an edge exists
+				if (!reference.equals(target) && weight < this.dg.getInfity()) {
+					// set distance graph's edge
+					this.dg.add(reference, target, weight);
+				}
+			}
+		}
+		
+		// initialize data structures
+		this.potential = new long[this.dg.capacity()];
+		this.forward = new long[this.dg.capacity()][];
+		this.backward = new long[this.dg.capacity()][];
+	}
+	
+	/**
+	 * Compute the weight of the edge (source, target) of the distance graph by taking into
+	 * account the constraints of the network in both directions. The method returns infinity
+	 * if no constraint exists between the two time points
+	 * 
+	 * @param source
+	 * @param target
+	 * @return
+	 */
+	private long weight(TimePoint source, TimePoint target) {
+		
+		// initialize to infinity
+		long weight = this.dg.getInfity();
+		// check constraints from source to target
+		long[] bounds = this.tn.getConstraintBounds(source, target);
+		if (bounds != null) {
+			// upper bound of the distance
+			weight = Math.min(weight, bounds[1]);
+		}
+		
+		// check constraints from target to source
+		bounds = this.tn.getConstraintBounds(target, source);
+		if (bounds != null) {
+			// lower bound of the inverse distance
+			weight = Math.min(weight, -bounds[0]);
+		}
+		
+		// get weight
+		return weight;
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public boolean isValid() {
+		
+		// check information status
+		if (this.toCompute) {
+			// compute the potential function
+			this.computePotential();
+		}
+		
+		// get consistency flag
+		return this.consistent;
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public boolean isPrepared() {
+		return !this.toCompute;
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public void prepare() {
+		// check information status
+		if (this.toCompute) {
+			this.computePotential();
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public void notify(TemporalNetworkNotification info)
+	{
+		// check notification type
+		switch (info.getType())
+		{
+			case INITIALIZATION : {
+				
+				// rebuild the distance graph
+				this.dg();
+				// set to propagate flag
+				this.toCompute = true;
+			}
+			break;
+			
+			case ADD_TP : {
+				
+				// get data
+				AddTimePointTemporalNetworkNotification notify = (AddTimePointTemporalNetworkNotification) info;
+				// check added time points
+				for (TimePoint point : notify.getPoints()) {
+					// points may be notified more than once (e.g. multiple time point creation)
+					if (!this.dg.contains(point)) {
+						// add the time point and its edges
+						this.doAddTimePoint(point);
+					}
+				}
+			}
+			break;
+			
+			case DEL_TP : {
+				
+				// get data
+				DelTimePointTemporalNetworkNotification notify = (DelTimePointTemporalNetworkNotification) info;
+				// check deleted time points
+				for (TimePoint point : notify.getPoints()) {
+					// remove the time point and all related edges from the distance graph
+					this.dg.delete(point);
+				}
+				
+				// the potential function is still valid for the remaining edges
+				this.toCompute = this.toCompute || !this.consistent;
+				// clear cached distances
+				this.clear();
+			}
+			break;
+			
+			case ADD_REL : {
+				
+				// get data
+				AddRelationTemporalNetworkNotification notify = (AddRelationTemporalNetworkNotification) info;
+				// check constraints and update distance graph
+				for (TimePointDistanceConstraint constraint : notify.getRels()) {
+					// update distance bounds
+					this.update(constraint.getReference(), constraint.getTarget());
+					this.update(constraint.getTarget(), constraint.getReference());
+				}
+			}
+			break;
+			
+			case DEL_REL : {
+				
+				// get data
+				DelRelationTemporalNetworkNotification notify = (DelRelationTemporalNetworkNotification) info;
+				// check constraints and updated distance graph
+				for (TimePointDistanceConstraint constraint : notify.getRels()) {
+					// update distance bounds
+					this.update(constraint.getReference(), constraint.getTarget());
+					this.update(constraint.getTarget(), constraint.getReference());
+				}
+			}
+			break;
+		}
+	}
+	
+	/**
+	 * Add a time point to the distance graph and update the potential
+	 * function according to the edges concerning the new time point
+	 * 
+	 * @param point
+	 */
+	private void doAddTimePoint(TimePoint point) {
+		
+		// add node to the distance graph
+		this.dg.add(point);
+		// check capacity of data structures
+		if (this.potential.length < this.dg.capacity()) {
+			this.potential = Arrays.copyOf(this.potential, this.dg.capacity());
+			this.forward = new long[this.dg.capacity()][];
+			this.backward = new long[this.dg.capacity()][];
+		}
+		
+		// an isolated point does not violate the potential function
+		this.potential[point.getId()] = 0;
+		// check edges concerning the new time point
+		for (TimePoint other : this.dg.getPoints()) {
+			
+			// check if different
+			if (!other.equals(point)) {
+				
+				// update distance bounds
+				this.update(point, other);
+				this.update(other, point);
+			}
+		}
+		
+		// clear cached distances
+		this.clear();
+	}
+	
+	/**
+	 * Update the weight of an edge of the distance graph according to the constraints
+	 * of the network.
+	 * 
+	 * Tightened edges that violate the potential function trigger an incremental repair
+	 * of the potential function. Relaxed or removed edges do not violate the potential
+	 * function of a consistent network.
+	 * 
+	 * @param source
+	 * @param target
+	 */
+	private void update(TimePoint source, TimePoint target) {
+		
+		// get current weight of the edge
+		long current = this.dg.getDistance(source, target);
+		// compute the updated weight of the edge
+		long weight = this.weight(source, target);
+		// check edge change
+		if (weight == current) {
+			return;
+		}
+		
+		// clear cached distances
+		this.clear();
+		if (weight >= this.dg.getInfity()) {
+			
+			// remove the edge from the distance graph
+			this.dg.delete(source, target);
+			// a removed edge may restore consistency
+			this.toCompute = this.toCompute || !this.consistent;
+		
+		} else {
+			
+			// update the distance graph
+			this.dg.add(source, target, weight);
+			// check edge change
+			if (weight > current) {
+				
+				// a relaxed edge may restore consistency
+				this.toCompute = this.toCompute || !this.consistent;
+			
+			} else if (!this.toCompute && this.consistent &&
+					weight + this.potential[source.getId()] < this.potential[target.getId()]) {
+				
+				// repair the potential function starting from the source of the edge
+				this.consistent = this.bellmanFord(new int[] {source.getId()});
+			}
+		}
+	}
+	
+	/**
+	 * Complete computation of the potential function
+	 */
+	private void computePotential() {
+		
+		// initialize the potential function through a virtual source connected to all points
+		Arrays.fill(this.potential, 0);
+		// compute the potential function
+		this.consistent = this.bellmanFord(this.dg.getSlots());
+		// clear cached distances
+		this.clear();
+		
+		// update propagation counter
+		this.propagationCounter++;
+		// set propagation flag
+		this.toCompute = false;
+	}
+	
+	/**
+	 * Queue-based Bellman-Ford algorithm. The algorithm propagates the current potential
+	 * function starting from the given slots. The method returns false if a negative
+	 * cycle is detected, i.e. if the path that updates a slot has at least n edges
+	 * 
+	 * @param start
+	 * @return
+	 */
+	private boolean bellmanFord(int[] start) {
+		
+		// initialize the queue
+		Deque<Integer> queue = new ArrayDeque<>();
+		boolean[] queued = new boolean[this.dg.capacity()];
+		int[] length = new int[this.dg.capacity()];
+		for (int slot : start) {
+			queue.add(slot);
+			queued[slot] = true;
+		}
+		
+		// propagate updates
+		while (!queue.isEmpty()) {
+			
+			// next slot
+			int u = queue.poll();
+			queued[u] = false;
+			// check outgoing edges
+			for (int i = 0; i < this.dg.getOutDegree(u); i++) {
+				
+				// check the potential of the target
+				int v = this.dg.getOutgoing(u, i);
+				long value = this.potential[u] + this.dg.getDistance(u, v);
+				if (value < this.potential[v]) {
+					
+					// update the potential
+					this.potential[v] = value;
+					length[v] = length[u] + 1;
+					// check negative cycles
+					if (length[v] >= this.dg.size()) {
+						return false;
+					}
+					
+					// add the target to the queue
+					if (!queued[v]) {
+						queue.add(v);
+						queued[v] = true;
+					}
+				}
+			}
+		}
+		
+		// a valid potential function has been computed
+		return true;
+	}
+	
+	/**
+	 * Single-source Dijkstra algorithm on the edges re-weighted by the potential function.
+	 * Outgoing edges are followed to compute the distances from the slot while incoming
+	 * edges are followed to compute the distances to the slot
+	 * 
+	 * @param source
+	 * @param outgoing
+	 * @return
+	 */
+	private long[] dijkstra(int source, boolean outgoing) {
+		
+		// initialize distances
+		long infty = this.dg.getInfity();
+		long[] distance = new long[this.dg.capacity()];
+		Arrays.fill(distance, Long.MAX_VALUE);
+		distance[source] = 0;
+		// queue of slots ordered by re-weighted distance
+		PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+		queue.add(new long[] {0, source});
+		boolean[] closed = new boolean[this.dg.capacity()];
+		while (!queue.isEmpty()) {
+			
+			// next slot
+			int u = (int) queue.poll()[1];
+			if (closed[u]) {
+				continue;
+			}
+			
+			// close the slot
+			closed[u] = true;
+			int degree = outgoing ? this.dg.getOutDegree(u) : this.dg.getInDegree(u);
+			for (int i = 0; i < degree; i++) {
+				
+				// get adjacent slot and the re-weighted (non negative) edge
+				int v = outgoing ? this.dg.getOutgoing(u, i) : this.dg.getIncoming(u, i);
+				long weight = outgoing ?
+						this.dg.getDistance(u, v) + this.potential[u] - this.potential[v] :
+						this.dg.getDistance(v, u) + this.potential[v] - this.potential[u];
+				
+				// check distance
+				if (!closed[v] && distance[u] + weight < distance[v]) {
+					// update distance
+					distance[v] = distance[u] + weight;
+					queue.add(new long[] {distance[v], v});
+				}
+			}
+		}
+		
+		// restore actual distances
+		for (int slot : this.dg.getSlots()) {
+			
+			// check reachable slots
+			if (distance[slot] == Long.MAX_VALUE) {
+				distance[slot] = infty;
+			}
+			else if (outgoing) {
+				distance[slot] = distance[slot] - this.potential[source] + this.potential[slot];
+			}
+			else {
+				distance[slot] = distance[slot] - this.potential[slot] + this.potential[source];
+			}
+		}
+		
+		// get distances
+		return distance;
+	}
+	
+	/**
+	 * Clear cached distances
+	 */
+	private void clear() {
+		Arrays.fill(this.forward, null);
+		Arrays.fill(this.backward, null);
+		// contingent links must be checked against the new distances
+		this.contingents.invalidate();
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public DistanceGraph getDistanceGraph() {
+		// get the distance graph
+		return this.dg;
+	}
+	
+	/**
+	 * Returns the number of complete computations of the potential function actually done
+	 * Only for testing purposes
+	 * 
+	 * @return
+	 */
+	public int getPropagationCounter() {
+		return propagationCounter;
+	}
+	
+	/**
+	 * Returns the number of single-source shortest path computations actually done
+	 * Only for testing purposes
+	 * 
+	 * @return
+	 */
+	public int getUpdateCounter() {
+		return updateCounter;
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public void process(TimePointQuery query) {
+		
+		// check query type
+		switch (query.getType()) {
+			
+			// handle time point bound query
+			case TP_SCHEDULE : {
+				
+				// get query
+				TimePointScheduleQuery tpBoundQuery = (TimePointScheduleQuery) query;
+				// get time point
+				TimePoint point = tpBoundQuery.getTimePoint();
+				// get distance between the origin and the time point
+				point.setLowerBound(this.getDistanceLowerBound(this.tn.getOriginTimePoint(), point));
+				point.setUpperBound(this.getDistanceUpperBound(this.tn.getOriginTimePoint(), point));
+			}
+			break;
+			
+			// handle time point distance query
+			case TP_DISTANCE : {
+				
+				// get query
+				TimePointDistanceQuery tpDistanceQuery = (TimePointDistanceQuery) query;
+				// get distance between points
+				tpDistanceQuery.setDistanceLowerBound(this.getDistanceLowerBound(tpDistanceQuery.getSource(), tpDistanceQuery.getTarget()));
+				tpDistanceQuery.setDistanceUpperBound(this.getDistanceUpperBound(tpDistanceQuery.getSource(), tpDistanceQuery.getTarget()));
+			}
+			break;
+			
+			// handle time point distance to horizon query
+			case TP_DISTANCE_TO_HORIZON : {
+				
+				// get query
+				TimePointDistanceToHorizonQuery tpDistanceQuery = (TimePointDistanceToHorizonQuery) query;
+				// get distance to horizon
+				long[] distance = this.getDistance(tpDistanceQuery.getTimePoint(), this.tn.getHorizonTimePoint());
+				// set information
+				tpDistanceQuery.setDistance(distance);
+			}
+			break;
+			
+			default : {
+				
+				// not a time point query
+				throw new RuntimeException("Impossible to process this type of temporal query " + query.getType());
+			}
+		}
+	}
+	
+	/**
+	 * Returns the lower bound of the distance from Time Point tp1 to 
+	 * Time Point tp2 without allocating memory (once the shortest paths 
+	 * from tp1 have been computed)
+	 * 
+	 * @param tp1
+	 * @param tp2
+	 * @return
+	 */
+	@Override
+	public long getDistanceLowerBound(TimePoint tp1, TimePoint tp2) {
+		
+		// check if both time points exists and the network is consistent - total uncertainty otherwise
+		if (!this.computeShortestPaths(tp1, tp2)) {
+			return -this.tn.getHorizon();
+		}
+		
+		// get lower bound
+		return -this.backward[tp1.getId()][tp2.getId()];
+	}
+	
+	/**
+	 * Returns the upper bound of the distance from Time Point tp1 to 
+	 * Time Point tp2 without allocating memory (once the shortest paths 
+	 * from tp1 have been computed)
+	 * 
+	 * @param tp1
+	 * @param tp2
+	 * @return
+	 */
+	@Override
+	public long getDistanceUpperBound(TimePoint tp1, TimePoint tp2) {
+		
+		// check if both time points exists and the network is consistent - total uncertainty otherwise
+		if (!this.computeShortestPaths(tp1, tp2)) {
+			return this.tn.getHorizon();
+		}
+		
+		// get upper bound
+		return this.forward[tp1.getId()][tp2.getId()];
+	}
+	
+	/**
+	 * Compute the shortest paths from and to Time Point tp1 if needed. The method 
+	 * returns false if the distance between the time points is not known
+	 * 
+	 * @param tp1
+	 * @param tp2
+	 * @return
+	 */
+	private boolean computeShortestPaths(TimePoint tp1, TimePoint tp2) {
+		
+		// check the potential function
+		if (this.toCompute) {
+			this.computePotential();
+		}
+		
+		// check if both time points exists and the network is consistent
+		if (!this.consistent || !this.dg.contains(tp1) || !this.dg.contains(tp2)) {
+			return false;
+		}
+		
+		// get slot
+		int slot = tp1.getId();
+		synchronized (this.rows) {
+			// check cached shortest paths
+			if (this.forward[slot] != null) {
+				return true;
+			}
+		}
+		
+		// compute shortest paths outside the guard so that concurrent queries are not serialized
+		long[] out = this.dijkstra(slot, true);
+		long[] in = this.dijkstra(slot, false);
+		synchronized (this.rows) {
+			// cache shortest paths unless a concurrent query has already done it
+			if (this.forward[slot] == null) {
+				this.backward[slot] = in;
+				this.forward[slot] = out;
+				// update Dijkstra counter
+				this.updateCounter += 2;
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public String toString() {
+		
+		// print distances from the time points
+		String matrix = "Distance matrix (Computed using Johnson Algorithm)\n";
+		for (TimePoint i : this.dg.getPoints()) {
+			for (TimePoint j : this.dg.getPoints()) {
+				matrix += "\t" + this.getDistanceUpperBound(i, j);
+			}
+			matrix += "\n";
+		}
+		
+		// get description of the distance matrix
+		return matrix;
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public void printDiagnosticData() {
+		// print data
+		System.out.println("Distance Graph:\n"
+				+ "" + this.dg + "\n\n"
+				+ "Distance matrix:\n"
+				+ "" + this + "\n");
+	}
+}
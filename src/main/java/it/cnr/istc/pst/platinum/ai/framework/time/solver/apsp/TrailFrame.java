@@ -0,0 +1,76 @@
+package it.cnr.istc.pst.platinum.ai.framework.time.solver.apsp;
+
+import java.util.List;
+
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePoint;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePointDistanceConstraint;
+
+/**
+ * A frame of the trail of a solver. The frame refers to the changes
+ * due to a set of added time points or to a set of added constraints.
+ * 
+ * @author alessandro
+ *
+ */
+class TrailFrame
+{
+	private List<TimePoint> points;							// added time points
+	private List<TimePointDistanceConstraint> rels;			// added constraints
+	private int mark;										// first entry of the trail belonging to the frame
+	private boolean consistent;								// consistency flag before the changes
+	
+	/**
+	 * 
+	 * @param points
+	 * @param rels
+	 * @param mark
+	 * @param consistent
+	 */
+	protected TrailFrame(List<TimePoint> points, List<TimePointDistanceConstraint> rels, int mark, boolean consistent) {
+		this.points = points;
+		this.rels = rels;
+		this.mark = mark;
+		this.consistent = consistent;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public List<TimePoint> getPoints() {
+		return points;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public List<TimePointDistanceConstraint> getRels() {
+		return rels;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public int getMark() {
+		return mark;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public boolean isConsistent() {
+		return consistent;
+	}
+	
+	/**
+	 * Check if the frame refers to added time points
+	 * 
+	 * @return
+	 */
+	public boolean isTimePointFrame() {
+		return this.points != null;
+	}
+}
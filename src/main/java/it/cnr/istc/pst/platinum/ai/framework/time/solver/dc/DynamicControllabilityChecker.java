@@ -0,0 +1,296 @@
+package it.cnr.istc.pst.platinum.ai.framework.time.solver.dc;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import it.cnr.istc.pst.platinum.ai.framework.time.solver.apsp.DistanceMatrix;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TemporalNetwork;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePoint;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePointDistanceConstraint;
+
+/**
+ * Dynamic controllability checker for Simple Temporal Networks with Uncertainty.
+ * 
+ * The checker implements the O(n^3) algorithm of Morris (2014). Negative edges
+ * of the labeled distance graph are eliminated by back-propagating them from each
+ * negative node through a Dijkstra-like visit. Non-negative edges derived by the
+ * visit are added to the graph. The network is dynamically controllable if no
+ * negative cycle is found during the back-propagation.
+ * 
+ * Each contingent link (A, C, [l, u]) is encoded with a lower-case edge A -> C
+ * with weight l, an upper-case edge C -> A with weight -u and the ordinary edges
+ * A -> C with weight u and C -> A with weight -l.
+ * 
+ * @author alessandro
+ *
+ */
+public class DynamicControllabilityChecker
+{
+	private static final long NO_EDGE = Long.MAX_VALUE;			// missing edge value
+	
+	private TemporalNetwork tn;										// temporal network
+	private int size;												// number of slots
+	private DistanceMatrix edges;									// weights of ordinary edges
+	private int[][] incoming;										// ordinary incoming edges of each slot
+	private int[] inDegree;											// number of ordinary incoming edges of each slot
+	private int[] lowerSource;										// source of the lower-case edge of each contingent slot
+	private long[] lowerWeight;										// weight of the lower-case edge of each contingent slot
+	private int[] upperTarget;										// target of the upper-case edge of each contingent slot
+	private long[] upperWeight;										// weight of the upper-case edge of each contingent slot
+	private boolean[] negative;										// slots with negative incoming edges
+	private boolean[] done;											// back-propagated slots
+	private boolean[] ancestor;										// slots being back-propagated
+	
+	/**
+	 * 
+	 * @param tn
+	 */
+	public DynamicControllabilityChecker(TemporalNetwork tn) {
+		this.tn = tn;
+	}
+	
+	/**
+	 * Check if the temporal network is dynamically controllable
+	 * 
+	 * @return
+	 */
+	public boolean isDynamicallyControllable()
+	{
+		// build the labeled distance graph of the network
+		this.build();
+		// back-propagate each negative node
+		boolean controllable = true;
+		for (int slot = 0; slot < this.size && controllable; slot++) {
+			// check negative node
+			if (this.negative[slot]) {
+				controllable = this.backpropagate(slot);
+			}
+		}
+		
+		// get result
+		return controllable;
+	}
+	
+	/**
+	 * Build the labeled distance graph of the temporal network. 
+	 * 
+	 * The weights of the edges are computed from the bounds of the constraints between 
+	 * time points as the temporal solvers do, i.e. requirement constraints are intersected 
+	 * with [0, horizon] and contingent links override requirement constraints. Constraints 
+	 * concerning time points that are no longer in the network are ignored
+	 */
+	private void build()
+	{
+		// get the number of slots
+		this.size = 0;
+		List<TimePoint> tps = this.tn.getTimePoints();
+		for (TimePoint point : tps) {
+			this.size = Math.max(this.size, point.getId() + 1);
+		}
+		
+		// index time points of the network
+		TimePoint[] points = new TimePoint[this.size];
+		for (TimePoint point : tps) {
+			points[point.getId()] = point;
+		}
+		
+		// initialize data structures
+		this.edges = new DistanceMatrix(NO_EDGE);
+		this.edges.ensureCapacity(this.size - 1);
+		this.incoming = new int[this.size][];
+		this.inDegree = new int[this.size];
+		this.lowerSource = new int[this.size];
+		this.lowerWeight = new long[this.size];
+		this.upperTarget = new int[this.size];
+		this.upperWeight = new long[this.size];
+		this.negative = new boolean[this.size];
+		this.done = new boolean[this.size];
+		this.ancestor = new boolean[this.size];
+		Arrays.fill(this.lowerSource, -1);
+		Arrays.fill(this.upperTarget, -1);
+		
+		// add edges
+		for (TimePointDistanceConstraint constraint : this.tn.getConstraints())
+		{
+			// get time points
+			TimePoint reference = constraint.getReference();
+			TimePoint target = constraint.getTarget();
+			// skip constraints concerning removed time points
+			if (!this.isTimePoint(points, reference) || !this.isTimePoint(points, target) || reference.equals(target)) {
+				continue;
+			}
+			
+			// get the bounds of the distance between the time points
+			long[] bounds = this.tn.getConstraintBounds(reference, target);
+			// add ordinary edges
+			this.add(reference.getId(), target.getId(), bounds[1]);
+			this.add(target.getId(), reference.getId(), -bounds[0]);
+			
+			// check contingent links
+			if (!constraint.isControllable())
+			{
+				// add lower-case edge
+				this.lowerSource[target.getId()] = reference.getId();
+				this.lowerWeight[target.getId()] = bounds[0];
+				// add upper-case edge
+				this.upperTarget[target.getId()] = reference.getId();
+				this.upperWeight[target.getId()] = -bounds[1];
+				this.negative[reference.getId()] = this.negative[reference.getId()] || this.upperWeight[target.getId()] < 0;
+			}
+		}
+	}
+	
+	/**
+	 * Check if a time point is still in the network
+	 * 
+	 * @param points
+	 * @param point
+	 * @return
+	 */
+	private boolean isTimePoint(TimePoint[] points, TimePoint point) {
+		return point.getId() < points.length && points[point.getId()] == point;
+	}
+	
+	/**
+	 * Add an ordinary edge to the graph or tighten its weight
+	 * 
+	 * @param source
+	 * @param target
+	 * @param weight
+	 */
+	private void add(int source, int target, long weight)
+	{
+		// check current weight
+		long current = this.edges.get(source, target);
+		if (current == NO_EDGE)
+		{
+			// add incoming edge
+			if (this.incoming[target] == null) {
+				this.incoming[target] = new int[4];
+			}
+			else if (this.inDegree[target] == this.incoming[target].length) {
+				this.incoming[target] = Arrays.copyOf(this.incoming[target], this.inDegree[target] * 2);
+			}
+			
+			// set source
+			this.incoming[target][this.inDegree[target]++] = source;
+		}
+		
+		// check weight
+		if (current == NO_EDGE || weight < current) {
+			// update weight
+			this.edges.set(source, target, weight);
+			this.negative[target] = this.negative[target] || weight < 0;
+		}
+	}
+	
+	/**
+	 * Back-propagate the negative incoming edges of a node. The method
+	 * returns false if a negative cycle is found
+	 * 
+	 * @param source
+	 * @return
+	 */
+	private boolean backpropagate(int source)
+	{
+		// check negative cycles
+		if (this.ancestor[source]) {
+			return false;
+		}
+		
+		// check if already processed
+		if (this.done[source]) {
+			return true;
+		}
+		
+		// set ancestor
+		this.ancestor[source] = true;
+		// distances to the source
+		long[] distance = new long[this.size];
+		Arrays.fill(distance, NO_EDGE);
+		// slots whose distance comes from their upper-case edge
+		boolean[] upper = new boolean[this.size];
+		// visited slots
+		boolean[] visited = new boolean[this.size];
+		PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+		
+		// initialize distances with negative ordinary incoming edges
+		for (int i = 0; i < this.inDegree[source]; i++) {
+			int node = this.incoming[source][i];
+			long weight = this.edges.get(node, source);
+			if (weight < 0 && weight < distance[node]) {
+				distance[node] = weight;
+				queue.add(new long[] {weight, node});
+			}
+		}
+		
+		// initialize distances with incoming upper-case edges
+		for (int node = 0; node < this.size; node++) {
+			if (this.upperTarget[node] == source && this.upperWeight[node] < distance[node]) {
+				distance[node] = this.upperWeight[node];
+				upper[node] = true;
+				queue.add(new long[] {this.upperWeight[node], node});
+			}
+		}
+		
+		// propagate distances
+		while (!queue.isEmpty())
+		{
+			// get next node
+			long[] entry = queue.poll();
+			int node = (int) entry[1];
+			if (visited[node] || entry[0] > distance[node]) {
+				continue;
+			}
+			
+			// set visited
+			visited[node] = true;
+			if (distance[node] >= 0) {
+				// add non-negative edge to the source
+				if (node != source) {
+					this.add(node, source, distance[node]);
+				}
+				
+				// stop propagation
+				continue;
+			}
+			
+			// a negative path back to the source is a negative cycle
+			if (node == source) {
+				this.ancestor[source] = false;
+				return false;
+			}
+			
+			// back-propagate the negative node first
+			if (this.negative[node] && !this.backpropagate(node)) {
+				this.ancestor[source] = false;
+				return false;
+			}
+			
+			// relax non-negative ordinary incoming edges
+			for (int i = 0; i < this.inDegree[node]; i++) {
+				int previous = this.incoming[node][i];
+				long weight = this.edges.get(previous, node);
+				if (weight >= 0 && distance[node] + weight < distance[previous]) {
+					distance[previous] = distance[node] + weight;
+					upper[previous] = false;
+					queue.add(new long[] {distance[previous], previous});
+				}
+			}
+			
+			// relax the lower-case edge unless the path starts with the upper-case edge of the same contingent link
+			int previous = this.lowerSource[node];
+			if (previous >= 0 && !upper[node] && distance[node] + this.lowerWeight[node] < distance[previous]) {
+				distance[previous] = distance[node] + this.lowerWeight[node];
+				upper[previous] = false;
+				queue.add(new long[] {distance[previous], previous});
+			}
+		}
+		
+		// source processed
+		this.ancestor[source] = false;
+		this.done[source] = true;
+		return true;
+	}
+}
@@ -0,0 +1,343 @@
+package it.cnr.istc.pst.platinum.ai.framework.time.solver.p3c;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Sparse chordal graph of a temporal network.
+ * 
+ * The neighbors of each slot are kept into a sorted array together with the weights
+ * of the outgoing edges towards them. Thus, the memory scales with the number of edges
+ * of the graph (including fill-in edges) rather than with the square of the number of
+ * time points. Each edge of the graph is stored in both directions, with infinite
+ * weight if no constraint bounds the corresponding distance.
+ * 
+ * @author alessandro
+ *
+ */
+class ChordalGraph
+{
+	private static final int MIN_FILL_LIMIT = 256;				// maximum degree of a slot whose fill-in is evaluated
+	
+	private long infty;												// infinite weight
+	private boolean[] nodes;										// slots of the graph
+	private int size;												// number of slots of the graph
+	private int[][] neighbors;										// sorted neighbors of each slot
+	private long[][] weights;										// weights of the edges to the neighbors
+	private int[] degree;											// number of neighbors of each slot
+	private int edges;												// number of (undirected) edges
+	private int[] order;											// elimination order
+	private int[] rank;												// position of each slot in the elimination order
+	
+	/**
+	 * 
+	 * @param capacity
+	 * @param infty
+	 */
+	protected ChordalGraph(int capacity, long infty) {
+		this.infty = infty;
+		this.nodes = new boolean[capacity];
+		this.neighbors = new int[capacity][];
+		this.weights = new long[capacity][];
+		this.degree = new int[capacity];
+		this.size = 0;
+		this.edges = 0;
+		this.order = new int[0];
+		this.rank = new int[capacity];
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public long getInfity() {
+		return this.infty;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public int size() {
+		return this.size;
+	}
+	
+	/**
+	 * Returns the number of (undirected) edges of the graph
+	 * 
+	 * @return
+	 */
+	public int getNumberOfEdges() {
+		return this.edges;
+	}
+	
+	/**
+	 * 
+	 * @param slot
+	 * @return
+	 */
+	public boolean contains(int slot) {
+		return slot < this.nodes.length && this.nodes[slot];
+	}
+	
+	/**
+	 * 
+	 * @param slot
+	 */
+	public void add(int slot)
+	{
+		// check capacity
+		if (slot >= this.nodes.length) {
+			int capacity = Math.max(slot + 1, this.nodes.length * 2);
+			this.nodes = Arrays.copyOf(this.nodes, capacity);
+			this.neighbors = Arrays.copyOf(this.neighbors, capacity);
+			this.weights = Arrays.copyOf(this.weights, capacity);
+			this.degree = Arrays.copyOf(this.degree, capacity);
+			this.rank = Arrays.copyOf(this.rank, capacity);
+		}
+		
+		// add slot
+		if (!this.nodes[slot]) {
+			this.nodes[slot] = true;
+			this.neighbors[slot] = new int[4];
+			this.weights[slot] = new long[4];
+			this.degree[slot] = 0;
+			this.size++;
+		}
+	}
+	
+	/**
+	 * 
+	 * @param slot
+	 * @return
+	 */
+	public int getDegree(int slot) {
+		return this.degree[slot];
+	}
+	
+	/**
+	 * 
+	 * @param slot
+	 * @param i
+	 * @return
+	 */
+	public int getNeighbor(int slot, int i) {
+		return this.neighbors[slot][i];
+	}
+	
+	/**
+	 * Returns the weight of the edge from the slot to its i-th neighbor
+	 * 
+	 * @param slot
+	 * @param i
+	 * @return
+	 */
+	public long getWeight(int slot, int i) {
+		return this.weights[slot][i];
+	}
+	
+	/**
+	 * 
+	 * @param source
+	 * @param target
+	 * @return
+	 */
+	public boolean isAdjacent(int source, int target) {
+		return Arrays.binarySearch(this.neighbors[source], 0, this.degree[source], target) >= 0;
+	}
+	
+	/**
+	 * Returns the weight of the edge from source to target or infinity if
+	 * the slots are not adjacent
+	 * 
+	 * @param source
+	 * @param target
+	 * @return
+	 */
+	public long getDistance(int source, int target) {
+		// look for the target
+		int index = Arrays.binarySearch(this.neighbors[source], 0, this.degree[source], target);
+		return index >= 0 ? this.weights[source][index] : this.infty;
+	}
+	
+	/**
+	 * Set the weight of the edge from source to target. The slots must be adjacent
+	 * 
+	 * @param source
+	 * @param target
+	 * @param weight
+	 */
+	public void setDistance(int source, int target, long weight) {
+		// look for the target
+		int index = Arrays.binarySearch(this.neighbors[source], 0, this.degree[source], target);
+		this.weights[source][index] = weight;
+	}
+	
+	/**
+	 * Add an (undirected) edge with infinite weights if the slots are not adjacent
+	 * 
+	 * @param a
+	 * @param b
+	 */
+	public void addEdge(int a, int b)
+	{
+		// check edge
+		if (a != b && !this.isAdjacent(a, b)) {
+			// add both directions
+			this.insert(a, b);
+			this.insert(b, a);
+			this.edges++;
+		}
+	}
+	
+	/**
+	 * Returns the elimination order computed by the triangulation
+	 * 
+	 * @return
+	 */
+	public int[] getOrder() {
+		return this.order;
+	}
+	
+	/**
+	 * Returns the position of a slot in the elimination order
+	 * 
+	 * @param slot
+	 * @return
+	 */
+	public int getRank(int slot) {
+		return this.rank[slot];
+	}
+	
+	/**
+	 * Triangulate the graph by eliminating its slots according to the min-fill heuristic.
+	 * The slot whose elimination adds the smallest number of edges among its neighbors is
+	 * eliminated first. Fill-in edges are added to the graph which becomes chordal and the
+	 * elimination order is a perfect elimination order of the chordal graph.
+	 */
+	public void triangulate()
+	{
+		// copy the adjacency of the slots
+		List<Set<Integer>> adjacency = new ArrayList<>(this.nodes.length);
+		for (int slot = 0; slot < this.nodes.length; slot++) {
+			adjacency.add(null);
+			if (this.nodes[slot]) {
+				adjacency.set(slot, new HashSet<>());
+				for (int i = 0; i < this.degree[slot]; i++) {
+					adjacency.get(slot).add(this.neighbors[slot][i]);
+				}
+			}
+		}
+		
+		// queue of slots ordered by fill-in
+		PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+		long[] fill = new long[this.nodes.length];
+		for (int slot = 0; slot < this.nodes.length; slot++) {
+			if (this.nodes[slot]) {
+				fill[slot] = fill(adjacency, slot);
+				queue.add(new long[] {fill[slot], slot});
+			}
+		}
+		
+		// eliminate slots
+		this.order = new int[this.size];
+		boolean[] eliminated = new boolean[this.nodes.length];
+		int position = 0;
+		while (!queue.isEmpty())
+		{
+			// get next slot
+			long[] entry = queue.poll();
+			int slot = (int) entry[1];
+			if (eliminated[slot] || entry[0] != fill[slot]) {
+				continue;
+			}
+			
+			// eliminate the slot
+			eliminated[slot] = true;
+			this.order[position] = slot;
+			this.rank[slot] = position++;
+			Integer[] adjacents = adjacency.get(slot).toArray(new Integer[adjacency.get(slot).size()]);
+			for (int i = 0; i < adjacents.length; i++)
+			{
+				// remove the eliminated slot
+				adjacency.get(adjacents[i]).remove(slot);
+				// connect the neighbors of the eliminated slot
+				for (int j = i + 1; j < adjacents.length; j++) {
+					if (adjacency.get(adjacents[i]).add(adjacents[j])) {
+						// add fill-in edge
+						adjacency.get(adjacents[j]).add(adjacents[i]);
+						this.addEdge(adjacents[i], adjacents[j]);
+					}
+				}
+			}
+			
+			// update the fill-in of the neighbors
+			for (int neighbor : adjacents) {
+				fill[neighbor] = fill(adjacency, neighbor);
+				queue.add(new long[] {fill[neighbor], neighbor});
+			}
+			
+			// release memory
+			adjacency.set(slot, null);
+		}
+	}
+	
+	/**
+	 * Compute the number of edges added by the elimination of a slot. Slots with many
+	 * neighbors are given the maximum fill-in they may produce without evaluating it
+	 * 
+	 * @param adjacency
+	 * @param slot
+	 * @return
+	 */
+	private static long fill(List<Set<Integer>> adjacency, int slot)
+	{
+		// check degree
+		long degree = adjacency.get(slot).size();
+		if (degree > MIN_FILL_LIMIT) {
+			return degree * (degree - 1) / 2;
+		}
+		
+		// count missing edges among neighbors
+		long fill = 0;
+		Integer[] adjacents = adjacency.get(slot).toArray(new Integer[adjacency.get(slot).size()]);
+		for (int i = 0; i < adjacents.length; i++) {
+			for (int j = i + 1; j < adjacents.length; j++) {
+				if (!adjacency.get(adjacents[i]).contains(adjacents[j])) {
+					fill++;
+				}
+			}
+		}
+		
+		// get fill-in
+		return fill;
+	}
+	
+	/**
+	 * Insert a neighbor into the sorted neighbors of a slot
+	 * 
+	 * @param slot
+	 * @param neighbor
+	 */
+	private void insert(int slot, int neighbor)
+	{
+		// check capacity
+		if (this.degree[slot] == this.neighbors[slot].length) {
+			this.neighbors[slot] = Arrays.copyOf(this.neighbors[slot], this.degree[slot] * 2);
+			this.weights[slot] = Arrays.copyOf(this.weights[slot], this.degree[slot] * 2);
+		}
+		
+		// find the position of the neighbor
+		int index = -(Arrays.binarySearch(this.neighbors[slot], 0, this.degree[slot], neighbor) + 1);
+		System.arraycopy(this.neighbors[slot], index, this.neighbors[slot], index + 1, this.degree[slot] - index);
+		System.arraycopy(this.weights[slot], index, this.weights[slot], index + 1, this.degree[slot] - index);
+		// set neighbor
+		this.neighbors[slot][index] = neighbor;
+		this.weights[slot][index] = this.infty;
+		this.degree[slot]++;
+	}
+}
@@ -0,0 +1,807 @@
+package it.cnr.istc.pst.platinum.ai.framework.time.solver.p3c;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import it.cnr.istc.pst.platinum.ai.framework.time.solver.TemporalSolver;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TemporalNetwork;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePoint;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePointDistanceConstraint;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.event.AddRelationTemporalNetworkNotification;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.event.AddTimePointTemporalNetworkNotification;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.event.TemporalNetworkNotification;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.query.TimePointDistanceQuery;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.query.TimePointDistanceToHorizonQuery;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.query.TimePointQuery;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.query.TimePointScheduleQuery;
+
+/**
+ * Partial path consistency solver based on the P3C algorithm.
+ * 
+ * The solver triangulates the constraint graph of the temporal network into a sparse
+ * chordal graph and computes the minimal distances of the edges of the chordal graph
+ * only. Tightened constraints on edges of the chordal graph are incrementally propagated
+ * through the triangles of the graph, while the chordal graph is computed again when
+ * constraints are relaxed or removed or when constraints concern non-adjacent time points.
+ * 
+ * Distances between non-adjacent time points are computed on demand by running Dijkstra's
+ * algorithm on the chordal graph. Since every time point is constrained with respect to the
+ * origin, the minimal distances from the origin are used as potential function to re-weight
+ * the edges of the chordal graph.
+ * 
+ * @author alessandro
+ *
+ */
+public final class P3CTemporalSolver extends TemporalSolver<TimePointQuery>
+{
+	private static final int CACHE_SIZE = 16;					// maximum number of cached distance rows
+	
+	private ChordalGraph graph;									// chordal graph with minimal distances
+	private Map<Integer, long[]> rows;							// cached distances from time points
+	private boolean toCompute;									// complete computation needed
+	private boolean consistent;									// consistency flag
+	private int propagationCounter;								// number of complete computations
+	private int updateCounter;									// number of incremental propagations
+	
+	/**
+	 * Create a P3C Solver instance.
+	 * 
+	 * @param tn
+	 */
+	public P3CTemporalSolver(TemporalNetwork tn) {
+		super(tn);
+		
+		// attributes for testing purposes
+		this.propagationCounter = 0;
+		this.updateCounter = 0;
+		// bounded cache of distance rows
+		this.rows = new LinkedHashMap<Integer, long[]>(CACHE_SIZE, 0.75f, true) {
+			
+			private static final long serialVersionUID = 1L;
+			
+			/**
+			 * 
+			 */
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, long[]> eldest) {
+				return this.size() > CACHE_SIZE;
+			}
+		};
+		
+		// set flags
+		this.consistent = true;
+		this.toCompute = true;
+	}
+	
+	/**
+	 * Compute the weight of the edge (source, target) by taking into account the
+	 * constraints of the network in both directions. The method returns infinity
+	 * if no constraint exists between the two time points
+	 * 
+	 * @param source
+	 * @param target
+	 * @return
+	 */
+	private long weight(TimePoint source, TimePoint target) {
+		
+		// initialize to infinity
+		long weight = this.tn.getHorizon() + 1;
+		// check constraints from source to target
+		long[] bounds = this.tn.getConstraintBounds(source, target);
+		if (bounds != null) {
+			// upper bound of the distance
+			weight = Math.min(weight, bounds[1]);
+		}
+		
+		// check constraints from target to source
+		bounds = this.tn.getConstraintBounds(target, source);
+		if (bounds != null) {
+			// lower bound of the inverse distance
+			weight = Math.min(weight, -bounds[0]);
+		}
+		
+		// get weight
+		return weight;
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public boolean isValid() {
+		
+		// check information status
+		if (this.toCompute) {
+			// compute minimal distances of the chordal graph
+			this.compute();
+		}
+		
+		// get consistency flag
+		return this.consistent;
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public boolean isPrepared() {
+		return !this.toCompute;
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public void prepare() {
+		// check information status
+		if (this.toCompute) {
+			this.compute();
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public void notify(TemporalNetworkNotification info)
+	{
+		// clear cached distances
+		this.rows.clear();
+		// check notification type
+		switch (info.getType())
+		{
+			case ADD_TP : {
+				
+				// get data
+				AddTimePointTemporalNetworkNotification notify = (AddTimePointTemporalNetworkNotification) info;
+				// check added time points
+				for (TimePoint point : notify.getPoints()) {
+					// points may be notified more than once (e.g. multiple time point creation)
+					if (!this.toCompute && !this.graph.contains(point.getId())) {
+						// add the time point and its edges
+						this.doAddTimePoint(point);
+					}
+				}
+			}
+			break;
+			
+			case ADD_REL : {
+				
+				// get data
+				AddRelationTemporalNetworkNotification notify = (AddRelationTemporalNetworkNotification) info;
+				// check constraints and update the chordal graph
+				for (TimePointDistanceConstraint constraint : notify.getRels()) {
+					// update distance bounds
+					this.update(constraint.getReference(), constraint.getTarget());
+					this.update(constraint.getTarget(), constraint.getReference());
+				}
+			}
+			break;
+			
+			// deleted time points, relaxed or removed constraints
+			default : {
+				
+				// set to propagate flag
+				this.toCompute = true;
+			}
+			break;
+		}
+	}
+	
+	/**
+	 * Add a new time point to the chordal graph. A new time point is constrained with
+	 * respect to the origin and the horizon only. Since the origin and the horizon are
+	 * adjacent, the new time point is simplicial and the graph remains chordal
+	 * 
+	 * @param point
+	 */
+	private void doAddTimePoint(TimePoint point) {
+		
+		// check constraints of the new time point
+		for (TimePointDistanceConstraint constraint : this.tn.getConstraints(point)) {
+			// check target
+			if (!constraint.getTarget().equals(this.tn.getHorizonTimePoint())) {
+				// the graph must be triangulated again
+				this.toCompute = true;
+				return;
+			}
+		}
+		
+		// add the time point and its edges
+		int slot = point.getId();
+		this.graph.add(slot);
+		Deque<int[]> queue = new ArrayDeque<>();
+		for (TimePoint other : new TimePoint[] {this.tn.getOriginTimePoint(), this.tn.getHorizonTimePoint()}) {
+			// add edge
+			this.graph.addEdge(slot, other.getId());
+			this.graph.setDistance(slot, other.getId(), this.weight(point, other));
+			this.graph.setDistance(other.getId(), slot, this.weight(other, point));
+			queue.add(new int[] {slot, other.getId()});
+			queue.add(new int[] {other.getId(), slot});
+		}
+		
+		// propagate the new edges
+		this.propagate(queue);
+	}
+	
+	/**
+	 * Update the weight of an edge of the chordal graph according to the constraints
+	 * of the network. Tightened edges are incrementally propagated
+	 * 
+	 * @param source
+	 * @param target
+	 */
+	private void update(TimePoint source, TimePoint target) {
+		
+		// check if a complete computation is pending
+		if (this.toCompute || !this.consistent) {
+			// nothing to do
+			return;
+		}
+		
+		// compute the weight of the edge
+		long weight = this.weight(source, target);
+		if (weight >= this.graph.getInfity()) {
+			// no constraint between the time points
+			return;
+		}
+		
+		// check if the time points are adjacent
+		if (!this.graph.contains(source.getId()) || !this.graph.contains(target.getId()) ||
+				!this.graph.isAdjacent(source.getId(), target.getId())) {
+			// the graph must be triangulated again
+			this.toCompute = true;
+			return;
+		}
+		
+		// check if the edge is tightened
+		if (weight < this.graph.getDistance(source.getId(), target.getId())) {
+			
+			// update and propagate the edge
+			this.graph.setDistance(source.getId(), target.getId(), weight);
+			Deque<int[]> queue = new ArrayDeque<>();
+			queue.add(new int[] {source.getId(), target.getId()});
+			this.propagate(queue);
+		}
+	}
+	
+	/**
+	 * Propagate tightened edges through the triangles of the chordal graph until
+	 * partial path consistency is restored or an inconsistency is found
+	 * 
+	 * @param queue
+	 */
+	private void propagate(Deque<int[]> queue) {
+		
+		// limit the number of updates in case of negative cycles
+		long limit = (long) this.graph.getNumberOfEdges() * this.graph.size() + queue.size();
+		long infty = this.graph.getInfity();
+		while (!queue.isEmpty() && this.consistent) {
+			
+			// get tightened edge
+			int[] edge = queue.poll();
+			int u = edge[0];
+			int v = edge[1];
+			long uv = this.graph.getDistance(u, v);
+			this.contingents.update(u, v, uv);
+			// check negative cycles
+			if (uv + this.graph.getDistance(v, u) < 0) {
+				this.consistent = false;
+				break;
+			}
+			
+			// check the triangles of the edge through the smallest neighborhood
+			int a = this.graph.getDegree(u) <= this.graph.getDegree(v) ? u : v;
+			int b = a == u ? v : u;
+			for (int i = 0; i < this.graph.getDegree(a); i++) {
+				
+				// get common neighbor
+				int k = this.graph.getNeighbor(a, i);
+				if (k == b || !this.graph.isAdjacent(b, k)) {
+					continue;
+				}
+				
+				// path from k to v through u
+				long ku = this.graph.getDistance(k, u);
+				if (ku < infty && ku + uv < this.graph.getDistance(k, v)) {
+					this.graph.setDistance(k, v, ku + uv);
+					queue.add(new int[] {k, v});
+				}
+				
+				// path from u to k through v
+				long vk = this.graph.getDistance(v, k);
+				if (vk < infty && uv + vk < this.graph.getDistance(u, k)) {
+					this.graph.setDistance(u, k, uv + vk);
+					queue.add(new int[] {u, k});
+				}
+			}
+			
+			// check the number of updates
+			if (--limit < 0) {
+				// check consistency through a complete computation
+				this.toCompute = true;
+				break;
+			}
+		}
+		
+		// update counter
+		this.updateCounter++;
+	}
+	
+	/**
+	 * Build and triangulate the chordal graph of the network and compute the minimal
+	 * distances of its edges through the P3C algorithm
+	 */
+	private void compute() {
+		
+		// get time points
+		int capacity = 0;
+		for (TimePoint point : this.tn.getTimePoints()) {
+			capacity = Math.max(capacity, point.getId() + 1);
+		}
+		
+		// index time points by slot
+		TimePoint[] points = new TimePoint[capacity];
+		for (TimePoint point : this.tn.getTimePoints()) {
+			points[point.getId()] = point;
+		}
+		
+		// create the graph
+		this.graph = new ChordalGraph(capacity, this.tn.getHorizon() + 1);
+		for (TimePoint point : this.tn.getTimePoints()) {
+			// add node
+			this.graph.add(point.getId());
+			// every time point is adjacent to the origin
+			if (!point.equals(this.tn.getOriginTimePoint())) {
+				this.graph.addEdge(this.tn.getOriginTimePoint().getId(), point.getId());
+			}
+		}
+		
+		// add an edge for each constrained pair of time points
+		for (TimePointDistanceConstraint constraint : this.tn.getConstraints()) {
+			
+			// skip constraints concerning removed time points
+			TimePoint reference = this.getTimePoint(points, constraint.getReference());
+			TimePoint target = this.getTimePoint(points, constraint.getTarget());
+			if (reference != null && target != null && !reference.equals(target) && 
+					this.weight(reference, target) < this.graph.getInfity()) {
+				// add edge
+				this.graph.addEdge(reference.getId(), target.getId());
+			}
+		}
+		
+		// triangulate the graph
+		this.graph.triangulate();
+		
+		// set the weights of the edges
+		for (TimePoint point : this.tn.getTimePoints()) {
+			int slot = point.getId();
+			for (int i = 0; i < this.graph.getDegree(slot); i++) {
+				// get neighbor
+				TimePoint other = points[this.graph.getNeighbor(slot, i)];
+				this.graph.setDistance(slot, other.getId(), this.weight(point, other));
+			}
+		}
+		
+		// compute minimal distances
+		this.consistent = this.p3c();
+		synchronized (this.rows) {
+			this.rows.clear();
+		}
+		// contingent links must be checked against the new distances
+		this.contingents.invalidate();
+		
+		// update propagation counter
+		this.propagationCounter++;
+		// set propagation flag
+		this.toCompute = false;
+	}
+	
+	/**
+	 * Returns the time point of the network with the same slot of the given time point 
+	 * if the time point has not been removed from the network
+	 * 
+	 * @param points
+	 * @param point
+	 * @return
+	 */
+	private TimePoint getTimePoint(TimePoint[] points, TimePoint point) {
+		// check if the time point is still in the network
+		return point.getId() < points.length && points[point.getId()] == point ? point : null;
+	}
+	
+	/**
+	 * P3C algorithm. The forward phase enforces directional path consistency along the
+	 * elimination order of the chordal graph, the backward phase makes every triangle of
+	 * the graph path consistent. The method returns false if the network is not consistent
+	 * 
+	 * @return
+	 */
+	private boolean p3c() {
+		
+		// get elimination order
+		int[] order = this.graph.getOrder();
+		long infty = this.graph.getInfity();
+		// check negative cycles on the edges of the graph
+		for (int u : order) {
+			for (int i = 0; i < this.graph.getDegree(u); i++) {
+				// get adjacent slot
+				int v = this.graph.getNeighbor(u, i);
+				long uv = this.graph.getDistance(u, v);
+				long vu = this.graph.getDistance(v, u);
+				if (uv < infty && vu < infty && uv + vu < 0) {
+					return false;
+				}
+			}
+		}
+		
+		// forward phase
+		for (int k : order) {
+			
+			// get neighbors eliminated after the slot
+			int[] higher = this.higher(k);
+			for (int i : higher) {
+				
+				// get distance from i to k
+				long ik = this.graph.getDistance(i, k);
+				if (ik >= infty) {
+					continue;
+				}
+				
+				for (int j : higher) {
+					
+					// get distance from k to j
+					long kj = this.graph.getDistance(k, j);
+					if (kj >= infty) {
+						continue;
+					}
+					
+					// check negative cycles through k
+					if (i == j) {
+						if (ik + kj < 0) {
+							return false;
+						}
+						
+						continue;
+					}
+					
+					if (ik + kj < this.graph.getDistance(i, j)) {
+						// update distance
+						this.graph.setDistance(i, j, ik + kj);
+						// check negative cycles
+						if (ik + kj + this.graph.getDistance(j, i) < 0) {
+							return false;
+						}
+					}
+				}
+			}
+		}
+		
+		// backward phase
+		for (int index = order.length - 1; index >= 0; index--) {
+			
+			// get neighbors eliminated after the slot
+			int k = order[index];
+			int[] higher = this.higher(k);
+			for (int i : higher) {
+				for (int j : higher) {
+					
+					// check distinct neighbors
+					if (i == j) {
+						continue;
+					}
+					
+					// path from i to k through j
+					long ij = this.graph.getDistance(i, j);
+					long jk = this.graph.getDistance(j, k);
+					if (ij < infty && jk < infty && ij + jk < this.graph.getDistance(i, k)) {
+						this.graph.setDistance(i, k, ij + jk);
+					}
+					
+					// path from k to j through i
+					long ki = this.graph.getDistance(k, i);
+					if (ki < infty && ij < infty && ki + ij < this.graph.getDistance(k, j)) {
+						this.graph.setDistance(k, j, ki + ij);
+					}
+				}
+			}
+		}
+		
+		// the network is consistent
+		return true;
+	}
+	
+	/**
+	 * Returns the neighbors of a slot that follow the slot in the elimination order
+	 * 
+	 * @param slot
+	 * @return
+	 */
+	private int[] higher(int slot) {
+		
+		// collect neighbors
+		int[] higher = new int[this.graph.getDegree(slot)];
+		int size = 0;
+		for (int i = 0; i < this.graph.getDegree(slot); i++) {
+			int neighbor = this.graph.getNeighbor(slot, i);
+			if (this.graph.getRank(neighbor) > this.graph.getRank(slot)) {
+				higher[size++] = neighbor;
+			}
+		}
+		
+		// get neighbors
+		return Arrays.copyOf(higher, size);
+	}
+	
+	/**
+	 * Single-source Dijkstra algorithm on the edges of the chordal graph re-weighted by
+	 * the minimal distances from the origin
+	 * 
+	 * @param source
+	 * @return
+	 */
+	private long[] dijkstra(int source) {
+		
+		// get the potential function
+		int origin = this.tn.getOriginTimePoint().getId();
+		long infty = this.graph.getInfity();
+		int capacity = 0;
+		for (TimePoint point : this.tn.getTimePoints()) {
+			capacity = Math.max(capacity, point.getId() + 1);
+		}
+		
+		long[] potential = new long[capacity];
+		for (TimePoint point : this.tn.getTimePoints()) {
+			potential[point.getId()] = point.getId() == origin ? 0 : this.graph.getDistance(origin, point.getId());
+		}
+		
+		// initialize distances
+		long[] distance = new long[capacity];
+		Arrays.fill(distance, Long.MAX_VALUE);
+		distance[source] = 0;
+		// queue of slots ordered by re-weighted distance
+		PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+		queue.add(new long[] {0, source});
+		boolean[] closed = new boolean[capacity];
+		while (!queue.isEmpty()) {
+			
+			// next slot
+			int u = (int) queue.poll()[1];
+			if (closed[u]) {
+				continue;
+			}
+			
+			// close the slot
+			closed[u] = true;
+			for (int i = 0; i < this.graph.getDegree(u); i++) {
+				
+				// get adjacent slot and the re-weighted (non negative) edge
+				int v = this.graph.getNeighbor(u, i);
+				long weight = this.graph.getWeight(u, i);
+				if (weight >= infty || closed[v]) {
+					continue;
+				}
+				
+				// check distance
+				weight = weight + potential[u] - potential[v];
+				if (distance[u] + weight < distance[v]) {
+					// update distance
+					distance[v] = distance[u] + weight;
+					queue.add(new long[] {distance[v], v});
+				}
+			}
+		}
+		
+		// restore actual distances
+		for (int slot = 0; slot < capacity; slot++) {
+			distance[slot] = distance[slot] == Long.MAX_VALUE ? infty :
+				Math.min(infty, distance[slot] - potential[source] + potential[slot]);
+		}
+		
+		// get distances
+		return distance;
+	}
+	
+	/**
+	 * Returns the minimal distance from a time point to another
+	 * 
+	 * @param source
+	 * @param target
+	 * @return
+	 */
+	private long distance(int source, int target) {
+		
+		// check adjacent time points
+		if (source == target) {
+			return 0;
+		}
+		
+		if (this.graph.isAdjacent(source, target)) {
+			// minimal distance of the edge
+			return this.graph.getDistance(source, target);
+		}
+		
+		// check cached distances (the access order of the cache changes on reads too)
+		long[] row;
+		synchronized (this.rows) {
+			row = this.rows.get(source);
+		}
+		
+		// compute distances from the source if needed
+		if (row == null) {
+			row = this.dijkstra(source);
+			synchronized (this.rows) {
+				this.rows.put(source, row);
+			}
+		}
+		
+		// get distance
+		return row[target];
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public int getNumberOfEdges() {
+		// check the chordal graph
+		if (this.toCompute) {
+			this.compute();
+		}
+		
+		// get the number of edges of the chordal graph
+		return this.graph.getNumberOfEdges();
+	}
+	
+	/**
+	 * Returns the number of complete computations actually done
+	 * Only for testing purposes
+	 * 
+	 * @return
+	 */
+	public int getPropagationCounter() {
+		return propagationCounter;
+	}
+	
+	/**
+	 * Returns the number of incremental propagations actually done
+	 * Only for testing purposes
+	 * 
+	 * @return
+	 */
+	public int getUpdateCounter() {
+		return updateCounter;
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public void process(TimePointQuery query) {
+		
+		// check query type
+		switch (query.getType()) {
+			
+			// handle time point bound query
+			case TP_SCHEDULE : {
+				
+				// get query
+				TimePointScheduleQuery tpBoundQuery = (TimePointScheduleQuery) query;
+				// get time point
+				TimePoint point = tpBoundQuery.getTimePoint();
+				// get distance between the origin and the time point
+				point.setLowerBound(this.getDistanceLowerBound(this.tn.getOriginTimePoint(), point));
+				point.setUpperBound(this.getDistanceUpperBound(this.tn.getOriginTimePoint(), point));
+			}
+			break;
+			
+			// handle time point distance query
+			case TP_DISTANCE : {
+				
+				// get query
+				TimePointDistanceQuery tpDistanceQuery = (TimePointDistanceQuery) query;
+				// get distance between points
+				tpDistanceQuery.setDistanceLowerBound(this.getDistanceLowerBound(tpDistanceQuery.getSource(), tpDistanceQuery.getTarget()));
+				tpDistanceQuery.setDistanceUpperBound(this.getDistanceUpperBound(tpDistanceQuery.getSource(), tpDistanceQuery.getTarget()));
+			}
+			break;
+			
+			// handle time point distance to horizon query
+			case TP_DISTANCE_TO_HORIZON : {
+				
+				// get query
+				TimePointDistanceToHorizonQuery tpDistanceQuery = (TimePointDistanceToHorizonQuery) query;
+				// get distance to horizon
+				long[] distance = this.getDistance(tpDistanceQuery.getTimePoint(), this.tn.getHorizonTimePoint());
+				// set information
+				tpDistanceQuery.setDistance(distance);
+			}
+			break;
+			
+			default : {
+				
+				// not a time point query
+				throw new RuntimeException("Impossible to process this type of temporal query " + query.getType());
+			}
+		}
+	}
+	
+	/**
+	 * Returns the lower bound of the distance from Time Point tp1 to 
+	 * Time Point tp2 without allocating memory (once the distances 
+	 * from tp2 have been computed)
+	 * 
+	 * @param tp1
+	 * @param tp2
+	 * @return
+	 */
+	@Override
+	public long getDistanceLowerBound(TimePoint tp1, TimePoint tp2) {
+		
+		// check the chordal graph
+		if (this.toCompute) {
+			this.compute();
+		}
+		
+		// check if both time points exists and the network is consistent - total uncertainty otherwise
+		return this.consistent && this.graph.contains(tp1.getId()) && this.graph.contains(tp2.getId()) ? 
+				-this.distance(tp2.getId(), tp1.getId()) : 
+				-this.tn.getHorizon();
+	}
+	
+	/**
+	 * Returns the upper bound of the distance from Time Point tp1 to 
+	 * Time Point tp2 without allocating memory (once the distances 
+	 * from tp1 have been computed)
+	 * 
+	 * @param tp1
+	 * @param tp2
+	 * @return
+	 */
+	@Override
+	public long getDistanceUpperBound(TimePoint tp1, TimePoint tp2) {
+		
+		// check the chordal graph
+		if (this.toCompute) {
+			this.compute();
+		}
+		
+		// check if both time points exists and the network is consistent - total uncertainty otherwise
+		return this.consistent && this.graph.contains(tp1.getId()) && this.graph.contains(tp2.getId()) ? 
+				this.distance(tp1.getId(), tp2.getId()) : 
+				this.tn.getHorizon();
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public String toString() {
+		
+		// print distances between the time points
+		String matrix = "Distance matrix (Computed using P3C Algorithm)\n";
+		for (TimePoint i : this.tn.getTimePoints()) {
+			for (TimePoint j : this.tn.getTimePoints()) {
+				matrix += "\t" + this.getDistanceUpperBound(i, j);
+			}
+			matrix += "\n";
+		}
+		
+		// get description of the distance matrix
+		return matrix;
+	}
+	
+	/**
+	 * 
+	 */
+	@Override
+	public void printDiagnosticData() {
+		// print data
+		System.out.println("Distance matrix:\n"
+				+ "" + this + "\n");
+	}
+}
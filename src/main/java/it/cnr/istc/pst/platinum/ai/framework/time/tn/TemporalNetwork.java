@@ -7,6 +7,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.FrameworkObject;
 import it.cnr.istc.pst.platinum.ai.framework.time.tn.ex.InconsistentDistanceConstraintException;
@@ -29,6 +30,7 @@ import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.event.TemporalNetworkO
 public abstract class TemporalNetwork extends FrameworkObject 
 {
 	private final AtomicInteger tpCounter = new AtomicInteger(0);				// time point ID counter
+	private final AtomicLong version = new AtomicLong(0);						// modification version
 	protected long origin;
 	protected long horizon;
 	
@@ -104,6 +106,18 @@ public abstract class TemporalNetwork extends FrameworkObject
 		return this.horizon;
 	}
 	
+	/**
+	 * Returns the modification version of the network. The version is 
+	 * increased every time a change of the network is notified to the 
+	 * observers. Thus, the results of temporal queries do not change 
+	 * as long as the version does not change.
+	 * 
+	 * @return
+	 */
+	public final long getVersion() {
+		return this.version.get();
+	}
+	
 	/**
 	 * 
 	 * @return
@@ -237,6 +251,8 @@ public abstract class TemporalNetwork extends FrameworkObject
 		// check observers
 		synchronized (this.observers) {
 			
+			// update the version of the network
+			this.version.incrementAndGet();
 			// notify observers
 			for (TemporalNetworkObserver obs : this.observers) {
 				// do notify 
@@ -300,6 +316,8 @@ public abstract class TemporalNetwork extends FrameworkObject
 			
 				// check observers
 				synchronized (this.observers) {
+					// update the version of the network
+					this.version.incrementAndGet();
 					// notify observers
 					for (TemporalNetworkObserver obs : this.observers) {
 						// do notify
@@ -365,6 +383,8 @@ public abstract class TemporalNetwork extends FrameworkObject
 		
 		// check observers
 		synchronized (this.observers) {
+			// update the version of the network
+			this.version.incrementAndGet();
 			// notify observers
 			for (TemporalNetworkObserver obs : this.observers) {
 				// do notify
@@ -420,6 +440,8 @@ public abstract class TemporalNetwork extends FrameworkObject
 		
 		// check observers
 		synchronized (this.observers) {
+			// update the version of the network
+			this.version.incrementAndGet();
 			// notify observers
 			for (TemporalNetworkObserver obs : this.observers) {
 				obs.notify(info);
@@ -458,6 +480,8 @@ public abstract class TemporalNetwork extends FrameworkObject
 		// check observers
 		synchronized (this.observers) {
 			
+			// update the version of the network
+			this.version.incrementAndGet();
 			// notify observers
 			for (TemporalNetworkObserver obs : this.observers) {
 				// do notify
@@ -491,6 +515,8 @@ public abstract class TemporalNetwork extends FrameworkObject
 			
 		// check observers 
 		synchronized (this.observers) {
+			// update the version of the network
+			this.version.incrementAndGet();
 			// notify observers
 			for (TemporalNetworkObserver obs : this.observers) {
 				// do notify
@@ -550,6 +576,8 @@ public abstract class TemporalNetwork extends FrameworkObject
 		
 			// check observers
 			synchronized (this.observers) {
+				// update the version of the network
+				this.version.incrementAndGet();
 				// notify observers
 				for (TemporalNetworkObserver obs : this.observers) {
 					// do notify
@@ -623,6 +651,8 @@ public abstract class TemporalNetwork extends FrameworkObject
 				// check observers
 				synchronized (this.observers) {
 					
+					// update the version of the network
+					this.version.incrementAndGet();
 					// notify observers
 					for (TemporalNetworkObserver obs : this.observers) {
 						// do notify
@@ -657,6 +687,8 @@ public abstract class TemporalNetwork extends FrameworkObject
 			
 			// check observers
 			synchronized (this.observers) {
+				// update the version of the network
+				this.version.incrementAndGet();
 				// notify observers
 				for (TemporalNetworkObserver obs : this.observers) {
 					// do notify
@@ -697,6 +729,8 @@ public abstract class TemporalNetwork extends FrameworkObject
 			// check observers
 			synchronized (this.observers) {
 				
+				// update the version of the network
+				this.version.incrementAndGet();
 				// notify observers
 				for (TemporalNetworkObserver obs : this.observers) {
 					// do notify
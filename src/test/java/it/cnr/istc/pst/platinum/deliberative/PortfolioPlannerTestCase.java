@@ -0,0 +1,384 @@
+package it.cnr.istc.pst.platinum.deliberative;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import it.cnr.istc.pst.platinum.ai.deliberative.Planner;
+import it.cnr.istc.pst.platinum.ai.deliberative.PlannerBuilder;
+import it.cnr.istc.pst.platinum.ai.deliberative.PortfolioPlanner;
+import it.cnr.istc.pst.platinum.ai.deliberative.strategy.DepthFirstSearchStrategy;
+import it.cnr.istc.pst.platinum.ai.deliberative.strategy.GreedyDepthSearchStrategy;
+import it.cnr.istc.pst.platinum.ai.framework.domain.PlanDataBaseBuilder;
+import it.cnr.istc.pst.platinum.ai.framework.domain.component.Decision;
+import it.cnr.istc.pst.platinum.ai.framework.domain.component.DomainComponent;
+import it.cnr.istc.pst.platinum.ai.framework.domain.component.DomainComponentType;
+import it.cnr.istc.pst.platinum.ai.framework.domain.component.PlanDataBase;
+import it.cnr.istc.pst.platinum.ai.framework.domain.component.pdb.SynchronizationRule;
+import it.cnr.istc.pst.platinum.ai.framework.domain.component.pdb.TokenVariable;
+import it.cnr.istc.pst.platinum.ai.framework.domain.component.sv.PrimitiveStateVariable;
+import it.cnr.istc.pst.platinum.ai.framework.domain.component.sv.StateVariableValue;
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.annotation.cfg.FrameworkLoggerConfiguration;
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.annotation.cfg.deliberative.SearchStrategyConfiguration;
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.ex.NoSolutionFoundException;
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.plan.SolutionPlan;
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.problem.Problem;
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.relations.RelationType;
+import it.cnr.istc.pst.platinum.ai.framework.utils.log.FrameworkLoggingLevel;
+
+/**
+ * 
+ * @author alessandro
+ *
+ */
+public class PortfolioPlannerTestCase
+{
+	private static final long ORIGIN = 0;
+	private static final long HORIZON = 100;
+	private List<PlanDataBase> pdbs;
+	
+	/**
+	 * 
+	 */
+	@Before
+	public void init() {
+		System.out.println("**********************************************************************************");
+		System.out.println("*************************** Portfolio Planner Test Case **************************");
+		System.out.println("**********************************************************************************");
+		
+		// create a plan database for each planner of the portfolio
+		this.pdbs = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			this.pdbs.add(this.createPlanDataBase());
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@After
+	public void clear() {
+		this.pdbs = null;
+		System.gc();
+		System.out.println();
+		System.out.println("**********************************************************************************");
+		System.out.println();
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void independentPlanDataBases()
+	{
+		System.out.println("[Test]: independentPlanDataBases() ------------------------------------------------");
+		// decision IDs of the first plan database
+		Set<Integer> ids = this.getDecisionIds(this.pdbs.get(0));
+		Assert.assertFalse(ids.isEmpty());
+		for (PlanDataBase pdb : this.pdbs)
+		{
+			// each plan database keeps its own synchronization rules
+			List<SynchronizationRule> rules = pdb.getSynchronizationRules();
+			Assert.assertTrue(rules.size() == 1);
+			Assert.assertTrue(rules.get(0).getTriggerer().getValue().getComponent() == pdb.getComponentByName("C1"));
+			
+			// each plan database counts its own decisions
+			Assert.assertEquals(ids, this.getDecisionIds(pdb));
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void planAndCancelLosers()
+	{
+		System.out.println("[Test]: planAndCancelLosers() -----------------------------------------------------");
+		// decisions of the plan databases before planning
+		List<Set<Integer>> initial = new ArrayList<>();
+		for (PlanDataBase pdb : this.pdbs) {
+			initial.add(this.getDecisionIds(pdb));
+		}
+		
+		// create portfolio
+		PortfolioPlanner portfolio = PlannerBuilder.createPortfolio(Arrays.asList(
+				DepthFirstPlanner.class,
+				GreedyDepthPlanner.class,
+				WaitingPlanner.class), this.pdbs);
+		try
+		{
+			// solve the problem
+			SolutionPlan plan = portfolio.plan();
+			Assert.assertNotNull(plan);
+			System.out.println(plan);
+		}
+		catch (NoSolutionFoundException ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+		
+		// the waiting planner cannot win
+		Planner winner = portfolio.getPlanner();
+		Assert.assertNotNull(winner);
+		Assert.assertFalse(winner instanceof WaitingPlanner);
+		
+		// the plan of the winner achieves the goal
+		boolean goal = false;
+		for (Decision decision : this.pdbs.get(portfolio.getPlanners().indexOf(winner)).getPlan().getDecisions()) {
+			goal = goal || decision.getValue().getLabel().equals("Busy");
+		}
+		Assert.assertTrue(goal);
+		
+		// check the other planners
+		for (int i = 0; i < this.pdbs.size(); i++)
+		{
+			// get planner
+			TestPlanner planner = (TestPlanner) portfolio.getPlanners().get(i);
+			if (planner != winner)
+			{
+				// losers have been cancelled
+				Assert.assertTrue(planner.isCancelled());
+				// losers stopped without a solution leave their plan database as it was
+				if (planner.getCurrentNode() == null) {
+					Assert.assertEquals(initial.get(i), this.getDecisionIds(this.pdbs.get(i)));
+				}
+			}
+		}
+		
+		// the waiting planner has been stopped without a solution
+		Assert.assertNull(portfolio.getPlanners().get(2).getCurrentNode());
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void planTwice()
+	{
+		System.out.println("[Test]: planTwice() ---------------------------------------------------------------");
+		// create portfolio
+		PortfolioPlanner portfolio = PlannerBuilder.createPortfolio(Arrays.asList(
+				DepthFirstPlanner.class,
+				GreedyDepthPlanner.class,
+				WaitingPlanner.class), this.pdbs);
+		for (int run = 0; run < 2; run++)
+		{
+			try
+			{
+				// solve the problem
+				SolutionPlan plan = portfolio.plan();
+				Assert.assertNotNull(plan);
+				System.out.println(plan);
+			}
+			catch (NoSolutionFoundException ex) {
+				System.err.println(ex.getMessage());
+				Assert.assertTrue(false);
+			}
+			
+			// cancellation requests of the previous run do not stop the planners
+			Planner winner = portfolio.getPlanner();
+			Assert.assertNotNull(winner);
+			Assert.assertFalse(winner instanceof WaitingPlanner);
+			Assert.assertFalse(((TestPlanner) winner).isCancelled());
+			Assert.assertNotNull(winner.getCurrentNode());
+			
+			// losers have been cancelled
+			for (Planner planner : portfolio.getPlanners()) {
+				Assert.assertTrue(planner == winner || ((TestPlanner) planner).isCancelled());
+			}
+			
+			// cancel the winner too so that every planner has a pending cancellation request
+			winner.cancel();
+			Assert.assertTrue(((TestPlanner) winner).isCancelled());
+		}
+	}
+	
+	/**
+	 * 
+	 * @param pdb
+	 * @return
+	 */
+	private Set<Integer> getDecisionIds(PlanDataBase pdb)
+	{
+		// get the IDs of the decisions of the plan
+		Set<Integer> ids = new HashSet<>();
+		for (DomainComponent component : pdb.getComponents()) {
+			for (Decision decision : component.getActiveDecisions()) {
+				ids.add(decision.getId());
+			}
+			
+			for (Decision decision : component.getPendingDecisions()) {
+				ids.add(decision.getId());
+			}
+		}
+		
+		return ids;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	private PlanDataBase createPlanDataBase()
+	{
+		// create plan database
+		PlanDataBase pdb = PlanDataBaseBuilder.createAndSet("PDB", ORIGIN, HORIZON);
+		try
+		{
+			// create state variable
+			PrimitiveStateVariable c1 = pdb.createDomainComponent("C1", DomainComponentType.SV_PRIMITIVE);
+			// add values
+			StateVariableValue idle = c1.addStateVariableValue("Idle", new long[] {1, HORIZON}, true);
+			StateVariableValue busy = c1.addStateVariableValue("Busy", new long[] {5, 10}, true);
+			// add transitions
+			c1.addValueTransition(idle, busy);
+			c1.addValueTransition(busy, idle);
+			// add component
+			pdb.addDomainComponent(c1);
+			
+			// create state variable
+			PrimitiveStateVariable c2 = pdb.createDomainComponent("C2", DomainComponentType.SV_PRIMITIVE);
+			// add values
+			StateVariableValue off = c2.addStateVariableValue("Off", new long[] {1, HORIZON}, true);
+			StateVariableValue on = c2.addStateVariableValue("On", new long[] {1, HORIZON}, true);
+			// add transitions
+			c2.addValueTransition(off, on);
+			c2.addValueTransition(on, off);
+			// add component
+			pdb.addDomainComponent(c2);
+			
+			// create synchronization
+			SynchronizationRule rule = pdb.createSynchronizationRule(busy, new String[] {});
+			// add constraint
+			TokenVariable cd0 = rule.addTokenVariable(on, new String[] {});
+			rule.addTemporalConstraint(rule.getTriggerer(), cd0, RelationType.DURING, new long[][] {{0, HORIZON}, {0, HORIZON}});
+			// add rule
+			pdb.addSynchronizationRule(rule);
+			
+			// create problem
+			Problem problem = new Problem();
+			// add facts
+			problem.addFact(idle, new String[] {}, new long[] {0, 0}, new long[] {1, HORIZON});
+			problem.addFact(off, new String[] {}, new long[] {0, 0}, new long[] {1, HORIZON});
+			// add goal
+			problem.addGoal(busy, new String[] {}, new long[] {ORIGIN, HORIZON}, new long[] {ORIGIN, HORIZON});
+			// set problem
+			pdb.setup(problem);
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+		
+		// get plan database
+		return pdb;
+	}
+	
+	/**
+	 * 
+	 * @author alessandro
+	 *
+	 */
+	@SearchStrategyConfiguration(
+			strategy = DepthFirstSearchStrategy.class
+	)
+	@FrameworkLoggerConfiguration(
+			level = FrameworkLoggingLevel.OFF
+	)
+	public static class TestPlanner extends Planner
+	{
+		/**
+		 * 
+		 */
+		protected TestPlanner() {
+			super();
+		}
+		
+		/**
+		 * 
+		 * @return
+		 */
+		public boolean isCancelled() {
+			return this.solver.isCancelled();
+		}
+	}
+	
+	/**
+	 * 
+	 * @author alessandro
+	 *
+	 */
+	public static class DepthFirstPlanner extends TestPlanner
+	{
+		/**
+		 * 
+		 */
+		protected DepthFirstPlanner() {
+			super();
+		}
+	}
+	
+	/**
+	 * 
+	 * @author alessandro
+	 *
+	 */
+	@SearchStrategyConfiguration(
+			strategy = GreedyDepthSearchStrategy.class
+	)
+	public static class GreedyDepthPlanner extends TestPlanner
+	{
+		/**
+		 * 
+		 */
+		protected GreedyDepthPlanner() {
+			super();
+		}
+	}
+	
+	/**
+	 * Planner starting the search only after a cancellation request
+	 * 
+	 * @author alessandro
+	 *
+	 */
+	public static class WaitingPlanner extends TestPlanner
+	{
+		/**
+		 * 
+		 */
+		protected WaitingPlanner() {
+			super();
+		}
+		
+		/**
+		 * 
+		 */
+		@Override
+		public SolutionPlan plan()
+				throws NoSolutionFoundException
+		{
+			try
+			{
+				// wait a cancellation request
+				long start = System.currentTimeMillis();
+				while (!this.isCancelled() && System.currentTimeMillis() - start < 60000) {
+					Thread.sleep(10);
+				}
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			
+			// start planning
+			return super.plan();
+		}
+	}
+}
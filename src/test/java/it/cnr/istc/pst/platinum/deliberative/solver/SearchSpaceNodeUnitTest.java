@@ -0,0 +1,187 @@
+package it.cnr.istc.pst.platinum.deliberative.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import it.cnr.istc.pst.platinum.ai.deliberative.solver.Operator;
+import it.cnr.istc.pst.platinum.ai.deliberative.solver.SearchSpaceNode;
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.flaw.FlawSolution;
+
+/**
+ * 
+ * @author alessandro
+ *
+ */
+public class SearchSpaceNodeUnitTest
+{
+	private Operator[] ops;
+	private SearchSpaceNode root;
+	private SearchSpaceNode a, a1, a2, a11;
+	private SearchSpaceNode b, b1;
+	
+	/**
+	 * 
+	 */
+	@Before
+	public void init() {
+		System.out.println("**********************************************************************************");
+		System.out.println("************************* Search Space Node Test Case ****************************");
+		System.out.println("**********************************************************************************");
+		
+		// create operators
+		this.ops = new Operator[6];
+		for (int i = 0; i < this.ops.length; i++) {
+			this.ops[i] = new TestOperator(i + 1);
+		}
+		
+		// create the search tree
+		//
+		// root -- ops[0] -- a -- ops[2] -- a1 -- ops[4] -- a11
+		//   |                |
+		//   |                 -- ops[3] -- a2
+		//   |
+		//    --- ops[1] -- b -- ops[5] -- b1
+		this.root = new TestNode();
+		this.a = new TestNode(this.root, this.ops[0]);
+		this.b = new TestNode(this.root, this.ops[1]);
+		this.a1 = new TestNode(this.a, this.ops[2]);
+		this.a2 = new TestNode(this.a, this.ops[3]);
+		this.a11 = new TestNode(this.a1, this.ops[4]);
+		this.b1 = new TestNode(this.b, this.ops[5]);
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void siblingsTest()
+	{
+		System.out.println("[Test]: siblingsTest() ------------------------------------------------------------");
+		// siblings share the operators of their parent
+		Assert.assertEquals(1, this.a1.getCommonDepth(this.a2));
+		Assert.assertEquals(1, this.a2.getCommonDepth(this.a1));
+		Assert.assertEquals(0, this.a.getCommonDepth(this.b));
+		Assert.assertEquals(0, this.b.getCommonDepth(this.a));
+		
+		// each sibling differs by its generator only
+		Assert.assertEquals(Arrays.asList(this.ops[2]), this.a1.getOperatorsAfter(this.a1.getCommonDepth(this.a2)));
+		Assert.assertEquals(Arrays.asList(this.ops[3]), this.a2.getOperatorsAfter(this.a2.getCommonDepth(this.a1)));
+		Assert.assertEquals(Arrays.asList(this.ops[0]), this.a.getOperatorsAfter(this.a.getCommonDepth(this.b)));
+		Assert.assertEquals(Arrays.asList(this.ops[1]), this.b.getOperatorsAfter(this.b.getCommonDepth(this.a)));
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void cousinsTest()
+	{
+		System.out.println("[Test]: cousinsTest() -------------------------------------------------------------");
+		// cousins share the operators of their grandparent
+		Assert.assertEquals(0, this.a1.getCommonDepth(this.b1));
+		Assert.assertEquals(0, this.b1.getCommonDepth(this.a1));
+		Assert.assertEquals(Arrays.asList(this.ops[0], this.ops[2]), this.a1.getOperatorsAfter(this.a1.getCommonDepth(this.b1)));
+		Assert.assertEquals(Arrays.asList(this.ops[1], this.ops[5]), this.b1.getOperatorsAfter(this.b1.getCommonDepth(this.a1)));
+		
+		// nodes at different depths
+		Assert.assertEquals(1, this.a11.getCommonDepth(this.a2));
+		Assert.assertEquals(1, this.a2.getCommonDepth(this.a11));
+		Assert.assertEquals(Arrays.asList(this.ops[2], this.ops[4]), this.a11.getOperatorsAfter(this.a11.getCommonDepth(this.a2)));
+		Assert.assertEquals(Arrays.asList(this.ops[3]), this.a2.getOperatorsAfter(this.a2.getCommonDepth(this.a11)));
+		Assert.assertEquals(0, this.a11.getCommonDepth(this.b1));
+		Assert.assertEquals(Arrays.asList(this.ops[0], this.ops[2], this.ops[4]), this.a11.getOperatorsAfter(0));
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void ancestorsTest()
+	{
+		System.out.println("[Test]: ancestorsTest() -----------------------------------------------------------");
+		// the common depth of a node and its ancestor is the depth of the ancestor
+		Assert.assertEquals(1, this.a11.getCommonDepth(this.a));
+		Assert.assertEquals(1, this.a.getCommonDepth(this.a11));
+		Assert.assertEquals(0, this.a11.getCommonDepth(this.root));
+		Assert.assertEquals(0, this.root.getCommonDepth(this.b1));
+		Assert.assertEquals(Arrays.asList(this.ops[2], this.ops[4]), this.a11.getOperatorsAfter(this.a11.getCommonDepth(this.a)));
+		Assert.assertTrue(this.a.getOperatorsAfter(this.a.getCommonDepth(this.a11)).isEmpty());
+		
+		// a node shares all its operators with itself
+		Assert.assertEquals(3, this.a11.getCommonDepth(this.a11));
+		Assert.assertTrue(this.a11.getOperatorsAfter(3).isEmpty());
+		Assert.assertEquals(0, this.root.getCommonDepth(this.root));
+		Assert.assertTrue(this.root.getOperators().isEmpty());
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void contextSwitchTest()
+	{
+		System.out.println("[Test]: contextSwitchTest() -------------------------------------------------------");
+		// check all pairs of nodes
+		List<SearchSpaceNode> nodes = Arrays.asList(this.root, this.a, this.a1, this.a2, this.a11, this.b, this.b1);
+		for (SearchSpaceNode last : nodes) {
+			for (SearchSpaceNode next : nodes)
+			{
+				// retract the operators of the last node after the common ancestor
+				int depth = last.getCommonDepth(next);
+				List<Operator> plan = new ArrayList<>(last.getOperators());
+				List<Operator> retract = last.getOperatorsAfter(depth);
+				Assert.assertEquals(retract, plan.subList(depth, plan.size()));
+				plan.subList(depth, plan.size()).clear();
+				
+				// apply the operators of the next node after the common ancestor
+				plan.addAll(next.getOperatorsAfter(depth));
+				Assert.assertEquals(next.getOperators(), plan);
+			}
+		}
+	}
+	
+	/**
+	 * 
+	 * @author alessandro
+	 *
+	 */
+	private static class TestNode extends SearchSpaceNode
+	{
+		/**
+		 * 
+		 */
+		private TestNode() {
+			super();
+		}
+		
+		/**
+		 * 
+		 * @param parent
+		 * @param op
+		 */
+		private TestNode(SearchSpaceNode parent, Operator op) {
+			super(parent, op);
+		}
+	}
+	
+	/**
+	 * 
+	 * @author alessandro
+	 *
+	 */
+	private static class TestOperator extends Operator
+	{
+		/**
+		 * 
+		 * @param cost
+		 */
+		private TestOperator(double cost) {
+			super(new FlawSolution(null, cost) {});
+		}
+	}
+}
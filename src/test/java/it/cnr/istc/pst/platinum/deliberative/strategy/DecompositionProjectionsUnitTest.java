@@ -0,0 +1,539 @@
+package it.cnr.istc.pst.platinum.deliberative.strategy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import it.cnr.istc.pst.platinum.ai.deliberative.strategy.DecompositionProjections;
+import it.cnr.istc.pst.platinum.ai.framework.domain.DomainComponentBuilder;
+import it.cnr.istc.pst.platinum.ai.framework.domain.component.ComponentValue;
+import it.cnr.istc.pst.platinum.ai.framework.domain.component.DomainComponent;
+import it.cnr.istc.pst.platinum.ai.framework.domain.component.DomainComponentType;
+import it.cnr.istc.pst.platinum.ai.framework.domain.component.sv.PrimitiveStateVariable;
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.annotation.cfg.framework.ParameterFacadeConfiguration;
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.annotation.cfg.framework.TemporalFacadeConfiguration;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.ParameterFacade;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.ParameterFacadeBuilder;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.csp.solver.ParameterSolverType;
+import it.cnr.istc.pst.platinum.ai.framework.time.TemporalFacade;
+import it.cnr.istc.pst.platinum.ai.framework.time.TemporalFacadeBuilder;
+import it.cnr.istc.pst.platinum.ai.framework.time.solver.TemporalSolverType;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TemporalNetworkType;
+
+/**
+ * Compare the compiled projections of decomposition graphs with the recursive
+ * computation of the search strategies. The recursive computation ignores the
+ * decompositions closing a cycle, since it would not terminate otherwise.
+ * 
+ * @author alessandro
+ *
+ */
+@TemporalFacadeConfiguration(
+		network = TemporalNetworkType.STNU,
+		solver = TemporalSolverType.APSP
+)
+@ParameterFacadeConfiguration(
+		solver = ParameterSolverType.CHOCHO_SOLVER
+)
+public class DecompositionProjectionsUnitTest
+{
+	private static final int ORIGIN = 0;
+	private static final int HORIZON = 1000;
+	private static final double UNIFICATION_COST = 1.5;
+	private List<PrimitiveStateVariable> components;
+	private int cuts;
+	
+	/**
+	 * 
+	 */
+	@Before
+	public void init()
+	{
+		System.out.println("**********************************************************************************");
+		System.out.println("********************** Decomposition Projections Test Case ***********************");
+		System.out.println("**********************************************************************************");
+		
+		// create facades
+		TemporalFacade tf = TemporalFacadeBuilder.createAndSet(this, ORIGIN, HORIZON);
+		ParameterFacade pf = ParameterFacadeBuilder.createAndSet(this);
+		// create components
+		this.components = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			PrimitiveStateVariable sv = DomainComponentBuilder.createAndSet("SV" + i, DomainComponentType.SV_PRIMITIVE, tf, pf);
+			this.components.add(sv);
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void acyclicGraphTest()
+	{
+		System.out.println("[Test]: acyclicGraphTest() --------------------------------------------------------");
+		for (int seed = 0; seed < 20; seed++)
+		{
+			// create a layered graph where values decompose into values of the following layers
+			Random random = new Random(seed);
+			List<ComponentValue> values = this.createValues("A" + seed, 30, random);
+			Map<ComponentValue, List<List<ComponentValue>>> graph = new HashMap<>();
+			for (int i = 0; i < values.size() - 1; i++) {
+				graph.put(values.get(i), this.createDecompositions(values.subList(i + 1, values.size()), random));
+			}
+			
+			// the recursive computation never ignores a decomposition
+			this.cuts = 0;
+			this.compare(graph, values);
+			Assert.assertEquals(0, this.cuts);
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void cyclicGraphTest()
+	{
+		System.out.println("[Test]: cyclicGraphTest() ---------------------------------------------------------");
+		for (int seed = 0; seed < 20; seed++)
+		{
+			// create a graph where values decompose into any value
+			Random random = new Random(seed);
+			List<ComponentValue> values = this.createValues("C" + seed, 12, random);
+			Map<ComponentValue, List<List<ComponentValue>>> graph = new HashMap<>();
+			for (int i = 0; i < values.size(); i++) {
+				if (random.nextInt(4) > 0) {
+					graph.put(values.get(i), this.createDecompositions(values, random));
+				}
+			}
+			
+			// close at least a cycle
+			for (int i = 0; i < 2; i++) {
+				if (!graph.containsKey(values.get(i))) {
+					graph.put(values.get(i), new ArrayList<>());
+				}
+				
+				graph.get(values.get(i)).add(Arrays.asList(values.get(1 - i), values.get(2 + i)));
+			}
+			
+			// the recursive computation ignores some decompositions
+			this.cuts = 0;
+			this.compare(graph, values);
+			Assert.assertTrue(this.cuts > 0);
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void cyclicDomainTest()
+	{
+		System.out.println("[Test]: cyclicDomainTest() --------------------------------------------------------");
+		// a goes through b, while b can go back to a or go through c
+		PrimitiveStateVariable sv = this.components.get(0);
+		ComponentValue a = sv.addStateVariableValue("a", new long[] {5, 10}, true);
+		ComponentValue b = sv.addStateVariableValue("b", new long[] {3, 7}, true);
+		ComponentValue c = sv.addStateVariableValue("c", new long[] {2, 4}, true);
+		Map<ComponentValue, List<List<ComponentValue>>> graph = new HashMap<>();
+		graph.put(a, Arrays.asList(Arrays.asList(b)));
+		graph.put(b, Arrays.asList(Arrays.asList(a), Arrays.asList(c)));
+		this.compare(graph, Arrays.asList(a, b, c));
+		
+		// projections do not grow along the cycle
+		DecompositionProjections projections = new DecompositionProjections(graph, UNIFICATION_COST);
+		Assert.assertTrue(Arrays.equals(new Double[] {3 * UNIFICATION_COST, 3 * UNIFICATION_COST}, projections.getCostProjections(a).get(sv)));
+		Assert.assertTrue(Arrays.equals(new Double[] {2 * UNIFICATION_COST, 2 * UNIFICATION_COST}, projections.getCostProjections(b).get(sv)));
+		Assert.assertTrue(Arrays.equals(new Double[] {10.0, 12.0}, projections.getMakespanProjections(a).get(sv)));
+		Assert.assertTrue(Arrays.equals(new Double[] {5.0, 8.0}, projections.getMakespanProjections(b).get(sv)));
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void benchmarkTest()
+	{
+		System.out.println("[Test]: benchmarkTest() -----------------------------------------------------------");
+		// create a layered graph (6 levels of 10 values, 2 decompositions of 2 subgoals each)
+		Random random = new Random(0);
+		List<List<ComponentValue>> levels = new ArrayList<>();
+		for (int l = 0; l < 6; l++) {
+			levels.add(this.createValues("L" + l, 10, random));
+		}
+		
+		Map<ComponentValue, List<List<ComponentValue>>> graph = new HashMap<>();
+		for (int l = 0; l < levels.size() - 1; l++) {
+			for (ComponentValue value : levels.get(l)) {
+				List<List<ComponentValue>> decompositions = new ArrayList<>();
+				for (int d = 0; d < 2; d++) {
+					decompositions.add(Arrays.asList(
+							levels.get(l + 1).get(random.nextInt(10)), 
+							levels.get(l + 1).get(random.nextInt(10))));
+				}
+				
+				graph.put(value, decompositions);
+			}
+		}
+		
+		// compile projections
+		long time = System.nanoTime();
+		DecompositionProjections projections = new DecompositionProjections(graph, UNIFICATION_COST);
+		long compile = System.nanoTime() - time;
+		
+		// evaluate 20 goals per node through the recursive computation and the compiled projections
+		int nodes = 100;
+		long recursive = 0;
+		long lookup = 0;
+		for (int n = 0; n < nodes; n++) 
+		{
+			// select goals
+			List<ComponentValue> goals = new ArrayList<>();
+			for (int g = 0; g < 20; g++) {
+				goals.add(levels.get(random.nextInt(levels.size())).get(random.nextInt(10)));
+			}
+			
+			time = System.nanoTime();
+			List<Map<DomainComponent, Double[]>> expected = new ArrayList<>();
+			for (ComponentValue goal : goals) {
+				expected.add(this.computeCostProjections(graph, goal, new HashSet<>()));
+			}
+			
+			recursive += System.nanoTime() - time;
+			time = System.nanoTime();
+			List<Map<DomainComponent, Double[]>> actual = new ArrayList<>();
+			for (ComponentValue goal : goals) {
+				actual.add(projections.getCostProjections(goal));
+			}
+			
+			lookup += System.nanoTime() - time;
+			// check projections
+			for (int g = 0; g < goals.size(); g++) {
+				this.assertEquals(expected.get(g), actual.get(g));
+			}
+		}
+		
+		System.out.println("Compilation= " + (compile / 1000) + " microsecs, "
+				+ "recursive computation= " + (recursive / nodes / 1000) + " microsecs/node, "
+				+ "compiled projections= " + (lookup / nodes / 1000) + " microsecs/node");
+	}
+	
+	/**
+	 * 
+	 * @param graph
+	 * @param values
+	 */
+	private void compare(Map<ComponentValue, List<List<ComponentValue>>> graph, List<ComponentValue> values)
+	{
+		// compile projections
+		DecompositionProjections projections = new DecompositionProjections(graph, UNIFICATION_COST);
+		for (ComponentValue value : values)
+		{
+			// compare with the recursive computation
+			Map<DomainComponent, Double[]> cost = this.computeCostProjections(graph, value, new HashSet<>());
+			Map<DomainComponent, Double[]> makespan = this.computeMakespanProjections(graph, value, new HashSet<>());
+			this.assertEquals(cost, projections.getCostProjections(value));
+			this.assertEquals(makespan, projections.getMakespanProjections(value));
+		}
+	}
+	
+	/**
+	 * 
+	 * @param expected
+	 * @param actual
+	 */
+	private void assertEquals(Map<DomainComponent, Double[]> expected, Map<DomainComponent, Double[]> actual)
+	{
+		Assert.assertEquals(expected.keySet(), actual.keySet());
+		for (DomainComponent c : expected.keySet()) {
+			Assert.assertTrue(Arrays.equals(expected.get(c), actual.get(c)));
+		}
+	}
+	
+	/**
+	 * 
+	 * @param prefix
+	 * @param size
+	 * @param random
+	 * @return
+	 */
+	private List<ComponentValue> createValues(String prefix, int size, Random random)
+	{
+		List<ComponentValue> values = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			// add a value to a random component
+			long lb = 1 + random.nextInt(20);
+			PrimitiveStateVariable sv = this.components.get(random.nextInt(this.components.size()));
+			values.add(sv.addStateVariableValue(prefix + "-" + i, new long[] {lb, lb + random.nextInt(20)}, true));
+		}
+		
+		return values;
+	}
+	
+	/**
+	 * 
+	 * @param subgoals
+	 * @param random
+	 * @return
+	 */
+	private List<List<ComponentValue>> createDecompositions(List<ComponentValue> subgoals, Random random)
+	{
+		List<List<ComponentValue>> decompositions = new ArrayList<>();
+		int size = random.nextInt(4);
+		for (int i = 0; i < size; i++) {
+			// decompositions may be empty or contain the same subgoal more than once
+			List<ComponentValue> decomposition = new ArrayList<>();
+			int length = random.nextInt(4);
+			for (int j = 0; j < length; j++) {
+				decomposition.add(subgoals.get(random.nextInt(subgoals.size())));
+			}
+			
+			decompositions.add(decomposition);
+		}
+		
+		return decompositions;
+	}
+	
+	/**
+	 * Recursive computation of the cost projections of the search strategies
+	 * 
+	 * @param pgraph
+	 * @param value
+	 * @param path
+	 * @return
+	 */
+	private Map<DomainComponent, Double[]> computeCostProjections(Map<ComponentValue, List<List<ComponentValue>>> pgraph,
+			ComponentValue value, Set<ComponentValue> path) {
+		
+		// set cost
+		Map<DomainComponent, Double[]> cost = new HashMap<>();
+		// check if leaf
+		if (!pgraph.containsKey(value) ||
+				pgraph.get(value).isEmpty()) {
+			
+			// set cost
+			cost.put(value.getComponent(), new Double[] {
+					UNIFICATION_COST,
+					UNIFICATION_COST
+			});
+		
+		} else {
+			
+			// get possible decompositions
+			path.add(value);
+			for (List<ComponentValue> decomposition : pgraph.get(value)) {
+				
+				// ignore decompositions closing a cycle
+				if (this.isCycle(decomposition, path)) {
+					continue;
+				}
+				
+				// decomposition costs
+				Map<DomainComponent, Double[]> dCosts = new HashMap<>();
+				for (ComponentValue subgoal : decomposition) {
+					
+					// compute planning cost of the subgoal
+					Map<DomainComponent, Double[]> update = this.computeCostProjections(pgraph, subgoal, path);
+					for (DomainComponent c : update.keySet()) {
+						
+						if (!dCosts.containsKey(c)) {
+							// set cost
+							dCosts.put(c, new Double[] {
+									update.get(c)[0],
+									update.get(c)[1]
+							});
+						
+						} else {
+							
+							// update cost
+							dCosts.put(c, new Double[] {
+									dCosts.get(c)[0] + update.get(c)[0],
+									dCosts.get(c)[1] + update.get(c)[1]
+							});
+						}
+					}
+				}
+				
+				// update pessimistic and optimistic projections
+				for (DomainComponent c : dCosts.keySet()) {
+					if (!cost.containsKey(c)) {
+						
+						// set cost
+						cost.put(c, new Double[] {
+							dCosts.get(c)[0],
+							dCosts.get(c)[1]
+						});
+					
+					} else {
+						
+						// get min and max
+						cost.put(c, new Double[] {
+								Math.min(cost.get(c)[0], dCosts.get(c)[0]),
+								Math.max(cost.get(c)[1], dCosts.get(c)[1])
+						});
+					}
+				}
+			}
+			
+			path.remove(value);
+			// set cost associated to the value
+			if (!cost.containsKey(value.getComponent())) {
+				
+				// set cost
+				cost.put(value.getComponent(), new Double[] {
+						UNIFICATION_COST,
+						UNIFICATION_COST
+				});
+			
+			} else {
+				
+				// weight cost according to the hierarchical value
+				cost.put(value.getComponent(), new Double[] {
+						UNIFICATION_COST + cost.get(value.getComponent())[0],
+						UNIFICATION_COST + cost.get(value.getComponent())[1]
+				});
+			}
+		}
+		
+		// get cost
+		return cost;
+	}
+	
+	/**
+	 * Recursive computation of the makespan projections of the search strategies
+	 * 
+	 * @param pgraph
+	 * @param value
+	 * @param path
+	 * @return
+	 */
+	private Map<DomainComponent, Double[]> computeMakespanProjections(Map<ComponentValue, List<List<ComponentValue>>> pgraph,
+			ComponentValue value, Set<ComponentValue> path)
+	{
+		// set data structure
+		Map<DomainComponent, Double[]> makespan = new HashMap<>();
+		// check if leaf
+		if (!pgraph.containsKey(value) ||
+				pgraph.get(value).isEmpty()) {
+			
+			// set value expected minimum duration
+			makespan.put(value.getComponent(), new Double[] {
+					(double) value.getDurationLowerBound(),
+					(double) value.getDurationUpperBound()
+			});
+		
+		} else {
+			
+			// check possible decompositions
+			path.add(value);
+			for (List<ComponentValue> decomposition : pgraph.get(value)) {
+				
+				// ignore decompositions closing a cycle
+				if (this.isCycle(decomposition, path)) {
+					continue;
+				}
+				
+				// set decomposition makespan
+				Map<DomainComponent, Double[]> dMakespan = new HashMap<>();
+				// check subgoals
+				for (ComponentValue subgoal : decomposition) {
+					
+					// recursive call to compute (pessimistic) makespan estimation
+					Map<DomainComponent, Double[]> update = this.computeMakespanProjections(pgraph, subgoal, path);
+					// increment decomposition makespan
+					for (DomainComponent c : update.keySet()) {
+						
+						// check decomposition  makespan
+						if (!dMakespan.containsKey(c)) {
+							// add entry
+							dMakespan.put(c, new Double[] {
+									update.get(c)[0],
+									update.get(c)[1]
+							});
+						
+						} else {
+							
+							// increment component's makespan
+							dMakespan.put(c, new Double[] {
+									dMakespan.get(c)[0] + update.get(c)[0],
+									dMakespan.get(c)[1] + update.get(c)[1]
+							});
+						}
+					}
+				}
+				
+				// update resulting makespan by taking into account the maximum value
+				for (DomainComponent c : dMakespan.keySet()) {
+					
+					// check makespan
+					if (!makespan.containsKey(c)) {
+						
+						// add entry
+						makespan.put(c, new Double[] {
+								dMakespan.get(c)[0],
+								dMakespan.get(c)[1]
+						});
+					
+					} else {
+						
+						// set the pessimistic and optimistic projections
+						makespan.put(c, new Double[] {
+								Math.min(makespan.get(c)[0], dMakespan.get(c)[0]),
+								Math.max(makespan.get(c)[1], dMakespan.get(c)[1])
+						});
+					}
+				}
+			}
+			
+			path.remove(value);
+			// set cost associated to the value
+			if (!makespan.containsKey(value.getComponent())) {
+				
+				// set cost
+				makespan.put(value.getComponent(), new Double[] {
+						(double) value.getDurationLowerBound(),
+						(double) value.getDurationLowerBound()
+				});
+			
+			} else {
+				
+				// increment makespan
+				makespan.put(value.getComponent(), new Double[] {
+						makespan.get(value.getComponent())[0] + ((double) value.getDurationLowerBound()),
+						makespan.get(value.getComponent())[1] + ((double) value.getDurationLowerBound())
+				});
+			}
+		}
+		
+		// get the makespan
+		return makespan;
+	}
+	
+	/**
+	 * 
+	 * @param decomposition
+	 * @param path
+	 * @return
+	 */
+	private boolean isCycle(List<ComponentValue> decomposition, Set<ComponentValue> path)
+	{
+		for (ComponentValue subgoal : decomposition) {
+			if (path.contains(subgoal)) {
+				// count ignored decompositions
+				this.cuts++;
+				return true;
+			}
+		}
+		
+		return false;
+	}
+}
@@ -0,0 +1,161 @@
+package it.cnr.istc.pst.platinum.deliberative.strategy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import it.cnr.istc.pst.platinum.ai.deliberative.solver.PartialPlanSignature;
+import it.cnr.istc.pst.platinum.ai.deliberative.strategy.TranspositionTable;
+
+/**
+ * 
+ * @author alessandro
+ *
+ */
+public class TranspositionTableUnitTest
+{
+	/**
+	 * 
+	 */
+	@Before
+	public void init() {
+		System.out.println("**********************************************************************************");
+		System.out.println("************************* Transposition Table Test Case **************************");
+		System.out.println("**********************************************************************************");
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void pruneDuplicatesTest()
+	{
+		System.out.println("[Test]: pruneDuplicatesTest() -----------------------------------------------------");
+		// create table
+		TranspositionTable table = new TranspositionTable(100);
+		// same partial plan built through different orders of operators
+		PartialPlanSignature s1 = new PartialPlanSignature(Arrays.asList(
+				"ACTIVE Robot.At(a)[0, 10][5, 20][5, 10]",
+				"ACTIVE Robot.GoTo(a, b)[5, 20][10, 30][5, 10]",
+				"ACTIVE MEETS Robot.At(a)[0, 10][5, 20][5, 10] Robot.GoTo(a, b)[5, 20][10, 30][5, 10] [0, 0]"));
+		PartialPlanSignature s2 = new PartialPlanSignature(Arrays.asList(
+				"ACTIVE MEETS Robot.At(a)[0, 10][5, 20][5, 10] Robot.GoTo(a, b)[5, 20][10, 30][5, 10] [0, 0]",
+				"ACTIVE Robot.GoTo(a, b)[5, 20][10, 30][5, 10]",
+				"ACTIVE Robot.At(a)[0, 10][5, 20][5, 10]"));
+		Assert.assertEquals(s1, s2);
+		Assert.assertEquals(s1.hashCode(), s2.hashCode());
+		
+		// the first visit is expanded while the duplicate is pruned
+		Assert.assertTrue(table.visit(s1, 10));
+		Assert.assertFalse(table.visit(s2, 10));
+		Assert.assertFalse(table.visit(s2, 12));
+		Assert.assertEquals(2, table.getNumberOfPrunedDuplicates());
+		Assert.assertEquals(0, table.getNumberOfMergedDuplicates());
+		
+		// a cheaper path to the same partial plan is expanded
+		Assert.assertTrue(table.visit(s2, 8));
+		Assert.assertEquals(1, table.getNumberOfMergedDuplicates());
+		Assert.assertFalse(table.visit(s1, 8));
+		Assert.assertEquals(3, table.getNumberOfPrunedDuplicates());
+		Assert.assertEquals(1, table.size());
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void distinguishRelationBoundsTest()
+	{
+		System.out.println("[Test]: distinguishRelationBoundsTest() -------------------------------------------");
+		// create table
+		TranspositionTable table = new TranspositionTable(100);
+		// partial plans differing only in the bounds of a relation
+		PartialPlanSignature s1 = new PartialPlanSignature(Arrays.asList(
+				"ACTIVE Robot.At(a)[0, 10][5, 20][5, 10]",
+				"ACTIVE Camera.Idle()[0, 10][5, 20][5, 10]",
+				"ACTIVE BEFORE Robot.At(a)[0, 10][5, 20][5, 10] Camera.Idle()[0, 10][5, 20][5, 10] [0, 5]"));
+		PartialPlanSignature s2 = new PartialPlanSignature(Arrays.asList(
+				"ACTIVE Robot.At(a)[0, 10][5, 20][5, 10]",
+				"ACTIVE Camera.Idle()[0, 10][5, 20][5, 10]",
+				"ACTIVE BEFORE Robot.At(a)[0, 10][5, 20][5, 10] Camera.Idle()[0, 10][5, 20][5, 10] [3, 5]"));
+		Assert.assertNotEquals(s1, s2);
+		
+		// both partial plans are expanded
+		Assert.assertTrue(table.visit(s1, 10));
+		Assert.assertTrue(table.visit(s2, 10));
+		Assert.assertEquals(0, table.getNumberOfPrunedDuplicates());
+		Assert.assertEquals(2, table.size());
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void hashCollisionTest()
+	{
+		System.out.println("[Test]: hashCollisionTest() -------------------------------------------------------");
+		// look for two different partial plans with the same hash code
+		Random random = new Random(13);
+		Map<Integer, PartialPlanSignature> signatures = new HashMap<>();
+		PartialPlanSignature s1 = null;
+		PartialPlanSignature s2 = null;
+		while (s1 == null)
+		{
+			// create a random partial plan
+			List<String> elements = new ArrayList<>();
+			for (int i = 0; i < 3; i++) {
+				elements.add("ACTIVE Robot.At(l" + random.nextInt(1000000) + ")[0, 10][5, 20][5, 10]");
+			}
+			
+			// check hash code
+			PartialPlanSignature signature = new PartialPlanSignature(elements);
+			PartialPlanSignature other = signatures.put(signature.hashCode(), signature);
+			if (other != null && !other.equals(signature)) {
+				s1 = other;
+				s2 = signature;
+			}
+		}
+		
+		// partial plans with colliding hash codes must not be confused
+		Assert.assertEquals(s1.hashCode(), s2.hashCode());
+		Assert.assertNotEquals(s1, s2);
+		
+		// create table
+		TranspositionTable table = new TranspositionTable(100);
+		Assert.assertTrue(table.visit(s1, 10));
+		Assert.assertTrue(table.visit(s2, 10));
+		Assert.assertEquals(0, table.getNumberOfPrunedDuplicates());
+		Assert.assertEquals(2, table.size());
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void evictionTest()
+	{
+		System.out.println("[Test]: evictionTest() ------------------------------------------------------------");
+		// create table
+		TranspositionTable table = new TranspositionTable(2);
+		PartialPlanSignature s1 = new PartialPlanSignature(Arrays.asList("ACTIVE Robot.At(a)[0, 10][5, 20][5, 10]"));
+		PartialPlanSignature s2 = new PartialPlanSignature(Arrays.asList("ACTIVE Robot.At(b)[0, 10][5, 20][5, 10]"));
+		PartialPlanSignature s3 = new PartialPlanSignature(Arrays.asList("ACTIVE Robot.At(c)[0, 10][5, 20][5, 10]"));
+		Assert.assertTrue(table.visit(s1, 10));
+		Assert.assertTrue(table.visit(s2, 10));
+		// access the first partial plan so the second becomes the eldest one
+		Assert.assertFalse(table.visit(s1, 10));
+		Assert.assertTrue(table.visit(s3, 10));
+		Assert.assertEquals(2, table.size());
+		
+		// the second partial plan has been evicted
+		Assert.assertTrue(table.visit(s2, 10));
+		Assert.assertFalse(table.visit(s3, 10));
+	}
+}
@@ -0,0 +1,236 @@
+package it.cnr.istc.pst.platinum.deliberative.strategy.telemetry;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import it.cnr.istc.pst.platinum.ai.deliberative.strategy.telemetry.FileSearchTelemetrySink;
+import it.cnr.istc.pst.platinum.ai.deliberative.strategy.telemetry.RingBufferSearchTelemetrySink;
+import it.cnr.istc.pst.platinum.ai.deliberative.strategy.telemetry.SearchRecord;
+import it.cnr.istc.pst.platinum.ai.deliberative.strategy.telemetry.SearchTelemetry;
+import it.cnr.istc.pst.platinum.ai.deliberative.strategy.telemetry.SearchTelemetrySink;
+
+/**
+ * 
+ * @author alessandro
+ *
+ */
+public class SearchTelemetryUnitTest 
+{
+	/**
+	 * 
+	 */
+	@Before
+	public void init() {
+		System.out.println("**********************************************************************************");
+		System.out.println("*************************** Search Telemetry Test Case ***************************");
+		System.out.println("**********************************************************************************");
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void writeRecordsTest() 
+	{
+		System.out.println("[Test]: writeRecordsTest() --------------------------------------------------------");
+		// create telemetry
+		RingBufferSearchTelemetrySink sink = new RingBufferSearchTelemetrySink(1000);
+		SearchTelemetry telemetry = new SearchTelemetry(sink, 1000, 7);
+		for (int i = 0; i < 100; i++) {
+			Assert.assertTrue(telemetry.offer(this.create(i)));
+		}
+		
+		// write pending records
+		telemetry.close();
+		Assert.assertEquals(100, telemetry.getNumberOfWrittenRecords());
+		Assert.assertEquals(0, telemetry.getNumberOfDroppedRecords());
+		
+		// check order of records
+		List<SearchRecord> records = sink.getRecords();
+		Assert.assertEquals(100, records.size());
+		for (int i = 0; i < 100; i++) {
+			Assert.assertEquals(i, records.get(i).getStep());
+		}
+		
+		// no record accepted after closing
+		Assert.assertFalse(telemetry.offer(this.create(100)));
+		Assert.assertEquals(1, telemetry.getNumberOfDroppedRecords());
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void dropRecordsTest() 
+	{
+		System.out.println("[Test]: dropRecordsTest() ---------------------------------------------------------");
+		// create a sink slower than the search
+		RingBufferSearchTelemetrySink buffer = new RingBufferSearchTelemetrySink(1000);
+		SearchTelemetrySink sink = new SearchTelemetrySink() {
+			
+			/**
+			 * 
+			 */
+			@Override
+			public void write(List<SearchRecord> records) 
+					throws Exception {
+				Thread.sleep(50);
+				buffer.write(records);
+			}
+			
+			/**
+			 * 
+			 */
+			@Override
+			public void close() {
+				buffer.close();
+			}
+		};
+		
+		// create telemetry
+		SearchTelemetry telemetry = new SearchTelemetry(sink, 10, 5);
+		long start = System.currentTimeMillis();
+		for (int i = 0; i < 1000; i++) {
+			telemetry.offer(this.create(i));
+		}
+		
+		// records are offered without waiting the sink
+		Assert.assertTrue(System.currentTimeMillis() - start < 1000);
+		
+		// write pending records
+		telemetry.close();
+		Assert.assertTrue(telemetry.getNumberOfDroppedRecords() > 0);
+		Assert.assertEquals(1000, telemetry.getNumberOfWrittenRecords() + telemetry.getNumberOfDroppedRecords());
+		Assert.assertEquals(telemetry.getNumberOfWrittenRecords(), buffer.getNumberOfWrittenRecords());
+		System.out.println("Dropped records: " + telemetry.getNumberOfDroppedRecords());
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void closeWhileOfferingTest() 
+	{
+		System.out.println("[Test]: closeWhileOfferingTest() --------------------------------------------------");
+		try
+		{
+			for (int run = 0; run < 50; run++)
+			{
+				// create telemetry
+				RingBufferSearchTelemetrySink sink = new RingBufferSearchTelemetrySink(100000);
+				SearchTelemetry telemetry = new SearchTelemetry(sink, 100000, 64);
+				// offer records concurrently
+				AtomicLong accepted = new AtomicLong(0);
+				CountDownLatch started = new CountDownLatch(4);
+				List<Thread> threads = new ArrayList<>();
+				for (int t = 0; t < 4; t++) {
+					threads.add(new Thread(() -> {
+						started.countDown();
+						for (int i = 0; i < 2000; i++) {
+							if (telemetry.offer(this.create(i))) {
+								accepted.incrementAndGet();
+							}
+						}
+					}));
+				}
+				
+				for (Thread t : threads) {
+					t.start();
+				}
+				
+				// close while records are offered
+				started.await();
+				telemetry.close();
+				for (Thread t : threads) {
+					t.join();
+				}
+				
+				// accepted records are all written
+				Assert.assertEquals(accepted.get(), telemetry.getNumberOfWrittenRecords());
+				Assert.assertEquals(accepted.get(), sink.getNumberOfWrittenRecords());
+				Assert.assertEquals(8000, telemetry.getNumberOfWrittenRecords() + telemetry.getNumberOfDroppedRecords());
+			}
+		}
+		catch (Exception ex) {
+			Assert.fail(ex.getMessage());
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void ringBufferTest() 
+	{
+		System.out.println("[Test]: ringBufferTest() ----------------------------------------------------------");
+		// create telemetry
+		RingBufferSearchTelemetrySink sink = new RingBufferSearchTelemetrySink(10);
+		SearchTelemetry telemetry = new SearchTelemetry(sink, 100, 3);
+		for (int i = 0; i < 25; i++) {
+			telemetry.offer(this.create(i));
+		}
+		
+		// write pending records
+		telemetry.close();
+		
+		// only the last records are kept
+		List<SearchRecord> records = sink.getRecords();
+		Assert.assertEquals(25, sink.getNumberOfWrittenRecords());
+		Assert.assertEquals(10, records.size());
+		for (int i = 0; i < 10; i++) {
+			Assert.assertEquals(15 + i, records.get(i).getStep());
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void fileSinkTest() 
+	{
+		System.out.println("[Test]: fileSinkTest() ------------------------------------------------------------");
+		try
+		{
+			// create telemetry file
+			File file = File.createTempFile("search", ".jsonl");
+			file.deleteOnExit();
+			SearchTelemetry telemetry = new SearchTelemetry(new FileSearchTelemetrySink(file.getAbsolutePath()), 100, 4);
+			for (int i = 0; i < 10; i++) {
+				telemetry.offer(this.create(i));
+			}
+			
+			// write pending records
+			telemetry.close();
+			
+			// check lines
+			List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+			Assert.assertEquals(10, lines.size());
+			Assert.assertTrue(lines.get(3).startsWith("{ \"step\": 3,"));
+			Assert.assertTrue(lines.get(3).endsWith("}"));
+		}
+		catch (Exception ex) {
+			Assert.fail(ex.getMessage());
+		}
+	}
+	
+	/**
+	 * 
+	 * @param step
+	 * @return
+	 */
+	private SearchRecord create(int step) {
+		return new SearchRecord(step, 10, 3, step, 1.0, 
+				new double[] {5.0, 10.0}, 
+				new double[] {2.0, 4.0}, 
+				new double[] {7.0, 12.0});
+	}
+}
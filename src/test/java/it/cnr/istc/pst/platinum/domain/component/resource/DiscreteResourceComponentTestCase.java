@@ -1,7 +1,10 @@
 package it.cnr.istc.pst.platinum.domain.component.resource;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -15,16 +18,20 @@ import it.cnr.istc.pst.platinum.ai.framework.domain.component.ex.DecisionPropaga
 import it.cnr.istc.pst.platinum.ai.framework.domain.component.ex.FlawSolutionApplicationException;
 import it.cnr.istc.pst.platinum.ai.framework.domain.component.ex.RelationPropagationException;
 import it.cnr.istc.pst.platinum.ai.framework.domain.component.resource.discrete.DiscreteResource;
+import it.cnr.istc.pst.platinum.ai.framework.domain.component.resource.discrete.RequirementResourceEvent;
 import it.cnr.istc.pst.platinum.ai.framework.domain.component.resource.discrete.RequirementResourceValue;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.annotation.cfg.framework.ParameterFacadeConfiguration;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.annotation.cfg.framework.TemporalFacadeConfiguration;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.ex.ConsistencyCheckException;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.flaw.Flaw;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.flaw.FlawSolution;
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.flaw.FlawType;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.relations.RelationType;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.relations.parameter.BindParameterRelation;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.query.ParameterQueryType;
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.query.TemporalQueryType;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.resolver.ex.UnsolvableFlawException;
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.resolver.resource.discrete.CriticalSet;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.resolver.resource.discrete.PrecedenceConstraint;
 import it.cnr.istc.pst.platinum.ai.framework.parameter.ParameterFacade;
 import it.cnr.istc.pst.platinum.ai.framework.parameter.ParameterFacadeBuilder;
@@ -33,6 +40,7 @@ import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.NumericParameter;
 import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.query.CheckValuesParameterQuery;
 import it.cnr.istc.pst.platinum.ai.framework.time.TemporalFacade;
 import it.cnr.istc.pst.platinum.ai.framework.time.TemporalFacadeBuilder;
+import it.cnr.istc.pst.platinum.ai.framework.time.lang.query.IntervalOverlapQuery;
 import it.cnr.istc.pst.platinum.ai.framework.time.solver.TemporalSolverType;
 import it.cnr.istc.pst.platinum.ai.framework.time.tn.TemporalNetworkType;
 
@@ -523,6 +531,150 @@ public class DiscreteResourceComponentTestCase
 		}
 	}
 	
+	/**
+	 * 
+	 */
+	@Test
+	public void detectSingleRequirementPeakTest() {
+		System.out.println("[Test]: detectSingleRequirementPeakTest() --------------------");
+		System.out.println();
+		
+		try
+		{
+			// create decision
+			Decision r1 = this.postRequirement(
+					0, 
+					new long [] {0, 10}, 
+					new long[] {10, 20}, 
+					new long[] {1, this.tdb.getHorizon()}, 
+					4);
+			// print posted activity
+			System.out.println("Successfully posted resource requiremet: " + r1 + "\n");
+			
+			// no flaws expected
+			List<Flaw> flaws = this.resource.detectFlaws();
+			Assert.assertNotNull(flaws);
+			Assert.assertTrue(flaws.isEmpty());
+			
+			// create the last decision which cannot overlap the previous one
+			Decision r2 = this.postRequirement(
+					1, 
+					new long[] {50, 60}, 
+					new long[] {70, 80}, 
+					new long[] {1, this.tdb.getHorizon()}, 
+					12);
+			// print posted activity 
+			System.out.println("Successfully posted resource requirement: " + r2 + "\n");
+			
+			// the requirement alone exceeds the capacity of the resource
+			try {
+				this.resource.detectFlaws();
+				Assert.assertTrue(false);
+			}
+			catch (UnsolvableFlawException ex) {
+				System.out.println(ex.getMessage());
+			}
+		}
+		catch (ConsistencyCheckException | RelationPropagationException | DecisionPropagationException | UnsolvableFlawException ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void compareCriticalSetsWithPairwiseQueriesTest() {
+		System.out.println("[Test]: compareCriticalSetsWithPairwiseQueriesTest() --------------------");
+		System.out.println();
+		
+		try
+		{
+			// requirements of the peak scenarios
+			long[][][] bounds = new long[][][] {
+				{{2, 5}, {8, 23}},
+				{{4, 11}, {16, 33}},
+				{{11, 45}, {55, 60}},
+				{{3, 18}, {33, 65}},
+				{{0, this.tdb.getHorizon()}, {1, this.tdb.getHorizon()}},
+				{{60, 70}, {75, 90}},
+				{{0, this.tdb.getHorizon()}, {1, this.tdb.getHorizon()}},
+			};
+			
+			long[] amounts = new long[] {5, 5, 7, 4, 3, 6, 2};
+			for (int index = 0; index < amounts.length; index++) 
+			{
+				// create decision
+				Decision r = this.postRequirement(
+						index, 
+						bounds[index][0], 
+						bounds[index][1], 
+						new long[] {1, this.tdb.getHorizon()}, 
+						amounts[index]);
+				// print posted activity
+				System.out.println("Successfully posted resource requirement: " + r + "\n");
+				
+				// compute critical sets through pairwise INTERVAL_OVERLAP queries
+				List<Set<Decision>> expected = new ArrayList<>();
+				List<RequirementResourceEvent> requirements = this.resource.getRequirements();
+				for (int i = 0; i < requirements.size(); i++) 
+				{
+					List<RequirementResourceEvent> set = new ArrayList<>();
+					set.add(requirements.get(i));
+					double amount = requirements.get(i).getAmount();
+					for (int j = i + 1; j < requirements.size(); j++) 
+					{
+						// check if the requirement can overlap all the requirements of the set
+						boolean conflict = true;
+						for (int k = 0; k < set.size() && conflict; k++) {
+							IntervalOverlapQuery query = this.tdb.createTemporalQuery(TemporalQueryType.INTERVAL_OVERLAP);
+							query.setReference(set.get(k).getEvent());
+							query.setTarget(requirements.get(j).getEvent());
+							this.tdb.process(query);
+							conflict = query.canOverlap();
+						}
+						
+						if (conflict) {
+							set.add(requirements.get(j));
+							amount += requirements.get(j).getAmount();
+						}
+					}
+					
+					// check the amount of requirement of the set
+					if (amount > this.resource.getMaxCapacity()) {
+						Set<Decision> decisions = new HashSet<>();
+						for (RequirementResourceEvent event : set) {
+							decisions.add(event.getDecision());
+						}
+						
+						expected.add(decisions);
+					}
+				}
+				
+				// get critical sets detected by the resolver
+				List<Set<Decision>> found = new ArrayList<>();
+				for (Flaw flaw : this.resource.checkFlaws(new FlawType[] {FlawType.DISCRETE_OVERFLOW})) {
+					Set<Decision> decisions = new HashSet<>();
+					for (RequirementResourceEvent event : ((CriticalSet) flaw).getRequirementEvents()) {
+						decisions.add(event.getDecision());
+					}
+					
+					found.add(decisions);
+				}
+				
+				System.out.println("#" + found.size() + " peaks found\n");
+				Assert.assertTrue(found.size() == expected.size());
+				Assert.assertTrue(found.containsAll(expected));
+				Assert.assertTrue(expected.containsAll(found));
+			}
+		}
+		catch (ConsistencyCheckException | RelationPropagationException | DecisionPropagationException ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+	
 	/**
 	 * 
 	 * @param start
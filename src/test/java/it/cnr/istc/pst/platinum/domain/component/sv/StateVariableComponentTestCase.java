@@ -1,5 +1,8 @@
 package it.cnr.istc.pst.platinum.domain.component.sv;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -23,14 +26,17 @@ import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.flaw.Flaw;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.flaw.FlawSolution;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.flaw.FlawType;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.relations.Relation;
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.query.TemporalQueryType;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.resolver.ex.UnsolvableFlawException;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.resolver.timeline.behavior.planning.Gap;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.resolver.timeline.behavior.planning.GapCompletion;
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.resolver.timeline.scheduling.OverlappingSet;
 import it.cnr.istc.pst.platinum.ai.framework.parameter.ParameterFacade;
 import it.cnr.istc.pst.platinum.ai.framework.parameter.ParameterFacadeBuilder;
 import it.cnr.istc.pst.platinum.ai.framework.parameter.csp.solver.ParameterSolverType;
 import it.cnr.istc.pst.platinum.ai.framework.time.TemporalFacade;
 import it.cnr.istc.pst.platinum.ai.framework.time.TemporalFacadeBuilder;
+import it.cnr.istc.pst.platinum.ai.framework.time.lang.query.IntervalOverlapQuery;
 import it.cnr.istc.pst.platinum.ai.framework.time.solver.TemporalSolverType;
 import it.cnr.istc.pst.platinum.ai.framework.time.tn.TemporalNetworkType;
 
@@ -350,6 +356,83 @@ public class StateVariableComponentTestCase
 		}
 	}
 	
+	/**
+	 * 
+	 */
+	@Test
+	public void compareStateVariablePeaksWithPairwiseQueriesTest() {
+		System.out.println("[Test]: compareStateVariablePeaksWithPairwiseQueriesTest() --------------------");
+		System.out.println();
+		// check state variable object
+		Assert.assertNotNull(this.psv);
+		// create the state variable description
+		StateVariableValue v1 = this.psv.addStateVariableValue("Val-1", new long[] {5, 5}, true);
+		StateVariableValue v2 = this.psv.addStateVariableValue("Val-2", new long[] {10, 30}, true);
+		StateVariableValue v3 = this.psv.addStateVariableValue("Val-3", new long[] {20, 40}, true);
+		// add transitions
+		this.psv.addValueTransition(v1, v3);
+		this.psv.addValueTransition(v3, v2);
+		this.psv.addValueTransition(v2, v3);
+		this.psv.addValueTransition(v3, v1);
+		
+		try 
+		{
+			// create tokens
+			StateVariableValue[] values = new StateVariableValue[] {v1, v2, v3, v1, v2};
+			for (StateVariableValue value : values) 
+			{
+				Decision d = this.psv.create(value, new String[] {});
+				this.psv.activate(d);
+				
+				// compute overlapping sets through pairwise INTERVAL_OVERLAP queries
+				List<Set<Decision>> expected = new ArrayList<>();
+				List<Decision> decisions = this.psv.getActiveDecisions();
+				Collections.sort(decisions);
+				for (int i = 0; i < decisions.size(); i++) 
+				{
+					List<Decision> set = new ArrayList<>();
+					set.add(decisions.get(i));
+					for (int j = i + 1; j < decisions.size(); j++) 
+					{
+						// check if the decision can overlap all the decisions of the set
+						boolean conflict = true;
+						for (int k = 0; k < set.size() && conflict; k++) {
+							IntervalOverlapQuery query = this.tf.createTemporalQuery(TemporalQueryType.INTERVAL_OVERLAP);
+							query.setReference(set.get(k).getToken().getInterval());
+							query.setTarget(decisions.get(j).getToken().getInterval());
+							this.tf.process(query);
+							conflict = query.canOverlap();
+						}
+						
+						if (conflict) {
+							set.add(decisions.get(j));
+						}
+					}
+					
+					// check the size of the set
+					if (set.size() > 1) {
+						expected.add(new HashSet<>(set));
+					}
+				}
+				
+				// get overlapping sets detected by the resolver
+				List<Set<Decision>> found = new ArrayList<>();
+				for (Flaw flaw : this.psv.checkFlaws(new FlawType[] {FlawType.TIMELINE_OVERFLOW})) {
+					found.add(new HashSet<>(((OverlappingSet) flaw).getDecisions()));
+				}
+				
+				System.out.println("#" + found.size() + " peaks found");
+				Assert.assertTrue(found.size() == expected.size());
+				Assert.assertTrue(found.containsAll(expected));
+				Assert.assertTrue(expected.containsAll(found));
+			}
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+	
 	/**
 	 * 
 	 */
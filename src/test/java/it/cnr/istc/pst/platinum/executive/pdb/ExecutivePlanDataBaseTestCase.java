@@ -0,0 +1,239 @@
+package it.cnr.istc.pst.platinum.executive.pdb;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import it.cnr.istc.pst.platinum.ai.executive.pdb.ControllabilityType;
+import it.cnr.istc.pst.platinum.ai.executive.pdb.ExecutionNode;
+import it.cnr.istc.pst.platinum.ai.executive.pdb.ExecutionNodeStatus;
+import it.cnr.istc.pst.platinum.ai.executive.pdb.ExecutivePlanDataBase;
+import it.cnr.istc.pst.platinum.ai.executive.pdb.ExecutivePlanDataBaseBuilder;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.ParameterType;
+import it.cnr.istc.pst.platinum.ai.framework.time.ex.TemporalConstraintPropagationException;
+
+/**
+ * 
+ * @author alessandro
+ *
+ */
+public class ExecutivePlanDataBaseTestCase
+{
+	private static final int ORIGIN = 0;
+	private static final int HORIZON = 1000;
+	private TestExecutivePlanDataBase pdb;
+	
+	/**
+	 * 
+	 */
+	@Before
+	public void init() {
+		System.out.println("**********************************************************************************");
+		System.out.println("*********************** Executive Plan Data Base Test Case ***********************");
+		System.out.println("**********************************************************************************");
+		// create executive plan data base
+		this.pdb = ExecutivePlanDataBaseBuilder.createAndSet(TestExecutivePlanDataBase.class, ORIGIN, HORIZON);
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void dispatchAndPropagateExecutions()
+	{
+		System.out.println("[Test]: dispatchAndPropagateExecutions() ------------------------------------------");
+		try
+		{
+			// create two ordered nodes and compile the dispatchable network
+			ExecutionNode a = this.pdb.create("a", new long[] {10, 20});
+			ExecutionNode b = this.pdb.create("b", new long[] {10, 20});
+			this.pdb.before(a, b, 0, 10);
+			this.pdb.compile();
+			
+			// execute the first node through the dispatchable network
+			this.pdb.scheduleStartTime(a, 50);
+			this.pdb.scheduleEndTime(a, 65);
+			this.pdb.checkSchedule(b);
+			System.out.println(b.getInterval());
+			Assert.assertTrue(b.getInterval().getStartTime().getLowerBound() == 65);
+			Assert.assertTrue(b.getInterval().getStartTime().getUpperBound() == 75);
+			
+			// add a node that is not part of the dispatchable network
+			ExecutionNode c = this.pdb.create("c", new long[] {5, 10});
+			this.pdb.before(b, c, 0, 100);
+			
+			// the schedule of the node must take into account the executed time points
+			this.pdb.checkSchedule(c);
+			System.out.println(c.getInterval());
+			Assert.assertTrue(c.getInterval().getStartTime().getLowerBound() == 75);
+			Assert.assertTrue(c.getInterval().getStartTime().getUpperBound() == 195);
+			
+			// execute the start of the second node through the dispatchable network
+			this.pdb.scheduleStartTime(b, 70);
+			try
+			{
+				// the third node cannot start before the end of the second one
+				this.pdb.scheduleStartTime(c, 72);
+				Assert.assertTrue(false);
+			}
+			catch (TemporalConstraintPropagationException ex) {
+				System.out.println(ex.getMessage());
+			}
+			
+			// execute the third node through the temporal facade
+			this.pdb.scheduleStartTime(c, 85);
+			this.pdb.checkSchedule(c);
+			System.out.println(c.getInterval());
+			Assert.assertTrue(c.getInterval().getStartTime().getLowerBound() == 85);
+			Assert.assertTrue(c.getInterval().getStartTime().getUpperBound() == 85);
+			Assert.assertTrue(c.getInterval().getEndTime().getLowerBound() == 90);
+			Assert.assertTrue(c.getInterval().getEndTime().getUpperBound() == 95);
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void scheduleDurationBeforeStartExecution()
+	{
+		System.out.println("[Test]: scheduleDurationBeforeStartExecution() ------------------------------------");
+		try
+		{
+			// create two ordered nodes and compile the dispatchable network
+			ExecutionNode a = this.pdb.create("a", new long[] {10, 20});
+			ExecutionNode b = this.pdb.create("b", new long[] {10, 20});
+			this.pdb.before(a, b, 0, 10);
+			this.pdb.compile();
+			this.pdb.checkSchedule(a);
+			long[] start = new long[] {
+					a.getInterval().getStartTime().getLowerBound(),
+					a.getInterval().getStartTime().getUpperBound()
+			};
+			
+			// fix the duration of the first node while its start has not been executed
+			this.pdb.scheduleDuration(a, 15);
+			this.pdb.checkSchedule(a);
+			System.out.println(a.getInterval());
+			// the start of the node is not executed (the latest start accounts for the longer duration)
+			Assert.assertFalse(this.pdb.isExecuted(a));
+			Assert.assertTrue(a.getInterval().getStartTime().getLowerBound() == start[0]);
+			Assert.assertTrue(a.getInterval().getStartTime().getUpperBound() == start[1] - 5);
+			// the end of the node follows the start
+			Assert.assertTrue(a.getInterval().getDurationLowerBound() == 15);
+			Assert.assertTrue(a.getInterval().getDurationUpperBound() == 15);
+			Assert.assertTrue(a.getInterval().getEndTime().getLowerBound() == start[0] + 15);
+			Assert.assertTrue(a.getInterval().getEndTime().getUpperBound() == start[1] + 10);
+			
+			// a duration out of the bounds of the node is rejected
+			try
+			{
+				this.pdb.scheduleDuration(b, 30);
+				Assert.assertTrue(false);
+			}
+			catch (TemporalConstraintPropagationException ex) {
+				System.out.println(ex.getMessage());
+			}
+			
+			// execute the start of the first node
+			this.pdb.scheduleStartTime(a, 50);
+			this.pdb.checkSchedule(a);
+			this.pdb.checkSchedule(b);
+			System.out.println(a.getInterval());
+			System.out.println(b.getInterval());
+			Assert.assertTrue(a.getInterval().getEndTime().getLowerBound() == 65);
+			Assert.assertTrue(a.getInterval().getEndTime().getUpperBound() == 65);
+			Assert.assertTrue(b.getInterval().getStartTime().getLowerBound() == 65);
+			Assert.assertTrue(b.getInterval().getStartTime().getUpperBound() == 75);
+			
+			// the duration is propagated to the facade together with the execution
+			ExecutionNode c = this.pdb.create("c", new long[] {5, 10});
+			this.pdb.before(a, c, 0, 100);
+			this.pdb.checkSchedule(c);
+			System.out.println(c.getInterval());
+			Assert.assertTrue(c.getInterval().getStartTime().getLowerBound() == 65);
+			Assert.assertTrue(c.getInterval().getStartTime().getUpperBound() == 165);
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+	
+	/**
+	 * 
+	 * @author alessandro
+	 *
+	 */
+	public static class TestExecutivePlanDataBase extends ExecutivePlanDataBase
+	{
+		/**
+		 * 
+		 */
+		protected TestExecutivePlanDataBase() {
+			super();
+		}
+		
+		/**
+		 * 
+		 * @param signature
+		 * @param duration
+		 * @return
+		 * @throws Exception
+		 */
+		public ExecutionNode create(String signature, long[] duration)
+				throws Exception
+		{
+			// create node
+			ExecutionNode node = this.createNode("robot", "position", signature,
+					new ParameterType[] {}, new String[] {},
+					new long[] {ORIGIN, HORIZON}, new long[] {ORIGIN, HORIZON}, duration,
+					ControllabilityType.CONTROLLABLE, ExecutionNodeStatus.WAITING);
+			// add node
+			this.addNode(node);
+			return node;
+		}
+		
+		/**
+		 * 
+		 * @param reference
+		 * @param target
+		 * @param lb
+		 * @param ub
+		 * @throws Exception
+		 */
+		public void before(ExecutionNode reference, ExecutionNode target, long lb, long ub)
+				throws Exception
+		{
+			// add before constraint
+			this.prepareBeforeTemporalConstraint(reference, target, new long[][] {
+				{lb, ub}
+			});
+		}
+		
+		/**
+		 * 
+		 * @throws Exception
+		 */
+		public void compile()
+				throws Exception
+		{
+			// compile the dispatchable network
+			this.dispatchable = this.facade.compileDispatchableNetwork();
+		}
+		
+		/**
+		 * 
+		 * @param node
+		 * @return
+		 */
+		public boolean isExecuted(ExecutionNode node) {
+			// check the start of the node on the dispatchable network
+			return this.dispatchable.isExecuted(node.getInterval().getStartTime());
+		}
+	}
+}
@@ -1,5 +1,11 @@
 package it.cnr.istc.pst.platinum.parameter.csp.v4;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.variables.IntVar;
 import org.junit.After;
@@ -16,12 +22,14 @@ import it.cnr.istc.pst.platinum.ai.framework.parameter.csp.event.ParameterNotifi
 import it.cnr.istc.pst.platinum.ai.framework.parameter.csp.solver.choco.v4.ChocoSolver;
 import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.EnumerationParameter;
 import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.EnumerationParameterDomain;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.NumericParameter;
 import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.NumericParameterDomain;
 import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.Parameter;
 import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.ParameterDomainType;
 import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.constraints.BindParameterConstraint;
 import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.constraints.EqualParameterConstraint;
 import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.constraints.ExcludeParameterConstraint;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.constraints.NotEqualParameterConstraint;
 import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.constraints.ParameterConstraintType;
 
 /**
@@ -547,4 +555,385 @@ public class ChochoSolverUnitTest
 		}
 		Assert.assertFalse(found);
 	}
+	
+	/**
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void independentComponentsTest() 
+			throws Exception
+	{
+		System.out.println("[Test]: independentComponentsTest() --------------------");
+		System.out.println();
+		// create enumeration parameter domain
+		EnumerationParameterDomain edom = this.paramFactory.createParameterDomain("locations", 
+				ParameterDomainType.ENUMERATION_DOMAIN_PARAMETER_TYPE);
+		edom.setValues(new String[] {
+				"kitchen",		// value: 0
+				"bathroom",		// value: 1
+				"bedroom",		// value: 2
+				"corridor"		// value: 3
+		});
+		
+		// create parameters
+		Parameter<?>[] params = new Parameter<?>[4];
+		for (int i = 0; i < params.length; i++) {
+			params[i] = this.paramFactory.createParameter("p" + i, edom);
+			AddParameterNotification info = this.notiFactory.create(ParameterNotificationType.ADD_PARAM);
+			info.setParameter(params[i]);
+			this.solver.update(info);
+		}
+		
+		// each parameter is an independent component
+		Assert.assertTrue(this.solver.getNumberOfComponents() == 4);
+		Assert.assertTrue(this.solver.isConsistent());
+		
+		// relate parameters p0 with p1 and p2 with p3
+		EqualParameterConstraint eq01 = this.paramFactory.createParameterConstraint(ParameterConstraintType.EQUAL);
+		eq01.setReference(params[0]);
+		eq01.setTarget(params[1]);
+		AddConstraintParameterNotification acInfo = this.notiFactory.create(ParameterNotificationType.ADD_CONSTRAINT);
+		acInfo.setConstraint(eq01);
+		this.solver.update(acInfo);
+		
+		EqualParameterConstraint eq23 = this.paramFactory.createParameterConstraint(ParameterConstraintType.EQUAL);
+		eq23.setReference(params[2]);
+		eq23.setTarget(params[3]);
+		acInfo = this.notiFactory.create(ParameterNotificationType.ADD_CONSTRAINT);
+		acInfo.setConstraint(eq23);
+		this.solver.update(acInfo);
+		
+		// check components
+		Assert.assertTrue(this.solver.getNumberOfComponents() == 2);
+		Assert.assertTrue(this.solver.isConsistent());
+		
+		// bind p0 and p1 to different values
+		BindParameterConstraint bind0 = this.paramFactory.createParameterConstraint(ParameterConstraintType.BIND);
+		bind0.setReference(params[0]);
+		bind0.setValue("kitchen");
+		acInfo = this.notiFactory.create(ParameterNotificationType.ADD_CONSTRAINT);
+		acInfo.setConstraint(bind0);
+		this.solver.update(acInfo);
+		
+		BindParameterConstraint bind1 = this.paramFactory.createParameterConstraint(ParameterConstraintType.BIND);
+		bind1.setReference(params[1]);
+		bind1.setValue("bathroom");
+		acInfo = this.notiFactory.create(ParameterNotificationType.ADD_CONSTRAINT);
+		acInfo.setConstraint(bind1);
+		this.solver.update(acInfo);
+		
+		// the component of p0 and p1 is not consistent
+		Assert.assertTrue(this.solver.getNumberOfComponents() == 2);
+		Assert.assertFalse(this.solver.isConsistent());
+		
+		// values of the other component can be still computed
+		this.solver.computeValues(params[2]);
+		Assert.assertTrue(((EnumerationParameter) params[2]).getValues().length == 4);
+		
+		// retract the binding of p1
+		DelConstraintParameterNotification delInfo = this.notiFactory.create(ParameterNotificationType.DEL_CONSTRAINT);
+		delInfo.setConstraint(bind1);
+		this.solver.update(delInfo);
+		Assert.assertTrue(this.solver.isConsistent());
+		
+		// relate the two components
+		EqualParameterConstraint eq12 = this.paramFactory.createParameterConstraint(ParameterConstraintType.EQUAL);
+		eq12.setReference(params[1]);
+		eq12.setTarget(params[2]);
+		acInfo = this.notiFactory.create(ParameterNotificationType.ADD_CONSTRAINT);
+		acInfo.setConstraint(eq12);
+		this.solver.update(acInfo);
+		
+		// check components
+		Assert.assertTrue(this.solver.getNumberOfComponents() == 1);
+		Assert.assertTrue(this.solver.isConsistent());
+		this.solver.computeValues(params[3]);
+		Assert.assertTrue(((EnumerationParameter) params[3]).getValues().length == 1);
+		
+		// delete parameter p1
+		DelParameterNotification dpInfo = this.notiFactory.create(ParameterNotificationType.DEL_PARAM);
+		dpInfo.setParameter(params[1]);
+		this.solver.update(dpInfo);
+		
+		// the component is split
+		Assert.assertTrue(this.solver.getNumberOfComponents() == 2);
+		Assert.assertTrue(this.solver.isConsistent());
+		this.solver.computeValues(params[3]);
+		Assert.assertTrue(((EnumerationParameter) params[3]).getValues().length == 4);
+		System.out.println(this.solver);
+	}
+	
+	/**
+	 * Benchmark of the retraction and propagation of constraints during backtracking. 
+	 * Bindings are posted to and retracted from a chain of related parameters and the 
+	 * consistency of the CSP is checked after each step
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void retractAndPropagateBenchmarkTest() 
+			throws Exception
+	{
+		System.out.println("[Test]: retractAndPropagateBenchmarkTest() --------------------");
+		System.out.println();
+		int size = 50;
+		int cycles = 1000;
+		// create enumeration parameter domain
+		EnumerationParameterDomain edom = this.paramFactory.createParameterDomain("locations", 
+				ParameterDomainType.ENUMERATION_DOMAIN_PARAMETER_TYPE);
+		edom.setValues(new String[] {
+				"kitchen",		// value: 0
+				"bathroom",		// value: 1
+				"bedroom",		// value: 2
+				"corridor"		// value: 3
+		});
+		
+		// create a chain of different parameters
+		Parameter<?>[] params = new Parameter<?>[size];
+		for (int i = 0; i < size; i++) 
+		{
+			// create parameter
+			params[i] = this.paramFactory.createParameter("p" + i, edom);
+			AddParameterNotification info = this.notiFactory.create(ParameterNotificationType.ADD_PARAM);
+			info.setParameter(params[i]);
+			this.solver.update(info);
+			if (i > 0) {
+				// relate parameter to the previous one
+				NotEqualParameterConstraint neq = this.paramFactory.createParameterConstraint(ParameterConstraintType.NOT_EQUAL);
+				neq.setReference(params[i - 1]);
+				neq.setTarget(params[i]);
+				AddConstraintParameterNotification acInfo = this.notiFactory.create(ParameterNotificationType.ADD_CONSTRAINT);
+				acInfo.setConstraint(neq);
+				this.solver.update(acInfo);
+			}
+		}
+		
+		// check model
+		Assert.assertTrue(this.solver.getNumberOfComponents() == 1);
+		Assert.assertTrue(this.solver.isConsistent());
+		
+		long time = System.nanoTime();
+		for (int i = 0; i < cycles; i++) 
+		{
+			// bind a parameter
+			BindParameterConstraint bind = this.paramFactory.createParameterConstraint(ParameterConstraintType.BIND);
+			bind.setReference(params[i % size]);
+			bind.setValue(edom.getValues()[i % edom.getValues().length]);
+			AddConstraintParameterNotification acInfo = this.notiFactory.create(ParameterNotificationType.ADD_CONSTRAINT);
+			acInfo.setConstraint(bind);
+			this.solver.update(acInfo);
+			Assert.assertTrue(this.solver.isConsistent());
+			
+			// retract the binding
+			DelConstraintParameterNotification delInfo = this.notiFactory.create(ParameterNotificationType.DEL_CONSTRAINT);
+			delInfo.setConstraint(bind);
+			this.solver.update(delInfo);
+			Assert.assertTrue(this.solver.isConsistent());
+		}
+		
+		// print statistics
+		time = System.nanoTime() - time;
+		System.out.println("Retract/propagate cycles: " + cycles + " on " + size + " parameters, "
+				+ (time / cycles / 1000) + " us/cycle");
+		Assert.assertTrue(this.solver.getNumberOfComponents() == 1);
+	}
+	
+	/**
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void probeValuesTest() 
+			throws Exception
+	{
+		System.out.println("[Test]: probeValuesTest() --------------------");
+		System.out.println();
+		// create enumeration parameter domain
+		EnumerationParameterDomain edom = this.paramFactory.createParameterDomain("locations", 
+				ParameterDomainType.ENUMERATION_DOMAIN_PARAMETER_TYPE);
+		edom.setValues(new String[] {
+				"kitchen",		// value: 0
+				"bathroom",		// value: 1
+				"bedroom",		// value: 2
+				"corridor"		// value: 3
+		});
+		
+		// create a chain of different parameters
+		Parameter<?>[] params = new Parameter<?>[6];
+		for (int i = 0; i < params.length; i++) 
+		{
+			// create parameter
+			params[i] = this.paramFactory.createParameter("p" + i, edom);
+			AddParameterNotification info = this.notiFactory.create(ParameterNotificationType.ADD_PARAM);
+			info.setParameter(params[i]);
+			this.solver.update(info);
+			if (i > 0) {
+				// relate parameter to the previous one
+				NotEqualParameterConstraint neq = this.paramFactory.createParameterConstraint(ParameterConstraintType.NOT_EQUAL);
+				neq.setReference(params[i - 1]);
+				neq.setTarget(params[i]);
+				AddConstraintParameterNotification acInfo = this.notiFactory.create(ParameterNotificationType.ADD_CONSTRAINT);
+				acInfo.setConstraint(neq);
+				this.solver.update(acInfo);
+			}
+		}
+		
+		// bind the first parameter and exclude a value from the second one
+		BindParameterConstraint bind = this.paramFactory.createParameterConstraint(ParameterConstraintType.BIND);
+		bind.setReference(params[0]);
+		bind.setValue("kitchen");
+		AddConstraintParameterNotification acInfo = this.notiFactory.create(ParameterNotificationType.ADD_CONSTRAINT);
+		acInfo.setConstraint(bind);
+		this.solver.update(acInfo);
+		
+		ExcludeParameterConstraint ex = this.paramFactory.createParameterConstraint(ParameterConstraintType.EXCLUDE);
+		ex.setReference(params[1]);
+		ex.setValue("bedroom");
+		acInfo = this.notiFactory.create(ParameterNotificationType.ADD_CONSTRAINT);
+		acInfo.setConstraint(ex);
+		this.solver.update(acInfo);
+		Assert.assertTrue(this.solver.isConsistent());
+		
+		// enumerate solutions
+		this.solver.computeSolution(true);
+		List<Set<String>> exact = new ArrayList<>();
+		for (Parameter<?> param : params) {
+			exact.add(new HashSet<>(Arrays.asList(((EnumerationParameter) param).getValues())));
+		}
+		
+		// probe values
+		this.solver.computeSolution(false);
+		for (int i = 0; i < params.length; i++) {
+			Set<String> probed = new HashSet<>(Arrays.asList(((EnumerationParameter) params[i]).getValues()));
+			System.out.println("- " + params[i].getLabel() + ": " + probed);
+			Assert.assertTrue(exact.get(i).equals(probed));
+		}
+		
+		// check the values of a single parameter
+		this.solver.computeValues(params[1], false);
+		Assert.assertTrue(exact.get(1).equals(new HashSet<>(Arrays.asList(((EnumerationParameter) params[1]).getValues()))));
+		Assert.assertFalse(exact.get(1).contains("kitchen"));
+		Assert.assertFalse(exact.get(1).contains("bedroom"));
+	}
+	
+	/**
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void probeNumericBoundsTest() 
+			throws Exception
+	{
+		System.out.println("[Test]: probeNumericBoundsTest() --------------------");
+		System.out.println();
+		// create a large numeric parameter domain
+		NumericParameterDomain ndom = this.paramFactory.createParameterDomain("distance", 
+				ParameterDomainType.NUMERIC_DOMAIN_PARAMETER_TYPE);
+		ndom.setLowerBound(0);
+		ndom.setUpperBound(1000000);
+		
+		// create two equal parameters
+		Parameter<?> x = this.paramFactory.createParameter("x", ndom);
+		Parameter<?> y = this.paramFactory.createParameter("y", ndom);
+		for (Parameter<?> param : new Parameter<?>[] {x, y}) {
+			AddParameterNotification info = this.notiFactory.create(ParameterNotificationType.ADD_PARAM);
+			info.setParameter(param);
+			this.solver.update(info);
+		}
+		
+		EqualParameterConstraint eq = this.paramFactory.createParameterConstraint(ParameterConstraintType.EQUAL);
+		eq.setReference(x);
+		eq.setTarget(y);
+		AddConstraintParameterNotification acInfo = this.notiFactory.create(ParameterNotificationType.ADD_CONSTRAINT);
+		acInfo.setConstraint(eq);
+		this.solver.update(acInfo);
+		
+		// exclude the values at the bounds of the domain 
+		Object[][] excluded = new Object[][] {
+			{x, 0}, {y, 1}, {x, 1000000}
+		};
+		
+		for (Object[] entry : excluded) {
+			ExcludeParameterConstraint ex = this.paramFactory.createParameterConstraint(ParameterConstraintType.EXCLUDE);
+			ex.setReference((Parameter<?>) entry[0]);
+			ex.setValue(entry[1]);
+			acInfo = this.notiFactory.create(ParameterNotificationType.ADD_CONSTRAINT);
+			acInfo.setConstraint(ex);
+			this.solver.update(acInfo);
+		}
+		
+		Assert.assertTrue(this.solver.isConsistent());
+		// probe the bounds of the parameters
+		this.solver.computeSolution(false);
+		for (Parameter<?> param : new Parameter<?>[] {x, y}) {
+			NumericParameter np = (NumericParameter) param;
+			System.out.println("- " + np.getLabel() + ": [" + np.getLowerBound() + ", " + np.getUpperBound() + "]");
+			Assert.assertTrue(np.getLowerBound() == 2);
+			Assert.assertTrue(np.getUpperBound() == 999999);
+		}
+		
+		// probe the bounds of a single parameter
+		this.solver.computeValues(y, false);
+		Assert.assertTrue(((NumericParameter) y).getLowerBound() == 2);
+		Assert.assertTrue(((NumericParameter) y).getUpperBound() == 999999);
+	}
+	
+	/**
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void computeNumericBoundsTest() 
+			throws Exception
+	{
+		System.out.println("[Test]: computeNumericBoundsTest() --------------------");
+		System.out.println();
+		// create a numeric parameter domain
+		NumericParameterDomain ndom = this.paramFactory.createParameterDomain("distance", 
+				ParameterDomainType.NUMERIC_DOMAIN_PARAMETER_TYPE);
+		ndom.setLowerBound(0);
+		ndom.setUpperBound(100);
+		
+		// create two equal parameters
+		Parameter<?> x = this.paramFactory.createParameter("x", ndom);
+		Parameter<?> y = this.paramFactory.createParameter("y", ndom);
+		for (Parameter<?> param : new Parameter<?>[] {x, y}) {
+			AddParameterNotification info = this.notiFactory.create(ParameterNotificationType.ADD_PARAM);
+			info.setParameter(param);
+			this.solver.update(info);
+		}
+		
+		EqualParameterConstraint eq = this.paramFactory.createParameterConstraint(ParameterConstraintType.EQUAL);
+		eq.setReference(x);
+		eq.setTarget(y);
+		AddConstraintParameterNotification acInfo = this.notiFactory.create(ParameterNotificationType.ADD_CONSTRAINT);
+		acInfo.setConstraint(eq);
+		this.solver.update(acInfo);
+		
+		// exclude the lower bound of the domain
+		ExcludeParameterConstraint ex = this.paramFactory.createParameterConstraint(ParameterConstraintType.EXCLUDE);
+		ex.setReference(y);
+		ex.setValue(0);
+		acInfo = this.notiFactory.create(ParameterNotificationType.ADD_CONSTRAINT);
+		acInfo.setConstraint(ex);
+		this.solver.update(acInfo);
+		
+		// enumerate the solutions to compute the bounds
+		this.solver.computeValues(x, true);
+		NumericParameter np = (NumericParameter) x;
+		System.out.println("- " + np.getLabel() + ": [" + np.getLowerBound() + ", " + np.getUpperBound() + "]");
+		Assert.assertTrue(np.getLowerBound() == 1);
+		Assert.assertTrue(np.getUpperBound() == 100);
+		
+		// retract the equality (the computed bounds do not restrict the domain of the parameter)
+		DelConstraintParameterNotification delInfo = this.notiFactory.create(ParameterNotificationType.DEL_CONSTRAINT);
+		delInfo.setConstraint(eq);
+		this.solver.update(delInfo);
+		Assert.assertTrue(this.solver.getNumberOfComponents() == 2);
+		this.solver.computeValues(x, true);
+		System.out.println("- " + np.getLabel() + ": [" + np.getLowerBound() + ", " + np.getUpperBound() + "]");
+		Assert.assertTrue(np.getLowerBound() == 0);
+		Assert.assertTrue(np.getUpperBound() == 100);
+	}
 }
@@ -0,0 +1,517 @@
+package it.cnr.istc.pst.platinum.parameter.csp.v4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import it.cnr.istc.pst.platinum.ai.framework.parameter.csp.event.AddConstraintParameterNotification;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.csp.event.AddParameterNotification;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.csp.event.DelConstraintParameterNotification;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.csp.event.DelParameterNotification;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.csp.event.ParameterNotificationFactory;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.csp.event.ParameterNotificationType;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.csp.solver.enumeration.EnumerationSolver;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.EnumerationParameter;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.EnumerationParameterDomain;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.NumericParameterDomain;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.Parameter;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.ParameterDomainType;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.constraints.BinaryParameterConstraint;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.constraints.BindParameterConstraint;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.constraints.ExcludeParameterConstraint;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.constraints.ParameterConstraint;
+import it.cnr.istc.pst.platinum.ai.framework.parameter.lang.constraints.ParameterConstraintType;
+
+/**
+ * 
+ * @author alessandro
+ *
+ */
+public class EnumerationSolverUnitTest
+{
+	private static final String[] LOCATIONS = new String[] {
+			"kitchen",		// value: 0
+			"bathroom",		// value: 1
+			"bedroom",		// value: 2
+			"corridor"		// value: 3
+	};
+	
+	private EnumerationSolver solver;
+	private ParameterTestFactory paramFactory;
+	private ParameterNotificationFactory notiFactory;
+	private EnumerationParameterDomain edom;
+	
+	/**
+	 * 
+	 */
+	@Before
+	public void init() {
+		System.out.println("**********************************************************************************");
+		System.out.println("************************** Enumeration Solver Test Case **************************");
+		System.out.println("**********************************************************************************");
+		this.paramFactory = new ParameterTestFactory();
+		this.notiFactory = ParameterNotificationFactory.getInstance();
+		this.solver = new EnumerationSolver();
+		// create enumeration parameter domain
+		this.edom = this.paramFactory.createParameterDomain("locations",
+				ParameterDomainType.ENUMERATION_DOMAIN_PARAMETER_TYPE);
+		this.edom.setValues(LOCATIONS);
+	}
+	
+	/**
+	 * 
+	 */
+	@After
+	public void clear() {
+		this.solver = null;
+		System.gc();
+		System.out.println();
+		System.out.println("**********************************************************************************");
+		System.out.println();
+	}
+	
+	/**
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void bindAndEqualTest()
+			throws Exception
+	{
+		System.out.println("[Test]: bindAndEqualTest() --------------------");
+		System.out.println();
+		// check empty CSP
+		Assert.assertTrue(this.solver.isConsistent());
+		Parameter<?> p0 = this.add("p0");
+		Parameter<?> p1 = this.add("p1");
+		Parameter<?> p2 = this.add("p2");
+		Assert.assertTrue(this.solver.isConsistent());
+		
+		// relate parameters
+		this.post(this.binary(ParameterConstraintType.EQUAL, p0, p1));
+		this.post(this.binary(ParameterConstraintType.EQUAL, p1, p2));
+		BindParameterConstraint bind = this.unary(ParameterConstraintType.BIND, p0, "kitchen");
+		this.post(bind);
+		Assert.assertTrue(this.solver.isConsistent());
+		this.solver.computeValues(p2);
+		Assert.assertTrue(Arrays.equals(((EnumerationParameter) p2).getValues(), new String[] {"kitchen"}));
+		
+		// bind a related parameter to a different value
+		BindParameterConstraint other = this.unary(ParameterConstraintType.BIND, p2, "bathroom");
+		this.post(other);
+		Assert.assertFalse(this.solver.isConsistent());
+		
+		// retract the first binding
+		this.retract(bind);
+		Assert.assertTrue(this.solver.isConsistent());
+		this.solver.computeValues(p0);
+		Assert.assertTrue(Arrays.equals(((EnumerationParameter) p0).getValues(), new String[] {"bathroom"}));
+		
+		// exclude the value
+		this.post(this.unary(ParameterConstraintType.EXCLUDE, p1, "bathroom"));
+		Assert.assertFalse(this.solver.isConsistent());
+		
+		// delete the parameter of the binding
+		this.delete(p2);
+		Assert.assertTrue(this.solver.isConsistent());
+		this.solver.computeValues(p0);
+		Assert.assertTrue(((EnumerationParameter) p0).getValues().length == 3);
+		System.out.println(this.solver);
+	}
+	
+	/**
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void notEqualSearchTest()
+			throws Exception
+	{
+		System.out.println("[Test]: notEqualSearchTest() --------------------");
+		System.out.println();
+		// create three parameters with two values
+		Parameter<?>[] params = new Parameter<?>[3];
+		for (int i = 0; i < params.length; i++) {
+			params[i] = this.add("p" + i);
+			this.post(this.unary(ParameterConstraintType.EXCLUDE, params[i], "bedroom"));
+			this.post(this.unary(ParameterConstraintType.EXCLUDE, params[i], "corridor"));
+		}
+		
+		// the parameters must be pairwise different
+		this.post(this.binary(ParameterConstraintType.NOT_EQUAL, params[0], params[1]));
+		this.post(this.binary(ParameterConstraintType.NOT_EQUAL, params[1], params[2]));
+		Assert.assertTrue(this.solver.isConsistent());
+		ParameterConstraint neq = this.binary(ParameterConstraintType.NOT_EQUAL, params[0], params[2]);
+		this.post(neq);
+		// not detected by propagation
+		Assert.assertFalse(this.solver.isConsistent());
+		
+		// retract the constraint
+		this.retract(neq);
+		Assert.assertTrue(this.solver.isConsistent());
+		this.solver.computeValues(params[0]);
+		Assert.assertTrue(((EnumerationParameter) params[0]).getValues().length == 2);
+		
+		// bind the first parameter
+		this.post(this.unary(ParameterConstraintType.BIND, params[0], "kitchen"));
+		Assert.assertTrue(this.solver.isConsistent());
+		this.solver.computeValues(params[2]);
+		Assert.assertTrue(Arrays.equals(((EnumerationParameter) params[2]).getValues(), new String[] {"kitchen"}));
+	}
+	
+	/**
+	 * Compare the solver with the enumeration of all the assignments of random CSPs
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void randomCSPTest()
+			throws Exception
+	{
+		System.out.println("[Test]: randomCSPTest() --------------------");
+		System.out.println();
+		Random random = new Random(17);
+		int consistent = 0;
+		for (int round = 0; round < 200; round++)
+		{
+			// create parameters
+			this.solver = new EnumerationSolver();
+			Parameter<?>[] params = new Parameter<?>[5];
+			for (int i = 0; i < params.length; i++) {
+				params[i] = this.add("p" + i);
+			}
+			
+			// post random constraints
+			List<ParameterConstraint> constraints = new ArrayList<>();
+			for (int i = 0; i < 7; i++)
+			{
+				// create constraint (not-equal constraints in half of the CSPs)
+				ParameterConstraint cons = this.random(random, params, round % 2 == 0);
+				this.post(cons);
+				constraints.add(cons);
+				// retract a constraint
+				if (random.nextInt(4) == 0) {
+					cons = constraints.remove(random.nextInt(constraints.size()));
+					this.retract(cons);
+				}
+				
+				// check the solver
+				this.check(params, constraints);
+			}
+			
+			// count consistent CSPs
+			consistent += this.solver.isConsistent() ? 1 : 0;
+		}
+		
+		System.out.println("Consistent CSPs: " + consistent + " out of 200");
+		Assert.assertTrue(consistent > 0 && consistent < 200);
+	}
+	
+	/**
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void numericFallbackTest()
+			throws Exception
+	{
+		System.out.println("[Test]: numericFallbackTest() --------------------");
+		System.out.println();
+		Parameter<?> p0 = this.add("p0");
+		Assert.assertFalse(this.solver.isDelegated());
+		
+		// create numeric parameter
+		NumericParameterDomain ndom = this.paramFactory.createParameterDomain("floor",
+				ParameterDomainType.NUMERIC_DOMAIN_PARAMETER_TYPE);
+		ndom.setLowerBound(0);
+		ndom.setUpperBound(100);
+		Parameter<?> np = this.paramFactory.createParameter("x", ndom);
+		AddParameterNotification info = this.notiFactory.create(ParameterNotificationType.ADD_PARAM);
+		info.setParameter(np);
+		this.solver.update(info);
+		Assert.assertTrue(this.solver.isDelegated());
+		
+		// delete numeric parameter
+		this.delete(np);
+		Assert.assertFalse(this.solver.isDelegated());
+		this.post(this.unary(ParameterConstraintType.BIND, p0, "kitchen"));
+		Assert.assertTrue(this.solver.isConsistent());
+	}
+	
+	/**
+	 * Benchmark of the consistency check of bind and equal constraints
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void bindAndEqualBenchmarkTest()
+			throws Exception
+	{
+		System.out.println("[Test]: bindAndEqualBenchmarkTest() --------------------");
+		System.out.println();
+		int size = 200;
+		int rounds = 1000;
+		// create groups of related parameters
+		Parameter<?>[] params = new Parameter<?>[size];
+		for (int i = 0; i < size; i++) {
+			params[i] = this.add("p" + i);
+			if (i % 4 != 0) {
+				this.post(this.binary(ParameterConstraintType.EQUAL, params[i - 1], params[i]));
+			}
+		}
+		
+		// create notifications
+		AddConstraintParameterNotification[] binds = new AddConstraintParameterNotification[size];
+		DelConstraintParameterNotification[] retracts = new DelConstraintParameterNotification[size];
+		for (int i = 0; i < size; i++) {
+			// bind a parameter to the value of its group
+			BindParameterConstraint bind = this.unary(ParameterConstraintType.BIND, params[i], LOCATIONS[(i / 4) % LOCATIONS.length]);
+			binds[i] = this.notiFactory.create(ParameterNotificationType.ADD_CONSTRAINT);
+			binds[i].setConstraint(bind);
+			retracts[i] = this.notiFactory.create(ParameterNotificationType.DEL_CONSTRAINT);
+			retracts[i].setConstraint(bind);
+		}
+		
+		// bind and check
+		long time = 0;
+		for (int round = 0; round < rounds; round++)
+		{
+			long start = System.nanoTime();
+			for (int i = 0; i < size; i++) {
+				this.solver.update(binds[i]);
+				Assert.assertTrue(this.solver.isConsistent());
+			}
+			
+			time += System.nanoTime() - start;
+			// retract bindings
+			for (int i = 0; i < size; i++) {
+				this.solver.update(retracts[i]);
+			}
+			
+			Assert.assertTrue(this.solver.isConsistent());
+		}
+		
+		System.out.println("Bind and check on " + size + " parameters: " + (time / rounds / size) + " ns/cycle");
+		
+		// bind, check and retract
+		time = System.nanoTime();
+		for (int round = 0; round < rounds; round++) {
+			for (int i = 0; i < size; i++) {
+				this.solver.update(binds[i]);
+				Assert.assertTrue(this.solver.isConsistent());
+				this.solver.update(retracts[i]);
+			}
+		}
+		
+		time = System.nanoTime() - time;
+		System.out.println("Bind, check and retract on " + size + " parameters: " + (time / rounds / size) + " ns/cycle");
+	}
+	
+	/**
+	 * Compare the solver with the enumeration of all the assignments
+	 * 
+	 * @param params
+	 * @param constraints
+	 */
+	private void check(Parameter<?>[] params, List<ParameterConstraint> constraints)
+	{
+		// enumerate assignments
+		List<Set<Integer>> values = new ArrayList<>();
+		for (int i = 0; i < params.length; i++) {
+			values.add(new HashSet<>());
+		}
+		
+		int[] assignment = new int[params.length];
+		int total = (int) Math.pow(LOCATIONS.length, params.length);
+		boolean consistent = false;
+		for (int a = 0; a < total; a++)
+		{
+			// set assignment
+			for (int i = 0, k = a; i < params.length; i++, k /= LOCATIONS.length) {
+				assignment[i] = k % LOCATIONS.length;
+			}
+			
+			// check constraints
+			boolean satisfied = true;
+			for (ParameterConstraint cons : constraints) {
+				satisfied &= this.isSatisfied(cons, params, assignment);
+			}
+			
+			if (satisfied) {
+				consistent = true;
+				for (int i = 0; i < params.length; i++) {
+					values.get(i).add(assignment[i]);
+				}
+			}
+		}
+		
+		// compare results
+		Assert.assertTrue(this.solver.isConsistent() == consistent);
+		for (int i = 0; i < params.length; i++) {
+			this.solver.computeValues(params[i]);
+			Set<Integer> computed = new HashSet<>();
+			for (int v : ((EnumerationParameter) params[i]).getValueIndexes()) {
+				computed.add(v);
+			}
+			
+			Assert.assertTrue(computed.equals(values.get(i)));
+		}
+	}
+	
+	/**
+	 * 
+	 * @param cons
+	 * @param params
+	 * @param assignment
+	 * @return
+	 */
+	private boolean isSatisfied(ParameterConstraint cons, Parameter<?>[] params, int[] assignment)
+	{
+		// get the value of the reference
+		int ref = assignment[Arrays.asList(params).indexOf(cons.getReference())];
+		switch (cons.getType())
+		{
+			case BIND :
+				return ref == this.edom.getIndex(((BindParameterConstraint) cons).getValue().toString());
+			
+			case EXCLUDE :
+				return ref != this.edom.getIndex(((ExcludeParameterConstraint) cons).getValue().toString());
+			
+			case EQUAL :
+				return ref == assignment[Arrays.asList(params).indexOf(((BinaryParameterConstraint) cons).getTarget())];
+			
+			case NOT_EQUAL :
+				return ref != assignment[Arrays.asList(params).indexOf(((BinaryParameterConstraint) cons).getTarget())];
+			
+			default :
+				throw new RuntimeException("Unknown constraint type " + cons.getType());
+		}
+	}
+	
+	/**
+	 * 
+	 * @param random
+	 * @param params
+	 * @param differences
+	 * @return
+	 */
+	private ParameterConstraint random(Random random, Parameter<?>[] params, boolean differences)
+	{
+		// select parameters
+		Parameter<?> ref = params[random.nextInt(params.length)];
+		Parameter<?> target = params[random.nextInt(params.length)];
+		while (target == ref) {
+			target = params[random.nextInt(params.length)];
+		}
+		
+		// create constraint
+		switch (random.nextInt(differences ? 5 : 3))
+		{
+			case 0 :
+				return this.unary(ParameterConstraintType.BIND, ref, LOCATIONS[random.nextInt(LOCATIONS.length)]);
+			
+			case 1 :
+				return this.unary(ParameterConstraintType.EXCLUDE, ref, LOCATIONS[random.nextInt(LOCATIONS.length)]);
+			
+			case 2 :
+				return this.binary(ParameterConstraintType.EQUAL, ref, target);
+			
+			default :
+				return this.binary(ParameterConstraintType.NOT_EQUAL, ref, target);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param label
+	 * @return
+	 * @throws Exception
+	 */
+	private Parameter<?> add(String label)
+			throws Exception
+	{
+		// create parameter
+		Parameter<?> param = this.paramFactory.createParameter(label, this.edom);
+		AddParameterNotification info = this.notiFactory.create(ParameterNotificationType.ADD_PARAM);
+		info.setParameter(param);
+		this.solver.update(info);
+		return param;
+	}
+	
+	/**
+	 * 
+	 * @param param
+	 */
+	private void delete(Parameter<?> param) {
+		DelParameterNotification info = this.notiFactory.create(ParameterNotificationType.DEL_PARAM);
+		info.setParameter(param);
+		this.solver.update(info);
+	}
+	
+	/**
+	 * 
+	 * @param cons
+	 */
+	private void post(ParameterConstraint cons) {
+		AddConstraintParameterNotification info = this.notiFactory.create(ParameterNotificationType.ADD_CONSTRAINT);
+		info.setConstraint(cons);
+		this.solver.update(info);
+	}
+	
+	/**
+	 * 
+	 * @param cons
+	 */
+	private void retract(ParameterConstraint cons) {
+		DelConstraintParameterNotification info = this.notiFactory.create(ParameterNotificationType.DEL_CONSTRAINT);
+		info.setConstraint(cons);
+		this.solver.update(info);
+	}
+	
+	/**
+	 * 
+	 * @param type
+	 * @param param
+	 * @param value
+	 * @return
+	 */
+	private <T extends ParameterConstraint> T unary(ParameterConstraintType type, Parameter<?> param, String value)
+	{
+		// create constraint
+		ParameterConstraint cons = this.paramFactory.createParameterConstraint(type);
+		cons.setReference(param);
+		if (cons instanceof BindParameterConstraint) {
+			((BindParameterConstraint) cons).setValue(value);
+		}
+		else {
+			((ExcludeParameterConstraint) cons).setValue(value);
+		}
+		
+		@SuppressWarnings("unchecked")
+		T t = (T) cons;
+		return t;
+	}
+	
+	/**
+	 * 
+	 * @param type
+	 * @param reference
+	 * @param target
+	 * @return
+	 */
+	private BinaryParameterConstraint binary(ParameterConstraintType type, Parameter<?> reference, Parameter<?> target) {
+		// create constraint
+		BinaryParameterConstraint cons = this.paramFactory.createParameterConstraint(type);
+		cons.setReference(reference);
+		cons.setTarget(target);
+		return cons;
+	}
+}
@@ -0,0 +1,223 @@
+package it.cnr.istc.pst.platinum.time.facade;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.annotation.cfg.framework.TemporalFacadeConfiguration;
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.query.TemporalQueryFactory;
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.query.TemporalQueryType;
+import it.cnr.istc.pst.platinum.ai.framework.time.TemporalFacade;
+import it.cnr.istc.pst.platinum.ai.framework.time.TemporalFacadeBuilder;
+import it.cnr.istc.pst.platinum.ai.framework.time.TemporalInterval;
+import it.cnr.istc.pst.platinum.ai.framework.time.lang.TemporalConstraintFactory;
+import it.cnr.istc.pst.platinum.ai.framework.time.lang.TemporalConstraintType;
+import it.cnr.istc.pst.platinum.ai.framework.time.lang.allen.BeforeIntervalConstraint;
+import it.cnr.istc.pst.platinum.ai.framework.time.lang.query.IntervalOverlapQuery;
+import it.cnr.istc.pst.platinum.ai.framework.time.solver.TemporalSolverType;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TemporalNetworkType;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.query.TimePointDistanceQuery;
+
+/**
+ * Allocation benchmark of the temporal facade. The same questions are answered
+ * through temporal queries and through the primitive accessors of the facade and
+ * the bytes allocated by the current thread are compared.
+ * 
+ * @author alessandro
+ *
+ */
+@TemporalFacadeConfiguration(
+		network = TemporalNetworkType.STNU,
+		solver = TemporalSolverType.APSP
+)
+public class TemporalFacadeAllocationTestCase
+{
+	private static final int ORIGIN = 0;
+	private static final int HORIZON = 1000;
+	private static final int INTERVALS = 30;
+	private static final int ROUNDS = 200;			// number of rounds over all pairs of intervals
+	private TemporalFacade facade;
+	private TemporalConstraintFactory constraintFactory;
+	private TemporalQueryFactory queryFactory;
+	private List<TemporalInterval> intervals;
+	
+	/**
+	 * 
+	 */
+	@Before
+	public void setupTest() {
+		System.out.println("**********************************************************************************");
+		System.out.println("********************** Temporal Facade Allocation Test Case **********************");
+		System.out.println("**********************************************************************************");
+		
+		try {
+			
+			// create temporal facade
+			this.facade = TemporalFacadeBuilder.createAndSet(this, ORIGIN, HORIZON);
+			this.constraintFactory = new TemporalConstraintFactory();
+			this.queryFactory = new TemporalQueryFactory();
+			
+			// create a chain of intervals
+			this.intervals = new ArrayList<>();
+			for (int i = 0; i < INTERVALS; i++) {
+				// create interval
+				TemporalInterval interval = this.facade.createTemporalInterval(new long[] {1, 10}, true);
+				if (!this.intervals.isEmpty()) {
+					// constrain the interval after the previous one
+					BeforeIntervalConstraint before = this.constraintFactory.create(TemporalConstraintType.BEFORE);
+					before.setReference(this.intervals.get(this.intervals.size() - 1));
+					before.setTarget(interval);
+					before.setLowerBound(0);
+					before.setUpperBound(20);
+					this.facade.propagate(before);
+				}
+				
+				// add interval
+				this.intervals.add(interval);
+			}
+			
+			// check consistency
+			this.facade.verifyTemporalConsistency();
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void primitiveAccessorsMatchQueries() {
+		System.out.println("[Test]: primitiveAccessorsMatchQueries() --------------------");
+		for (TemporalInterval a : this.intervals) {
+			for (TemporalInterval b : this.intervals) {
+				
+				// check distance
+				TimePointDistanceQuery distance = this.queryFactory.create(TemporalQueryType.TP_DISTANCE);
+				distance.setSource(a.getEndTime());
+				distance.setTarget(b.getStartTime());
+				this.facade.process(distance);
+				Assert.assertTrue(this.facade.getDistanceLowerBound(a.getEndTime(), b.getStartTime()) == distance.getDistanceLowerBound());
+				Assert.assertTrue(this.facade.getDistanceUpperBound(a.getEndTime(), b.getStartTime()) == distance.getDistanceUpperBound());
+				
+				// check overlapping
+				IntervalOverlapQuery overlap = this.queryFactory.create(TemporalQueryType.INTERVAL_OVERLAP);
+				overlap.setReference(a);
+				overlap.setTarget(b);
+				this.facade.process(overlap);
+				Assert.assertTrue(this.facade.canOverlap(a, b) == overlap.canOverlap());
+			}
+			
+			// check schedule
+			Assert.assertTrue(this.facade.getEarliestStartTime(a) <= this.facade.getLatestStartTime(a));
+			Assert.assertTrue(this.facade.getEarliestEndTime(a) <= this.facade.getLatestEndTime(a));
+			Assert.assertTrue(this.facade.getEarliestEndTime(a) >= this.facade.getEarliestStartTime(a) + 1);
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void allocationRate() {
+		System.out.println("[Test]: allocationRate() --------------------");
+		
+		// check if the JVM measures the memory allocated by threads
+		if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+			System.out.println("Thread allocation measurement not supported by the JVM");
+			return;
+		}
+		
+		com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		if (!bean.isThreadAllocatedMemorySupported() || !bean.isThreadAllocatedMemoryEnabled()) {
+			System.out.println("Thread allocation measurement not supported by the JVM");
+			return;
+		}
+		
+		// warm up both paths
+		this.runQueries();
+		this.runPrimitives();
+		
+		// measure queries
+		long operations = (long) ROUNDS * INTERVALS * INTERVALS;
+		long before = bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+		long time = System.nanoTime();
+		long checksum = this.runQueries();
+		long queryTime = System.nanoTime() - time;
+		long queryBytes = bean.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+		
+		// measure primitive accessors
+		before = bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+		time = System.nanoTime();
+		Assert.assertTrue(this.runPrimitives() == checksum);
+		long primitiveTime = System.nanoTime() - time;
+		long primitiveBytes = bean.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+		
+		System.out.println("Queries: " + (queryBytes / operations) + " bytes/op, " + (queryTime / operations) + " ns/op");
+		System.out.println("Primitive accessors: " + (primitiveBytes / operations) + " bytes/op, " + (primitiveTime / operations) + " ns/op");
+		// primitive accessors do not allocate memory
+		Assert.assertTrue(primitiveBytes / operations == 0);
+		Assert.assertTrue(primitiveBytes < queryBytes);
+	}
+	
+	/**
+	 * Check overlapping and distance between all pairs of intervals through queries
+	 * 
+	 * @return
+	 */
+	private long runQueries()
+	{
+		long checksum = 0;
+		for (int round = 0; round < ROUNDS; round++) {
+			for (TemporalInterval a : this.intervals) {
+				for (TemporalInterval b : this.intervals) {
+					
+					// check overlapping
+					IntervalOverlapQuery overlap = this.queryFactory.create(TemporalQueryType.INTERVAL_OVERLAP);
+					overlap.setReference(a);
+					overlap.setTarget(b);
+					this.facade.process(overlap);
+					
+					// check distance
+					TimePointDistanceQuery distance = this.queryFactory.create(TemporalQueryType.TP_DISTANCE);
+					distance.setSource(a.getEndTime());
+					distance.setTarget(b.getStartTime());
+					this.facade.process(distance);
+					checksum += (overlap.canOverlap() ? 1 : 0) + distance.getDistanceUpperBound();
+				}
+			}
+		}
+		
+		return checksum;
+	}
+	
+	/**
+	 * Check overlapping and distance between all pairs of intervals through primitive accessors
+	 * 
+	 * @return
+	 */
+	private long runPrimitives()
+	{
+		long checksum = 0;
+		for (int round = 0; round < ROUNDS; round++) {
+			// iterate by index to avoid creating iterators
+			for (int i = 0; i < INTERVALS; i++) {
+				for (int j = 0; j < INTERVALS; j++) {
+					// check overlapping and distance
+					TemporalInterval a = this.intervals.get(i);
+					TemporalInterval b = this.intervals.get(j);
+					checksum += (this.facade.canOverlap(a, b) ? 1 : 0) +
+							this.facade.getDistanceUpperBound(a.getEndTime(), b.getStartTime());
+				}
+			}
+		}
+		
+		return checksum;
+	}
+}
@@ -0,0 +1,358 @@
+package it.cnr.istc.pst.platinum.time.facade;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.annotation.cfg.framework.TemporalFacadeConfiguration;
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.query.TemporalQueryFactory;
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.query.TemporalQueryType;
+import it.cnr.istc.pst.platinum.ai.framework.time.TemporalFacade;
+import it.cnr.istc.pst.platinum.ai.framework.time.TemporalFacadeBuilder;
+import it.cnr.istc.pst.platinum.ai.framework.time.TemporalInterval;
+import it.cnr.istc.pst.platinum.ai.framework.time.lang.TemporalConstraintFactory;
+import it.cnr.istc.pst.platinum.ai.framework.time.lang.TemporalConstraintType;
+import it.cnr.istc.pst.platinum.ai.framework.time.lang.allen.BeforeIntervalConstraint;
+import it.cnr.istc.pst.platinum.ai.framework.time.lang.query.IntervalDistanceQuery;
+import it.cnr.istc.pst.platinum.ai.framework.time.solver.TemporalSolverType;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TemporalNetworkType;
+
+/**
+ * Contention benchmark of the temporal facade. A number of reader threads 
+ * process queries while a writer thread propagates and rolls back constraints. 
+ * Queries reaching the solvers that lazily update their data structures are 
+ * checked against the same queries processed one at a time.
+ * 
+ * @author alessandro
+ *
+ */
+@TemporalFacadeConfiguration(
+		network = TemporalNetworkType.STNU,
+		solver = TemporalSolverType.APSP
+)
+public class TemporalFacadeContentionTestCase 
+{
+	private static final int ORIGIN = 0;
+	private static final int HORIZON = 1000;
+	private static final int INTERVALS = 30;
+	private static final long DURATION = 300;		// duration of each run in milliseconds
+	private TemporalFacade facade;
+	private TemporalConstraintFactory constraintFactory;
+	private TemporalQueryFactory queryFactory;
+	private List<TemporalInterval> intervals;
+	
+	/**
+	 * 
+	 */
+	@Before
+	public void setupTest() {
+		System.out.println("**********************************************************************************");
+		System.out.println("********************** Temporal Facade Contention Test Case **********************");
+		System.out.println("**********************************************************************************");
+		
+		try {
+			
+			// create temporal facade
+			this.facade = TemporalFacadeBuilder.createAndSet(this, ORIGIN, HORIZON);
+			this.constraintFactory = new TemporalConstraintFactory();
+			this.queryFactory = new TemporalQueryFactory();
+			// create a chain of intervals
+			this.intervals = this.createChain(this.facade);
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void concurrentQueries() {
+		System.out.println("[Test]: concurrentQueries() --------------------");
+		try {
+			
+			// run with an increasing number of readers
+			for (int readers : new int[] {1, 2, 4, 8}) {
+				
+				// run benchmark
+				long queries = this.run(readers);
+				System.out.println("Readers= " + readers + ", processed queries= " + queries + ", "
+						+ "throughput= " + (queries * 1000 / DURATION) + " queries/sec");
+				Assert.assertTrue(queries > 0);
+			}
+			
+			// the writer has rolled back all its constraints
+			this.facade.verifyTemporalConsistency();
+			IntervalDistanceQuery query = this.queryFactory.create(TemporalQueryType.INTERVAL_DISTANCE);
+			query.setReference(this.intervals.get(0));
+			query.setTarget(this.intervals.get(1));
+			this.facade.process(query);
+			Assert.assertTrue(query.getDistanceLowerBound() == 0);
+			Assert.assertTrue(query.getDistanceUpperBound() == 20);
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void concurrentSolverQueries() {
+		System.out.println("[Test]: concurrentSolverQueries() --------------------");
+		try {
+			
+			// check solvers updating their data structures lazily
+			for (Object reference : new Object[] {
+					new JohnsonConfiguration(), 
+					new P3CConfiguration()}) 
+			{
+				// create temporal facade
+				TemporalFacade facade = TemporalFacadeBuilder.createAndSet(reference, ORIGIN, HORIZON);
+				List<TemporalInterval> chain = this.createChain(facade);
+				// compute the expected distances one query at a time
+				long[][] expected = this.computeDistances(facade, chain);
+				
+				// run with an increasing number of readers
+				for (int readers : new int[] {1, 2, 4, 8}) {
+					
+					// change the network so that the solver must update its data structures
+					BeforeIntervalConstraint before = this.constraintFactory.create(TemporalConstraintType.BEFORE);
+					before.setReference(chain.get(0));
+					before.setTarget(chain.get(1));
+					before.setLowerBound(5);
+					before.setUpperBound(10);
+					facade.propagate(before);
+					facade.retract(before);
+					
+					// compute the distances concurrently
+					final AtomicReference<Throwable> error = new AtomicReference<>();
+					List<Thread> threads = new ArrayList<>();
+					long start = System.nanoTime();
+					for (int r = 0; r < readers; r++) {
+						threads.add(new Thread(() -> {
+							try {
+								
+								// compare computed distances
+								long[][] distance = this.computeDistances(facade, chain);
+								for (int i = 0; i < distance.length; i++) {
+									if (!Arrays.equals(expected[i], distance[i])) {
+										throw new RuntimeException("Unexpected distances " + Arrays.toString(distance[i]) + "\n");
+									}
+								}
+							}
+							catch (Throwable ex) {
+								error.compareAndSet(null, ex);
+							}
+						}));
+					}
+					
+					// run threads
+					for (Thread t : threads) {
+						t.start();
+					}
+					
+					for (Thread t : threads) {
+						t.join();
+					}
+					
+					// check errors
+					if (error.get() != null) {
+						throw new RuntimeException(error.get());
+					}
+					
+					System.out.println(reference.getClass().getSimpleName() + ": readers= " + readers + ", "
+							+ "time= " + ((System.nanoTime() - start) / 1000) + " microsecs");
+				}
+			}
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param facade
+	 * @return
+	 * @throws Exception
+	 */
+	private List<TemporalInterval> createChain(TemporalFacade facade) 
+			throws Exception 
+	{
+		// create a chain of intervals
+		List<TemporalInterval> chain = new ArrayList<>();
+		for (int i = 0; i < INTERVALS; i++) {
+			// create interval
+			TemporalInterval interval = facade.createTemporalInterval(new long[] {1, 10}, true);
+			if (!chain.isEmpty()) {
+				// constrain the interval after the previous one
+				BeforeIntervalConstraint before = this.constraintFactory.create(TemporalConstraintType.BEFORE);
+				before.setReference(chain.get(chain.size() - 1));
+				before.setTarget(interval);
+				before.setLowerBound(0);
+				before.setUpperBound(20);
+				facade.propagate(before);
+			}
+			
+			// add interval
+			chain.add(interval);
+		}
+		
+		// check consistency
+		facade.verifyTemporalConsistency();
+		return chain;
+	}
+	
+	/**
+	 * Compute the distances between the end of each interval and the start of the 
+	 * others directly through the solver, without using cached query results
+	 * 
+	 * @param facade
+	 * @param chain
+	 * @return
+	 */
+	private long[][] computeDistances(TemporalFacade facade, List<TemporalInterval> chain) 
+	{
+		long[][] distance = new long[chain.size()][chain.size() * 2];
+		for (int i = 0; i < chain.size(); i++) {
+			for (int j = 0; j < chain.size(); j++) {
+				distance[i][j * 2] = facade.getDistanceLowerBound(chain.get(i).getEndTime(), chain.get(j).getStartTime());
+				distance[i][j * 2 + 1] = facade.getDistanceUpperBound(chain.get(i).getEndTime(), chain.get(j).getStartTime());
+			}
+		}
+		
+		return distance;
+	}
+	
+	/**
+	 * 
+	 * @param readers
+	 * @return
+	 * @throws Exception
+	 */
+	private long run(int readers) 
+			throws Exception 
+	{
+		// shared data
+		final AtomicBoolean running = new AtomicBoolean(true);
+		final AtomicLong counter = new AtomicLong(0);
+		final AtomicReference<Throwable> error = new AtomicReference<>();
+		List<Thread> threads = new ArrayList<>();
+		
+		// create readers
+		for (int r = 0; r < readers; r++) {
+			
+			final Random rnd = new Random(r);
+			threads.add(new Thread(() -> {
+				try {
+					
+					while (running.get()) {
+						
+						// compute the distance between two random intervals
+						int i = rnd.nextInt(INTERVALS - 1);
+						int j = i + 1 + rnd.nextInt(INTERVALS - i - 1);
+						IntervalDistanceQuery query = this.queryFactory.create(TemporalQueryType.INTERVAL_DISTANCE);
+						query.setReference(this.intervals.get(i));
+						query.setTarget(this.intervals.get(j));
+						this.facade.process(query);
+						// check distance bounds
+						if (query.getDistanceLowerBound() < 0 || query.getDistanceLowerBound() > query.getDistanceUpperBound()) {
+							throw new RuntimeException("Unexpected distance [" + query.getDistanceLowerBound() + ", " + query.getDistanceUpperBound() + "]");
+						}
+						
+						counter.incrementAndGet();
+					}
+				}
+				catch (Throwable ex) {
+					error.compareAndSet(null, ex);
+				}
+			}));
+		}
+		
+		// create writer
+		threads.add(new Thread(() -> {
+			try {
+				
+				Random rnd = new Random(readers);
+				while (running.get()) {
+					
+					// tighten the distance between two consecutive intervals
+					int checkpoint = this.facade.checkpoint();
+					int i = rnd.nextInt(INTERVALS - 1);
+					BeforeIntervalConstraint before = this.constraintFactory.create(TemporalConstraintType.BEFORE);
+					before.setReference(this.intervals.get(i));
+					before.setTarget(this.intervals.get(i + 1));
+					before.setLowerBound(5);
+					before.setUpperBound(10);
+					this.facade.propagate(before);
+					this.facade.verifyTemporalConsistency();
+					// restore the network
+					this.facade.rollback(checkpoint);
+					Thread.sleep(1);
+				}
+			}
+			catch (Throwable ex) {
+				error.compareAndSet(null, ex);
+			}
+		}));
+		
+		// run threads
+		for (Thread t : threads) {
+			t.start();
+		}
+		
+		Thread.sleep(DURATION);
+		running.set(false);
+		for (Thread t : threads) {
+			t.join();
+		}
+		
+		// check errors
+		if (error.get() != null) {
+			throw new RuntimeException(error.get());
+		}
+		
+		// get the number of processed queries
+		return counter.get();
+	}
+	
+	/**
+	 * 
+	 * @author alessandro
+	 *
+	 */
+	@TemporalFacadeConfiguration(
+			network = TemporalNetworkType.STNU,
+			solver = TemporalSolverType.JOHNSON
+	)
+	private static class JohnsonConfiguration {
+		// configuration of the temporal facade
+	}
+	
+	/**
+	 * 
+	 * @author alessandro
+	 *
+	 */
+	@TemporalFacadeConfiguration(
+			network = TemporalNetworkType.STNU,
+			solver = TemporalSolverType.P3C
+	)
+	private static class P3CConfiguration {
+		// configuration of the temporal facade
+	}
+}
@@ -1,5 +1,14 @@
 package it.cnr.istc.pst.platinum.time.facade;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -9,19 +18,30 @@ import it.cnr.istc.pst.platinum.ai.framework.microkernel.annotation.cfg.framewor
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.lang.ex.ConsistencyCheckException;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.query.TemporalQueryFactory;
 import it.cnr.istc.pst.platinum.ai.framework.microkernel.query.TemporalQueryType;
+import it.cnr.istc.pst.platinum.ai.framework.time.DispatchableNetwork;
 import it.cnr.istc.pst.platinum.ai.framework.time.TemporalFacade;
 import it.cnr.istc.pst.platinum.ai.framework.time.TemporalFacadeBuilder;
 import it.cnr.istc.pst.platinum.ai.framework.time.TemporalInterval;
+import it.cnr.istc.pst.platinum.ai.framework.time.ex.DynamicControllabilityException;
 import it.cnr.istc.pst.platinum.ai.framework.time.ex.PseudoControllabilityException;
+import it.cnr.istc.pst.platinum.ai.framework.time.ex.TemporalConsistencyException;
+import it.cnr.istc.pst.platinum.ai.framework.time.ex.TemporalConstraintPropagationException;
+import it.cnr.istc.pst.platinum.ai.framework.time.lang.FixTimePointConstraint;
+import it.cnr.istc.pst.platinum.ai.framework.time.lang.TemporalConstraint;
 import it.cnr.istc.pst.platinum.ai.framework.time.lang.TemporalConstraintFactory;
 import it.cnr.istc.pst.platinum.ai.framework.time.lang.TemporalConstraintType;
 import it.cnr.istc.pst.platinum.ai.framework.time.lang.allen.BeforeIntervalConstraint;
 import it.cnr.istc.pst.platinum.ai.framework.time.lang.allen.DuringIntervalConstraint;
 import it.cnr.istc.pst.platinum.ai.framework.time.lang.allen.MeetsIntervalConstraint;
 import it.cnr.istc.pst.platinum.ai.framework.time.lang.query.IntervalDistanceQuery;
+import it.cnr.istc.pst.platinum.ai.framework.time.lang.query.IntervalOverlapQuery;
+import it.cnr.istc.pst.platinum.ai.framework.time.lang.query.IntervalOverlapSetQuery;
 import it.cnr.istc.pst.platinum.ai.framework.time.lang.query.IntervalScheduleQuery;
 import it.cnr.istc.pst.platinum.ai.framework.time.solver.TemporalSolverType;
 import it.cnr.istc.pst.platinum.ai.framework.time.tn.TemporalNetworkType;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePoint;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePointDistanceConstraint;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.query.TimePointDistanceToHorizonQuery;
 
 /**
  * 
@@ -635,4 +655,777 @@ public class UncertaintyTemporalDataBaseFacadeTestCase
 		}
 	}
 
+	/**
+	 * 
+	 */
+	@Test
+	public void createIntervalsAndRollback() {
+		System.out.println("[Test]: createIntervalsAndRollback() --------------------");
+		System.out.println();
+		// rebuild the network after the rollback
+		this.doCreateIntervalsAndRollback(this.facade);
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void createIntervalsAndRollbackThroughTrail() {
+		System.out.println("[Test]: createIntervalsAndRollbackThroughTrail() --------------------");
+		System.out.println();
+		// restore the trail of the solver after the rollback
+		TemporalFacade facade = TemporalFacadeBuilder.createAndSet(new IncrementalSolverConfiguration(), ORIGIN, HORIZON);
+		this.doCreateIntervalsAndRollback(facade);
+	}
+	
+	/**
+	 * 
+	 * @param facade
+	 */
+	private void doCreateIntervalsAndRollback(TemporalFacade facade) {
+		try 
+		{
+			// create temporal intervals
+			TemporalInterval i1 = facade.createTemporalInterval(new long[] {10, 10}, true);
+			TemporalInterval i2 = facade.createTemporalInterval(new long[] {5, 8}, true);
+			
+			// create checkpoint
+			int checkpoint = facade.checkpoint();
+			
+			// meets constraint
+			MeetsIntervalConstraint c1 = this.intervalFactory.
+					create(TemporalConstraintType.MEETS);
+			c1.setReference(i1);
+			c1.setTarget(i2);
+			facade.propagate(c1);
+			
+			// create nested checkpoint
+			int nested = facade.checkpoint();
+			
+			// create new intervals
+			TemporalInterval i3 = facade.createTemporalInterval(new long[] {1, 70}, true);
+			TemporalInterval i4 = facade.createTemporalInterval(new long[] {1, 70}, true);
+			// during constraint
+			DuringIntervalConstraint c2 = this.intervalFactory.
+					create(TemporalConstraintType.DURING);
+			c2.setReference(i2);
+			c2.setTarget(i3);
+			c2.setStartTimeBound(new long[] {1, 80});
+			c2.setEndTimeBound(new long[] {1, 80});
+			// before constraint
+			BeforeIntervalConstraint c3 = this.intervalFactory.
+					create(TemporalConstraintType.BEFORE);
+			c3.setReference(i3);
+			c3.setTarget(i4);
+			c3.setLowerBound(0);
+			c3.setUpperBound(HORIZON);
+			// propagate constraints as a batch
+			List<TemporalConstraint> batch = new ArrayList<>();
+			batch.add(c2);
+			batch.add(c3);
+			facade.propagate(batch);
+			// check consistency
+			facade.verify();
+			
+			// make distance query
+			IntervalDistanceQuery distanceQuery = this.queryFactory.create(TemporalQueryType.INTERVAL_DISTANCE);
+			distanceQuery.setReference(i1);
+			distanceQuery.setTarget(i2);
+			facade.process(distanceQuery);
+			Assert.assertTrue(distanceQuery.getDistanceLowerBound() == 0);
+			Assert.assertTrue(distanceQuery.getDistanceUpperBound() == 0);
+			
+			// rollback to the nested checkpoint
+			facade.rollback(nested);
+			facade.verify();
+			// intervals and constraints have been removed
+			Assert.assertNull(c2.getPropagatedConstraints());
+			Assert.assertNull(c3.getPropagatedConstraints());
+			Assert.assertNotNull(c1.getPropagatedConstraints());
+			facade.process(distanceQuery);
+			Assert.assertTrue(distanceQuery.getDistanceLowerBound() == 0);
+			Assert.assertTrue(distanceQuery.getDistanceUpperBound() == 0);
+			
+			// rollback to the first checkpoint
+			facade.rollback(checkpoint);
+			facade.verify();
+			Assert.assertNull(c1.getPropagatedConstraints());
+			facade.process(distanceQuery);
+			// only durations constrain the distance between the intervals
+			Assert.assertTrue(distanceQuery.getDistanceLowerBound() == -HORIZON);
+			Assert.assertTrue(distanceQuery.getDistanceUpperBound() == HORIZON - 15);
+			
+			// unknown checkpoint
+			try 
+			{
+				facade.rollback(checkpoint);
+				Assert.assertTrue(false);
+			}
+			catch (RuntimeException ex) {
+				System.out.println(ex.getMessage());
+			}
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void propagateBatchOfConstraints() {
+		System.out.println("[Test]: propagateBatchOfConstraints() --------------------");
+		System.out.println();
+		try 
+		{
+			// create temporal intervals
+			TemporalInterval i1 = facade.createTemporalInterval(new long[] {10, 10}, true);
+			TemporalInterval i2 = facade.createTemporalInterval(new long[] {5, 8}, true);
+			TemporalInterval i3 = facade.createTemporalInterval(new long[] {1, 70}, true);
+			
+			// meets constraint
+			MeetsIntervalConstraint c1 = this.intervalFactory.
+					create(TemporalConstraintType.MEETS);
+			c1.setReference(i1);
+			c1.setTarget(i2);
+			// during constraint
+			DuringIntervalConstraint c2 = this.intervalFactory.
+					create(TemporalConstraintType.DURING);
+			c2.setReference(i2);
+			c2.setTarget(i3);
+			c2.setStartTimeBound(new long[] {1, 80});
+			c2.setEndTimeBound(new long[] {1, 80});
+			
+			// propagate constraints as a batch
+			List<TemporalConstraint> batch = new ArrayList<>();
+			batch.add(c1);
+			batch.add(c2);
+			this.facade.propagate(batch);
+			this.facade.verify();
+			Assert.assertNotNull(c1.getPropagatedConstraints());
+			Assert.assertNotNull(c2.getPropagatedConstraints());
+			
+			// make distance query
+			IntervalDistanceQuery distanceQuery = this.queryFactory.create(TemporalQueryType.INTERVAL_DISTANCE);
+			distanceQuery.setReference(i1);
+			distanceQuery.setTarget(i2);
+			facade.process(distanceQuery);
+			Assert.assertTrue(distanceQuery.getDistanceLowerBound() == 0);
+			Assert.assertTrue(distanceQuery.getDistanceUpperBound() == 0);
+			
+			// before constraint consistent with the network
+			BeforeIntervalConstraint c3 = this.intervalFactory.
+					create(TemporalConstraintType.BEFORE);
+			c3.setReference(i1);
+			c3.setTarget(i3);
+			c3.setLowerBound(0);
+			c3.setUpperBound(HORIZON);
+			// before constraint conflicting with the meets constraint
+			BeforeIntervalConstraint c4 = this.intervalFactory.
+					create(TemporalConstraintType.BEFORE);
+			c4.setReference(i2);
+			c4.setTarget(i1);
+			c4.setLowerBound(0);
+			c4.setUpperBound(HORIZON);
+			
+			// propagate an inconsistent batch
+			batch = new ArrayList<>();
+			batch.add(c3);
+			batch.add(c4);
+			try 
+			{
+				this.facade.propagate(batch);
+				Assert.assertTrue(false);
+			}
+			catch (TemporalConstraintPropagationException | TemporalConsistencyException ex) {
+				System.out.println("Batch of constraints rolled back:\n" + ex.getMessage() + "\n");
+			}
+			
+			// no constraint of the batch has been propagated
+			Assert.assertNull(c3.getPropagatedConstraints());
+			Assert.assertNull(c4.getPropagatedConstraints());
+			this.facade.verify();
+			facade.process(distanceQuery);
+			Assert.assertTrue(distanceQuery.getDistanceLowerBound() == 0);
+			Assert.assertTrue(distanceQuery.getDistanceUpperBound() == 0);
+			
+			// retract the first batch of constraints
+			batch = new ArrayList<>();
+			batch.add(c1);
+			batch.add(c2);
+			this.facade.retract(batch);
+			this.facade.verify();
+			Assert.assertNull(c1.getPropagatedConstraints());
+			Assert.assertNull(c2.getPropagatedConstraints());
+			
+			// the intervals are not constrained anymore
+			facade.process(distanceQuery);
+			System.out.println("Distance after retraction: [" + distanceQuery.getDistanceLowerBound() + ", " + distanceQuery.getDistanceUpperBound() + "]\n");
+			Assert.assertTrue(distanceQuery.getDistanceLowerBound() < 0);
+			Assert.assertTrue(distanceQuery.getDistanceUpperBound() > 0);
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}	
+	/**
+	 * 
+	 */
+	@Test
+	public void processQueriesThroughCache() {
+		System.out.println("[Test]: processQueriesThroughCache() --------------------");
+		System.out.println();
+		try 
+		{
+			// create temporal intervals
+			TemporalInterval i1 = facade.createTemporalInterval(new long[] {10, 10}, true);
+			TemporalInterval i2 = facade.createTemporalInterval(new long[] {5, 8}, true);
+			
+			// make overlap query
+			IntervalOverlapQuery overlap = this.queryFactory.create(TemporalQueryType.INTERVAL_OVERLAP);
+			overlap.setReference(i1);
+			overlap.setTarget(i2);
+			facade.process(overlap);
+			Assert.assertTrue(overlap.canOverlap());
+			// each overlap query processes two time point distance queries
+			long misses = facade.getQueryCacheMisses();
+			Assert.assertTrue(facade.getQueryCacheHits() == 0);
+			Assert.assertTrue(misses == 2);
+			
+			// repeat the query on the same version of the network
+			facade.process(overlap);
+			Assert.assertTrue(overlap.canOverlap());
+			Assert.assertTrue(facade.getQueryCacheHits() == 2);
+			Assert.assertTrue(facade.getQueryCacheMisses() == misses);
+			
+			// meets constraint
+			MeetsIntervalConstraint meets = this.intervalFactory.
+					create(TemporalConstraintType.MEETS);
+			meets.setReference(i1);
+			meets.setTarget(i2);
+			this.facade.propagate(meets);
+			
+			// cached results are not valid anymore
+			facade.process(overlap);
+			Assert.assertFalse(overlap.canOverlap());
+			Assert.assertTrue(facade.getQueryCacheHits() == 2);
+			Assert.assertTrue(facade.getQueryCacheMisses() == misses + 2);
+			
+			// check interval schedule twice
+			IntervalScheduleQuery schedule = this.queryFactory.create(TemporalQueryType.INTERVAL_SCHEDULE);
+			schedule.setInterval(i2);
+			facade.process(schedule);
+			long lb = i2.getStartTime().getLowerBound();
+			long ub = i2.getStartTime().getUpperBound();
+			facade.process(schedule);
+			Assert.assertTrue(facade.getQueryCacheHits() == 5);
+			Assert.assertTrue(i2.getStartTime().getLowerBound() == lb);
+			Assert.assertTrue(i2.getStartTime().getUpperBound() == ub);
+			Assert.assertTrue(lb == 10);
+			
+			// check distance to horizon twice
+			TimePointDistanceToHorizonQuery horizon = this.queryFactory.create(TemporalQueryType.TP_DISTANCE_TO_HORIZON);
+			horizon.setTimePoint(i2.getEndTime());
+			facade.process(horizon);
+			long[] distance = horizon.getDistance();
+			long[] expected = distance.clone();
+			// changing the result of a query must not change the cached result
+			distance[0] = -1;
+			distance[1] = -1;
+			facade.process(horizon);
+			Assert.assertTrue(facade.getQueryCacheHits() == 6);
+			Assert.assertTrue(horizon.getDistance() != distance);
+			Assert.assertTrue(Arrays.equals(horizon.getDistance(), expected));
+			// changing the result of a cached query must not change the cached result
+			horizon.getDistance()[0] = -1;
+			facade.process(horizon);
+			Assert.assertTrue(Arrays.equals(horizon.getDistance(), expected));
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void verifyDynamicControllability() {
+		System.out.println("[Test]: verifyDynamicControllability() --------------------");
+		System.out.println();
+		try 
+		{
+			// create an uncontrollable and a controllable interval
+			TemporalInterval i1 = facade.createTemporalInterval(new long[] {5, 20}, false);
+			TemporalInterval i2 = facade.createTemporalInterval(new long[] {1, 10}, true);
+			
+			// the controllable interval starts after the end of the uncontrollable one
+			BeforeIntervalConstraint before = this.intervalFactory.
+					create(TemporalConstraintType.BEFORE);
+			before.setReference(i1);
+			before.setTarget(i2);
+			before.setLowerBound(0);
+			before.setUpperBound(HORIZON);
+			this.facade.propagate(before);
+			this.facade.verify();
+			this.facade.verifyDynamicControllability();
+			
+			// the controllable interval must end exactly when the uncontrollable one ends
+			this.facade.retract(before);
+			TimePointDistanceConstraint equals = this.facade.createTemporalConstraint(TemporalConstraintType.TIME_POINT_DISTANCE);
+			equals.setReference(i2.getEndTime());
+			equals.setTarget(i1.getEndTime());
+			equals.setDistanceLowerBound(0);
+			equals.setDistanceUpperBound(0);
+			equals.setControllable(true);
+			this.facade.propagate(equals);
+			
+			// the network is consistent but not dynamically controllable
+			this.facade.verifyTemporalConsistency();
+			try {
+				this.facade.verifyDynamicControllability();
+				Assert.assertTrue(false);
+			}
+			catch (DynamicControllabilityException ex) {
+				System.out.println(ex.getMessage());
+			}
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}	
+	/**
+	 * 
+	 */
+	@Test
+	public void findOverlappingSets() {
+		System.out.println("[Test]: findOverlappingSets() --------------------");
+		System.out.println();
+		try 
+		{
+			// create intervals
+			TemporalInterval i1 = this.facade.createTemporalInterval(new long[] {10, 20}, true);
+			TemporalInterval i2 = this.facade.createTemporalInterval(new long[] {10, 20}, true);
+			TemporalInterval i3 = this.facade.createTemporalInterval(new long[] {5, 50}, true);
+			TemporalInterval i4 = this.facade.createTemporalInterval(new long[] {ORIGIN, 100}, new long[] {ORIGIN, 100}, new long[] {5, 10}, true);
+			TemporalInterval i5 = this.facade.createTemporalInterval(new long[] {300, 400}, new long[] {300, 400}, new long[] {5, 10}, true);
+			
+			// i1 before i2
+			BeforeIntervalConstraint before = this.intervalFactory.create(TemporalConstraintType.BEFORE);
+			before.setReference(i1);
+			before.setTarget(i2);
+			before.setLowerBound(0);
+			before.setUpperBound(HORIZON);
+			this.facade.propagate(before);
+			
+			// find overlapping sets
+			List<TemporalInterval> intervals = new ArrayList<>();
+			intervals.add(i1);
+			intervals.add(i2);
+			intervals.add(i3);
+			intervals.add(i4);
+			intervals.add(i5);
+			IntervalOverlapSetQuery query = this.queryFactory.create(TemporalQueryType.INTERVAL_OVERLAP_SET);
+			query.setIntervals(intervals);
+			this.facade.process(query);
+			System.out.println("Overlapping sets: " + query.getOverlappingSets());
+			
+			// i1 cannot overlap i2 and i4 cannot overlap i5
+			Assert.assertTrue(query.getOverlappingSets().size() == 5);
+			Assert.assertTrue(query.getOverlappingSets().get(0).equals(Arrays.asList(i1, i3, i4)));
+			Assert.assertTrue(query.getOverlappingSets().get(1).equals(Arrays.asList(i2, i3, i4)));
+			Assert.assertTrue(query.getOverlappingSets().get(2).equals(Arrays.asList(i3, i4)));
+			Assert.assertTrue(query.getOverlappingSets().get(3).equals(Arrays.asList(i4)));
+			Assert.assertTrue(query.getOverlappingSets().get(4).equals(Arrays.asList(i5)));
+			
+			// check sets against pairwise queries
+			Assert.assertTrue(query.getOverlappingSets().equals(this.findOverlappingSetsByPairwiseQueries(intervals)));
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void compareOverlappingSetsWithPairwiseQueries() {
+		System.out.println("[Test]: compareOverlappingSetsWithPairwiseQueries() --------------------");
+		System.out.println();
+		try 
+		{
+			Random random = new Random(7);
+			List<TemporalInterval> intervals = new ArrayList<>();
+			for (int index = 0; index < 30; index++) 
+			{
+				// create an interval with a random start window
+				long start = random.nextInt(HORIZON - 100);
+				TemporalInterval interval = this.facade.createTemporalInterval(
+						new long[] {start, start + random.nextInt(60)}, 
+						new long[] {ORIGIN, HORIZON}, 
+						new long[] {5, 5 + random.nextInt(30)}, 
+						true);
+				
+				// randomly order the interval after a previous one
+				if (!intervals.isEmpty() && random.nextInt(4) == 0) {
+					BeforeIntervalConstraint before = this.intervalFactory.create(TemporalConstraintType.BEFORE);
+					before.setReference(intervals.get(random.nextInt(intervals.size())));
+					before.setTarget(interval);
+					before.setLowerBound(0);
+					before.setUpperBound(HORIZON);
+					try {
+						this.facade.propagate(before);
+						this.facade.verifyTemporalConsistency();
+					}
+					catch (TemporalConstraintPropagationException | TemporalConsistencyException ex) {
+						// retract inconsistent precedence
+						this.facade.retract(before);
+					}
+				}
+				
+				intervals.add(interval);
+			}
+			
+			// find overlapping sets
+			IntervalOverlapSetQuery query = this.queryFactory.create(TemporalQueryType.INTERVAL_OVERLAP_SET);
+			query.setIntervals(intervals);
+			this.facade.process(query);
+			System.out.println("Overlapping sets: " + query.getOverlappingSets().size());
+			
+			// a set is computed for each interval
+			Assert.assertTrue(query.getOverlappingSets().size() == intervals.size());
+			// check sets against pairwise queries
+			Assert.assertTrue(query.getOverlappingSets().equals(this.findOverlappingSetsByPairwiseQueries(intervals)));
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+	
+	/**
+	 * Compute the sets of possibly overlapping intervals through pairwise INTERVAL_OVERLAP 
+	 * queries as the scheduling resolvers did before the INTERVAL_OVERLAP_SET query
+	 * 
+	 * @param intervals
+	 * @return
+	 */
+	private List<List<TemporalInterval>> findOverlappingSetsByPairwiseQueries(List<TemporalInterval> intervals) {
+		List<List<TemporalInterval>> sets = new ArrayList<>();
+		for (int index = 0; index < intervals.size(); index++) 
+		{
+			List<TemporalInterval> set = new ArrayList<>();
+			set.add(intervals.get(index));
+			for (int jndex = index + 1; jndex < intervals.size(); jndex++) 
+			{
+				// check if the interval can overlap all the intervals of the set
+				boolean conflict = true;
+				for (int k = 0; k < set.size() && conflict; k++) {
+					IntervalOverlapQuery overlap = this.queryFactory.create(TemporalQueryType.INTERVAL_OVERLAP);
+					overlap.setReference(set.get(k));
+					overlap.setTarget(intervals.get(jndex));
+					this.facade.process(overlap);
+					conflict = overlap.canOverlap();
+				}
+				
+				if (conflict) {
+					set.add(intervals.get(jndex));
+				}
+			}
+			
+			sets.add(set);
+		}
+		
+		return sets;
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void compileDispatchableNetwork() {
+		System.out.println("[Test]: compileDispatchableNetwork() --------------------");
+		System.out.println();
+		try 
+		{
+			// create intervals
+			TemporalInterval i1 = this.facade.createTemporalInterval(new long[] {10, 20}, true);
+			TemporalInterval i2 = this.facade.createTemporalInterval(new long[] {10, 20}, true);
+			TemporalInterval i3 = this.facade.createTemporalInterval(new long[] {5, 10}, true);
+			
+			// i1 meets i2
+			MeetsIntervalConstraint meets = this.intervalFactory.create(TemporalConstraintType.MEETS);
+			meets.setReference(i1);
+			meets.setTarget(i2);
+			this.facade.propagate(meets);
+			
+			// i2 before i3
+			BeforeIntervalConstraint before = this.intervalFactory.create(TemporalConstraintType.BEFORE);
+			before.setReference(i2);
+			before.setTarget(i3);
+			before.setLowerBound(0);
+			before.setUpperBound(30);
+			this.facade.propagate(before);
+			
+			// compile the network
+			DispatchableNetwork dn = this.facade.compileDispatchableNetwork();
+			System.out.println("Dispatchable network edges: " + dn.getNumberOfEdges());
+			// dominated edges of the complete distance graph are removed (8 time points)
+			Assert.assertTrue(dn.getNumberOfEdges() < 8 * 7);
+			
+			// dispatch time points in temporal order
+			TimePoint[] points = new TimePoint[] {
+					i1.getStartTime(), 
+					i1.getEndTime(), 
+					i2.getEndTime(), 
+					i3.getStartTime(), 
+					i3.getEndTime()
+			};
+			
+			long[] times = new long[] {5, 17, 30, 42, 50};
+			for (int i = 0; i < points.length; i++) 
+			{
+				// check the execution window against the propagation of the temporal network
+				IntervalScheduleQuery query = this.queryFactory.create(TemporalQueryType.INTERVAL_SCHEDULE);
+				query.setInterval(i1);
+				this.facade.process(query);
+				query.setInterval(i2);
+				this.facade.process(query);
+				query.setInterval(i3);
+				this.facade.process(query);
+				long[] window = dn.getWindow(points[i]);
+				System.out.println("Window of " + points[i] + ": [" + window[0] + ", " + window[1] + "]");
+				Assert.assertTrue(window[0] == points[i].getLowerBound());
+				Assert.assertTrue(window[1] == points[i].getUpperBound());
+				
+				// execute time point
+				dn.execute(points[i], times[i]);
+				Assert.assertTrue(dn.isExecuted(points[i]));
+				FixTimePointConstraint fix = this.intervalFactory.create(TemporalConstraintType.FIX_TIME_POINT);
+				fix.setReference(points[i]);
+				fix.setTime(times[i]);
+				this.facade.propagate(fix);
+				this.facade.verifyTemporalConsistency();
+			}
+			
+			// the start of i2 has been implicitly executed with the end of i1
+			Assert.assertTrue(dn.getWindow(i2.getStartTime())[0] == 17);
+			Assert.assertTrue(dn.getWindow(i2.getStartTime())[1] == 17);
+			
+			// execution times outside the window are rejected
+			try {
+				dn.execute(i2.getStartTime(), 18);
+				Assert.assertTrue(false);
+			}
+			catch (TemporalConstraintPropagationException ex) {
+				System.out.println(ex.getMessage());
+			}
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void saveAndLoadSnapshot() {
+		System.out.println("[Test]: saveAndLoadSnapshot() --------------------");
+		System.out.println();
+		try 
+		{
+			// create intervals
+			TemporalInterval i1 = this.facade.createTemporalInterval(new long[] {10, 20}, true);
+			TemporalInterval i2 = this.facade.createTemporalInterval(new long[] {10, 20}, false);
+			TemporalInterval i3 = this.facade.createTemporalInterval(new long[] {5, 10}, true);
+			
+			// i1 meets i2
+			MeetsIntervalConstraint meets = this.intervalFactory.create(TemporalConstraintType.MEETS);
+			meets.setReference(i1);
+			meets.setTarget(i2);
+			this.facade.propagate(meets);
+			
+			// i2 before i3
+			BeforeIntervalConstraint before = this.intervalFactory.create(TemporalConstraintType.BEFORE);
+			before.setReference(i2);
+			before.setTarget(i3);
+			before.setLowerBound(0);
+			before.setUpperBound(30);
+			this.facade.propagate(before);
+			
+			// save the temporal network
+			File file = File.createTempFile("platinum", ".tns");
+			file.deleteOnExit();
+			this.facade.save(file);
+			System.out.println("Snapshot size: " + file.length() + " bytes");
+			
+			// load the snapshot into a new temporal network
+			TemporalFacade restored = TemporalFacadeBuilder.createAndSet(this, ORIGIN, HORIZON);
+			Map<Integer, TimePoint> index = restored.load(file);
+			
+			// check restored time points
+			TimePoint[] points = new TimePoint[] {
+					i1.getStartTime(), 
+					i1.getEndTime(), 
+					i2.getStartTime(), 
+					i2.getEndTime(), 
+					i3.getStartTime(), 
+					i3.getEndTime()
+			};
+			
+			Assert.assertTrue(index.size() == points.length + 2);
+			DispatchableNetwork expected = this.facade.compileDispatchableNetwork();
+			DispatchableNetwork actual = restored.compileDispatchableNetwork();
+			for (TimePoint source : points) 
+			{
+				// check schedule
+				TimePoint copy = index.get(source.getId());
+				Assert.assertNotNull(copy);
+				Assert.assertTrue(copy.getLowerBound() == source.getLowerBound());
+				Assert.assertTrue(copy.getUpperBound() == source.getUpperBound());
+				
+				// check minimal distances
+				for (TimePoint target : points) {
+					Assert.assertTrue(Arrays.equals(
+							expected.getDistance(source, target), 
+							actual.getDistance(copy, index.get(target.getId()))));
+				}
+			}
+			
+			// contingent links are restored 
+			Assert.assertTrue(restored.getSqueezedContingentLinks().isEmpty());
+			
+			// restored constraints are propagated as the saved ones
+			FixTimePointConstraint fix = this.intervalFactory.create(TemporalConstraintType.FIX_TIME_POINT);
+			fix.setReference(i1.getEndTime());
+			fix.setTime(15);
+			this.facade.propagate(fix);
+			fix = this.intervalFactory.create(TemporalConstraintType.FIX_TIME_POINT);
+			fix.setReference(index.get(i1.getEndTime().getId()));
+			fix.setTime(15);
+			restored.propagate(fix);
+			expected = this.facade.compileDispatchableNetwork();
+			actual = restored.compileDispatchableNetwork();
+			for (TimePoint source : points) {
+				for (TimePoint target : points) {
+					Assert.assertTrue(Arrays.equals(
+							expected.getDistance(source, target), 
+							actual.getDistance(index.get(source.getId()), index.get(target.getId()))));
+				}
+			}
+			
+			// files with a different format are rejected
+			try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+				raf.seek(4);
+				raf.writeInt(Integer.MAX_VALUE);
+			}
+			
+			try {
+				TemporalFacadeBuilder.createAndSet(this, ORIGIN, HORIZON).load(file);
+				Assert.assertTrue(false);
+			}
+			catch (IOException ex) {
+				System.out.println(ex.getMessage());
+			}
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void saveRemoveAndLoadSnapshot() {
+		System.out.println("[Test]: saveRemoveAndLoadSnapshot() --------------------");
+		System.out.println();
+		try 
+		{
+			// create intervals
+			TemporalInterval i1 = this.facade.createTemporalInterval(new long[] {10, 20}, true);
+			TemporalInterval i2 = this.facade.createTemporalInterval(new long[] {5, 10}, true);
+			TemporalInterval i3 = this.facade.createTemporalInterval(new long[] {5, 10}, true);
+			
+			// contingent link between the end of i1 and the start of i2
+			TimePointDistanceConstraint link = this.facade.createTemporalConstraint(TemporalConstraintType.TIME_POINT_DISTANCE);
+			link.setReference(i1.getEndTime());
+			link.setTarget(i2.getStartTime());
+			link.setDistanceLowerBound(1);
+			link.setDistanceUpperBound(5);
+			link.setControllable(false);
+			this.facade.propagate(link);
+			
+			// i1 before i3
+			BeforeIntervalConstraint before = this.intervalFactory.create(TemporalConstraintType.BEFORE);
+			before.setReference(i1);
+			before.setTarget(i3);
+			before.setLowerBound(0);
+			before.setUpperBound(30);
+			this.facade.propagate(before);
+			
+			// remove the target of the contingent link
+			this.facade.deleteTemporalInterval(i2);
+			this.facade.verifyTemporalConsistency();
+			
+			// save the temporal network
+			File file = File.createTempFile("platinum", ".tns");
+			file.deleteOnExit();
+			this.facade.save(file);
+			
+			// load the snapshot into a new temporal network
+			TemporalFacade restored = TemporalFacadeBuilder.createAndSet(this, ORIGIN, HORIZON);
+			Map<Integer, TimePoint> index = restored.load(file);
+			restored.verifyTemporalConsistency();
+			
+			// check restored time points
+			TimePoint[] points = new TimePoint[] {
+					i1.getStartTime(), 
+					i1.getEndTime(), 
+					i3.getStartTime(), 
+					i3.getEndTime()
+			};
+			
+			Assert.assertTrue(index.size() == points.length + 2);
+			DispatchableNetwork expected = this.facade.compileDispatchableNetwork();
+			DispatchableNetwork actual = restored.compileDispatchableNetwork();
+			for (TimePoint source : points) {
+				for (TimePoint target : points) {
+					Assert.assertTrue(Arrays.equals(
+							expected.getDistance(source, target), 
+							actual.getDistance(index.get(source.getId()), index.get(target.getId()))));
+				}
+			}
+			
+			// the removed contingent link is not restored
+			Assert.assertTrue(restored.getSqueezedContingentLinks().isEmpty());
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+	
+	/**
+	 * 
+	 * @author alessandro
+	 *
+	 */
+	@TemporalFacadeConfiguration(
+			network = TemporalNetworkType.STNU,
+			solver = TemporalSolverType.INCREMENTAL_APSP
+	)
+	private static class IncrementalSolverConfiguration {
+		// configuration of the temporal facade
+	}
 }
@@ -1,6 +1,8 @@
 package it.cnr.istc.pst.platinum.time.reasoner.apsp;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -459,8 +461,8 @@ public class APSPSolverTestCase
 			Assert.assertTrue(this.tp3.getLowerBound() == 20);
 			Assert.assertTrue(this.tp3.getUpperBound() == 30);
 			
-			// check number of propagations
-			Assert.assertTrue(solver.getPropagationCounter() == 5);
+			// check number of propagations - added and removed time points do not require propagation
+			Assert.assertTrue(solver.getPropagationCounter() == 1);
 		}
 		catch (Exception ex) {
 			System.err.println(ex.getMessage());
@@ -539,4 +541,82 @@ public class APSPSolverTestCase
 			Assert.assertTrue(false);
 		}
 	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void addAndRemoveTimePointsIncrementally() {
+		System.out.println("[Test]: addAndRemoveTimePointsIncrementally() --------------------");
+		try {
+			// create APSP solver
+			APSPTemporalSolver solver = new APSPTemporalSolver(this.tn);
+			Assert.assertTrue(solver.isValid());
+			
+			// create time points querying the network after each creation
+			int size = 300;
+			Random rnd = new Random(13);
+			List<TimePoint> points = new ArrayList<>();
+			long time = System.nanoTime();
+			for (int i = 0; i < size; i++) 
+			{
+				// create time point
+				TimePoint point = this.tn.addTimePoint(rnd.nextInt(100), HORIZON - rnd.nextInt(100));
+				points.add(point);
+				// check schedule
+				TimePointScheduleQuery query = this.qf.create(TemporalQueryType.TP_SCHEDULE);
+				query.setTimePoint(point);
+				solver.process(query);
+				Assert.assertTrue(point.getLowerBound() == point.getDomLb());
+				Assert.assertTrue(point.getUpperBound() == point.getDomUb());
+			}
+			
+			time = System.nanoTime() - time;
+			System.out.println("Created time points: " + size + ", propagations: " + solver.getPropagationCounter() + ", "
+					+ "throughput: " + (size * 1000000000L / Math.max(1, time)) + " time points/sec");
+			
+			// remove some time points
+			for (int i = 0; i < size / 3; i++) {
+				this.tn.removeTimePoint(points.remove(rnd.nextInt(points.size())));
+				Assert.assertTrue(solver.isValid());
+			}
+			
+			// no propagation required
+			Assert.assertTrue(solver.getPropagationCounter() == 1);
+			
+			// constrain the time points after tp4
+			TimePointDistanceConstraint[] constraints = new TimePointDistanceConstraint[points.size()];
+			for (int i = 0; i < points.size(); i++) {
+				constraints[i] = this.cf.create(TemporalConstraintType.TIME_POINT_DISTANCE);
+				constraints[i].setReference(this.tp4);
+				constraints[i].setTarget(points.get(i));
+				constraints[i].setDistanceLowerBound(rnd.nextInt(10));
+				constraints[i].setDistanceUpperBound(20 + rnd.nextInt(100));
+				constraints[i].setControllable(true);
+			}
+			
+			this.tn.addDistanceConstraint(constraints);
+			// create other time points after the propagation
+			Assert.assertTrue(solver.isValid());
+			for (int i = 0; i < 10; i++) {
+				points.add(this.tn.addTimePoint(rnd.nextInt(100), HORIZON - rnd.nextInt(100)));
+			}
+			
+			Assert.assertTrue(solver.getPropagationCounter() == 2);
+			// check consistency
+			Assert.assertTrue(solver.isValid());
+			// compare the minimal distances with a new propagation of the network
+			APSPTemporalSolver check = new APSPTemporalSolver(this.tn);
+			for (TimePoint source : this.tn.getTimePoints()) {
+				for (TimePoint target : this.tn.getTimePoints()) {
+					Assert.assertTrue(solver.getDistanceLowerBound(source, target) == check.getDistanceLowerBound(source, target));
+					Assert.assertTrue(solver.getDistanceUpperBound(source, target) == check.getDistanceUpperBound(source, target));
+				}
+			}
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
 }
@@ -0,0 +1,200 @@
+package it.cnr.istc.pst.platinum.time.reasoner.apsp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.query.TemporalQueryFactory;
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.query.TemporalQueryType;
+import it.cnr.istc.pst.platinum.ai.framework.time.lang.TemporalConstraintFactory;
+import it.cnr.istc.pst.platinum.ai.framework.time.lang.TemporalConstraintType;
+import it.cnr.istc.pst.platinum.ai.framework.time.solver.apsp.APSPTemporalSolver;
+import it.cnr.istc.pst.platinum.ai.framework.time.solver.apsp.BlockedFloydWarshall;
+import it.cnr.istc.pst.platinum.ai.framework.time.solver.apsp.IncrementalAPSPTemporalSolver;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.SimpleTemporalNetworkWithUncertainty;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePoint;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePointDistanceConstraint;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.query.TimePointDistanceQuery;
+
+/**
+ * 
+ * @author alessandro
+ *
+ */
+public class BlockedFloydWarshallTestCase
+{
+	private static final long ORIGIN = 0;
+	private static final long HORIZON = 5000;
+	private static final long INFTY = HORIZON + 1;
+	private SimpleTemporalNetworkWithUncertainty tn;
+	private TemporalQueryFactory qf;
+	private TemporalConstraintFactory cf;
+	
+	/**
+	 * 
+	 */
+	@Before
+	public void setupTest() {
+		System.out.println("**********************************************************************************");
+		System.out.println("************************ Blocked Floyd-Warshall Test Case ************************");
+		System.out.println("**********************************************************************************");
+		
+		// create temporal network
+		this.tn = new SimpleTemporalNetworkWithUncertainty(ORIGIN, HORIZON);
+		// get factories
+		this.qf = new TemporalQueryFactory();
+		this.cf = new TemporalConstraintFactory();
+	}
+	
+	/**
+	 * 
+	 * @param n
+	 * @param rnd
+	 * @return
+	 */
+	private long[] createMatrix(int n, Random rnd) {
+		// create a random matrix without negative cycles
+		long[] d = new long[n * n];
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				d[i * n + j] = i == j ? 0 : (rnd.nextInt(4) == 0 ? rnd.nextInt(100) : INFTY);
+			}
+		}
+		
+		// get matrix
+		return d;
+	}
+	
+	/**
+	 * 
+	 * @param d
+	 * @param n
+	 */
+	private void computeSequential(long[] d, int n) {
+		// compute minimum distances
+		for (int k = 0; k < n; k++) {
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < n; j++) {
+					if (d[i * n + k] < INFTY && d[k * n + j] < INFTY && d[i * n + j] > d[i * n + k] + d[k * n + j]) {
+						d[i * n + j] = d[i * n + k] + d[k * n + j];
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void compareWithSequentialFloydWarshall() {
+		System.out.println("[Test]: compareWithSequentialFloydWarshall() --------------------");
+		
+		// create pool
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			
+			// check matrices whose size is not a multiple of the tile size
+			Random rnd = new Random(23);
+			for (int n : new int[] {1, 7, 8, 50, 101}) {
+				
+				// create matrix
+				long[] d1 = this.createMatrix(n, rnd);
+				long[] d2 = d1.clone();
+				
+				// compute distances
+				this.computeSequential(d1, n);
+				new BlockedFloydWarshall(8, pool).compute(d2, n, INFTY);
+				// check distances
+				Assert.assertArrayEquals(d1, d2);
+			}
+		}
+		finally {
+			// shutdown pool
+			pool.shutdown();
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void compareWithIncrementalAPSPOnLargeNetwork() {
+		System.out.println("[Test]: compareWithIncrementalAPSPOnLargeNetwork() --------------------");
+		try {
+			
+			// create solvers on the same network
+			APSPTemporalSolver apsp = new APSPTemporalSolver(this.tn);
+			IncrementalAPSPTemporalSolver iapsp = new IncrementalAPSPTemporalSolver(this.tn);
+			
+			// create a network large enough to be propagated in parallel
+			Random rnd = new Random(31);
+			List<TimePoint> points = new ArrayList<>(this.tn.addMultipleTimePoints(300));
+			for (int i = 0; i < 600; i++) {
+				
+				// select points
+				TimePoint a = points.get(rnd.nextInt(points.size()));
+				TimePoint b = points.get(rnd.nextInt(points.size()));
+				if (a.equals(b)) {
+					continue;
+				}
+				
+				// create constraint
+				TimePointDistanceConstraint c = this.cf.create(TemporalConstraintType.TIME_POINT_DISTANCE);
+				c.setReference(a);
+				c.setTarget(b);
+				c.setDistanceLowerBound(rnd.nextInt(5));
+				c.setDistanceUpperBound(5 + rnd.nextInt(50));
+				c.setControllable(true);
+				try {
+					
+					// add constraint
+					this.tn.addDistanceConstraint(c);
+					// check consistency
+					if (!iapsp.isValid()) {
+						// remove constraint
+						this.tn.removeConstraint(c);
+					}
+				}
+				catch (Exception ex) {
+					// skip disjunctive constraints
+				}
+			}
+			
+			// measure the time of the parallel propagation
+			long time = System.currentTimeMillis();
+			Assert.assertTrue(apsp.isValid());
+			System.out.println("Blocked Floyd-Warshall propagation time= " + (System.currentTimeMillis() - time) + " msecs");
+			Assert.assertTrue(apsp.getPropagationCounter() == 1);
+			
+			// check distances
+			for (TimePoint s : points) {
+				for (TimePoint t : points) {
+					
+					// compute distance with both solvers
+					TimePointDistanceQuery q1 = this.qf.create(TemporalQueryType.TP_DISTANCE);
+					q1.setSource(s);
+					q1.setTarget(t);
+					apsp.process(q1);
+					TimePointDistanceQuery q2 = this.qf.create(TemporalQueryType.TP_DISTANCE);
+					q2.setSource(s);
+					q2.setTarget(t);
+					iapsp.process(q2);
+					
+					// check distance bounds
+					Assert.assertTrue(q1.getDistanceLowerBound() == q2.getDistanceLowerBound());
+					Assert.assertTrue(q1.getDistanceUpperBound() == q2.getDistanceUpperBound());
+				}
+			}
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+}
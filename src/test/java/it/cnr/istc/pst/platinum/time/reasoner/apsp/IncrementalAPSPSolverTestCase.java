@@ -0,0 +1,431 @@
+package it.cnr.istc.pst.platinum.time.reasoner.apsp;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.query.TemporalQueryFactory;
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.query.TemporalQueryType;
+import it.cnr.istc.pst.platinum.ai.framework.time.lang.TemporalConstraintFactory;
+import it.cnr.istc.pst.platinum.ai.framework.time.lang.TemporalConstraintType;
+import it.cnr.istc.pst.platinum.ai.framework.time.solver.apsp.APSPTemporalSolver;
+import it.cnr.istc.pst.platinum.ai.framework.time.solver.apsp.IncrementalAPSPTemporalSolver;
+import it.cnr.istc.pst.platinum.ai.framework.time.solver.apsp.JohnsonTemporalSolver;
+import it.cnr.istc.pst.platinum.ai.framework.time.solver.p3c.P3CTemporalSolver;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.SimpleTemporalNetworkWithUncertainty;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePoint;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePointDistanceConstraint;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.query.TimePointDistanceQuery;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.query.TimePointScheduleQuery;
+
+/**
+ * 
+ * @author alessandro
+ *
+ */
+public class IncrementalAPSPSolverTestCase
+{
+	private static final long ORIGIN = 0;
+	private static final long HORIZON = 500;
+	private SimpleTemporalNetworkWithUncertainty tn;
+	private TemporalQueryFactory qf;
+	private TemporalConstraintFactory cf;
+	
+	/**
+	 * 
+	 */
+	@Before
+	public void setupTest() {
+		System.out.println("**********************************************************************************");
+		System.out.println("************************ Incremental APSP Solver Test Case ***********************");
+		System.out.println("**********************************************************************************");
+		
+		// create temporal network
+		this.tn = new SimpleTemporalNetworkWithUncertainty(ORIGIN, HORIZON);
+		// get factories
+		this.qf = new TemporalQueryFactory();
+		this.cf = new TemporalConstraintFactory();
+	}
+	
+	/**
+	 * 
+	 * @param reference
+	 * @param target
+	 * @param lb
+	 * @param ub
+	 * @return
+	 */
+	private TimePointDistanceConstraint create(TimePoint reference, TimePoint target, long lb, long ub) {
+		// create constraint
+		TimePointDistanceConstraint c = this.cf.create(TemporalConstraintType.TIME_POINT_DISTANCE);
+		c.setReference(reference);
+		c.setTarget(target);
+		c.setDistanceLowerBound(lb);
+		c.setDistanceUpperBound(ub);
+		c.setControllable(true);
+		return c;
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void incrementalPropagation() {
+		System.out.println("[Test]: incrementalPropagation() --------------------");
+		try {
+			
+			// create solver
+			IncrementalAPSPTemporalSolver solver = new IncrementalAPSPTemporalSolver(this.tn);
+			Assert.assertTrue(solver.isValid());
+			
+			// create time points
+			TimePoint p1 = this.tn.addTimePoint();
+			TimePoint p2 = this.tn.addTimePoint();
+			
+			// add constraints one by one
+			TimePointDistanceConstraint first = this.create(this.tn.getOriginTimePoint(), p1, 5, 10);
+			this.tn.addDistanceConstraint(first);
+			this.tn.addDistanceConstraint(this.create(p1, p2, 20, 20));
+			Assert.assertTrue(solver.isValid());
+			
+			// check schedule
+			TimePointScheduleQuery query = this.qf.create(TemporalQueryType.TP_SCHEDULE);
+			query.setTimePoint(p2);
+			solver.process(query);
+			Assert.assertTrue(p2.getLowerBound() == 25);
+			Assert.assertTrue(p2.getUpperBound() == 30);
+			
+			// a single complete propagation should have been done
+			Assert.assertTrue(solver.getPropagationCounter() == 1);
+			Assert.assertTrue(solver.getUpdateCounter() > 0);
+			
+			// add inconsistent constraint
+			TimePointDistanceConstraint c = this.create(p2, this.tn.getOriginTimePoint(), 0, 10);
+			this.tn.addDistanceConstraint(c);
+			Assert.assertFalse(solver.isValid());
+			Assert.assertTrue(solver.getPropagationCounter() == 1);
+			
+			// remove the constraint and restore consistency from the trail
+			this.tn.removeConstraint(c);
+			Assert.assertTrue(solver.isValid());
+			Assert.assertTrue(solver.getPropagationCounter() == 1);
+			Assert.assertTrue(solver.getRestoreCounter() == 1);
+			
+			// remove a constraint not added last
+			this.tn.removeConstraint(first);
+			Assert.assertTrue(solver.isValid());
+			Assert.assertTrue(solver.getPropagationCounter() == 2);
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void restoreFromTrail() {
+		System.out.println("[Test]: restoreFromTrail() --------------------");
+		try {
+			
+			// create solvers on the same network
+			APSPTemporalSolver apsp = new APSPTemporalSolver(this.tn);
+			IncrementalAPSPTemporalSolver iapsp = new IncrementalAPSPTemporalSolver(this.tn);
+			// compute the initial distance matrix
+			Assert.assertTrue(iapsp.isValid());
+			
+			// create random time points and constraints
+			Random rnd = new Random(7);
+			List<TimePoint> points = new ArrayList<>();
+			List<Object> added = new ArrayList<>();
+			for (int i = 0; i < 60; i++) {
+				
+				// check whether to create a time point
+				if (points.size() < 2 || rnd.nextInt(3) == 0) {
+					
+					// create time point
+					TimePoint p = this.tn.addTimePoint(rnd.nextInt(100), 100 + rnd.nextInt(300));
+					points.add(p);
+					added.add(p);
+				
+				} else {
+					
+					// select points
+					TimePoint a = points.get(rnd.nextInt(points.size()));
+					TimePoint b = points.get(rnd.nextInt(points.size()));
+					// constraints between two time points are created in one direction only
+					if (a.getId() < b.getId()) {
+						
+						// create constraint
+						long lb = rnd.nextInt(20);
+						TimePointDistanceConstraint c = this.create(a, b, lb, lb + rnd.nextInt(60));
+						this.tn.addDistanceConstraint(c);
+						added.add(c);
+					}
+				}
+			}
+			
+			// check solvers
+			Assert.assertTrue(iapsp.isValid() == apsp.isValid());
+			int propagations = iapsp.getPropagationCounter();
+			
+			// remove time points and constraints in reverse order
+			while (!added.isEmpty()) {
+				
+				// get last element
+				Object element = added.remove(added.size() - 1);
+				if (element instanceof TimePoint) {
+					// remove time point
+					this.tn.removeTimePoint((TimePoint) element);
+					points.remove(element);
+				} else {
+					// remove constraint
+					this.tn.removeConstraint((TimePointDistanceConstraint) element);
+				}
+				
+				// check solvers
+				Assert.assertTrue(iapsp.isValid() == apsp.isValid());
+				if (apsp.isValid()) {
+					for (TimePoint s : points) {
+						for (TimePoint t : points) {
+							
+							// compute distance with both solvers
+							TimePointDistanceQuery q1 = this.qf.create(TemporalQueryType.TP_DISTANCE);
+							q1.setSource(s);
+							q1.setTarget(t);
+							apsp.process(q1);
+							TimePointDistanceQuery q2 = this.qf.create(TemporalQueryType.TP_DISTANCE);
+							q2.setSource(s);
+							q2.setTarget(t);
+							iapsp.process(q2);
+							
+							// check distance bounds
+							Assert.assertTrue(q1.getDistanceLowerBound() == q2.getDistanceLowerBound());
+							Assert.assertTrue(q1.getDistanceUpperBound() == q2.getDistanceUpperBound());
+						}
+					}
+				}
+			}
+			
+			// no complete propagation should have been done
+			Assert.assertTrue(iapsp.getPropagationCounter() == propagations);
+			Assert.assertTrue(iapsp.getRestoreCounter() > 0);
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void compareWithAPSP() {
+		System.out.println("[Test]: compareWithAPSP() --------------------");
+		try {
+			
+			// create solvers on the same network
+			APSPTemporalSolver apsp = new APSPTemporalSolver(this.tn);
+			IncrementalAPSPTemporalSolver iapsp = new IncrementalAPSPTemporalSolver(this.tn);
+			
+			// create random constraints
+			Random rnd = new Random(42);
+			List<TimePoint> points = new ArrayList<>(this.tn.addMultipleTimePoints(20));
+			List<TimePointDistanceConstraint> added = new ArrayList<>();
+			for (int i = 0; i < 120; i++) {
+				
+				// select points
+				TimePoint a = points.get(rnd.nextInt(points.size()));
+				TimePoint b = points.get(rnd.nextInt(points.size()));
+				// constraints between two time points are created in one direction only
+				if (a.getId() >= b.getId()) {
+					continue;
+				}
+				
+				// create constraint
+				long lb = rnd.nextInt(20);
+				TimePointDistanceConstraint c = this.create(a, b, lb, lb + rnd.nextInt(40));
+				try {
+					
+					// add constraint
+					this.tn.addDistanceConstraint(c);
+					// check consistency
+					if (!apsp.isValid()) {
+						// remove constraint
+						this.tn.removeConstraint(c);
+					}
+					else {
+						// keep constraint
+						added.add(c);
+					}
+				}
+				catch (Exception ex) {
+					// skip disjunctive constraints
+				}
+				
+				// randomly remove a constraint
+				if (!added.isEmpty() && rnd.nextInt(5) == 0) {
+					this.tn.removeConstraint(added.remove(rnd.nextInt(added.size())));
+				}
+				
+				// check solvers
+				Assert.assertTrue(apsp.isValid() == iapsp.isValid());
+				for (TimePoint s : points) {
+					for (TimePoint t : points) {
+						
+						// compute distance with both solvers
+						TimePointDistanceQuery q1 = this.qf.create(TemporalQueryType.TP_DISTANCE);
+						q1.setSource(s);
+						q1.setTarget(t);
+						apsp.process(q1);
+						TimePointDistanceQuery q2 = this.qf.create(TemporalQueryType.TP_DISTANCE);
+						q2.setSource(s);
+						q2.setTarget(t);
+						iapsp.process(q2);
+						
+						// check distance bounds
+						Assert.assertTrue(q1.getDistanceLowerBound() == q2.getDistanceLowerBound());
+						Assert.assertTrue(q1.getDistanceUpperBound() == q2.getDistanceUpperBound());
+					}
+				}
+			}
+			
+			// incremental solver should propagate less
+			System.out.println("APSP propagations= " + apsp.getPropagationCounter() + ", "
+					+ "incremental APSP propagations= " + iapsp.getPropagationCounter() + ", "
+					+ "incremental updates= " + iapsp.getUpdateCounter());
+			Assert.assertTrue(iapsp.getPropagationCounter() < apsp.getPropagationCounter());
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void trackSqueezedContingentLinks() {
+		System.out.println("[Test]: trackSqueezedContingentLinks() --------------------");
+		try {
+			
+			// create solvers on the same network
+			APSPTemporalSolver apsp = new APSPTemporalSolver(this.tn);
+			IncrementalAPSPTemporalSolver incremental = new IncrementalAPSPTemporalSolver(this.tn);
+			JohnsonTemporalSolver johnson = new JohnsonTemporalSolver(this.tn);
+			P3CTemporalSolver p3c = new P3CTemporalSolver(this.tn);
+			
+			// create a contingent link
+			TimePoint a = this.tn.addTimePoint();
+			TimePoint c = this.tn.addTimePoint();
+			TimePointDistanceConstraint link = this.create(a, c, 10, 20);
+			link.setControllable(false);
+			this.tn.addDistanceConstraint(link);
+			Assert.assertTrue(incremental.isValid());
+			Assert.assertTrue(incremental.isPseudoControllable());
+			
+			// squeeze the link
+			TimePointDistanceConstraint deadline = this.create(this.tn.getOriginTimePoint(), c, 0, 50);
+			TimePointDistanceConstraint release = this.create(this.tn.getOriginTimePoint(), a, 35, 50);
+			this.tn.addDistanceConstraint(deadline);
+			this.tn.addDistanceConstraint(release);
+			Assert.assertTrue(incremental.isValid());
+			Assert.assertFalse(incremental.isPseudoControllable());
+			Assert.assertTrue(incremental.getSqueezedContingentLinks().size() == 1);
+			Assert.assertTrue(incremental.getSqueezedContingentLinks().get(0).equals(link));
+			
+			// restore the link
+			this.tn.removeConstraint(release);
+			Assert.assertTrue(incremental.isValid());
+			Assert.assertTrue(incremental.isPseudoControllable());
+			this.tn.removeConstraint(deadline);
+			
+			// create random contingent links and constraints
+			Random rnd = new Random(7);
+			List<TimePoint> points = new ArrayList<>(this.tn.addMultipleTimePoints(10));
+			List<TimePointDistanceConstraint> added = new ArrayList<>();
+			for (int i = 0; i < 120; i++) {
+				
+				// randomly add a contingent link
+				if (rnd.nextInt(6) == 0) {
+					TimePoint reference = points.get(rnd.nextInt(points.size()));
+					TimePoint contingent = this.tn.addTimePoint();
+					long lb = 1 + rnd.nextInt(10);
+					TimePointDistanceConstraint l = this.create(reference, contingent, lb, lb + rnd.nextInt(20));
+					l.setControllable(false);
+					this.tn.addDistanceConstraint(l);
+					points.add(contingent);
+				}
+				
+				// select points (constraints from older to newer time points only)
+				TimePoint s = points.get(rnd.nextInt(points.size()));
+				TimePoint t = points.get(rnd.nextInt(points.size()));
+				if (s.getId() >= t.getId()) {
+					continue;
+				}
+				
+				try {
+					
+					// add constraint
+					long lb = rnd.nextInt(20);
+					TimePointDistanceConstraint r = this.create(s, t, lb, lb + rnd.nextInt(60));
+					this.tn.addDistanceConstraint(r);
+					if (!apsp.isValid()) {
+						// remove constraint
+						this.tn.removeConstraint(r);
+					}
+					else {
+						// keep constraint
+						added.add(r);
+					}
+				}
+				catch (Exception ex) {
+					// skip disjunctive constraints
+				}
+				
+				// randomly remove a constraint
+				if (!added.isEmpty() && rnd.nextInt(4) == 0) {
+					this.tn.removeConstraint(added.remove(rnd.nextInt(added.size())));
+				}
+				
+				// compute squeezed links through distance queries
+				Assert.assertTrue(apsp.isValid());
+				List<TimePointDistanceConstraint> expected = new ArrayList<>();
+				for (TimePointDistanceConstraint l : this.tn.getContingentConstraints()) {
+					TimePointDistanceQuery query = this.qf.create(TemporalQueryType.TP_DISTANCE);
+					query.setSource(l.getReference());
+					query.setTarget(l.getTarget());
+					apsp.process(query);
+					if (query.getDistanceLowerBound() > l.getDistanceLowerBound() || 
+							query.getDistanceUpperBound() < l.getDistanceUpperBound()) {
+						expected.add(l);
+					}
+				}
+				
+				// check tracked links
+				Assert.assertTrue(incremental.isValid() && johnson.isValid() && p3c.isValid());
+				Assert.assertTrue(new HashSet<>(apsp.getSqueezedContingentLinks()).equals(new HashSet<>(expected)));
+				Assert.assertTrue(new HashSet<>(incremental.getSqueezedContingentLinks()).equals(new HashSet<>(expected)));
+				Assert.assertTrue(new HashSet<>(johnson.getSqueezedContingentLinks()).equals(new HashSet<>(expected)));
+				Assert.assertTrue(new HashSet<>(p3c.getSqueezedContingentLinks()).equals(new HashSet<>(expected)));
+				Assert.assertTrue(incremental.isPseudoControllable() == expected.isEmpty());
+			}
+			
+			System.out.println("Contingent links= " + this.tn.getContingentConstraints().size() + ", "
+					+ "squeezed= " + incremental.getSqueezedContingentLinks().size());
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+}
@@ -0,0 +1,216 @@
+package it.cnr.istc.pst.platinum.time.reasoner.apsp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.query.TemporalQueryFactory;
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.query.TemporalQueryType;
+import it.cnr.istc.pst.platinum.ai.framework.time.lang.TemporalConstraintFactory;
+import it.cnr.istc.pst.platinum.ai.framework.time.lang.TemporalConstraintType;
+import it.cnr.istc.pst.platinum.ai.framework.time.solver.apsp.IncrementalAPSPTemporalSolver;
+import it.cnr.istc.pst.platinum.ai.framework.time.solver.apsp.JohnsonTemporalSolver;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.SimpleTemporalNetworkWithUncertainty;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePoint;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePointDistanceConstraint;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.query.TimePointDistanceQuery;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.query.TimePointScheduleQuery;
+
+/**
+ * 
+ * @author alessandro
+ *
+ */
+public class JohnsonSolverTestCase
+{
+	private static final long ORIGIN = 0;
+	private static final long HORIZON = 500;
+	private SimpleTemporalNetworkWithUncertainty tn;
+	private TemporalQueryFactory qf;
+	private TemporalConstraintFactory cf;
+	
+	/**
+	 * 
+	 */
+	@Before
+	public void setupTest() {
+		System.out.println("**********************************************************************************");
+		System.out.println("**************************** Johnson Solver Test Case ****************************");
+		System.out.println("**********************************************************************************");
+		
+		// create temporal network
+		this.tn = new SimpleTemporalNetworkWithUncertainty(ORIGIN, HORIZON);
+		// get factories
+		this.qf = new TemporalQueryFactory();
+		this.cf = new TemporalConstraintFactory();
+	}
+	
+	/**
+	 * 
+	 * @param reference
+	 * @param target
+	 * @param lb
+	 * @param ub
+	 * @return
+	 */
+	private TimePointDistanceConstraint create(TimePoint reference, TimePoint target, long lb, long ub) {
+		// create constraint
+		TimePointDistanceConstraint c = this.cf.create(TemporalConstraintType.TIME_POINT_DISTANCE);
+		c.setReference(reference);
+		c.setTarget(target);
+		c.setDistanceLowerBound(lb);
+		c.setDistanceUpperBound(ub);
+		c.setControllable(true);
+		return c;
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void lazyQueries() {
+		System.out.println("[Test]: lazyQueries() --------------------");
+		try {
+			
+			// create solver
+			JohnsonTemporalSolver solver = new JohnsonTemporalSolver(this.tn);
+			Assert.assertTrue(solver.isValid());
+			
+			// create time points
+			TimePoint p1 = this.tn.addTimePoint();
+			TimePoint p2 = this.tn.addTimePoint();
+			TimePoint p3 = this.tn.addTimePoint();
+			
+			// add constraints
+			this.tn.addDistanceConstraint(this.create(this.tn.getOriginTimePoint(), p1, 5, 10));
+			this.tn.addDistanceConstraint(this.create(p1, p2, 20, 20));
+			this.tn.addDistanceConstraint(this.create(p2, p3, 0, 15));
+			Assert.assertTrue(solver.isValid());
+			// no distance computed yet
+			Assert.assertTrue(solver.getUpdateCounter() == 0);
+			
+			// check schedules
+			TimePointScheduleQuery query = this.qf.create(TemporalQueryType.TP_SCHEDULE);
+			query.setTimePoint(p2);
+			solver.process(query);
+			Assert.assertTrue(p2.getLowerBound() == 25);
+			Assert.assertTrue(p2.getUpperBound() == 30);
+			query.setTimePoint(p3);
+			solver.process(query);
+			Assert.assertTrue(p3.getLowerBound() == 25);
+			Assert.assertTrue(p3.getUpperBound() == 45);
+			
+			// distances from the origin are computed once and cached
+			Assert.assertTrue(solver.getUpdateCounter() == 2);
+			
+			// add inconsistent constraint
+			TimePointDistanceConstraint c = this.create(p2, this.tn.getOriginTimePoint(), 0, 10);
+			this.tn.addDistanceConstraint(c);
+			Assert.assertFalse(solver.isValid());
+			Assert.assertTrue(solver.getPropagationCounter() == 1);
+			
+			// remove the constraint and restore consistency
+			this.tn.removeConstraint(c);
+			Assert.assertTrue(solver.isValid());
+			Assert.assertTrue(solver.getPropagationCounter() == 2);
+			
+			// cache has been cleared
+			query.setTimePoint(p3);
+			solver.process(query);
+			Assert.assertTrue(p3.getLowerBound() == 25);
+			Assert.assertTrue(p3.getUpperBound() == 45);
+			Assert.assertTrue(solver.getUpdateCounter() == 4);
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void compareWithIncrementalAPSP() {
+		System.out.println("[Test]: compareWithIncrementalAPSP() --------------------");
+		try {
+			
+			// create solvers on the same network
+			IncrementalAPSPTemporalSolver apsp = new IncrementalAPSPTemporalSolver(this.tn);
+			JohnsonTemporalSolver johnson = new JohnsonTemporalSolver(this.tn);
+			
+			// create random constraints
+			Random rnd = new Random(17);
+			List<TimePoint> points = new ArrayList<>(this.tn.addMultipleTimePoints(25));
+			List<TimePointDistanceConstraint> added = new ArrayList<>();
+			for (int i = 0; i < 150; i++) {
+				
+				// select points
+				TimePoint a = points.get(rnd.nextInt(points.size()));
+				TimePoint b = points.get(rnd.nextInt(points.size()));
+				if (a.equals(b)) {
+					continue;
+				}
+				
+				// create constraint
+				long lb = rnd.nextInt(20);
+				TimePointDistanceConstraint c = this.create(a, b, lb, lb + rnd.nextInt(40));
+				try {
+					
+					// add constraint
+					this.tn.addDistanceConstraint(c);
+					// check consistency
+					Assert.assertTrue(apsp.isValid() == johnson.isValid());
+					if (!apsp.isValid()) {
+						// remove constraint
+						this.tn.removeConstraint(c);
+					}
+					else {
+						// keep constraint
+						added.add(c);
+					}
+				}
+				catch (Exception ex) {
+					// skip disjunctive constraints
+				}
+				
+				// randomly remove a constraint
+				if (!added.isEmpty() && rnd.nextInt(5) == 0) {
+					this.tn.removeConstraint(added.remove(rnd.nextInt(added.size())));
+				}
+				
+				// check solvers
+				Assert.assertTrue(apsp.isValid() == johnson.isValid());
+				for (TimePoint s : points) {
+					for (TimePoint t : points) {
+						
+						// compute distance with both solvers
+						TimePointDistanceQuery q1 = this.qf.create(TemporalQueryType.TP_DISTANCE);
+						q1.setSource(s);
+						q1.setTarget(t);
+						apsp.process(q1);
+						TimePointDistanceQuery q2 = this.qf.create(TemporalQueryType.TP_DISTANCE);
+						q2.setSource(s);
+						q2.setTarget(t);
+						johnson.process(q2);
+						
+						// check distance bounds
+						Assert.assertTrue(q1.getDistanceLowerBound() == q2.getDistanceLowerBound());
+						Assert.assertTrue(q1.getDistanceUpperBound() == q2.getDistanceUpperBound());
+					}
+				}
+			}
+			
+			System.out.println("Bellman-Ford propagations= " + johnson.getPropagationCounter() + ", "
+					+ "Dijkstra computations= " + johnson.getUpdateCounter());
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+}
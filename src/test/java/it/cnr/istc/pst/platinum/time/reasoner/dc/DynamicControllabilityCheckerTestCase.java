@@ -0,0 +1,266 @@
+package it.cnr.istc.pst.platinum.time.reasoner.dc;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import it.cnr.istc.pst.platinum.ai.framework.time.lang.TemporalConstraintFactory;
+import it.cnr.istc.pst.platinum.ai.framework.time.lang.TemporalConstraintType;
+import it.cnr.istc.pst.platinum.ai.framework.time.solver.apsp.APSPTemporalSolver;
+import it.cnr.istc.pst.platinum.ai.framework.time.solver.dc.DynamicControllabilityChecker;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.SimpleTemporalNetworkWithUncertainty;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePoint;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePointDistanceConstraint;
+
+/**
+ * 
+ * @author alessandro
+ *
+ */
+public class DynamicControllabilityCheckerTestCase
+{
+	private static final long ORIGIN = 0;
+	private static final long HORIZON = 100;
+	private SimpleTemporalNetworkWithUncertainty tn;
+	private TemporalConstraintFactory cf;
+	
+	/**
+	 * 
+	 */
+	@Before
+	public void setupTest() {
+		System.out.println("**********************************************************************************");
+		System.out.println("******************** Dynamic Controllability Checker Test Case *******************");
+		System.out.println("**********************************************************************************");
+		
+		// create temporal network
+		this.tn = new SimpleTemporalNetworkWithUncertainty(ORIGIN, HORIZON);
+		// get factory
+		this.cf = new TemporalConstraintFactory();
+	}
+	
+	/**
+	 * 
+	 * @param reference
+	 * @param target
+	 * @param lb
+	 * @param ub
+	 * @param controllable
+	 * @throws Exception
+	 */
+	private void add(TimePoint reference, TimePoint target, long lb, long ub, boolean controllable)
+			throws Exception {
+		// create constraint
+		TimePointDistanceConstraint c = this.cf.create(TemporalConstraintType.TIME_POINT_DISTANCE);
+		c.setReference(reference);
+		c.setTarget(target);
+		c.setDistanceLowerBound(lb);
+		c.setDistanceUpperBound(ub);
+		c.setControllable(controllable);
+		// add constraint
+		this.tn.addDistanceConstraint(c);
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void controllableNetworks() {
+		System.out.println("[Test]: controllableNetworks() --------------------");
+		try {
+			
+			// create time points
+			TimePoint a = this.tn.addTimePoint();
+			TimePoint c = this.tn.addTimePoint();
+			TimePoint b = this.tn.addTimePoint();
+			DynamicControllabilityChecker checker = new DynamicControllabilityChecker(this.tn);
+			
+			// contingent link
+			this.add(a, c, 1, 10, false);
+			Assert.assertTrue(checker.isDynamicallyControllable());
+			
+			// the time point can wait for the contingent time point
+			this.add(c, b, 0, 5, true);
+			Assert.assertTrue(checker.isDynamicallyControllable());
+			
+			// a wait constraint on the contingent time point
+			this.add(a, b, 0, 30, true);
+			Assert.assertTrue(checker.isDynamicallyControllable());
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void consistentButNotControllableNetworks() {
+		System.out.println("[Test]: consistentButNotControllableNetworks() --------------------");
+		try {
+			
+			// create time points
+			TimePoint a = this.tn.addTimePoint();
+			TimePoint c = this.tn.addTimePoint();
+			TimePoint b = this.tn.addTimePoint();
+			APSPTemporalSolver solver = new APSPTemporalSolver(this.tn);
+			DynamicControllabilityChecker checker = new DynamicControllabilityChecker(this.tn);
+			
+			// contingent link
+			this.add(a, c, 1, 10, false);
+			// the time point must be executed exactly one unit before the contingent time point
+			this.add(b, c, 1, 1, true);
+			Assert.assertTrue(solver.isValid());
+			Assert.assertFalse(checker.isDynamicallyControllable());
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void precedenceBeforeContingentTimePoint() {
+		System.out.println("[Test]: precedenceBeforeContingentTimePoint() --------------------");
+		try {
+			
+			// create time points
+			TimePoint a = this.tn.addTimePoint();
+			TimePoint c = this.tn.addTimePoint();
+			TimePoint b = this.tn.addTimePoint();
+			DynamicControllabilityChecker checker = new DynamicControllabilityChecker(this.tn);
+			
+			// contingent link
+			this.add(a, c, 1, 10, false);
+			this.add(a, b, 0, HORIZON, true);
+			// the time point must precede the contingent time point by at least one unit
+			this.add(b, c, 1, HORIZON, true);
+			Assert.assertTrue(checker.isDynamicallyControllable());
+			
+			// at least two units cannot be guaranteed if the contingent time point occurs early
+			TimePoint d = this.tn.addTimePoint();
+			this.add(a, d, 0, HORIZON, true);
+			this.add(d, c, 2, HORIZON, true);
+			Assert.assertFalse(checker.isDynamicallyControllable());
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void chainOfContingentLinks() {
+		System.out.println("[Test]: chainOfContingentLinks() --------------------");
+		try {
+			
+			// create a chain of contingent links
+			TimePoint a = this.tn.addTimePoint();
+			TimePoint c1 = this.tn.addTimePoint();
+			TimePoint c2 = this.tn.addTimePoint();
+			this.add(a, c1, 2, 5, false);
+			this.add(c1, c2, 2, 5, false);
+			DynamicControllabilityChecker checker = new DynamicControllabilityChecker(this.tn);
+			Assert.assertTrue(checker.isDynamicallyControllable());
+			
+			// the overall duration of the chain can be longer than the deadline
+			this.add(a, c2, 0, 8, true);
+			Assert.assertFalse(checker.isDynamicallyControllable());
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void constraintBoundsOfTheSolvers() {
+		System.out.println("[Test]: constraintBoundsOfTheSolvers() --------------------");
+		try {
+			
+			// create time points
+			TimePoint a = this.tn.addTimePoint();
+			TimePoint b = this.tn.addTimePoint();
+			APSPTemporalSolver solver = new APSPTemporalSolver(this.tn);
+			DynamicControllabilityChecker checker = new DynamicControllabilityChecker(this.tn);
+			
+			// requirement constraints are intersected with [0, horizon]
+			this.add(a, b, -10, -5, true);
+			Assert.assertFalse(solver.isValid());
+			Assert.assertFalse(checker.isDynamicallyControllable());
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void contingentLinkOverridesRequirements() {
+		System.out.println("[Test]: contingentLinkOverridesRequirements() --------------------");
+		try {
+			
+			// create time points
+			TimePoint a = this.tn.addTimePoint();
+			TimePoint c = this.tn.addTimePoint();
+			DynamicControllabilityChecker checker = new DynamicControllabilityChecker(this.tn);
+			
+			// requirement constraint between the time points
+			this.add(a, c, 0, 5, true);
+			// contingent link between the same time points
+			this.add(a, c, 1, 10, false);
+			// the temporal solvers use the bounds of the contingent link
+			Assert.assertTrue(this.tn.getConstraintBounds(a, c)[0] == 1);
+			Assert.assertTrue(this.tn.getConstraintBounds(a, c)[1] == 10);
+			Assert.assertTrue(checker.isDynamicallyControllable());
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void removeContingentTimePoint() {
+		System.out.println("[Test]: removeContingentTimePoint() --------------------");
+		try {
+			
+			// create time points
+			TimePoint a = this.tn.addTimePoint();
+			TimePoint b = this.tn.addTimePoint();
+			TimePoint c = this.tn.addTimePoint();
+			DynamicControllabilityChecker checker = new DynamicControllabilityChecker(this.tn);
+			
+			// contingent link
+			this.add(a, c, 1, 10, false);
+			// the time point must be executed exactly one unit before the contingent time point
+			this.add(b, c, 1, 1, true);
+			Assert.assertFalse(checker.isDynamicallyControllable());
+			
+			// constraints concerning the removed time point are ignored
+			this.tn.removeTimePoint(c);
+			Assert.assertTrue(checker.isDynamicallyControllable());
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+}
@@ -0,0 +1,410 @@
+package it.cnr.istc.pst.platinum.time.reasoner.p3c;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.query.TemporalQueryFactory;
+import it.cnr.istc.pst.platinum.ai.framework.microkernel.query.TemporalQueryType;
+import it.cnr.istc.pst.platinum.ai.framework.time.lang.TemporalConstraintFactory;
+import it.cnr.istc.pst.platinum.ai.framework.time.lang.TemporalConstraintType;
+import it.cnr.istc.pst.platinum.ai.framework.time.solver.TemporalSolver;
+import it.cnr.istc.pst.platinum.ai.framework.time.solver.apsp.IncrementalAPSPTemporalSolver;
+import it.cnr.istc.pst.platinum.ai.framework.time.solver.apsp.JohnsonTemporalSolver;
+import it.cnr.istc.pst.platinum.ai.framework.time.solver.p3c.P3CTemporalSolver;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.SimpleTemporalNetworkWithUncertainty;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePoint;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.TimePointDistanceConstraint;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.query.TimePointDistanceQuery;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.query.TimePointQuery;
+import it.cnr.istc.pst.platinum.ai.framework.time.tn.lang.query.TimePointScheduleQuery;
+
+/**
+ * 
+ * @author alessandro
+ *
+ */
+public class P3CSolverTestCase
+{
+	private static final long ORIGIN = 0;
+	private static final long HORIZON = 500;
+	private SimpleTemporalNetworkWithUncertainty tn;
+	private TemporalQueryFactory qf;
+	private TemporalConstraintFactory cf;
+	
+	/**
+	 * 
+	 */
+	@Before
+	public void setupTest() {
+		System.out.println("**********************************************************************************");
+		System.out.println("****************************** P3C Solver Test Case ******************************");
+		System.out.println("**********************************************************************************");
+		
+		// create temporal network
+		this.tn = new SimpleTemporalNetworkWithUncertainty(ORIGIN, HORIZON);
+		// get factories
+		this.qf = new TemporalQueryFactory();
+		this.cf = new TemporalConstraintFactory();
+	}
+	
+	/**
+	 * 
+	 * @param reference
+	 * @param target
+	 * @param lb
+	 * @param ub
+	 * @return
+	 */
+	private TimePointDistanceConstraint create(TimePoint reference, TimePoint target, long lb, long ub) {
+		// create constraint
+		TimePointDistanceConstraint c = this.cf.create(TemporalConstraintType.TIME_POINT_DISTANCE);
+		c.setReference(reference);
+		c.setTarget(target);
+		c.setDistanceLowerBound(lb);
+		c.setDistanceUpperBound(ub);
+		c.setControllable(true);
+		return c;
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void sparseChordalGraph() {
+		System.out.println("[Test]: sparseChordalGraph() --------------------");
+		try {
+			
+			// create solver
+			P3CTemporalSolver solver = new P3CTemporalSolver(this.tn);
+			Assert.assertTrue(solver.isValid());
+			
+			// create a chain of time points
+			List<TimePoint> points = this.tn.addMultipleTimePoints(100);
+			this.tn.addDistanceConstraint(this.create(this.tn.getOriginTimePoint(), points.get(0), 0, 2));
+			for (int i = 1; i < points.size(); i++) {
+				this.tn.addDistanceConstraint(this.create(points.get(i - 1), points.get(i), 1, 4));
+			}
+			
+			// the chordal graph grows linearly with the number of time points
+			Assert.assertTrue(solver.isValid());
+			Assert.assertTrue(solver.getNumberOfEdges() < 4 * this.tn.size());
+			Assert.assertTrue(solver.getPropagationCounter() == 2);
+			
+			// check schedule of the last time point
+			TimePointScheduleQuery query = this.qf.create(TemporalQueryType.TP_SCHEDULE);
+			TimePoint last = points.get(points.size() - 1);
+			query.setTimePoint(last);
+			solver.process(query);
+			Assert.assertTrue(last.getLowerBound() == 99);
+			Assert.assertTrue(last.getUpperBound() == 398);
+			
+			// check distance between non adjacent time points
+			TimePointDistanceQuery distance = this.qf.create(TemporalQueryType.TP_DISTANCE);
+			distance.setSource(points.get(10));
+			distance.setTarget(points.get(20));
+			solver.process(distance);
+			Assert.assertTrue(distance.getDistanceLowerBound() == 10);
+			Assert.assertTrue(distance.getDistanceUpperBound() == 40);
+			
+			// tighten an edge of the chordal graph
+			this.tn.addDistanceConstraint(this.create(points.get(0), points.get(1), 2, 2));
+			Assert.assertTrue(solver.isValid());
+			Assert.assertTrue(solver.getPropagationCounter() == 2);
+			Assert.assertTrue(solver.getUpdateCounter() > 0);
+			distance.setSource(points.get(0));
+			distance.setTarget(points.get(20));
+			solver.process(distance);
+			Assert.assertTrue(distance.getDistanceLowerBound() == 21);
+			Assert.assertTrue(distance.getDistanceUpperBound() == 78);
+			
+			// inconsistent edge
+			TimePointDistanceConstraint c = this.create(points.get(1), points.get(0), 0, 5);
+			this.tn.addDistanceConstraint(c);
+			Assert.assertFalse(solver.isValid());
+			
+			// remove the constraint and restore consistency
+			this.tn.removeConstraint(c);
+			Assert.assertTrue(solver.isValid());
+			Assert.assertTrue(solver.getPropagationCounter() == 3);
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void compareWithIncrementalAPSP() {
+		System.out.println("[Test]: compareWithIncrementalAPSP() --------------------");
+		try {
+			
+			// create solvers on the same network
+			IncrementalAPSPTemporalSolver apsp = new IncrementalAPSPTemporalSolver(this.tn);
+			P3CTemporalSolver p3c = new P3CTemporalSolver(this.tn);
+			
+			// create random constraints
+			Random rnd = new Random(23);
+			List<TimePoint> points = new ArrayList<>(this.tn.addMultipleTimePoints(20));
+			List<TimePointDistanceConstraint> added = new ArrayList<>();
+			for (int i = 0; i < 150; i++) {
+				
+				// randomly add a time point
+				if (rnd.nextInt(10) == 0) {
+					points.add(this.tn.addTimePoint());
+				}
+				
+				// select points
+				TimePoint a = points.get(rnd.nextInt(points.size()));
+				TimePoint b = points.get(rnd.nextInt(points.size()));
+				if (a.equals(b)) {
+					continue;
+				}
+				
+				// create constraint
+				long lb = rnd.nextInt(20);
+				TimePointDistanceConstraint c = this.create(a, b, lb, lb + rnd.nextInt(40));
+				try {
+					
+					// add constraint
+					this.tn.addDistanceConstraint(c);
+					// check consistency
+					Assert.assertTrue(apsp.isValid() == p3c.isValid());
+					if (!apsp.isValid()) {
+						// remove constraint
+						this.tn.removeConstraint(c);
+					}
+					else {
+						// keep constraint
+						added.add(c);
+					}
+				}
+				catch (Exception ex) {
+					// skip disjunctive constraints
+				}
+				
+				// randomly remove a constraint
+				if (!added.isEmpty() && rnd.nextInt(5) == 0) {
+					this.tn.removeConstraint(added.remove(rnd.nextInt(added.size())));
+				}
+				
+				// check solvers
+				Assert.assertTrue(apsp.isValid() == p3c.isValid());
+				for (TimePoint s : points) {
+					for (TimePoint t : points) {
+						
+						// compute distance with both solvers
+						TimePointDistanceQuery q1 = this.qf.create(TemporalQueryType.TP_DISTANCE);
+						q1.setSource(s);
+						q1.setTarget(t);
+						apsp.process(q1);
+						TimePointDistanceQuery q2 = this.qf.create(TemporalQueryType.TP_DISTANCE);
+						q2.setSource(s);
+						q2.setTarget(t);
+						p3c.process(q2);
+						// check distance bounds
+						Assert.assertTrue(q1.getDistanceLowerBound() == q2.getDistanceLowerBound());
+						Assert.assertTrue(q1.getDistanceUpperBound() == q2.getDistanceUpperBound());
+					}
+				}
+			}
+			
+			System.out.println("P3C propagations= " + p3c.getPropagationCounter() + ", "
+					+ "incremental updates= " + p3c.getUpdateCounter() + ", "
+					+ "chordal edges= " + p3c.getNumberOfEdges());
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void detectNegativeTwoCycles() {
+		System.out.println("[Test]: detectNegativeTwoCycles() --------------------");
+		try {
+			
+			// create solvers on the same network
+			IncrementalAPSPTemporalSolver apsp = new IncrementalAPSPTemporalSolver(this.tn);
+			JohnsonTemporalSolver johnson = new JohnsonTemporalSolver(this.tn);
+			P3CTemporalSolver p3c = new P3CTemporalSolver(this.tn);
+			
+			// a -> b [10, 20] and b -> a [10, 20] cannot be both satisfied
+			TimePoint a = this.tn.addTimePoint();
+			TimePoint b = this.tn.addTimePoint();
+			this.tn.addDistanceConstraint(this.create(a, b, 10, 20));
+			Assert.assertTrue(apsp.isValid());
+			Assert.assertTrue(johnson.isValid());
+			Assert.assertTrue(p3c.isValid());
+			TimePointDistanceConstraint c = this.create(b, a, 10, 20);
+			this.tn.addDistanceConstraint(c);
+			Assert.assertFalse(apsp.isValid());
+			Assert.assertFalse(johnson.isValid());
+			Assert.assertFalse(p3c.isValid());
+			
+			// a fresh solver must detect the inconsistency through a complete computation
+			Assert.assertFalse(new P3CTemporalSolver(this.tn).isValid());
+			
+			// remove the constraint and restore consistency
+			this.tn.removeConstraint(c);
+			Assert.assertTrue(apsp.isValid());
+			Assert.assertTrue(johnson.isValid());
+			Assert.assertTrue(p3c.isValid());
+			
+			// negative cycle through a chain of time points
+			TimePoint d = this.tn.addTimePoint();
+			this.tn.addDistanceConstraint(this.create(b, d, 5, 10));
+			this.tn.addDistanceConstraint(this.create(d, a, 1, 30));
+			Assert.assertFalse(apsp.isValid());
+			Assert.assertFalse(johnson.isValid());
+			Assert.assertFalse(p3c.isValid());
+			Assert.assertFalse(new P3CTemporalSolver(this.tn).isValid());
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void removeConstrainedTimePoint() {
+		System.out.println("[Test]: removeConstrainedTimePoint() --------------------");
+		try {
+			
+			// create solvers on the same network
+			IncrementalAPSPTemporalSolver apsp = new IncrementalAPSPTemporalSolver(this.tn);
+			P3CTemporalSolver p3c = new P3CTemporalSolver(this.tn);
+			
+			// the removed time point is the target of a contingent link (not removed by the network)
+			List<TimePoint> points = new ArrayList<>(this.tn.addMultipleTimePoints(3));
+			TimePoint x = this.tn.addTimePoint();
+			TimePointDistanceConstraint link = this.create(points.get(0), x, 5, 10);
+			link.setControllable(false);
+			this.tn.addDistanceConstraint(link);
+			this.tn.addDistanceConstraint(this.create(points.get(1), x, 0, 3));
+			this.tn.addDistanceConstraint(this.create(points.get(0), points.get(2), 1, 50));
+			Assert.assertTrue(p3c.isValid());
+			
+			// remove the time point and compute the chordal graph again
+			this.tn.removeTimePoint(x);
+			Assert.assertTrue(apsp.isValid());
+			Assert.assertTrue(p3c.isValid());
+			Assert.assertTrue(new P3CTemporalSolver(this.tn).isValid());
+			this.compare(apsp, p3c, points);
+			
+			// the slot of the removed time point can be reused
+			points.add(this.tn.addTimePoint());
+			this.tn.addDistanceConstraint(this.create(points.get(2), points.get(3), 2, 4));
+			Assert.assertTrue(p3c.isValid());
+			this.compare(apsp, p3c, points);
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	@Test
+	public void compareWithAPSPOnCyclesAndRemovedTimePoints() {
+		System.out.println("[Test]: compareWithAPSPOnCyclesAndRemovedTimePoints() --------------------");
+		try {
+			
+			// create solvers on the same network
+			IncrementalAPSPTemporalSolver apsp = new IncrementalAPSPTemporalSolver(this.tn);
+			JohnsonTemporalSolver johnson = new JohnsonTemporalSolver(this.tn);
+			P3CTemporalSolver p3c = new P3CTemporalSolver(this.tn);
+			
+			// create random constraints in both directions
+			Random rnd = new Random(41);
+			List<TimePoint> points = new ArrayList<>(this.tn.addMultipleTimePoints(15));
+			for (int i = 0; i < 200; i++) {
+				
+				// randomly add or remove a time point
+				if (rnd.nextInt(8) == 0) {
+					points.add(this.tn.addTimePoint());
+				}
+				else if (points.size() > 5 && rnd.nextInt(8) == 0) {
+					// remove a time point (constraints to it may be still stored by the network)
+					this.tn.removeTimePoint(points.remove(rnd.nextInt(points.size())));
+				}
+				
+				// select points
+				TimePoint a = points.get(rnd.nextInt(points.size()));
+				TimePoint b = points.get(rnd.nextInt(points.size()));
+				if (a.equals(b)) {
+					continue;
+				}
+				
+				// create constraint
+				long lb = rnd.nextInt(30);
+				TimePointDistanceConstraint c = this.create(a, b, lb, lb + rnd.nextInt(30));
+				try {
+					
+					// add constraint
+					this.tn.addDistanceConstraint(c);
+					// check consistency
+					boolean valid = apsp.isValid();
+					Assert.assertTrue(valid == johnson.isValid());
+					Assert.assertTrue(valid == p3c.isValid());
+					if (!valid) {
+						// remove constraint
+						this.tn.removeConstraint(c);
+					}
+				}
+				catch (Exception ex) {
+					// skip disjunctive constraints
+				}
+				
+				// check solvers
+				Assert.assertTrue(apsp.isValid() == p3c.isValid());
+				this.compare(apsp, p3c, points);
+			}
+		}
+		catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			Assert.assertTrue(false);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param expected
+	 * @param solver
+	 * @param points
+	 */
+	private void compare(TemporalSolver<TimePointQuery> expected, TemporalSolver<TimePointQuery> solver, List<TimePoint> points) {
+		for (TimePoint s : points) {
+			for (TimePoint t : points) {
+				
+				// compute distance with both solvers
+				TimePointDistanceQuery q1 = this.qf.create(TemporalQueryType.TP_DISTANCE);
+				q1.setSource(s);
+				q1.setTarget(t);
+				expected.process(q1);
+				TimePointDistanceQuery q2 = this.qf.create(TemporalQueryType.TP_DISTANCE);
+				q2.setSource(s);
+				q2.setTarget(t);
+				solver.process(q2);
+				// check distance bounds
+				Assert.assertTrue(q1.getDistanceLowerBound() == q2.getDistanceLowerBound());
+				Assert.assertTrue(q1.getDistanceUpperBound() == q2.getDistanceUpperBound());
+			}
+		}
+	}
+}